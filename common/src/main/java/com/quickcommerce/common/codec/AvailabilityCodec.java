@@ -0,0 +1,233 @@
+package com.quickcommerce.common.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Compact binary encoding of the availability check between search-service and product-service, sent and
+ * answered as {@value #MEDIA_TYPE}; the JSON check on the same endpoint stays for other callers.
+ *
+ * <pre>
+ * request:  version | storeId | count | productId[0] | productId[1] - productId[0] | ...
+ * response: version | count | ceil(count / 8) bytes, bit i (byte i / 8, least significant bit first) set
+ *           when the i-th requested product is in stock
+ * </pre>
+ * All numbers are unsigned varints (7 bits per byte, high bit set while more bytes follow). Product IDs are
+ * sent ascending and distinct, so each is the delta from the previous one: dense catalog IDs take one or two
+ * bytes instead of the 6–10 a JSON number and separator take, and an answer takes one bit per product
+ * instead of a {@code "id":true} map entry. Neither side runs Jackson on it.
+ */
+public final class AvailabilityCodec {
+
+    public static final String MEDIA_TYPE = "application/x-quickcommerce-availability";
+
+    static final int VERSION = 1;
+
+    private AvailabilityCodec() {
+    }
+
+    /**
+     * Product IDs as a request expects them: ascending, distinct, nulls dropped
+     */
+    public static long[] sortedDistinct(Collection<Long> productIds) {
+        long[] ids = new long[productIds.size()];
+        int n = 0;
+        for (Long id : productIds) {
+            if (id != null) {
+                ids[n++] = id;
+            }
+        }
+        Arrays.sort(ids, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    /**
+     * @param productIds Ascending, distinct, non-negative ({@link #sortedDistinct})
+     */
+    public static byte[] encodeRequest(long storeId, long[] productIds) {
+        Writer out = new Writer(16 + 2 * productIds.length);
+        out.writeVarint(VERSION);
+        out.writeVarint(requireNonNegative(storeId, "store ID"));
+        out.writeVarint(productIds.length);
+        long previous = 0;
+        for (int i = 0; i < productIds.length; i++) {
+            long id = requireNonNegative(productIds[i], "product ID");
+            if (i > 0 && id <= previous) {
+                throw new IllegalArgumentException("Product IDs must be ascending and distinct");
+            }
+            out.writeVarint(id - previous);
+            previous = id;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param maxIds Most product IDs accepted; larger requests are rejected before anything is allocated
+     * @throws IllegalArgumentException when the body is malformed or asks for too many IDs
+     */
+    public static Request decodeRequest(byte[] body, int maxIds) {
+        Reader in = new Reader(body);
+        in.readVersion();
+        long storeId = in.readVarint();
+        int count = in.readCount(maxIds);
+        long[] productIds = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long delta = in.readVarint();
+            if (i > 0 && delta == 0) {
+                throw new IllegalArgumentException("Product IDs must be ascending and distinct");
+            }
+            if (delta > Long.MAX_VALUE - previous) {
+                throw new IllegalArgumentException("Product ID out of range");
+            }
+            previous += delta;
+            productIds[i] = previous;
+        }
+        in.requireEnd();
+        return new Request(storeId, productIds);
+    }
+
+    /**
+     * @param count   Number of requested product IDs
+     * @param inStock Bit i set when the i-th requested product is in stock
+     */
+    public static byte[] encodeResponse(int count, BitSet inStock) {
+        Writer out = new Writer(6 + (count + 7) / 8);
+        out.writeVarint(VERSION);
+        out.writeVarint(count);
+        int offset = out.skip((count + 7) / 8);
+        for (int i = inStock.nextSetBit(0); i >= 0 && i < count; i = inStock.nextSetBit(i + 1)) {
+            out.buffer[offset + (i >>> 3)] |= (byte) (1 << (i & 7));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @param expectedCount Number of product IDs the request carried
+     * @return Bit i set when the i-th requested product is in stock
+     * @throws IllegalArgumentException when the body is malformed or answers a different number of IDs
+     */
+    public static BitSet decodeResponse(byte[] body, int expectedCount) {
+        Reader in = new Reader(body);
+        in.readVersion();
+        int count = in.readCount(Integer.MAX_VALUE);
+        if (count != expectedCount) {
+            throw new IllegalArgumentException(
+                "Availability response answers " + count + " products, " + expectedCount + " were requested");
+        }
+        int length = (count + 7) / 8;
+        if (body.length - in.position != length) {
+            throw new IllegalArgumentException("Availability response bitset is truncated or oversized");
+        }
+        return BitSet.valueOf(ByteBuffer.wrap(body, in.position, length));
+    }
+
+    private static long requireNonNegative(long value, String name) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative " + name + ": " + value);
+        }
+        return value;
+    }
+
+    /**
+     * A decoded request; {@code productIds} are ascending and distinct
+     */
+    public record Request(long storeId, long[] productIds) {
+    }
+
+    private static final class Writer {
+
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Reserve {@code length} zeroed bytes; returns their offset
+         */
+        int skip(int length) {
+            ensure(length);
+            int offset = position;
+            position += length;
+            return offset;
+        }
+
+        private void ensure(int length) {
+            if (buffer.length - position < length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+
+        byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] body;
+        private int position;
+
+        Reader(byte[] body) {
+            this.body = body;
+        }
+
+        void readVersion() {
+            long version = readVarint();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported availability encoding version " + version);
+            }
+        }
+
+        int readCount(int max) {
+            long count = readVarint();
+            if (count > max) {
+                throw new IllegalArgumentException("Too many product IDs: " + count + " (max " + max + ")");
+            }
+            return (int) count;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= body.length) {
+                    throw new IllegalArgumentException("Truncated availability message");
+                }
+                byte b = body[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    if (value < 0) {
+                        throw new IllegalArgumentException("Varint out of range");
+                    }
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint longer than 10 bytes");
+        }
+
+        void requireEnd() {
+            if (position != body.length) {
+                throw new IllegalArgumentException("Trailing bytes after availability request");
+            }
+        }
+    }
+}
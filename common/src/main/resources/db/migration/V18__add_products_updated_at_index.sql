@@ -0,0 +1,20 @@
+-- Index products.updated_at for delta reads (price table refresh, incremental indexing) (idempotent)
+DROP PROCEDURE IF EXISTS add_products_updated_at_index;
+
+DELIMITER $$
+CREATE PROCEDURE add_products_updated_at_index()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE()
+          AND table_name   = 'products'
+          AND index_name   = 'idx_products_updated_at'
+    ) THEN
+        CREATE INDEX idx_products_updated_at ON products(updated_at);
+    END IF;
+END$$
+DELIMITER ;
+
+CALL add_products_updated_at_index();
+DROP PROCEDURE IF EXISTS add_products_updated_at_index;
@@ -0,0 +1,8 @@
+-- Durable cursors for search-service incremental indexing (one row per change feed)
+CREATE TABLE IF NOT EXISTS search_index_cursors (
+    cursor_name VARCHAR(50) NOT NULL,
+    last_updated_at DATETIME(6) NOT NULL,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (cursor_name)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
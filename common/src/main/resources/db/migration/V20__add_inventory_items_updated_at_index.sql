@@ -0,0 +1,20 @@
+-- Index inventory_items.updated_at for the inventory change feed (search incremental indexing) (idempotent)
+DROP PROCEDURE IF EXISTS add_inventory_items_updated_at_index;
+
+DELIMITER $$
+CREATE PROCEDURE add_inventory_items_updated_at_index()
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1
+        FROM information_schema.statistics
+        WHERE table_schema = DATABASE()
+          AND table_name   = 'inventory_items'
+          AND index_name   = 'idx_inventory_items_updated_at'
+    ) THEN
+        CREATE INDEX idx_inventory_items_updated_at ON inventory_items(updated_at);
+    END IF;
+END$$
+DELIMITER ;
+
+CALL add_inventory_items_updated_at_index();
+DROP PROCEDURE IF EXISTS add_inventory_items_updated_at_index;
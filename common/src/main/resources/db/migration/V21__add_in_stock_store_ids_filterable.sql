@@ -0,0 +1,11 @@
+-- V21: Make inStockStoreIds filterable so search filters store stock inside Meilisearch.
+--
+-- Additive (JSON_ARRAY_APPEND) so admin-customised values are kept; fresh databases are seeded by V15
+-- and picked up by the same UPDATE.
+
+UPDATE search_settings
+SET setting_value = JSON_ARRAY_APPEND(setting_value, '$', 'inStockStoreIds'),
+    version = version + 1,
+    updated_by = 'migration_v21'
+WHERE setting_key = 'filterable_attributes'
+  AND NOT JSON_CONTAINS(setting_value, '"inStockStoreIds"');
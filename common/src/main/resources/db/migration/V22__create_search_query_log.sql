@@ -0,0 +1,16 @@
+-- Search analytics: one row per search and per result click, written in batches by search-service
+CREATE TABLE IF NOT EXISTS search_query_log (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(10) NOT NULL COMMENT 'SEARCH or CLICK',
+    query VARCHAR(200) NOT NULL COMMENT 'Normalized query',
+    store_id BIGINT NULL,
+    result_count INT NULL COMMENT 'Results returned (SEARCH)',
+    latency_ms INT NULL COMMENT 'Search latency (SEARCH)',
+    zero_result BOOLEAN NOT NULL DEFAULT FALSE COMMENT 'Query matched nothing (fallback or empty page)',
+    product_id BIGINT NULL COMMENT 'Clicked product (CLICK)',
+    result_position INT NULL COMMENT '1-based position of the clicked result (CLICK)',
+    created_at DATETIME(3) NOT NULL,
+
+    INDEX idx_search_query_log_created (created_at),
+    INDEX idx_search_query_log_query (query, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,109 @@
+package com.quickcommerce.common.codec;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for AvailabilityCodec: request and response round trips, delta/varint sizes and rejection of
+ * malformed or oversized messages.
+ * No Docker / MySQL required.
+ */
+class AvailabilityCodecTest {
+
+    @Test
+    @DisplayName("product IDs survive the delta/varint round trip in ascending order")
+    void requestRoundTrip() {
+        Random random = new Random(7);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(1 + (long) random.nextInt(200_000));
+        }
+        ids.add(Long.MAX_VALUE);
+        ids.add(null);
+        long[] sorted = AvailabilityCodec.sortedDistinct(ids);
+
+        AvailabilityCodec.Request request =
+                AvailabilityCodec.decodeRequest(AvailabilityCodec.encodeRequest(42L, sorted), 10_000);
+
+        assertThat(request.storeId()).isEqualTo(42L);
+        assertThat(request.productIds()).containsExactly(sorted);
+        assertThat(sorted).isSorted().doesNotHaveDuplicates().contains(Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("dense IDs cost about one byte each on the wire")
+    void denseIdsAreSmall() {
+        long[] ids = new long[500];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = 100_000 + 3L * i;
+        }
+
+        byte[] body = AvailabilityCodec.encodeRequest(1L, ids);
+
+        // version + store + count (2 bytes) + first ID (3 bytes) + 499 one-byte deltas
+        assertThat(body).hasSize(1 + 1 + 2 + 3 + 499);
+        assertThat(AvailabilityCodec.encodeRequest(1L, new long[0])).containsExactly(1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("the response carries one in-stock bit per requested product")
+    void responseRoundTrip() {
+        BitSet inStock = new BitSet();
+        inStock.set(0);
+        inStock.set(7);
+        inStock.set(8);
+        inStock.set(12);
+
+        byte[] body = AvailabilityCodec.encodeResponse(13, inStock);
+
+        assertThat(body).containsExactly(1, 13, 0b1000_0001, 0b0001_0001);
+        assertThat(AvailabilityCodec.decodeResponse(body, 13)).isEqualTo(inStock);
+        assertThat(AvailabilityCodec.decodeResponse(AvailabilityCodec.encodeResponse(0, new BitSet()), 0))
+                .isEqualTo(new BitSet());
+    }
+
+    @Test
+    @DisplayName("unsorted, duplicate or negative IDs are refused by the encoder")
+    void encoderRejectsUnsortedIds() {
+        assertThatThrownBy(() -> AvailabilityCodec.encodeRequest(1L, new long[]{5, 3}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.encodeRequest(1L, new long[]{5, 5}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.encodeRequest(1L, new long[]{-1}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("truncated, oversized, duplicate or foreign messages are rejected")
+    void decoderRejectsMalformedMessages() {
+        byte[] request = AvailabilityCodec.encodeRequest(1L, new long[]{10, 20, 300});
+
+        assertThatThrownBy(() -> AvailabilityCodec.decodeRequest(Arrays.copyOf(request, request.length - 1), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.decodeRequest(Arrays.copyOf(request, request.length + 1), 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.decodeRequest(request, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Too many");
+        assertThatThrownBy(() -> AvailabilityCodec.decodeRequest(new byte[]{1, 1, 2, 10, 0}, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.decodeRequest(new byte[]{2, 1, 0}, 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("version");
+
+        byte[] response = AvailabilityCodec.encodeResponse(9, new BitSet());
+        assertThatThrownBy(() -> AvailabilityCodec.decodeResponse(response, 8))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AvailabilityCodec.decodeResponse(Arrays.copyOf(response, 3), 9))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
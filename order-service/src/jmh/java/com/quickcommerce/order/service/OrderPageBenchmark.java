@@ -0,0 +1,191 @@
+package com.quickcommerce.order.service;
+
+import com.quickcommerce.order.client.CatalogClient;
+import com.quickcommerce.order.client.InventoryClient;
+import com.quickcommerce.order.client.NotificationClient;
+import com.quickcommerce.order.domain.Order;
+import com.quickcommerce.order.domain.OrderItem;
+import com.quickcommerce.order.domain.OrderStatus;
+import com.quickcommerce.order.domain.PaymentStatus;
+import com.quickcommerce.order.dto.PagedOrderResponse;
+import com.quickcommerce.order.repository.OrderEventRepository;
+import com.quickcommerce.order.repository.OrderItemRepository;
+import com.quickcommerce.order.repository.OrderRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Store order listing at page sizes 10, 50 and 100 against a simulated database: every query holds one of
+ * {@value #POOL_SIZE} connections (the R2DBC pool's max-size) for {@value #QUERY_MICROS}µs.
+ *
+ * <ul>
+ *   <li>{@code perOrderItems}: previous assembly, one items query per order plus the page and count queries
+ *       (page size + 2 queries)</li>
+ *   <li>{@code batchedItems}: one {@code order_id IN (...)} items query (3 queries)</li>
+ *   <li>{@code batchedItemsCachedCount}: as polled by store dashboards, count served from the cache
+ *       (2 queries)</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -pl order-service -am -Pbenchmarks test-compile exec:exec -Djmh.args="OrderPageBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPageBenchmark {
+
+    private static final long STORE_ID = 1L;
+    private static final int POOL_SIZE = 20;
+    private static final long QUERY_MICROS = 300;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"10", "50", "100"})
+    public int pageSize;
+
+    private Scheduler database;
+    private OrderRepository orderRepo;
+    private OrderItemRepository orderItemRepo;
+    private OrderService orderService;
+    private OrderService orderServiceCachedCount;
+
+    @Setup
+    public void setUp() {
+        database = Schedulers.newBoundedElastic(POOL_SIZE, Integer.MAX_VALUE, "database");
+
+        List<Order> orders = new ArrayList<>(pageSize);
+        Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+        for (long id = 1; id <= pageSize; id++) {
+            orders.add(order(id));
+            List<OrderItem> items = new ArrayList<>(ITEMS_PER_ORDER);
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                items.add(OrderItem.builder()
+                        .id(id * ITEMS_PER_ORDER + i)
+                        .orderId(id)
+                        .sku("SKU-" + i)
+                        .qty(1 + i)
+                        .unitPrice(new BigDecimal("25.00"))
+                        .subTotal(new BigDecimal("25.00").multiply(BigDecimal.valueOf(1 + i)))
+                        .build());
+            }
+            itemsByOrder.put(id, items);
+        }
+
+        orderRepo = mock(OrderRepository.class);
+        orderItemRepo = mock(OrderItemRepository.class);
+        when(orderRepo.findByStoreIdOrderByCreatedAtDesc(eq(STORE_ID), any()))
+                .thenAnswer(invocation -> query(orders));
+        when(orderRepo.countByStoreId(STORE_ID))
+                .thenAnswer(invocation -> query(List.of(10_000L)).next());
+        when(orderItemRepo.findByOrderId(anyLong()))
+                .thenAnswer(invocation -> query(itemsByOrder.get(invocation.<Long>getArgument(0))));
+        when(orderItemRepo.findByOrderIdIn(anyList()))
+                .thenAnswer(invocation -> query(invocation.<List<Long>>getArgument(0).stream()
+                        .flatMap(id -> itemsByOrder.get(id).stream())
+                        .toList()));
+
+        orderService = service(0);
+        orderServiceCachedCount = service(60_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.dispose();
+    }
+
+    /**
+     * Previous assembly: the page, then one items query per order, next to the count
+     */
+    @Benchmark
+    public List<List<OrderItem>> perOrderItems() {
+        return Mono.zip(
+                orderRepo.findByStoreIdOrderByCreatedAtDesc(STORE_ID, null)
+                        .flatMap(order -> orderItemRepo.findByOrderId(order.getId()).collectList())
+                        .collectList(),
+                orderRepo.countByStoreId(STORE_ID)
+        ).map(tuple -> tuple.getT1()).block();
+    }
+
+    @Benchmark
+    public PagedOrderResponse batchedItems() {
+        return orderService.getStoreOrders(STORE_ID, null, 0, pageSize).block();
+    }
+
+    @Benchmark
+    public PagedOrderResponse batchedItemsCachedCount() {
+        return orderServiceCachedCount.getStoreOrders(STORE_ID, null, 0, pageSize).block();
+    }
+
+    private OrderService service(long countCacheTtlMs) {
+        OrderService service = new OrderService(orderRepo, orderItemRepo, mock(OrderEventRepository.class),
+                mock(CatalogClient.class), mock(InventoryClient.class), mock(NotificationClient.class),
+                mock(TransactionalOperator.class));
+        ReflectionTestUtils.setField(service, "countCacheTtlMs", countCacheTtlMs);
+        return service;
+    }
+
+    /**
+     * One round trip: holds a pooled connection for {@value #QUERY_MICROS}µs, then streams the rows
+     */
+    private <T> Flux<T> query(List<T> rows) {
+        return Mono.fromCallable(() -> {
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(QUERY_MICROS));
+                    return rows;
+                })
+                .subscribeOn(database)
+                .flatMapIterable(result -> result);
+    }
+
+    private static Order order(long id) {
+        return Order.builder()
+                .id(id)
+                .orderUuid("UUID-" + id)
+                .customerId("CUST_" + id)
+                .storeId(STORE_ID)
+                .status(OrderStatus.PACKING.name())
+                .paymentMethod("COD")
+                .paymentStatus(PaymentStatus.COD_PENDING.name())
+                .totalAmount(new BigDecimal("150.00"))
+                .deliveryFee(new BigDecimal("15.00"))
+                .currency("ZMW")
+                .deliveryAddress("Plot 12, Cairo Road")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
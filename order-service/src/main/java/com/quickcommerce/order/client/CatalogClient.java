@@ -33,9 +33,12 @@ public class CatalogClient {
         this.retry = retry;
     }
 
+    /**
+     * Fetches prices from the catalog's lean price endpoint (sku, basePrice, isActive, isAvailable, updatedAt).
+     */
     public Flux<ProductPriceResponse> getPrices(List<String> skus) {
         return webClient.post()
-                .uri(productServiceUrl + "/api/v1/catalog/products/skus")
+                .uri(productServiceUrl + "/api/v1/catalog/products/prices")
                 .bodyValue(new ProductListRequest(skus))
                 .retrieve()
                 .bodyToFlux(ProductPriceResponse.class)
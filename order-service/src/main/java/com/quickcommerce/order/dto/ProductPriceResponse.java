@@ -25,6 +25,7 @@ public class ProductPriceResponse {
     private List<String> images;
     private String tags;
     private Boolean isActive;
+    private Boolean isAvailable;
     private String createdBy;
     private String updatedBy;
     private String createdAt;
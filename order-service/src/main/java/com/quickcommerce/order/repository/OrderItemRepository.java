@@ -1,12 +1,21 @@
 package com.quickcommerce.order.repository;
 
 import com.quickcommerce.order.domain.OrderItem;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
+import java.util.List;
+
 @Repository
 public interface OrderItemRepository extends R2dbcRepository<OrderItem, Long> {
     
     Flux<OrderItem> findByOrderId(Long orderId);
+
+    /**
+     * Items of several orders in one query (order listing pages)
+     */
+    @Query("SELECT * FROM order_items WHERE order_id IN (:orderIds) ORDER BY id")
+    Flux<OrderItem> findByOrderIdIn(List<Long> orderIds);
 }
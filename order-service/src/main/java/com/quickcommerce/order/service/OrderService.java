@@ -21,12 +21,16 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,6 +38,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderService {
 
+    /**
+     * Bound on cached store listing totals (store × status); the map is cleared when reached
+     */
+    private static final int MAX_CACHED_COUNTS = 10_000;
+
     private final OrderRepository orderRepo;
     private final OrderItemRepository orderItemRepo;
     private final OrderEventRepository orderEventRepo;
@@ -45,6 +54,11 @@ public class OrderService {
     @Value("${order.delivery-fee-zmw:15.00}")
     private BigDecimal deliveryFee;
 
+    @Value("${order.listing.count-cache-ttl-ms:5000}")
+    private long countCacheTtlMs;
+
+    private final Map<StoreCountKey, Mono<Long>> storeOrderCounts = new ConcurrentHashMap<>();
+
     // ─── Create Order ─────────────────────────────────────────────────────────
 
     public Mono<OrderResponse> createOrder(CreateOrderRequest req, String idempotencyKey) {
@@ -315,9 +329,8 @@ public class OrderService {
 
     public Mono<PagedOrderResponse> getCustomerOrders(String customerId, int pageNum, int pageSize) {
         return Mono.zip(
-                orderRepo.findByCustomerIdOrderByCreatedAtDesc(customerId, PageRequest.of(pageNum, pageSize))
-                        .flatMap(this::buildFullResponse)
-                        .collectList(),
+                buildPageResponses(orderRepo.findByCustomerIdOrderByCreatedAtDesc(
+                        customerId, PageRequest.of(pageNum, pageSize))),
                 orderRepo.countByCustomerId(customerId)
         ).map(tuple -> buildPagedResponse(tuple.getT1(), tuple.getT2(), pageNum, pageSize));
     }
@@ -326,17 +339,15 @@ public class OrderService {
         if (status != null && !status.isBlank()) {
             String upperStatus = status.toUpperCase();
             return Mono.zip(
-                    orderRepo.findByStoreIdAndStatusOrderByCreatedAtDesc(storeId, upperStatus, PageRequest.of(pageNum, pageSize))
-                            .flatMap(this::buildFullResponse)
-                            .collectList(),
-                    orderRepo.countByStoreIdAndStatus(storeId, upperStatus)
+                    buildPageResponses(orderRepo.findByStoreIdAndStatusOrderByCreatedAtDesc(
+                            storeId, upperStatus, PageRequest.of(pageNum, pageSize))),
+                    storeOrderCount(storeId, upperStatus, () -> orderRepo.countByStoreIdAndStatus(storeId, upperStatus))
             ).map(tuple -> buildPagedResponse(tuple.getT1(), tuple.getT2(), pageNum, pageSize));
         }
         return Mono.zip(
-                orderRepo.findByStoreIdOrderByCreatedAtDesc(storeId, PageRequest.of(pageNum, pageSize))
-                        .flatMap(this::buildFullResponse)
-                        .collectList(),
-                orderRepo.countByStoreId(storeId)
+                buildPageResponses(orderRepo.findByStoreIdOrderByCreatedAtDesc(
+                        storeId, PageRequest.of(pageNum, pageSize))),
+                storeOrderCount(storeId, null, () -> orderRepo.countByStoreId(storeId))
         ).map(tuple -> buildPagedResponse(tuple.getT1(), tuple.getT2(), pageNum, pageSize));
     }
 
@@ -357,6 +368,45 @@ public class OrderService {
                 .build();
     }
 
+    /**
+     * Responses for one listing page, in page order. Items of the whole page come from a single
+     * {@code order_id IN (...)} query and are grouped by order as they stream in, instead of one query per order.
+     */
+    private Mono<List<OrderResponse>> buildPageResponses(Flux<Order> page) {
+        return page.collectList()
+                .flatMap(orders -> {
+                    if (orders.isEmpty()) {
+                        return Mono.just(List.<OrderResponse>of());
+                    }
+                    List<Long> orderIds = orders.stream().map(Order::getId).toList();
+                    return orderItemRepo.findByOrderIdIn(orderIds)
+                            .collect(Collectors.groupingBy(OrderItem::getOrderId))
+                            .map(itemsByOrder -> orders.stream()
+                                    .map(order -> mapToResponse(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
+                                    .toList());
+                });
+    }
+
+    /**
+     * Store listing total, cached for {@code order.listing.count-cache-ttl-ms}: store dashboards poll the same
+     * (store, status) listing constantly, so the count query runs at most once per TTL and concurrent misses
+     * share it. Totals may lag new orders by up to the TTL; 0 disables the cache.
+     */
+    private Mono<Long> storeOrderCount(Long storeId, String status, Supplier<Mono<Long>> count) {
+        if (countCacheTtlMs <= 0) {
+            return count.get();
+        }
+        if (storeOrderCounts.size() >= MAX_CACHED_COUNTS) {
+            storeOrderCounts.clear();
+        }
+        Duration ttl = Duration.ofMillis(countCacheTtlMs);
+        return storeOrderCounts.computeIfAbsent(new StoreCountKey(storeId, status),
+                key -> Mono.defer(count).cache(total -> ttl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    private record StoreCountKey(Long storeId, String status) {
+    }
+
     private Mono<OrderResponse> buildFullResponse(Order order) {
         return orderItemRepo.findByOrderId(order.getId())
                 .collectList()
@@ -71,6 +71,9 @@ public abstract class BaseIntegrationTest {
         
         // Disable scheduling in tests
         registry.add("spring.task.scheduling.enabled", () -> "false");
+
+        // Exact store listing totals between tests
+        registry.add("order.listing.count-cache-ttl-ms", () -> "0");
     }
 
     protected static void startMockServers() throws IOException {
@@ -4,8 +4,10 @@ import com.quickcommerce.order.client.CatalogClient;
 import com.quickcommerce.order.client.InventoryClient;
 import com.quickcommerce.order.client.NotificationClient;
 import com.quickcommerce.order.domain.Order;
+import com.quickcommerce.order.domain.OrderItem;
 import com.quickcommerce.order.domain.OrderStatus;
 import com.quickcommerce.order.domain.PaymentStatus;
+import com.quickcommerce.order.dto.OrderResponse;
 import com.quickcommerce.order.dto.PagedOrderResponse;
 import com.quickcommerce.order.repository.OrderEventRepository;
 import com.quickcommerce.order.repository.OrderItemRepository;
@@ -30,7 +32,11 @@ import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -96,7 +102,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByCustomerIdOrderByCreatedAtDesc(eq(customerId), eq(PageRequest.of(0, 5))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByCustomerId(customerId)).thenReturn(Mono.just(12L));
 
         StepVerifier.create(orderService.getCustomerOrders(customerId, 0, 5))
@@ -121,7 +127,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByCustomerIdOrderByCreatedAtDesc(eq(customerId), eq(PageRequest.of(1, 5))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByCustomerId(customerId)).thenReturn(Mono.just(12L));
 
         StepVerifier.create(orderService.getCustomerOrders(customerId, 1, 5))
@@ -142,7 +148,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByCustomerIdOrderByCreatedAtDesc(eq(customerId), eq(PageRequest.of(2, 5))))
                 .thenReturn(Flux.fromIterable(partial));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByCustomerId(customerId)).thenReturn(Mono.just(12L));
 
         StepVerifier.create(orderService.getCustomerOrders(customerId, 2, 5))
@@ -203,7 +209,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByCustomerIdOrderByCreatedAtDesc(eq(customerId), eq(PageRequest.of(0, 5))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByCustomerId(customerId)).thenReturn(Mono.just(5L));
 
         StepVerifier.create(orderService.getCustomerOrders(customerId, 0, 5))
@@ -227,7 +233,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByStoreIdOrderByCreatedAtDesc(eq(storeId), eq(PageRequest.of(0, 5))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByStoreId(storeId)).thenReturn(Mono.just(8L));
 
         StepVerifier.create(orderService.getStoreOrders(storeId, null, 0, 5))
@@ -250,7 +256,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByStoreIdAndStatusOrderByCreatedAtDesc(eq(storeId), eq("CONFIRMED"), eq(PageRequest.of(0, 20))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByStoreIdAndStatus(storeId, "CONFIRMED")).thenReturn(Mono.just(3L));
 
         StepVerifier.create(orderService.getStoreOrders(storeId, "confirmed", 0, 20))
@@ -273,7 +279,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByStoreIdOrderByCreatedAtDesc(eq(storeId), eq(PageRequest.of(0, 10))))
                 .thenReturn(Flux.fromIterable(page));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByStoreId(storeId)).thenReturn(Mono.just(2L));
 
         StepVerifier.create(orderService.getStoreOrders(storeId, "   ", 0, 10))
@@ -289,7 +295,7 @@ class OrderServicePaginationTest {
 
         when(orderRepo.findByCustomerIdOrderByCreatedAtDesc(eq(customerId), eq(PageRequest.of(1, 10))))
                 .thenReturn(Flux.fromIterable(partial));
-        when(orderItemRepo.findByOrderId(any())).thenReturn(Flux.empty());
+        when(orderItemRepo.findByOrderIdIn(anyList())).thenReturn(Flux.empty());
         when(orderRepo.countByCustomerId(customerId)).thenReturn(Mono.just(13L));
 
         StepVerifier.create(orderService.getCustomerOrders(customerId, 1, 10))
@@ -299,4 +305,70 @@ class OrderServicePaginationTest {
                 })
                 .verifyComplete();
     }
+
+    // ─── batched loading ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Page items are loaded with one query and assigned to their orders in page order")
+    void pageItems_loadedInOneQuery() {
+        Long storeId = 1L;
+        List<Order> page = List.of(
+                order(3L, "CUST_X", storeId), order(1L, "CUST_Y", storeId), order(2L, "CUST_Z", storeId));
+
+        when(orderRepo.findByStoreIdOrderByCreatedAtDesc(eq(storeId), eq(PageRequest.of(0, 20))))
+                .thenReturn(Flux.fromIterable(page));
+        when(orderItemRepo.findByOrderIdIn(List.of(3L, 1L, 2L))).thenReturn(Flux.just(
+                item(1L, "SKU-A"), item(3L, "SKU-B"), item(1L, "SKU-C")));
+        when(orderRepo.countByStoreId(storeId)).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(orderService.getStoreOrders(storeId, null, 0, 20))
+                .assertNext(r -> {
+                    assertThat(r.getContent()).extracting(OrderResponse::getOrderId)
+                            .containsExactly("UUID-3", "UUID-1", "UUID-2");
+                    assertThat(r.getContent().get(0).getItems()).extracting(OrderResponse.OrderItemResponse::getSku)
+                            .containsExactly("SKU-B");
+                    assertThat(r.getContent().get(1).getItems()).extracting(OrderResponse.OrderItemResponse::getSku)
+                            .containsExactly("SKU-A", "SKU-C");
+                    assertThat(r.getContent().get(2).getItems()).isEmpty();
+                })
+                .verifyComplete();
+
+        verify(orderItemRepo, never()).findByOrderId(any());
+    }
+
+    @Test
+    @DisplayName("Store listing totals are cached for the configured TTL per store and status")
+    void storeOrderCount_cached() {
+        ReflectionTestUtils.setField(orderService, "countCacheTtlMs", 60_000L);
+        Long storeId = 1L;
+
+        when(orderRepo.findByStoreIdOrderByCreatedAtDesc(eq(storeId), any()))
+                .thenReturn(Flux.empty());
+        when(orderRepo.findByStoreIdAndStatusOrderByCreatedAtDesc(eq(storeId), eq("PACKING"), any()))
+                .thenReturn(Flux.empty());
+        when(orderRepo.countByStoreId(storeId)).thenReturn(Mono.just(42L));
+        when(orderRepo.countByStoreIdAndStatus(storeId, "PACKING")).thenReturn(Mono.just(7L));
+
+        for (int poll = 0; poll < 3; poll++) {
+            StepVerifier.create(orderService.getStoreOrders(storeId, null, poll, 10))
+                    .assertNext(r -> assertThat(r.getMeta().getTotalElements()).isEqualTo(42))
+                    .verifyComplete();
+            StepVerifier.create(orderService.getStoreOrders(storeId, "packing", 0, 10))
+                    .assertNext(r -> assertThat(r.getMeta().getTotalElements()).isEqualTo(7))
+                    .verifyComplete();
+        }
+
+        verify(orderRepo, times(1)).countByStoreId(storeId);
+        verify(orderRepo, times(1)).countByStoreIdAndStatus(storeId, "PACKING");
+    }
+
+    private OrderItem item(Long orderId, String sku) {
+        return OrderItem.builder()
+                .orderId(orderId)
+                .sku(sku)
+                .qty(1)
+                .unitPrice(new BigDecimal("10.00"))
+                .subTotal(new BigDecimal("10.00"))
+                .build();
+    }
 }
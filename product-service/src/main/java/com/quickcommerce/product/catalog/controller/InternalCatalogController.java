@@ -1,7 +1,7 @@
 package com.quickcommerce.product.catalog.controller;
 
 import com.quickcommerce.product.catalog.dto.DeliveredOrderSkusRequest;
-import com.quickcommerce.product.catalog.service.CatalogService;
+import com.quickcommerce.product.catalog.service.OrderCountAggregator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,14 +23,15 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class InternalCatalogController {
 
-    private final CatalogService catalogService;
+    private final OrderCountAggregator orderCountAggregator;
 
     /**
      * Record that a delivered order contained these SKUs (distinct); increments {@code order_count} per SKU.
+     * Increments are journaled and coalesced, then written in batches by {@link OrderCountAggregator}.
      */
     @PostMapping("/order-delivered")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> orderDelivered(@Valid @RequestBody DeliveredOrderSkusRequest request) {
-        return catalogService.incrementOrderCountsForDeliveredOrder(request.getSkus());
+        return orderCountAggregator.record(request.getSkus());
     }
 }
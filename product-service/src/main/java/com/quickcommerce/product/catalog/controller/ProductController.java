@@ -3,22 +3,30 @@ package com.quickcommerce.product.catalog.controller;
 import com.quickcommerce.common.dto.VariantDto;
 import com.quickcommerce.product.catalog.dto.CreateProductRequest;
 import com.quickcommerce.product.catalog.dto.GroupSummary;
-import com.quickcommerce.product.catalog.dto.PagedProductResponse;
+import com.quickcommerce.product.catalog.dto.JsonProjection;
+import com.quickcommerce.product.catalog.dto.ProductPrice;
 import com.quickcommerce.product.catalog.dto.ProductResponse;
 import com.quickcommerce.product.catalog.dto.ProductSortOption;
 import com.quickcommerce.product.catalog.dto.VariantGroupBatchRequest;
 import com.quickcommerce.product.catalog.service.CatalogService;
+import com.quickcommerce.product.catalog.service.PriceTableService;
+import com.quickcommerce.product.catalog.service.ProductProjectionService;
+import com.quickcommerce.product.catalog.service.VariantGroupIndex;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +41,9 @@ import java.util.Map;
 public class ProductController {
 
     private final CatalogService catalogService;
+    private final ProductProjectionService projectionService;
+    private final PriceTableService priceTableService;
+    private final VariantGroupIndex variantGroupIndex;
 
     /**
      * Create a new product
@@ -44,33 +55,42 @@ public class ProductController {
     }
 
     /**
-     * Get product by ID
+     * Get product by ID.
+     * Served from the pre-serialized projection; the ETag lets clients revalidate with If-None-Match.
      */
     @GetMapping("/{id}")
-    public Mono<ProductResponse> getProductById(@PathVariable Long id) {
-        return catalogService.getProductById(id);
+    public Mono<ResponseEntity<byte[]>> getProductById(@PathVariable Long id) {
+        return projectionService.getProductById(id).map(ProductController::toJsonResponse);
     }
 
     /**
      * Get products by SKU list (Bulk)
      * POST /api/v1/catalog/products/skus
      */
+    @PostMapping("/skus")
+    public Mono<ResponseEntity<byte[]>> getProductsBySkuList(
+            @Valid @RequestBody com.quickcommerce.product.catalog.dto.ProductListRequest request) {
+        return projectionService.getProductsBySkuList(request.getSkus()).map(ProductController::toJsonResponse);
+    }
+
     /**
-     * Get products by SKU list (Bulk)
-     * POST /api/v1/catalog/products/skus
+     * Lean bulk price lookup for checkout and cart preview, answered from the in-memory price table.
+     * POST /api/v1/catalog/products/prices
+     * Body: { "skus": ["SKU1", "SKU2"] }
+     * → [ { "sku", "basePrice", "isActive", "isAvailable", "updatedAt" }, ... ]
      */
-    @PostMapping("/skus")
-    public Flux<ProductResponse> getProductsBySkuList(
+    @PostMapping("/prices")
+    public Flux<ProductPrice> getPrices(
             @Valid @RequestBody com.quickcommerce.product.catalog.dto.ProductListRequest request) {
-        return catalogService.getProductsBySkuList(request.getSkus());
+        return priceTableService.getPrices(request.getSkus());
     }
 
     /**
      * Get product by slug
      */
     @GetMapping("/slug/{slug}")
-    public Mono<ProductResponse> getProductBySlug(@PathVariable String slug) {
-        return catalogService.getProductBySlug(slug);
+    public Mono<ResponseEntity<byte[]>> getProductBySlug(@PathVariable String slug) {
+        return projectionService.getProductBySlug(slug).map(ProductController::toJsonResponse);
     }
 
     /**
@@ -79,13 +99,14 @@ public class ProductController {
      * brand: exact brand name filter (optional)
      */
     @GetMapping("/category/{categoryId}")
-    public Mono<PagedProductResponse> getProductsByCategory(
+    public Mono<ResponseEntity<byte[]>> getProductsByCategory(
             @PathVariable Long categoryId,
             @RequestParam(defaultValue = "0") @Min(0) int pageNum,
             @RequestParam(defaultValue = "20") @Min(1) @Max(50) int pageSize,
             @RequestParam(required = false) ProductSortOption sortBy,
             @RequestParam(required = false) String brand) {
-        return catalogService.getProductsByCategory(categoryId, pageNum, pageSize, sortBy, brand);
+        return projectionService.getProductsByCategory(categoryId, pageNum, pageSize, sortBy, brand)
+                .map(ProductController::toJsonResponse);
     }
 
     /**
@@ -124,11 +145,29 @@ public class ProductController {
     }
 
     /**
-     * Get all products (including inactive)
+     * Get all products (including inactive).
+     * With {@code limit}, returns one keyset page ordered by id starting after {@code afterId}.
      */
     @GetMapping("/all")
-    public Flux<ProductResponse> getAllProducts() {
-        return catalogService.getAllProducts();
+    public Flux<ProductResponse> getAllProducts(
+            @RequestParam(required = false) @Min(0) Long afterId,
+            @RequestParam(required = false) @Min(1) @Max(1000) Integer limit) {
+        if (limit == null) {
+            return catalogService.getAllProducts();
+        }
+        return catalogService.getAllProducts(afterId != null ? afterId : 0L, limit);
+    }
+
+    /**
+     * Change feed for search-service incremental indexing: products updated strictly after the
+     * ({@code since}, {@code afterId}) cursor, ordered by updated_at then id.
+     */
+    @GetMapping("/changes")
+    public Flux<ProductResponse> getProductChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") @Min(0) long afterId,
+            @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+        return catalogService.getProductChanges(since, afterId, limit);
     }
 
     /**
@@ -153,11 +192,13 @@ public class ProductController {
      * → { "amul-taaza-milk": [ { productId, sku, size, price, inStock }, ... ], ... }
      *
      * Max 50 group IDs per request (one listing page worth).
+     * Optional "storeId" in the body makes inStock reflect that store's stock.
+     * Answered from the in-memory variant group index.
      */
     @PostMapping("/groups/batch")
     public Mono<Map<String, List<VariantDto>>> getVariantGroups(
             @Valid @RequestBody VariantGroupBatchRequest request) {
-        return catalogService.getVariantGroups(request.getGroupIds());
+        return variantGroupIndex.getVariantGroups(request.getGroupIds(), request.getStoreId());
     }
 
     /**
@@ -169,6 +210,17 @@ public class ProductController {
      */
     @GetMapping("/groups")
     public Flux<GroupSummary> getAllGroups() {
-        return catalogService.getAllGroupSummaries();
+        return variantGroupIndex.getAllGroupSummaries();
+    }
+
+    /**
+     * Wraps a pre-assembled body. For GET, WebFlux compares the ETag against If-None-Match
+     * and answers 304 without writing the body.
+     */
+    private static ResponseEntity<byte[]> toJsonResponse(JsonProjection projection) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(projection.etag())
+                .body(projection.body());
     }
 }
@@ -0,0 +1,7 @@
+package com.quickcommerce.product.catalog.dto;
+
+/**
+ * Pre-assembled JSON response body and its strong ETag (quoted, ready for the header).
+ */
+public record JsonProjection(byte[] body, String etag) {
+}
@@ -0,0 +1,9 @@
+package com.quickcommerce.product.catalog.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Coalesced delivered-order increments for one SKU, applied in a single batched update.
+ */
+public record OrderCountDelta(String sku, long count, LocalDateTime lastOrderedAt) {
+}
@@ -0,0 +1,30 @@
+package com.quickcommerce.product.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Lean price row for checkout and cart preview.
+ * {@code updatedAt} doubles as the row version: callers can compare it to detect price changes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPrice {
+
+    private String sku;
+
+    private BigDecimal basePrice;
+
+    private Boolean isActive;
+
+    private Boolean isAvailable;
+
+    private LocalDateTime updatedAt;
+}
@@ -40,6 +40,7 @@ public class ProductResponse {
     private Integer searchPriority;
     private Boolean isBestseller;
     private Integer orderCount;
+    private LocalDateTime lastOrderedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -68,6 +69,7 @@ public class ProductResponse {
                 .searchPriority(product.getSearchPriority())
                 .isBestseller(product.getIsBestseller())
                 .orderCount(product.getOrderCount())
+                .lastOrderedAt(product.getLastOrderedAt())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
@@ -21,4 +21,10 @@ public class VariantGroupBatchRequest {
     @NotEmpty(message = "At least one group ID is required")
     @Size(max = 50, message = "Maximum 50 group IDs per request")
     private List<String> groupIds;
+
+    /**
+     * Optional store: when set, inStock reflects that store's available stock
+     * instead of the catalog-wide isAvailable flag.
+     */
+    private Long storeId;
 }
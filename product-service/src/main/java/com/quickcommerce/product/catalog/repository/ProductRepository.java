@@ -1,7 +1,6 @@
 package com.quickcommerce.product.catalog.repository;
 
 import com.quickcommerce.product.catalog.domain.Product;
-import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
@@ -132,14 +131,6 @@ public interface ProductRepository extends R2dbcRepository<Product, Long>, Produ
         return existsBySkuInt(sku).map(result -> result > 0);
     }
 
-    /**
-     * Increment order_count by 1 for the given SKU (one delivered order containing this SKU).
-     * Returns number of rows updated (0 if SKU unknown).
-     */
-    @Modifying
-    @Query("UPDATE products SET order_count = COALESCE(order_count, 0) + 1, updated_at = CURRENT_TIMESTAMP WHERE sku = :sku")
-    Mono<Integer> incrementOrderCountBySku(String sku);
-
     /**
      * Fetch all active variants belonging to any of the given group IDs.
      * Ordered by base_price ASC, id ASC so the cheapest variant is always first —
@@ -155,4 +146,46 @@ public interface ProductRepository extends R2dbcRepository<Product, Long>, Produ
      */
     @Query("SELECT group_id, COUNT(*) AS variant_count FROM products WHERE group_id IS NOT NULL AND is_active = true GROUP BY group_id ORDER BY group_id")
     Flux<com.quickcommerce.product.catalog.dto.GroupSummary> findAllGroupSummaries();
+
+    /**
+     * Keyset page of all products (including inactive) ordered by id. Used by search-service
+     * to stream the catalog during a full index rebuild without loading it in one response.
+     */
+    @Query("SELECT * FROM products WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Product> findPageAfterId(Long afterId, int limit);
+
+    /**
+     * Change feed page ordered by (updated_at, id), strictly after the given cursor.
+     * Range scan on idx_products_updated_at (InnoDB secondary indexes carry the primary key).
+     * updated_at has second precision and rows commit out of order, so consumers start each poll a
+     * window before their cursor rather than exactly at it.
+     */
+    @Query("SELECT * FROM products WHERE updated_at >= :since AND (updated_at > :since OR id > :afterId) ORDER BY updated_at, id LIMIT :limit")
+    Flux<Product> findChangedAfter(java.time.LocalDateTime since, Long afterId, int limit);
+
+    /**
+     * Products changed at or after the given instant (delta refresh of in-memory read models).
+     * Backed by idx_products_updated_at.
+     */
+    @Query("SELECT * FROM products WHERE updated_at >= :since")
+    Flux<Product> findUpdatedSince(java.time.LocalDateTime since);
+
+    /**
+     * Lean price rows for every product. Used to load the in-memory price table at startup.
+     */
+    @Query("SELECT sku, base_price, is_active, is_available, updated_at FROM products")
+    Flux<com.quickcommerce.product.catalog.dto.ProductPrice> findAllPrices();
+
+    /**
+     * Lean price rows for the given SKUs (price table misses).
+     */
+    @Query("SELECT sku, base_price, is_active, is_available, updated_at FROM products WHERE sku IN (:skus)")
+    Flux<com.quickcommerce.product.catalog.dto.ProductPrice> findPricesBySkuIn(java.util.List<String> skus);
+
+    /**
+     * Lean price rows changed at or after the given instant (price table delta refresh).
+     * Backed by idx_products_updated_at.
+     */
+    @Query("SELECT sku, base_price, is_active, is_available, updated_at FROM products WHERE updated_at >= :since")
+    Flux<com.quickcommerce.product.catalog.dto.ProductPrice> findPricesUpdatedSince(java.time.LocalDateTime since);
 }
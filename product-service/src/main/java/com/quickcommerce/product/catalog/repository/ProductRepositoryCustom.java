@@ -1,10 +1,13 @@
 package com.quickcommerce.product.catalog.repository;
 
 import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.OrderCountDelta;
 import com.quickcommerce.product.catalog.dto.ProductSortOption;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Custom repository fragment for dynamic product queries.
  * Implemented by ProductRepositoryCustomImpl using R2dbcEntityTemplate + Criteria API.
@@ -15,4 +18,10 @@ public interface ProductRepositoryCustom {
                                             String brand, int limit, long offset);
 
     Mono<Long> countByCategoryWithFilters(Long categoryId, String brand);
+
+    /**
+     * Adds each delta to {@code order_count} and sets {@code last_ordered_at} in one UPDATE statement.
+     * Returns the number of rows updated.
+     */
+    Mono<Long> applyOrderCountDeltas(List<OrderCountDelta> deltas);
 }
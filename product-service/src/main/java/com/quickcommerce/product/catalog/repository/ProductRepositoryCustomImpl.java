@@ -1,15 +1,19 @@
 package com.quickcommerce.product.catalog.repository;
 
 import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.OrderCountDelta;
 import com.quickcommerce.product.catalog.dto.ProductSortOption;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 /**
  * Dynamic query implementation using R2dbcEntityTemplate + Criteria API.
  * A single method handles all sort/filter combinations — no combinatorial @Query explosion.
@@ -37,6 +41,42 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
         return template.count(Query.query(buildCategoryCriteria(categoryId, brand)), Product.class);
     }
 
+    /**
+     * Builds one statement for the whole batch:
+     * {@code order_count = order_count + CASE sku WHEN :s0 THEN :c0 ... END}, the same for
+     * {@code last_ordered_at}, restricted by {@code sku IN (:skus)}. Each row is locked once
+     * per flush instead of once per delivered order.
+     */
+    @Override
+    public Mono<Long> applyOrderCountDeltas(List<OrderCountDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder countCase = new StringBuilder("CASE sku");
+        StringBuilder orderedAtCase = new StringBuilder("CASE sku");
+        for (int i = 0; i < deltas.size(); i++) {
+            countCase.append(" WHEN :s").append(i).append(" THEN :c").append(i);
+            orderedAtCase.append(" WHEN :s").append(i).append(" THEN :t").append(i);
+        }
+        countCase.append(" ELSE 0 END");
+        orderedAtCase.append(" ELSE last_ordered_at END");
+
+        String sql = "UPDATE products SET order_count = COALESCE(order_count, 0) + " + countCase
+                + ", last_ordered_at = " + orderedAtCase
+                + ", updated_at = CURRENT_TIMESTAMP WHERE sku IN (:skus)";
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql);
+        for (int i = 0; i < deltas.size(); i++) {
+            OrderCountDelta delta = deltas.get(i);
+            spec = spec.bind("s" + i, delta.sku())
+                    .bind("c" + i, delta.count())
+                    .bind("t" + i, delta.lastOrderedAt());
+        }
+        return spec.bind("skus", deltas.stream().map(OrderCountDelta::sku).toList())
+                .fetch()
+                .rowsUpdated();
+    }
+
     private Criteria buildCategoryCriteria(Long categoryId, String brand) {
         Criteria criteria = Criteria.where(Product.Fields.categoryId).is(categoryId)
                 .and(Product.Fields.isActive).is(true)
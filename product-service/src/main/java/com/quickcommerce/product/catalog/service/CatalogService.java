@@ -3,15 +3,16 @@ package com.quickcommerce.product.catalog.service;
 import com.quickcommerce.product.catalog.domain.Category;
 import com.quickcommerce.product.catalog.domain.Product;
 import com.quickcommerce.product.catalog.dto.*;
-import com.quickcommerce.product.catalog.dto.ProductSortOption;
 import com.quickcommerce.product.catalog.repository.CategoryRepository;
 import com.quickcommerce.product.catalog.repository.ProductRepository;
 import com.quickcommerce.common.dto.VariantDto;
 import com.quickcommerce.common.exception.ResourceNotFoundException;
+import com.quickcommerce.product.event.ProductChangedEvent;
 import com.quickcommerce.product.util.ImageJsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -33,6 +34,7 @@ public class CatalogService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ============ Category Operations ============
 
@@ -208,86 +210,12 @@ public class CatalogService {
                                 return productRepository.save(product);
                             }));
                 })
+                .flatMap(saved -> Mono.fromRunnable(
+                        () -> eventPublisher.publishEvent(new ProductChangedEvent(List.of(saved))))
+                        .thenReturn(saved))
                 .map(ProductResponse::fromDomain);
     }
 
-    /**
-     * Get product by ID (cached for 5 minutes)
-     */
-    @Cacheable(value = "products", key = "#id")
-    public Mono<ProductResponse> getProductById(Long id) {
-        return productRepository.findById(id)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", id.toString())))
-                .map(ProductResponse::fromDomain);
-    }
-
-    /**
-     * Get products by SKU list (Bulk)
-     * Robust implementation with logging and distinctive filtering
-     */
-    public Flux<ProductResponse> getProductsBySkuList(java.util.List<String> skus) {
-        if (skus == null || skus.isEmpty()) {
-            log.warn("Empty SKU list requested");
-            return Flux.empty();
-        }
-
-        // De-duplicate SKUs to prevent redundant DB load
-        java.util.List<String> distinctSkus = skus.stream()
-                .filter(s -> s != null && !s.isBlank())
-                .distinct()
-                .toList();
-
-        if (distinctSkus.isEmpty()) {
-            return Flux.empty();
-        }
-
-        log.info("Fetching {} products (requested: {})", distinctSkus.size(), skus.size());
-
-        return productRepository.findBySkuIn(distinctSkus)
-                .map(ProductResponse::fromDomain)
-                .doOnComplete(() -> log.debug("Bulk product retrieval completed"))
-                .doOnError(e -> log.error("Error fetching products by SKUs: {}", e.getMessage()));
-    }
-
-    /**
-     * Get product by slug
-     */
-    public Mono<ProductResponse> getProductBySlug(String slug) {
-        return productRepository.findBySlug(slug)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", slug)))
-                .map(ProductResponse::fromDomain);
-    }
-
-    /**
-     * Get products by category with pagination, optional sort and brand filter.
-     * Delegates to the dynamic query implementation (R2dbcEntityTemplate + Criteria
-     * API).
-     */
-    public Mono<PagedProductResponse> getProductsByCategory(Long categoryId, int pageNum, int pageSize,
-            ProductSortOption sortBy, String brand) {
-        long offset = (long) pageNum * pageSize;
-        return Mono.zip(
-                productRepository.findByCategoryWithFilters(categoryId, sortBy, brand, pageSize, offset)
-                        .map(ProductResponse::fromDomain)
-                        .collectList(),
-                productRepository.countByCategoryWithFilters(categoryId, brand)).map(tuple -> {
-                    java.util.List<ProductResponse> content = tuple.getT1();
-                    long total = tuple.getT2();
-                    int totalPages = (int) Math.ceil((double) total / pageSize);
-                    return PagedProductResponse.builder()
-                            .content(content)
-                            .meta(PagedProductResponse.PageMeta.builder()
-                                    .page(pageNum)
-                                    .size(pageSize)
-                                    .totalElements(total)
-                                    .totalPages(totalPages)
-                                    .first(pageNum == 0)
-                                    .last(pageNum >= totalPages - 1 || totalPages == 0)
-                                    .build())
-                            .build();
-                });
-    }
-
     /**
      * Get products by brand
      */
@@ -321,6 +249,36 @@ public class CatalogService {
                         }));
     }
 
+    /**
+     * Keyset page of all products enriched with category names, ordered by id.
+     * Pass the last id of the previous page as {@code afterId} (0 for the first page).
+     */
+    public Flux<ProductResponse> getAllProducts(long afterId, int limit) {
+        return categoryRepository.findAll()
+                .collectMap(Category::getId, Category::getName)
+                .flatMapMany(categoryMap -> productRepository.findPageAfterId(afterId, limit)
+                        .map(product -> {
+                            ProductResponse resp = ProductResponse.fromDomain(product);
+                            resp.setCategoryName(categoryMap.get(product.getCategoryId()));
+                            return resp;
+                        }));
+    }
+
+    /**
+     * Products changed strictly after the (since, afterId) cursor, ordered by updated_at then id,
+     * enriched with category names. Feeds search-service incremental indexing.
+     */
+    public Flux<ProductResponse> getProductChanges(LocalDateTime since, long afterId, int limit) {
+        return categoryRepository.findAll()
+                .collectMap(Category::getId, Category::getName)
+                .flatMapMany(categoryMap -> productRepository.findChangedAfter(since, afterId, limit)
+                        .map(product -> {
+                            ProductResponse resp = ProductResponse.fromDomain(product);
+                            resp.setCategoryName(categoryMap.get(product.getCategoryId()));
+                            return resp;
+                        }));
+    }
+
     /**
      * Get all available products
      */
@@ -346,33 +304,6 @@ public class CatalogService {
                 .map(ProductResponse::fromDomain);
     }
 
-    /**
-     * Increments {@code order_count} by 1 for each distinct SKU — "how many
-     * delivered orders
-     * included this product" (not units sold). Idempotent at order level: only
-     * called on transition to DELIVERED.
-     */
-    @Transactional
-    public Mono<Void> incrementOrderCountsForDeliveredOrder(List<String> skus) {
-        if (skus == null || skus.isEmpty()) {
-            return Mono.empty();
-        }
-        List<String> distinct = skus.stream()
-                .filter(s -> s != null && !s.isBlank())
-                .map(String::trim)
-                .distinct()
-                .toList();
-        if (distinct.isEmpty()) {
-            return Mono.empty();
-        }
-        log.info("Incrementing order_count for {} distinct SKU(s) after delivery", distinct.size());
-        return Flux.fromIterable(distinct)
-                .concatMap(sku -> productRepository.incrementOrderCountBySku(sku)
-                        .doOnError(e -> log.warn("Failed order_count increment for sku={}: {}", sku, e.getMessage()))
-                        .onErrorResume(e -> Mono.just(0)))
-                .then();
-    }
-
     // ============ Variant Group Operations ============
 
     /**
@@ -0,0 +1,74 @@
+package com.quickcommerce.product.catalog.service;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Watermark and single-flight guard for the periodic {@code updated_at >= since} reads that keep the
+ * in-memory catalog read models current with writes made by other instances.
+ *
+ * {@code updated_at} is stamped by each instance's clock with second precision and rows commit in any
+ * order, so a row can become visible with an {@code updated_at} below the highest one already read. Every
+ * poll therefore re-reads a trailing overlap window ({@code since = watermark - overlap}); read models
+ * replace entries with database rows, so reading a row twice is harmless.
+ */
+@Slf4j
+final class DeltaPoller {
+
+    private final String name;
+    private final Duration overlap;
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+    private final AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+
+    DeltaPoller(String name, Duration overlap) {
+        this.name = name;
+        this.overlap = overlap;
+    }
+
+    /**
+     * Advance the watermark to a row read from the database
+     */
+    void observe(LocalDateTime updatedAt) {
+        if (updatedAt != null) {
+            watermark.accumulateAndGet(updatedAt, (current, seen) ->
+                    current == null || seen.isAfter(current) ? seen : current);
+        }
+    }
+
+    /**
+     * Start the watermark at the time the initial full load began when that load read no rows, so rows
+     * written afterwards are still picked up by the next poll. A watermark taken from rows is kept.
+     */
+    void seed(LocalDateTime loadStartedAt) {
+        watermark.compareAndSet(null, loadStartedAt);
+    }
+
+    /**
+     * Highest {@code updated_at} read so far, or null before the first row or {@link #seed}
+     */
+    LocalDateTime watermark() {
+        return watermark.get();
+    }
+
+    /**
+     * Start one delta read from {@code watermark - overlap}, unless the watermark is not set yet or the previous
+     * read is still running. Failures are logged and retried by the next poll.
+     */
+    void poll(Function<LocalDateTime, Mono<?>> read) {
+        LocalDateTime current = watermark.get();
+        if (current == null || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        Mono.defer(() -> read.apply(current.minus(overlap)))
+                .doOnError(e -> log.warn("{} delta refresh failed: {}", name, e.getMessage()))
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(signal -> polling.set(false))
+                .subscribe();
+    }
+}
@@ -0,0 +1,383 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.product.catalog.dto.OrderCountDelta;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Coalesces delivered-order {@code order_count} increments in memory and flushes them
+ * periodically as one batched UPDATE per {@code max-batch-size} SKUs.
+ *
+ * Popular SKUs are therefore row-locked once per flush instead of once per delivery.
+ *
+ * Durability: every increment is appended to a journal segment before it is counted. A flush
+ * rolls to a new segment under the write lock, so everything in older segments is contained
+ * in the drained snapshot; those segments are deleted once the snapshot is handled. Failed
+ * batches are re-counted and re-journaled. On startup the remaining segments are replayed.
+ * A crash between the UPDATE and the segment delete replays that flush again, so delivery is
+ * at-least-once, which is acceptable for a popularity signal.
+ */
+@Component
+@Slf4j
+public class OrderCountAggregator {
+
+    private static final String SEGMENT_PREFIX = "order-counts-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final ProductRepository productRepository;
+    private final CatalogProperties.OrderCounts config;
+    private final Map<String, PendingCount> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private final AtomicLong oldestPendingMillis = new AtomicLong(0);
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    // Guarded by journalLock write lock when replaced; appends hold the read lock
+    private FileChannel journal;
+    private long segmentSeq;
+
+    public OrderCountAggregator(ProductRepository productRepository, CatalogProperties properties,
+            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.config = properties.getOrderCounts();
+        this.flushTimer = Timer.builder("catalog.order_counts.flush")
+                .description("Duration of batched order_count flushes")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("catalog.order_counts.flush.failures")
+                .description("order_count flush batches that failed and were re-queued")
+                .register(meterRegistry);
+        Gauge.builder("catalog.order_counts.pending_skus", pending, Map::size)
+                .description("SKUs with increments not yet written to the database")
+                .register(meterRegistry);
+        Gauge.builder("catalog.order_counts.flush_lag_seconds", this, OrderCountAggregator::flushLagSeconds)
+                .description("Age of the oldest increment not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replay journal segments left by a previous run and open a fresh segment
+     */
+    @PostConstruct
+    public void replayJournal() {
+        if (!config.isJournalEnabled()) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(config.getJournalDir());
+            Files.createDirectories(dir);
+            long maxSeq = -1;
+            int replayed = 0;
+            for (Path segment : listSegments(dir)) {
+                maxSeq = Math.max(maxSeq, segmentSeq(segment));
+                for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                    replayed += replayLine(line) ? 1 : 0;
+                }
+            }
+            segmentSeq = maxSeq + 1;
+            journal = openSegment(segmentSeq);
+            if (replayed > 0) {
+                log.info("Replayed {} unflushed order_count increment(s) across {} SKU(s) from journal",
+                        replayed, pending.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open order_count journal in " + config.getJournalDir(), e);
+        }
+    }
+
+    /**
+     * Record one delivered order: +1 per distinct SKU. Returns once the increment is journaled.
+     */
+    public Mono<Void> record(List<String> skus) {
+        if (skus == null || skus.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> distinct = skus.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(String::trim)
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) {
+            return Mono.empty();
+        }
+        Mono<Void> recordNow = Mono.fromRunnable(() -> recordNow(distinct, System.currentTimeMillis()));
+        return config.isJournalEnabled() ? recordNow.subscribeOn(Schedulers.boundedElastic()) : recordNow;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.order-counts.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush().subscribe();
+    }
+
+    /**
+     * Drain pending increments and write them in batched UPDATE statements.
+     * Returns the number of product rows updated.
+     */
+    public Mono<Long> flush() {
+        if (!flushing.compareAndSet(false, true)) {
+            return Mono.just(0L);
+        }
+        List<OrderCountDelta> deltas;
+        long firstLiveSegment;
+        journalLock.writeLock().lock();
+        try {
+            deltas = drain();
+            firstLiveSegment = rollJournal();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        if (deltas.isEmpty()) {
+            deleteSegmentsBefore(firstLiveSegment);
+            flushing.set(false);
+            return Mono.just(0L);
+        }
+
+        Timer.Sample sample = Timer.start();
+        return Flux.fromIterable(deltas)
+                .buffer(config.getMaxBatchSize())
+                .concatMap(batch -> productRepository.applyOrderCountDeltas(batch)
+                        .onErrorResume(e -> {
+                            log.warn("order_count flush failed for {} SKU(s), re-queueing: {}",
+                                    batch.size(), e.getMessage());
+                            flushFailures.increment();
+                            requeue(batch);
+                            return Mono.just(0L);
+                        }))
+                .reduce(0L, Long::sum)
+                .doOnNext(rows -> {
+                    deleteSegmentsBefore(firstLiveSegment);
+                    log.debug("Flushed order_count for {} SKU(s), {} row(s) updated", deltas.size(), rows);
+                })
+                .doFinally(signal -> {
+                    sample.stop(flushTimer);
+                    flushing.set(false);
+                });
+    }
+
+    /**
+     * Best-effort flush on shutdown; anything left stays in the journal for the next start
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            flush().block(Duration.ofSeconds(5));
+        } catch (RuntimeException e) {
+            log.warn("order_count flush on shutdown failed, journal will be replayed: {}", e.getMessage());
+        }
+        journalLock.writeLock().lock();
+        try {
+            closeQuietly(journal);
+            journal = null;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    public int pendingSkuCount() {
+        return pending.size();
+    }
+
+    double flushLagSeconds() {
+        long oldest = oldestPendingMillis.get();
+        return oldest == 0 ? 0.0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private void recordNow(List<String> skus, long nowMillis) {
+        journalLock.readLock().lock();
+        try {
+            StringBuilder lines = new StringBuilder(skus.size() * 24);
+            for (String sku : skus) {
+                appendLine(lines, nowMillis, 1, sku);
+            }
+            appendToJournal(lines);
+            for (String sku : skus) {
+                add(sku, 1, nowMillis);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private void requeue(List<OrderCountDelta> batch) {
+        journalLock.readLock().lock();
+        try {
+            StringBuilder lines = new StringBuilder(batch.size() * 32);
+            for (OrderCountDelta delta : batch) {
+                long millis = delta.lastOrderedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                appendLine(lines, millis, delta.count(), delta.sku());
+                add(delta.sku(), delta.count(), millis);
+            }
+            appendToJournal(lines);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private void add(String sku, long count, long orderedAtMillis) {
+        PendingCount counter = pending.computeIfAbsent(sku, k -> new PendingCount());
+        counter.count.add(count);
+        counter.lastOrderedAtMillis.accumulateAndGet(orderedAtMillis, Math::max);
+        oldestPendingMillis.compareAndSet(0, orderedAtMillis);
+    }
+
+    /**
+     * Caller holds the write lock, so no increment can land between the sum and the clear
+     */
+    private List<OrderCountDelta> drain() {
+        List<OrderCountDelta> deltas = new ArrayList<>(pending.size());
+        pending.forEach((sku, counter) -> {
+            long count = counter.count.sum();
+            if (count > 0) {
+                deltas.add(new OrderCountDelta(sku, count, LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(counter.lastOrderedAtMillis.get()), ZoneId.systemDefault())));
+            }
+        });
+        pending.clear();
+        oldestPendingMillis.set(0);
+        return deltas;
+    }
+
+    /**
+     * Caller holds the write lock. Returns the sequence of the new live segment.
+     */
+    private long rollJournal() {
+        if (!config.isJournalEnabled() || journal == null) {
+            return segmentSeq;
+        }
+        try {
+            closeQuietly(journal);
+            segmentSeq++;
+            journal = openSegment(segmentSeq);
+        } catch (IOException e) {
+            log.error("Failed to roll order_count journal, increments are memory-only until the next flush", e);
+            journal = null;
+        }
+        return segmentSeq;
+    }
+
+    private void appendToJournal(StringBuilder lines) {
+        FileChannel channel = journal;
+        if (!config.isJournalEnabled() || channel == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to journal order_count increments, counted in memory only: {}", e.getMessage());
+        }
+    }
+
+    private void deleteSegmentsBefore(long liveSeq) {
+        if (!config.isJournalEnabled()) {
+            return;
+        }
+        try {
+            for (Path segment : listSegments(Paths.get(config.getJournalDir()))) {
+                if (segmentSeq(segment) < liveSeq) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete flushed order_count journal segments: {}", e.getMessage());
+        }
+    }
+
+    private boolean replayLine(String line) {
+        String[] parts = line.split("\t", 3);
+        if (parts.length != 3) {
+            return false;
+        }
+        try {
+            add(parts[2], Long.parseLong(parts[1]), Long.parseLong(parts[0]));
+            return true;
+        } catch (NumberFormatException e) {
+            log.warn("Skipping malformed order_count journal line: '{}'", line);
+            return false;
+        }
+    }
+
+    private FileChannel openSegment(long seq) throws IOException {
+        return FileChannel.open(Paths.get(config.getJournalDir(), SEGMENT_PREFIX + seq + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static List<Path> listSegments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .toList();
+        }
+    }
+
+    private static long segmentSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void appendLine(StringBuilder lines, long millis, long count, String sku) {
+        lines.append(millis).append('\t').append(count).append('\t').append(sku).append('\n');
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close order_count journal segment: {}", e.getMessage());
+        }
+    }
+
+    private static final class PendingCount {
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong lastOrderedAtMillis = new AtomicLong();
+    }
+}
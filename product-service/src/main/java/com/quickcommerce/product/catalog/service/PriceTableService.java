@@ -0,0 +1,155 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.ProductPrice;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory sku → price table backing the checkout price lookup.
+ *
+ * Loaded once on startup, kept current by {@link ProductChangedEvent} for writes made through
+ * this instance, and by a periodic delta read ({@link DeltaPoller}, {@code updated_at >= watermark - overlap})
+ * for writes made elsewhere. SKUs missing from the table fall through to the database and are cached.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceTableService {
+
+    private final ProductRepository productRepository;
+    private final CatalogProperties properties;
+
+    private final Map<String, ProductPrice> prices = new ConcurrentHashMap<>();
+    private volatile DeltaPoller deltas;
+    private volatile boolean loaded = false;
+
+    /**
+     * Load the full price table once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!properties.getPrices().isEnabled()) {
+            return;
+        }
+        deltas = new DeltaPoller("Price table", Duration.ofMillis(properties.getPrices().getRefreshOverlapMs()));
+        long start = System.currentTimeMillis();
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        productRepository.findAllPrices()
+                .doOnNext(this::applyFromDatabase)
+                .then()
+                .subscribe(
+                        v -> { },
+                        e -> log.error("Failed to load price table, lookups will read the database", e),
+                        () -> {
+                            deltas.seed(loadStartedAt);
+                            loaded = true;
+                            log.info("Loaded price table: {} SKUs in {}ms",
+                                    prices.size(), System.currentTimeMillis() - start);
+                        });
+    }
+
+    /**
+     * Pick up price changes written by other instances
+     */
+    @Scheduled(fixedDelayString = "${catalog.prices.refresh-interval-ms:30000}")
+    public void refreshDeltas() {
+        if (!loaded) {
+            return;
+        }
+        deltas.poll(since -> productRepository.findPricesUpdatedSince(since)
+                .doOnNext(this::applyFromDatabase)
+                .count()
+                .doOnNext(count -> log.debug("Price table delta refresh applied {} row(s) since {}", count, since)));
+    }
+
+    /**
+     * Apply writes made through this instance without waiting for the next delta refresh
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        for (Product product : event.getProducts()) {
+            if (product.getSku() == null) {
+                continue;
+            }
+            ProductPrice incoming = ProductPrice.builder()
+                    .sku(product.getSku())
+                    .basePrice(product.getBasePrice())
+                    .isActive(product.getIsActive())
+                    .isAvailable(product.getIsAvailable())
+                    .updatedAt(product.getUpdatedAt())
+                    .build();
+            prices.merge(incoming.getSku(), incoming, PriceTableService::newer);
+        }
+    }
+
+    /**
+     * Bulk price lookup. Unknown SKUs are omitted, matching the /skus endpoint.
+     */
+    public Flux<ProductPrice> getPrices(List<String> skus) {
+        if (skus == null || skus.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> distinct = skus.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .distinct()
+                .toList();
+        if (distinct.isEmpty()) {
+            return Flux.empty();
+        }
+        if (!loaded) {
+            return productRepository.findPricesBySkuIn(distinct);
+        }
+
+        List<ProductPrice> found = new ArrayList<>(distinct.size());
+        List<String> missing = new ArrayList<>();
+        for (String sku : distinct) {
+            ProductPrice price = prices.get(sku);
+            if (price != null) {
+                found.add(price);
+            } else {
+                missing.add(sku);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Flux.fromIterable(found);
+        }
+        return Flux.concat(
+                Flux.fromIterable(found),
+                productRepository.findPricesBySkuIn(missing).doOnNext(this::applyFromDatabase));
+    }
+
+    public int size() {
+        return prices.size();
+    }
+
+    /**
+     * The database is the source of truth, so its rows always replace the cached entry.
+     */
+    private void applyFromDatabase(ProductPrice price) {
+        prices.put(price.getSku(), price);
+        deltas.observe(price.getUpdatedAt());
+    }
+
+    private static ProductPrice newer(ProductPrice current, ProductPrice incoming) {
+        if (current.getUpdatedAt() == null || incoming.getUpdatedAt() == null) {
+            return incoming;
+        }
+        return incoming.getUpdatedAt().isBefore(current.getUpdatedAt()) ? current : incoming;
+    }
+}
@@ -0,0 +1,127 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.ProductResponse;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * In-memory store of pre-serialized {@link ProductResponse} JSON, one fragment per product ID.
+ *
+ * A fragment is reused only while the freshly loaded row equals (every column) a copy of the
+ * row it was built from. {@code updated_at} alone is not a version: it has second precision, so
+ * two writes within a second on another pod would leave the same value. Comparing the row is
+ * a field-by-field check instead of a Jackson serialization. Local catalog writes also drop
+ * fragments eagerly via {@link ProductChangedEvent}.
+ */
+@Component
+@Slf4j
+public class ProductProjectionCache {
+
+    private final ObjectMapper objectMapper;
+    private final CatalogProperties properties;
+    private final Map<Long, Fragment> fragments = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public ProductProjectionCache(ObjectMapper objectMapper, CatalogProperties properties,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.hits = Counter.builder("catalog.projection.requests")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("catalog.projection.requests")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("catalog.projection.size", fragments, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached fragment for the product, serializing and storing a new one
+     * when the row differs from the one the cached fragment was built from.
+     */
+    public Fragment fragmentFor(Product product) {
+        Fragment cached = product.getId() != null ? fragments.get(product.getId()) : null;
+        if (cached != null && cached.source().equals(product)) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Fragment fresh = Fragment.of(product, serialize(product));
+        if (properties.getProjection().isEnabled() && product.getId() != null) {
+            if (cached == null && fragments.size() >= properties.getProjection().getMaxEntries()) {
+                evictOne();
+            }
+            fragments.put(product.getId(), fresh);
+        }
+        return fresh;
+    }
+
+    /**
+     * Drops fragments for products changed through this instance.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        for (Product product : event.getProducts()) {
+            if (product.getId() != null) {
+                fragments.remove(product.getId());
+            }
+        }
+        log.debug("Invalidated {} product projection(s)", event.getProducts().size());
+    }
+
+    public int size() {
+        return fragments.size();
+    }
+
+    private byte[] serialize(Product product) {
+        try {
+            return objectMapper.writeValueAsBytes(ProductResponse.fromDomain(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product " + product.getId(), e);
+        }
+    }
+
+    /**
+     * Approximate eviction: the map has no access order, so drop whichever entry the
+     * iterator yields first. Only reached when the catalog outgrows max-entries.
+     */
+    private void evictOne() {
+        Iterator<Long> keys = fragments.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Serialized product JSON plus the CRC32C of those bytes, used as the strong ETag, and a
+     * private copy of the row it was serialized from.
+     */
+    public record Fragment(Product source, byte[] json, long checksum) {
+
+        static Fragment of(Product product, byte[] json) {
+            Product source = new Product();
+            BeanUtils.copyProperties(product, source);
+            CRC32C crc = new CRC32C();
+            crc.update(json);
+            return new Fragment(source, json, crc.getValue());
+        }
+    }
+}
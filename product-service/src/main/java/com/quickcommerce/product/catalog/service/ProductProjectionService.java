@@ -0,0 +1,163 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.common.exception.ResourceNotFoundException;
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.JsonProjection;
+import com.quickcommerce.product.catalog.dto.PagedProductResponse;
+import com.quickcommerce.product.catalog.dto.ProductSortOption;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Serves the high-QPS product read endpoints from pre-serialized fragments held in
+ * {@link ProductProjectionCache}.
+ *
+ * Rows are still loaded from the database (primary-key and index lookups are cheap), but
+ * the Product → ProductResponse mapping, the images JSON parse and the Jackson write are
+ * skipped for every product whose row has not changed. List bodies are built
+ * by copying fragments into a single pre-sized buffer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductProjectionService {
+
+    private static final byte[] PAGE_PREFIX = "{\"content\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] META_SEPARATOR = ",\"meta\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] OBJECT_END = {'}'};
+
+    private final ProductRepository productRepository;
+    private final ProductProjectionCache projectionCache;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Get product by ID as pre-serialized JSON
+     */
+    public Mono<JsonProjection> getProductById(Long id) {
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", id.toString())))
+                .map(this::single);
+    }
+
+    /**
+     * Get product by slug as pre-serialized JSON
+     */
+    public Mono<JsonProjection> getProductBySlug(String slug) {
+        return productRepository.findBySlug(slug)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("Product", slug)))
+                .map(this::single);
+    }
+
+    /**
+     * Get products by SKU list as a pre-assembled JSON array
+     */
+    public Mono<JsonProjection> getProductsBySkuList(List<String> skus) {
+        List<String> distinctSkus = skus == null ? List.of() : skus.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .distinct()
+                .toList();
+        if (distinctSkus.isEmpty()) {
+            return Mono.just(array(List.of()));
+        }
+        return productRepository.findBySkuIn(distinctSkus)
+                .collectList()
+                .map(this::array);
+    }
+
+    /**
+     * Get a category listing page as pre-assembled JSON in the {@link PagedProductResponse} shape
+     */
+    public Mono<JsonProjection> getProductsByCategory(Long categoryId, int pageNum, int pageSize,
+            ProductSortOption sortBy, String brand) {
+        long offset = (long) pageNum * pageSize;
+        return Mono.zip(
+                productRepository.findByCategoryWithFilters(categoryId, sortBy, brand, pageSize, offset)
+                        .collectList(),
+                productRepository.countByCategoryWithFilters(categoryId, brand))
+                .map(tuple -> {
+                    long total = tuple.getT2();
+                    int totalPages = (int) Math.ceil((double) total / pageSize);
+                    PagedProductResponse.PageMeta meta = PagedProductResponse.PageMeta.builder()
+                            .page(pageNum)
+                            .size(pageSize)
+                            .totalElements(total)
+                            .totalPages(totalPages)
+                            .first(pageNum == 0)
+                            .last(pageNum >= totalPages - 1 || totalPages == 0)
+                            .build();
+                    byte[] content = joinArray(tuple.getT1());
+                    return withChecksumEtag(concat(PAGE_PREFIX, content, META_SEPARATOR, writeMeta(meta), OBJECT_END));
+                });
+    }
+
+    private JsonProjection single(Product product) {
+        ProductProjectionCache.Fragment fragment = projectionCache.fragmentFor(product);
+        return new JsonProjection(fragment.json(), etag(fragment.checksum()));
+    }
+
+    private JsonProjection array(List<Product> products) {
+        return withChecksumEtag(joinArray(products));
+    }
+
+    private byte[] joinArray(List<Product> products) {
+        byte[][] parts = new byte[products.size()][];
+        int length = 2 + Math.max(0, products.size() - 1);
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = projectionCache.fragmentFor(products.get(i)).json();
+            length += parts[i].length;
+        }
+        byte[] out = new byte[length];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                out[pos++] = ',';
+            }
+            System.arraycopy(parts[i], 0, out, pos, parts[i].length);
+            pos += parts[i].length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    private byte[] writeMeta(PagedProductResponse.PageMeta meta) {
+        try {
+            return objectMapper.writeValueAsBytes(meta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize page metadata", e);
+        }
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        byte[] out = new byte[length];
+        int pos = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, out, pos, part.length);
+            pos += part.length;
+        }
+        return out;
+    }
+
+    private static JsonProjection withChecksumEtag(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return new JsonProjection(body, etag(crc.getValue()));
+    }
+
+    private static String etag(long checksum) {
+        return "\"" + Long.toHexString(checksum) + "\"";
+    }
+}
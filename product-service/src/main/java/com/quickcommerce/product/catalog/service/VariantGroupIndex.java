@@ -0,0 +1,268 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.common.dto.VariantDto;
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.GroupSummary;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.domain.InventoryItem;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import com.quickcommerce.product.repository.InventoryItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory groupId → variants index backing the bottom-sheet batch endpoint and the
+ * admin group listing.
+ *
+ * Each group maps to an immutable list of active variants pre-sorted by base_price, id
+ * (same order as {@code findByGroupIdIn}), so reads are plain map lookups. The index is loaded
+ * on startup, updated from {@link ProductChangedEvent} and refreshed from
+ * {@code updated_at >= watermark - overlap} ({@link DeltaPoller}) for writes made by other
+ * instances. Until the first load completes, lookups fall back to the database through
+ * {@link CatalogService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VariantGroupIndex {
+
+    private static final Comparator<VariantDto> VARIANT_ORDER = Comparator
+            .comparing(VariantDto::getPrice, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(VariantDto::getProductId, Comparator.nullsLast(Comparator.<Long>naturalOrder()));
+
+    private final ProductRepository productRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+    private final CatalogService catalogService;
+    private final CatalogProperties properties;
+
+    /** Read side: lock-free lookups of immutable lists */
+    private final Map<String, List<VariantDto>> groups = new ConcurrentHashMap<>();
+
+    /** Write side: guarded by {@code this} */
+    private final Map<Long, IndexedVariant> byProductId = new HashMap<>();
+    private final Map<String, Set<Long>> members = new HashMap<>();
+
+    private volatile DeltaPoller deltas;
+    /** Cached summaries, versioned so a build that raced a write is never cached; list null when stale */
+    private final AtomicReference<Summaries> summaries = new AtomicReference<>(new Summaries(0, null));
+    private volatile boolean loaded = false;
+
+    /**
+     * Build the index once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!properties.getVariantIndex().isEnabled()) {
+            return;
+        }
+        deltas = new DeltaPoller("Variant group index",
+                Duration.ofMillis(properties.getVariantIndex().getRefreshOverlapMs()));
+        long start = System.currentTimeMillis();
+        LocalDateTime loadStartedAt = LocalDateTime.now();
+        productRepository.findAll()
+                .collectList()
+                .subscribe(
+                        products -> {
+                            applyAll(products, true);
+                            deltas.seed(loadStartedAt);
+                            loaded = true;
+                            log.info("Loaded variant group index: {} groups from {} products in {}ms",
+                                    groups.size(), products.size(), System.currentTimeMillis() - start);
+                        },
+                        e -> log.error("Failed to load variant group index, lookups will read the database", e));
+    }
+
+    /**
+     * Pick up product changes written by other instances
+     */
+    @Scheduled(fixedDelayString = "${catalog.variant-index.refresh-interval-ms:30000}")
+    public void refreshDeltas() {
+        if (!loaded) {
+            return;
+        }
+        deltas.poll(since -> productRepository.findUpdatedSince(since)
+                .collectList()
+                .doOnNext(products -> applyAll(products, true)));
+    }
+
+    /**
+     * Apply product create/sync/update from this instance immediately
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        applyAll(event.getProducts(), false);
+    }
+
+    /**
+     * Variants for up to one listing page of groups, answered from memory.
+     * When {@code storeId} is set, {@code inStock} reflects that store's available stock.
+     */
+    public Mono<Map<String, List<VariantDto>>> getVariantGroups(List<String> groupIds, Long storeId) {
+        Mono<Map<String, List<VariantDto>>> variants = loaded
+                ? Mono.just(lookup(groupIds))
+                : catalogService.getVariantGroups(groupIds);
+        return storeId == null ? variants : variants.flatMap(found -> mergeStoreStock(found, storeId));
+    }
+
+    /**
+     * All groups with their active variant counts, ordered by groupId
+     */
+    public Flux<GroupSummary> getAllGroupSummaries() {
+        if (!loaded) {
+            return catalogService.getAllGroupSummaries();
+        }
+        Summaries current = summaries.get();
+        if (current.list() != null) {
+            return Flux.fromIterable(current.list());
+        }
+        List<GroupSummary> built = buildSummaries();
+        // Only cache when no write invalidated the summaries while they were being built
+        summaries.compareAndSet(current, new Summaries(current.version(), built));
+        return Flux.fromIterable(built);
+    }
+
+    private Map<String, List<VariantDto>> lookup(List<String> groupIds) {
+        if (groupIds == null || groupIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<VariantDto>> result = new LinkedHashMap<>();
+        for (String groupId : groupIds) {
+            if (groupId == null || groupId.isBlank()) {
+                continue;
+            }
+            List<VariantDto> variants = groups.get(groupId);
+            if (variants != null) {
+                result.put(groupId, variants);
+            }
+        }
+        return result;
+    }
+
+    private Mono<Map<String, List<VariantDto>>> mergeStoreStock(Map<String, List<VariantDto>> found, Long storeId) {
+        List<Long> productIds = found.values().stream()
+                .flatMap(Collection::stream)
+                .map(VariantDto::getProductId)
+                .toList();
+        if (productIds.isEmpty()) {
+            return Mono.just(found);
+        }
+        return inventoryItemRepository.findByStoreIdAndProductIdIn(storeId, productIds)
+                .collectMap(InventoryItem::getProductId, InventoryItem::getAvailableStock)
+                .map(stock -> {
+                    Map<String, List<VariantDto>> merged = new LinkedHashMap<>();
+                    found.forEach((groupId, variants) -> merged.put(groupId, variants.stream()
+                            .map(v -> VariantDto.builder()
+                                    .productId(v.getProductId())
+                                    .sku(v.getSku())
+                                    .size(v.getSize())
+                                    .price(v.getPrice())
+                                    .inStock(Boolean.TRUE.equals(v.getInStock())
+                                            && stock.getOrDefault(v.getProductId(), 0) > 0)
+                                    .build())
+                            .toList()));
+                    return merged;
+                });
+    }
+
+    /**
+     * Database rows always win (source of truth); event rows are skipped when older than
+     * what is indexed. Touched groups are re-sorted once per call.
+     */
+    private synchronized void applyAll(List<Product> products, boolean fromDatabase) {
+        Set<String> dirty = new HashSet<>();
+        for (Product product : products) {
+            if (product.getId() == null) {
+                continue;
+            }
+            IndexedVariant current = byProductId.get(product.getId());
+            if (!fromDatabase && current != null && current.updatedAt() != null
+                    && product.getUpdatedAt() != null && product.getUpdatedAt().isBefore(current.updatedAt())) {
+                continue;
+            }
+            if (current != null) {
+                Set<Long> previous = members.get(current.groupId());
+                if (previous != null) {
+                    previous.remove(product.getId());
+                }
+                byProductId.remove(product.getId());
+                dirty.add(current.groupId());
+            }
+            String groupId = product.getGroupId();
+            if (groupId != null && !groupId.isBlank() && Boolean.TRUE.equals(product.getIsActive())) {
+                byProductId.put(product.getId(), new IndexedVariant(groupId, toVariant(product), product.getUpdatedAt()));
+                members.computeIfAbsent(groupId, k -> new HashSet<>()).add(product.getId());
+                dirty.add(groupId);
+            }
+            if (fromDatabase) {
+                deltas.observe(product.getUpdatedAt());
+            }
+        }
+        for (String groupId : dirty) {
+            rebuildGroup(groupId);
+        }
+        if (!dirty.isEmpty()) {
+            summaries.updateAndGet(previous -> new Summaries(previous.version() + 1, null));
+        }
+    }
+
+    private void rebuildGroup(String groupId) {
+        Set<Long> ids = members.get(groupId);
+        if (ids == null || ids.isEmpty()) {
+            members.remove(groupId);
+            groups.remove(groupId);
+            return;
+        }
+        List<VariantDto> variants = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            variants.add(byProductId.get(id).variant());
+        }
+        variants.sort(VARIANT_ORDER);
+        groups.put(groupId, List.copyOf(variants));
+    }
+
+    private List<GroupSummary> buildSummaries() {
+        return new TreeMap<>(groups).entrySet().stream()
+                .map(e -> new GroupSummary(e.getKey(), (long) e.getValue().size()))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private static VariantDto toVariant(Product p) {
+        return VariantDto.builder()
+                .productId(p.getId())
+                .sku(p.getSku())
+                .size(p.getPackageSize())
+                .price(p.getBasePrice())
+                .inStock(p.getIsAvailable())
+                .build();
+    }
+
+    private record IndexedVariant(String groupId, VariantDto variant, LocalDateTime updatedAt) {
+    }
+
+    private record Summaries(long version, List<GroupSummary> list) {
+    }
+}
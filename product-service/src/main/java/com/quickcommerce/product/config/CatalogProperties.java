@@ -0,0 +1,117 @@
+package com.quickcommerce.product.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for catalog read models
+ */
+@Configuration
+@ConfigurationProperties(prefix = "catalog")
+@Data
+@Validated
+public class CatalogProperties {
+
+    private Projection projection = new Projection();
+    private Prices prices = new Prices();
+    private OrderCounts orderCounts = new OrderCounts();
+    private VariantIndex variantIndex = new VariantIndex();
+
+    /**
+     * Pre-serialized product projection cache configuration
+     */
+    @Data
+    public static class Projection {
+        /**
+         * Enable serving product reads from cached JSON fragments
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of product fragments held in memory
+         */
+        @Min(100)
+        private int maxEntries = 50000;
+    }
+
+    /**
+     * In-memory price table configuration
+     */
+    @Data
+    public static class Prices {
+        /**
+         * Serve price lookups from memory; when false every lookup reads the database
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval between delta refreshes that pick up writes made by other instances
+         */
+        @Min(1000)
+        private long refreshIntervalMs = 30000;
+
+        /**
+         * Window below the highest updated_at read that every delta refresh reads again, so rows committed
+         * late or stamped by a lagging clock are still picked up
+         */
+        @Min(0)
+        private long refreshOverlapMs = 60000;
+    }
+
+    /**
+     * Delivered-order popularity counter configuration
+     */
+    @Data
+    public static class OrderCounts {
+        /**
+         * Interval between flushes of coalesced order_count increments
+         */
+        @Min(1000)
+        private long flushIntervalMs = 10000;
+
+        /**
+         * Maximum SKUs per batched UPDATE statement
+         */
+        @Min(10)
+        @Max(1000)
+        private int maxBatchSize = 500;
+
+        /**
+         * Journal unflushed increments to disk so they survive a restart
+         */
+        private boolean journalEnabled = true;
+
+        /**
+         * Directory holding the append-only journal segments
+         */
+        private String journalDir = "./data/order-counts";
+    }
+
+    /**
+     * In-memory variant group index configuration
+     */
+    @Data
+    public static class VariantIndex {
+        /**
+         * Answer variant group lookups from memory; when false they read the database
+         */
+        private boolean enabled = true;
+
+        /**
+         * Interval between delta refreshes that pick up writes made by other instances
+         */
+        @Min(1000)
+        private long refreshIntervalMs = 30000;
+
+        /**
+         * Window below the highest updated_at read that every delta refresh reads again, so rows committed
+         * late or stamped by a lagging clock are still picked up
+         */
+        @Min(0)
+        private long refreshOverlapMs = 60000;
+    }
+}
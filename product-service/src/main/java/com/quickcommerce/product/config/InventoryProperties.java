@@ -20,6 +20,7 @@ public class InventoryProperties {
     private Reservation reservation = new Reservation();
     private Stock stock = new Stock();
     private Sync sync = new Sync();
+    private Availability availability = new Availability();
 
     /**
      * Stock reservation configuration
@@ -92,4 +93,17 @@ public class InventoryProperties {
         @Max(500)
         private int maxRequestSize = 500;
     }
+
+    /**
+     * Availability check configuration
+     */
+    @Data
+    public static class Availability {
+        /**
+         * Maximum number of product IDs per binary availability request (1-10000)
+         */
+        @Min(1)
+        @Max(10000)
+        private int maxBinaryProductIds = 5000;
+    }
 }
@@ -1,27 +1,37 @@
 package com.quickcommerce.product.controller;
 
+import com.quickcommerce.common.codec.AvailabilityCodec;
+import com.quickcommerce.product.config.InventoryProperties;
 import com.quickcommerce.product.domain.InventoryItem;
 import com.quickcommerce.product.dto.AddStockRequest;
 import com.quickcommerce.product.dto.InventoryAvailabilityRequest;
 import com.quickcommerce.product.dto.InventoryAvailabilityResponse;
+import com.quickcommerce.product.dto.InventoryChange;
 import com.quickcommerce.product.dto.InventoryItemResponse;
 import com.quickcommerce.product.dto.NearestStoreRequest;
 import com.quickcommerce.product.dto.NearestStoreResponse;
+import com.quickcommerce.product.dto.ProductStoreStock;
 import com.quickcommerce.product.dto.ReserveStockRequest;
 import com.quickcommerce.product.dto.StockReservationResponse;
+import com.quickcommerce.product.dto.StoreLocation;
 import com.quickcommerce.product.exception.InsufficientStockException;
 import com.quickcommerce.product.exception.InventoryNotFoundException;
 import com.quickcommerce.product.exception.InvalidReservationException;
 import com.quickcommerce.product.exception.ReservationNotFoundException;
 import com.quickcommerce.product.service.InventoryService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -32,9 +42,11 @@ import java.util.Map;
 @RequestMapping("/api/v1/inventory")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class InventoryController {
 
         private final InventoryService inventoryService;
+        private final InventoryProperties inventoryProperties;
 
         /**
          * Get inventory item by SKU
@@ -216,6 +228,31 @@ public class InventoryController {
                                                 request.getStoreId(), request.getSkus().size()));
         }
 
+        /**
+         * Binary availability check used by search-service on the search path ({@link AvailabilityCodec}):
+         * ascending product IDs as varint deltas in, one in-stock bit per product out.
+         * Same path as the JSON check, selected by content type
+         */
+        @PostMapping(value = "/availability", consumes = AvailabilityCodec.MEDIA_TYPE,
+                        produces = AvailabilityCodec.MEDIA_TYPE)
+        public Mono<ResponseEntity<byte[]>> checkAvailabilityBinary(@RequestBody byte[] body) {
+                AvailabilityCodec.Request request;
+                try {
+                        request = AvailabilityCodec.decodeRequest(body,
+                                        inventoryProperties.getAvailability().getMaxBinaryProductIds());
+                } catch (IllegalArgumentException e) {
+                        log.warn("Binary availability check rejected: {}", e.getMessage());
+                        return Mono.just(ResponseEntity.badRequest().build());
+                }
+                long[] productIds = request.productIds();
+                log.debug("Checking binary availability for store: {} and {} products", request.storeId(),
+                                productIds.length);
+
+                return inventoryService.checkAvailabilityByProductIds(request.storeId(), productIds)
+                                .map(inStock -> ResponseEntity.ok(
+                                                AvailabilityCodec.encodeResponse(productIds.length, inStock)));
+        }
+
         /**
          * Check inventory availability for a single SKU in a store
          * Convenience endpoint for single product checks
@@ -265,6 +302,40 @@ public class InventoryController {
                                                 response.getBody().size()));
         }
 
+        /**
+         * Get store IDs and in-stock store IDs for multiple products (bulk)
+         * Used by search service to keep stock state inside the index
+         */
+        @PostMapping("/products/store-stock")
+        public Mono<ResponseEntity<Map<Long, ProductStoreStock>>> getStoreStockForProducts(
+                        @RequestBody List<Long> productIds) {
+                log.debug("Getting store stock for {} products", productIds.size());
+
+                return inventoryService.getStoreStockForProducts(productIds)
+                                .map(ResponseEntity::ok);
+        }
+
+        /**
+         * Change feed of inventory rows for search-service incremental indexing:
+         * rows updated strictly after the ({@code since}, {@code afterId}) cursor, ordered by updated_at then id
+         */
+        @GetMapping("/changes")
+        public Flux<InventoryChange> getInventoryChanges(
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                        @RequestParam(defaultValue = "0") @Min(0) long afterId,
+                        @RequestParam(defaultValue = "500") @Min(1) @Max(1000) int limit) {
+                return inventoryService.getInventoryChanges(since, afterId, limit);
+        }
+
+        /**
+         * Locations and service radii of active stores; search-service keeps an in-memory copy to resolve
+         * the serving store from customer coordinates
+         */
+        @GetMapping("/stores")
+        public Flux<StoreLocation> getStoreLocations() {
+                return inventoryService.getActiveStoreLocations();
+        }
+
         /**
          * Find nearest store with inventory for requested SKUs
          * Critical API for quick commerce - determines which store can fulfill order
@@ -0,0 +1,29 @@
+package com.quickcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lean inventory row change for search-service incremental indexing.
+ * ({@code updatedAt}, {@code id}) is the feed cursor: callers pass the last pair back to resume.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChange {
+
+    private Long id;
+
+    private Long productId;
+
+    private Long storeId;
+
+    private Integer availableStock;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.quickcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Store assortment and stock state of one product for search-service indexing.
+ * {@code inStockStoreIds} is the subset of {@code storeIds} with available stock (current - reserved) above zero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStoreStock {
+
+    private List<Long> storeIds;
+
+    private List<Long> inStockStoreIds;
+}
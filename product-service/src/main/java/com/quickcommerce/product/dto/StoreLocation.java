@@ -0,0 +1,41 @@
+package com.quickcommerce.product.dto;
+
+import com.quickcommerce.product.domain.Store;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Location and service radius of an active store, for search-service to resolve the serving store
+ * from customer coordinates in memory
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreLocation {
+
+    private Long id;
+
+    private String name;
+
+    private Double latitude;
+
+    private Double longitude;
+
+    private Integer serviceableRadiusKm;
+
+    /**
+     * Create location from Store entity
+     */
+    public static StoreLocation fromStore(Store store) {
+        return StoreLocation.builder()
+                .id(store.getId())
+                .name(store.getName())
+                .latitude(store.getLatitude())
+                .longitude(store.getLongitude())
+                .serviceableRadiusKm(store.getServiceableRadiusKm())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.quickcommerce.product.event;
+
+import com.quickcommerce.product.catalog.domain.Product;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Event published after products are created or updated through the catalog
+ * or bulk sync paths. Carries the saved rows so in-memory read models can be
+ * refreshed without another round trip to the database.
+ */
+@Getter
+public class ProductChangedEvent extends ApplicationEvent {
+
+    private final List<Product> products;
+
+    public ProductChangedEvent(List<Product> products) {
+        super(products);
+        this.products = List.copyOf(products);
+    }
+}
@@ -1,6 +1,7 @@
 package com.quickcommerce.product.repository;
 
 import com.quickcommerce.product.domain.InventoryItem;
+import com.quickcommerce.product.dto.InventoryChange;
 import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -112,9 +113,24 @@ public interface InventoryItemRepository extends ReactiveCrudRepository<Inventor
     @Query("SELECT * FROM inventory_items WHERE store_id = :storeId AND sku IN (:skus)")
     Flux<InventoryItem> findByStoreIdAndSkuIn(Long storeId, java.util.List<String> skus);
 
+    /**
+     * Find inventory items for the given products at one store (variant stock merge)
+     */
+    @Query("SELECT * FROM inventory_items WHERE store_id = :storeId AND product_id IN (:productIds)")
+    Flux<InventoryItem> findByStoreIdAndProductIdIn(Long storeId, java.util.List<Long> productIds);
+
     /**
      * Find inventory item by store ID and SKU
      */
     @Query("SELECT * FROM inventory_items WHERE store_id = :storeId AND sku = :sku")
     Mono<InventoryItem> findByStoreIdAndSku(Long storeId, String sku);
+
+    /**
+     * Change feed page of inventory rows ordered by (updated_at, id), strictly after the given cursor.
+     * Backed by idx_inventory_items_updated_at. As with the product feed, consumers start each poll a
+     * window before their cursor to catch same-second and late commits.
+     */
+    @Query("SELECT id, product_id, store_id, current_stock - reserved_stock AS available_stock, updated_at FROM inventory_items "
+            + "WHERE updated_at >= :since AND (updated_at > :since OR id > :afterId) ORDER BY updated_at, id LIMIT :limit")
+    Flux<InventoryChange> findChangedAfter(java.time.LocalDateTime since, Long afterId, int limit);
 }
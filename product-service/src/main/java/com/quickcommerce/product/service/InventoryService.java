@@ -6,8 +6,11 @@ import com.quickcommerce.product.domain.StockMovement;
 import com.quickcommerce.product.domain.StockReservation;
 import com.quickcommerce.product.dto.AddStockRequest;
 import com.quickcommerce.product.dto.InventoryAvailabilityResponse;
+import com.quickcommerce.product.dto.InventoryChange;
+import com.quickcommerce.product.dto.ProductStoreStock;
 import com.quickcommerce.product.dto.ReserveStockRequest;
 import com.quickcommerce.product.dto.StockReservationResponse;
+import com.quickcommerce.product.dto.StoreLocation;
 import com.quickcommerce.product.event.LowStockAlertEvent;
 import com.quickcommerce.product.event.StockMovementEvent;
 import com.quickcommerce.product.exception.InsufficientStockException;
@@ -34,6 +37,8 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -499,6 +504,25 @@ public class InventoryService {
                                                 storeId, response.getProducts().size()));
         }
 
+        /**
+         * In-stock flags for product IDs in a store (single query), backing the binary availability check
+         * Bit i of the result is set when {@code productIds[i]} has available stock; IDs must be ascending
+         */
+        public Mono<BitSet> checkAvailabilityByProductIds(Long storeId, long[] productIds) {
+                if (productIds.length == 0) {
+                        return Mono.just(new BitSet());
+                }
+                List<Long> ids = Arrays.stream(productIds).boxed().toList();
+                return inventoryItemRepository.findByStoreIdAndProductIdIn(storeId, ids)
+                                .filter(item -> item.getAvailableStock() > 0)
+                                .collect(() -> new BitSet(productIds.length), (inStock, item) -> {
+                                        int index = Arrays.binarySearch(productIds, item.getProductId());
+                                        if (index >= 0) {
+                                                inStock.set(index);
+                                        }
+                                });
+        }
+
         /**
          * Check inventory availability for a single SKU in a store
          * Convenience method for single product checks
@@ -571,6 +595,24 @@ public class InventoryService {
                                 .distinct();
         }
 
+        /**
+         * Inventory rows changed strictly after the (since, afterId) cursor, ordered by updated_at then id.
+         * Feeds search-service incremental indexing of store assortments.
+         */
+        public Flux<InventoryChange> getInventoryChanges(LocalDateTime since, long afterId, int limit) {
+                return inventoryItemRepository.findChangedAfter(since, afterId, limit);
+        }
+
+        /**
+         * Locations and service radii of all active stores.
+         * Feeds the search-service store locator that resolves the serving store from coordinates.
+         */
+        public Flux<StoreLocation> getActiveStoreLocations() {
+                return storeRepository.findByIsActive(true)
+                                .filter(store -> store.getLatitude() != null && store.getLongitude() != null)
+                                .map(StoreLocation::fromStore);
+        }
+
         /**
          * Get stores for multiple products (bulk operation)
          * Returns map of productId -> List<storeId>
@@ -598,4 +640,38 @@ public class InventoryService {
                                         return deduped;
                                 });
         }
+
+        /**
+         * Store assortment plus in-stock stores for multiple products (bulk, single query)
+         * Used by search service to index {@code inStockStoreIds} so stock is filtered inside the search engine
+         */
+        public Mono<Map<Long, ProductStoreStock>> getStoreStockForProducts(List<Long> productIds) {
+                if (productIds == null || productIds.isEmpty()) {
+                        return Mono.just(Map.of());
+                }
+                return inventoryItemRepository.findByProductIdIn(productIds)
+                                .collectList()
+                                .map(items -> {
+                                        Map<Long, java.util.Set<Long>> stores = new java.util.HashMap<>();
+                                        Map<Long, java.util.Set<Long>> inStock = new java.util.HashMap<>();
+                                        for (Long pid : productIds) {
+                                                stores.put(pid, new java.util.LinkedHashSet<>());
+                                                inStock.put(pid, new java.util.LinkedHashSet<>());
+                                        }
+                                        for (InventoryItem item : items) {
+                                                stores.computeIfAbsent(item.getProductId(), k -> new java.util.LinkedHashSet<>())
+                                                                .add(item.getStoreId());
+                                                if (item.getAvailableStock() > 0) {
+                                                        inStock.computeIfAbsent(item.getProductId(), k -> new java.util.LinkedHashSet<>())
+                                                                        .add(item.getStoreId());
+                                                }
+                                        }
+                                        Map<Long, ProductStoreStock> result = new java.util.HashMap<>();
+                                        stores.forEach((pid, storeIds) -> result.put(pid, ProductStoreStock.builder()
+                                                        .storeIds(List.copyOf(storeIds))
+                                                        .inStockStoreIds(List.copyOf(inStock.getOrDefault(pid, java.util.Set.of())))
+                                                        .build()));
+                                        return result;
+                                });
+        }
 }
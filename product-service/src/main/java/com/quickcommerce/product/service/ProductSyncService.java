@@ -9,12 +9,14 @@ import com.quickcommerce.product.dto.BulkSyncRequest;
 import com.quickcommerce.product.dto.BulkSyncResponse;
 import com.quickcommerce.product.dto.BulkSyncResponse.ItemResult;
 import com.quickcommerce.product.dto.ProductSyncItem;
+import com.quickcommerce.product.event.ProductChangedEvent;
 import com.quickcommerce.product.repository.InventoryItemRepository;
 import com.quickcommerce.product.repository.StoreRepository;
 import com.quickcommerce.product.util.ImageJsonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
@@ -37,6 +39,7 @@ public class ProductSyncService {
     private final StoreRepository storeRepository;
     private final TransactionalOperator transactionalOperator;
     private final InventoryProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Bulk sync products and inventory for a specific store
@@ -79,7 +82,33 @@ public class ProductSyncService {
                         .status("FAILED")
                         .errorMessage(error.getMessage())
                         .build());
-                }));
+                }))
+            .collectList()
+            .flatMapMany(results -> publishProductChanges(results)
+                .thenMany(Flux.fromIterable(results)));
+    }
+    
+    /**
+     * Publish one ProductChangedEvent per batch with the committed rows, so in-memory
+     * read models refresh after the per-item transactions have completed.
+     */
+    private Mono<Void> publishProductChanges(List<ItemResult> results) {
+        List<Long> productIds = results.stream()
+            .filter(result -> "SUCCESS".equals(result.getStatus()) && result.getProductId() != null)
+            .map(ItemResult::getProductId)
+            .toList();
+        if (productIds.isEmpty()) {
+            return Mono.empty();
+        }
+        return productRepository.findAllById(productIds)
+            .collectList()
+            .flatMap(products -> Mono.<Void>fromRunnable(
+                () -> eventPublisher.publishEvent(new ProductChangedEvent(products))))
+            .onErrorResume(e -> {
+                log.warn("Failed to publish product changes for {} product(s): {}",
+                    productIds.size(), e.getMessage());
+                return Mono.empty();
+            });
     }
     
     /**
@@ -1,5 +1,7 @@
 package com.quickcommerce.product.catalog.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quickcommerce.product.BaseContainerTest;
 import com.quickcommerce.product.catalog.domain.Category;
 import com.quickcommerce.product.catalog.domain.Product;
@@ -22,6 +24,12 @@ class CatalogServiceIntegrationTest extends BaseContainerTest {
     @Autowired
     private CatalogService catalogService;
 
+    @Autowired
+    private ProductProjectionService projectionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     @DisplayName("Should create product successfully")
     void shouldCreateProduct() {
@@ -48,16 +56,16 @@ class CatalogServiceIntegrationTest extends BaseContainerTest {
 
     @Test
     @DisplayName("Should get products by SKU list")
-    void shouldGetProductsBySkuList() {
+    void shouldGetProductsBySkuList() throws Exception {
         Category category = createTestCategory("Electronics", "electronics");
         createTestProduct("ELEC-001", "Laptop", category.getId(), BigDecimal.valueOf(999.99));
         createTestProduct("ELEC-002", "Phone", category.getId(), BigDecimal.valueOf(599.99));
 
-        var result = catalogService.getProductsBySkuList(java.util.List.of("ELEC-001", "ELEC-002"));
+        var result = projectionService.getProductsBySkuList(java.util.List.of("ELEC-001", "ELEC-002")).block();
 
-        StepVerifier.create(result)
-                .expectNextMatches(p -> p.getSku().equals("ELEC-001") || p.getSku().equals("ELEC-002"))
-                .expectNextMatches(p -> p.getSku().equals("ELEC-001") || p.getSku().equals("ELEC-002"))
-                .verifyComplete();
+        JsonNode products = objectMapper.readTree(result.body());
+        assertThat(products)
+                .extracting(product -> product.get("sku").asText())
+                .containsExactlyInAnyOrder("ELEC-001", "ELEC-002");
     }
 }
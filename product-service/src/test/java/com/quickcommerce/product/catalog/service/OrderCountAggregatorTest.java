@@ -0,0 +1,114 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.product.catalog.dto.OrderCountDelta;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for delivered-order counter coalescing and its journal.
+ * Uses Mockito mocks and a temp directory — no Docker / DB required.
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderCountAggregatorTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path journalDir;
+
+    private CatalogProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CatalogProperties();
+        properties.getOrderCounts().setJournalDir(journalDir.toString());
+    }
+
+    private OrderCountAggregator newAggregator() {
+        OrderCountAggregator aggregator =
+                new OrderCountAggregator(productRepository, properties, new SimpleMeterRegistry());
+        aggregator.replayJournal();
+        return aggregator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> flushedCounts() {
+        ArgumentCaptor<List<OrderCountDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productRepository).applyOrderCountDeltas(captor.capture());
+        return captor.getValue().stream()
+                .collect(Collectors.toMap(OrderCountDelta::sku, OrderCountDelta::count));
+    }
+
+    @Test
+    @DisplayName("Increments across orders are coalesced into one batched update")
+    void increments_coalescedIntoSingleUpdate() {
+        when(productRepository.applyOrderCountDeltas(anyList())).thenReturn(Mono.just(2L));
+        OrderCountAggregator aggregator = newAggregator();
+
+        aggregator.record(List.of("SKU1", "SKU2", "SKU1")).block();
+        aggregator.record(List.of("SKU1")).block();
+
+        StepVerifier.create(aggregator.flush()).expectNext(2L).verifyComplete();
+
+        assertThat(flushedCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("SKU1", 2L, "SKU2", 1L));
+        assertThat(aggregator.pendingSkuCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Unflushed increments are replayed from the journal after a restart")
+    void journal_replayedOnRestart() {
+        OrderCountAggregator before = newAggregator();
+        before.record(List.of("SKU1", "SKU2")).block();
+        before.record(List.of("SKU1")).block();
+
+        when(productRepository.applyOrderCountDeltas(anyList())).thenReturn(Mono.just(2L));
+        OrderCountAggregator after = newAggregator();
+        assertThat(after.pendingSkuCount()).isEqualTo(2);
+
+        after.flush().block();
+        assertThat(flushedCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("SKU1", 2L, "SKU2", 1L));
+
+        // Flushed segments are deleted, so a further restart has nothing to replay
+        assertThat(newAggregator().pendingSkuCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A failed flush re-queues its counts for the next flush")
+    void failedFlush_requeuesCounts() {
+        when(productRepository.applyOrderCountDeltas(anyList()))
+                .thenReturn(Mono.error(new RuntimeException("lock wait timeout")))
+                .thenReturn(Mono.just(1L));
+        OrderCountAggregator aggregator = newAggregator();
+        aggregator.record(List.of("SKU1")).block();
+
+        StepVerifier.create(aggregator.flush()).expectNext(0L).verifyComplete();
+        assertThat(aggregator.pendingSkuCount()).isEqualTo(1);
+
+        StepVerifier.create(aggregator.flush()).expectNext(1L).verifyComplete();
+        assertThat(aggregator.pendingSkuCount()).isZero();
+        verify(productRepository, times(2)).applyOrderCountDeltas(anyList());
+    }
+}
@@ -0,0 +1,162 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.ProductPrice;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory price table.
+ * Uses Mockito mocks — no Docker / DB required.
+ */
+@ExtendWith(MockitoExtension.class)
+class PriceTableServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private PriceTableService priceTableService;
+
+    @BeforeEach
+    void setUp() {
+        priceTableService = new PriceTableService(productRepository, new CatalogProperties());
+    }
+
+    private ProductPrice price(String sku, double amount, LocalDateTime updatedAt) {
+        return ProductPrice.builder()
+                .sku(sku)
+                .basePrice(BigDecimal.valueOf(amount))
+                .isActive(true)
+                .isAvailable(true)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private void loadTable(ProductPrice... rows) {
+        when(productRepository.findAllPrices()).thenReturn(Flux.just(rows));
+        priceTableService.loadOnStartup();
+    }
+
+    @Test
+    @DisplayName("Loaded SKUs are answered from memory without a database read")
+    void loadedSkus_servedFromMemory() {
+        loadTable(price("SKU1", 10, T0), price("SKU2", 20, T0));
+
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU1", "SKU2", "SKU1")))
+                .assertNext(p -> assertThat(p.getSku()).isEqualTo("SKU1"))
+                .assertNext(p -> assertThat(p.getSku()).isEqualTo("SKU2"))
+                .verifyComplete();
+
+        verify(productRepository, never()).findPricesBySkuIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Unknown SKUs fall through to the database and are cached")
+    void missingSkus_readFromDatabaseOnce() {
+        loadTable(price("SKU1", 10, T0));
+        when(productRepository.findPricesBySkuIn(List.of("SKU9")))
+                .thenReturn(Flux.just(price("SKU9", 90, T0)));
+
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU1", "SKU9")))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertThat(priceTableService.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Change events apply newer prices and ignore older ones")
+    void changeEvent_appliesOnlyNewerVersions() {
+        loadTable(price("SKU1", 10, T0));
+
+        Product older = new Product();
+        older.setSku("SKU1");
+        older.setBasePrice(BigDecimal.valueOf(5));
+        older.setUpdatedAt(T0.minusMinutes(1));
+        priceTableService.onProductChanged(new ProductChangedEvent(List.of(older)));
+
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU1")))
+                .assertNext(p -> assertThat(p.getBasePrice()).isEqualByComparingTo("10"))
+                .verifyComplete();
+
+        Product newer = new Product();
+        newer.setSku("SKU1");
+        newer.setBasePrice(BigDecimal.valueOf(12));
+        newer.setUpdatedAt(T0.plusMinutes(1));
+        priceTableService.onProductChanged(new ProductChangedEvent(List.of(newer)));
+
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU1")))
+                .assertNext(p -> assertThat(p.getBasePrice()).isEqualByComparingTo("12"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Delta refreshes re-read an overlap window below the watermark and pick up late commits")
+    void refreshDeltas_readsOverlapWindow() {
+        loadTable(price("SKU1", 10, T0));
+        LocalDateTime since = T0.minusMinutes(1);
+        // committed after the load, stamped before the newest row already read
+        when(productRepository.findPricesUpdatedSince(since))
+                .thenReturn(Flux.just(price("SKU1", 10, T0), price("SKU2", 20, T0.minusSeconds(30))));
+
+        priceTableService.refreshDeltas();
+        priceTableService.refreshDeltas();
+
+        verify(productRepository, times(2)).findPricesUpdatedSince(since);
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU2")))
+                .assertNext(p -> assertThat(p.getBasePrice()).isEqualByComparingTo("20"))
+                .verifyComplete();
+        verify(productRepository, never()).findPricesBySkuIn(anyList());
+    }
+
+    @Test
+    @DisplayName("An empty initial load still starts delta refreshes from the load time")
+    void emptyLoad_seedsWatermarkFromLoadStart() {
+        LocalDateTime beforeLoad = LocalDateTime.now();
+        loadTable();
+        when(productRepository.findPricesUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(Flux.just(price("SKU1", 10, beforeLoad.plusSeconds(1))));
+
+        priceTableService.refreshDeltas();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository).findPricesUpdatedSince(since.capture());
+        assertThat(since.getValue()).isBefore(beforeLoad);
+        assertThat(priceTableService.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Before the table is loaded every lookup reads the database")
+    void notLoaded_readsDatabase() {
+        when(productRepository.findPricesBySkuIn(List.of("SKU1")))
+                .thenReturn(Flux.just(price("SKU1", 10, T0)));
+
+        StepVerifier.create(priceTableService.getPrices(List.of("SKU1")))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}
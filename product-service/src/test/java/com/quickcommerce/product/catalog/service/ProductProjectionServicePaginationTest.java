@@ -1,10 +1,15 @@
 package com.quickcommerce.product.catalog.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.quickcommerce.product.catalog.domain.Product;
 import com.quickcommerce.product.catalog.dto.PagedProductResponse;
 import com.quickcommerce.product.catalog.dto.ProductSortOption;
-import com.quickcommerce.product.catalog.repository.CategoryRepository;
 import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,6 +21,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,27 +34,43 @@ import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 /**
- * Unit tests for CatalogService pagination logic.
- * Uses Mockito mocks — no Docker / DB required.
+ * Unit tests for the category listing pagination served by ProductProjectionService.
+ * Pages are parsed back into PagedProductResponse. Uses Mockito mocks — no Docker / DB required.
  */
 @ExtendWith(MockitoExtension.class)
-class CatalogServicePaginationTest {
+class ProductProjectionServicePaginationTest {
 
     @Mock
     private ProductRepository productRepository;
 
-    @Mock
-    private CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
 
-    private CatalogService catalogService;
+    private ProductProjectionService projectionService;
 
     @BeforeEach
     void setUp() {
-        catalogService = new CatalogService(categoryRepository, productRepository);
+        ProductProjectionCache projectionCache =
+                new ProductProjectionCache(objectMapper, new CatalogProperties(), new SimpleMeterRegistry());
+        projectionService = new ProductProjectionService(productRepository, projectionCache, objectMapper);
     }
 
     // ─── helpers ────────────────────────────────────────────────────────────
 
+    private Mono<PagedProductResponse> page(Long categoryId, int pageNum, int pageSize,
+            ProductSortOption sortBy, String brand) {
+        return projectionService.getProductsByCategory(categoryId, pageNum, pageSize, sortBy, brand)
+                .map(projection -> {
+                    try {
+                        return objectMapper.readValue(projection.body(), PagedProductResponse.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
     private Product product(long id, String name, long categoryId) {
         return product(id, name, categoryId, BigDecimal.TEN, null);
     }
@@ -89,7 +112,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(10L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).hasSize(5);
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -115,7 +138,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(10L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     PagedProductResponse.PageMeta meta = response.getMeta();
                     assertThat(meta.getPage()).isEqualTo(1);
@@ -137,7 +160,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(0L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).isEmpty();
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -161,7 +184,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(11L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).hasSize(1);
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -183,7 +206,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(10L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).isEmpty();
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -206,7 +229,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(5L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).hasSize(5);
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -229,7 +252,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(1L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).hasSize(1);
                     PagedProductResponse.PageMeta meta = response.getMeta();
@@ -252,7 +275,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(10L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> assertThat(response.getContent()).isEmpty())
                 .verifyComplete();
     }
@@ -269,7 +292,7 @@ class CatalogServicePaginationTest {
         when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                 .thenReturn(Mono.just(13L));
 
-        StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+        StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                 .assertNext(response -> {
                     assertThat(response.getContent()).hasSize(3);
                     assertThat(response.getMeta().getSize()).isEqualTo(10); // requested, not actual
@@ -295,7 +318,7 @@ class CatalogServicePaginationTest {
             when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                     .thenReturn(Mono.just(3L));
 
-            StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, null))
+            StepVerifier.create(page(categoryId, pageNum, pageSize, null, null))
                     .assertNext(response -> {
                         assertThat(response.getContent()).hasSize(3);
                         assertThat(response.getMeta().getTotalElements()).isEqualTo(3);
@@ -321,7 +344,7 @@ class CatalogServicePaginationTest {
             when(productRepository.countByCategoryWithFilters(eq(categoryId), isNull()))
                     .thenReturn(Mono.just(2L));
 
-            StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, ProductSortOption.PRICE_ASC, null))
+            StepVerifier.create(page(categoryId, pageNum, pageSize, ProductSortOption.PRICE_ASC, null))
                     .assertNext(response -> {
                         assertThat(response.getContent()).hasSize(2);
                         assertThat(response.getContent().get(0).getBasePrice()).isEqualByComparingTo("10");
@@ -347,7 +370,7 @@ class CatalogServicePaginationTest {
             when(productRepository.countByCategoryWithFilters(eq(categoryId), eq("Amul")))
                     .thenReturn(Mono.just(2L));
 
-            StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, ProductSortOption.PRICE_DESC, "Amul"))
+            StepVerifier.create(page(categoryId, pageNum, pageSize, ProductSortOption.PRICE_DESC, "Amul"))
                     .assertNext(response -> {
                         assertThat(response.getContent()).hasSize(2);
                         assertThat(response.getContent().get(0).getBasePrice()).isEqualByComparingTo("650");
@@ -373,7 +396,7 @@ class CatalogServicePaginationTest {
             when(productRepository.countByCategoryWithFilters(eq(categoryId), eq("Tata")))
                     .thenReturn(Mono.just(2L));
 
-            StepVerifier.create(catalogService.getProductsByCategory(categoryId, pageNum, pageSize, null, "Tata"))
+            StepVerifier.create(page(categoryId, pageNum, pageSize, null, "Tata"))
                     .assertNext(response -> {
                         assertThat(response.getContent()).hasSize(2);
                         assertThat(response.getContent())
@@ -0,0 +1,168 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.JsonProjection;
+import com.quickcommerce.product.catalog.dto.PagedProductResponse;
+import com.quickcommerce.product.catalog.dto.ProductResponse;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the pre-serialized product projection.
+ * Uses Mockito mocks — no Docker / DB required.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductProjectionServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ProductProjectionCache projectionCache;
+    private ProductProjectionService projectionService;
+
+    @BeforeEach
+    void setUp() {
+        projectionCache = new ProductProjectionCache(objectMapper, new CatalogProperties(), new SimpleMeterRegistry());
+        projectionService = new ProductProjectionService(productRepository, projectionCache, objectMapper);
+    }
+
+    private Product product(long id, LocalDateTime updatedAt) {
+        Product p = new Product();
+        p.setId(id);
+        p.setSku("SKU-" + id);
+        p.setName("Product " + id);
+        p.setCategoryId(3L);
+        p.setBasePrice(BigDecimal.valueOf(10 + id));
+        p.setImages("[\"https://cdn/img-" + id + ".jpg\"]");
+        p.setIsActive(true);
+        p.setIsAvailable(true);
+        p.setCreatedAt(updatedAt);
+        p.setUpdatedAt(updatedAt);
+        return p;
+    }
+
+    @Test
+    @DisplayName("Detail body matches Jackson output of ProductResponse")
+    void detail_matchesJacksonSerialization() throws Exception {
+        Product p = product(1, LocalDateTime.of(2025, 1, 1, 10, 0));
+        when(productRepository.findById(1L)).thenReturn(Mono.just(p));
+
+        JsonProjection projection = projectionService.getProductById(1L).block();
+
+        assertThat(objectMapper.readTree(projection.body()))
+                .isEqualTo(objectMapper.valueToTree(ProductResponse.fromDomain(p)));
+        assertThat(projection.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    @DisplayName("Fragment is reused while the row is unchanged and rebuilt once it changes")
+    void fragment_reusedUntilRowChanges() {
+        LocalDateTime v1 = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Product first = product(1, v1);
+        Product same = product(1, v1);
+        Product updated = product(1, v1.plusMinutes(5));
+        updated.setBasePrice(BigDecimal.valueOf(99));
+
+        byte[] a = projectionCache.fragmentFor(first).json();
+        byte[] b = projectionCache.fragmentFor(same).json();
+        byte[] c = projectionCache.fragmentFor(updated).json();
+
+        assertThat(b).isSameAs(a);
+        assertThat(c).isNotSameAs(a);
+        assertThat(new String(c)).contains("99");
+    }
+
+    @Test
+    @DisplayName("A write within the same updated_at second still rebuilds the fragment")
+    void fragment_rebuiltForSameSecondWrite() {
+        LocalDateTime v1 = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Product first = product(1, v1);
+        byte[] a = projectionCache.fragmentFor(first).json();
+
+        // the cached copy is private: mutating the loaded row does not change it
+        first.setName("Renamed in place");
+        Product repriced = product(1, v1);
+        repriced.setBasePrice(BigDecimal.valueOf(42));
+
+        assertThat(projectionCache.fragmentFor(product(1, v1)).json()).isSameAs(a);
+        assertThat(new String(projectionCache.fragmentFor(repriced).json())).contains("42");
+    }
+
+    @Test
+    @DisplayName("ProductChangedEvent drops the cached fragment")
+    void changeEvent_invalidatesFragment() {
+        Product p = product(1, LocalDateTime.of(2025, 1, 1, 10, 0));
+        byte[] before = projectionCache.fragmentFor(p).json();
+
+        projectionCache.onProductChanged(new ProductChangedEvent(List.of(p)));
+
+        assertThat(projectionCache.size()).isZero();
+        assertThat(projectionCache.fragmentFor(p).json()).isNotSameAs(before).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("Category page is assembled in the PagedProductResponse shape")
+    void categoryPage_hasPagedShape() throws Exception {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Product> page = List.of(product(1, now), product(2, now));
+        when(productRepository.findByCategoryWithFilters(eq(3L), isNull(), isNull(), eq(2), eq(0L)))
+                .thenReturn(Flux.fromIterable(page));
+        when(productRepository.countByCategoryWithFilters(eq(3L), isNull()))
+                .thenReturn(Mono.just(5L));
+
+        JsonProjection projection = projectionService.getProductsByCategory(3L, 0, 2, null, null).block();
+
+        PagedProductResponse expected = PagedProductResponse.builder()
+                .content(page.stream().map(ProductResponse::fromDomain).toList())
+                .meta(PagedProductResponse.PageMeta.builder()
+                        .page(0).size(2).totalElements(5).totalPages(3).first(true).last(false)
+                        .build())
+                .build();
+        JsonNode actual = objectMapper.readTree(projection.body());
+        assertThat(actual).isEqualTo(objectMapper.valueToTree(expected));
+    }
+
+    @Test
+    @DisplayName("Identical SKU lists yield identical ETags; empty list yields []")
+    void skuList_etagStableAndEmptyArray() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(productRepository.findBySkuIn(List.of("SKU-1", "SKU-2")))
+                .thenAnswer(inv -> Flux.just(product(1, now), product(2, now)));
+
+        String first = projectionService.getProductsBySkuList(List.of("SKU-1", "SKU-2", "SKU-1")).block().etag();
+        String second = projectionService.getProductsBySkuList(List.of("SKU-1", "SKU-2")).block().etag();
+        assertThat(second).isEqualTo(first);
+
+        StepVerifier.create(projectionService.getProductsBySkuList(List.of()))
+                .assertNext(p -> assertThat(new String(p.body())).isEqualTo("[]"))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,168 @@
+package com.quickcommerce.product.catalog.service;
+
+import com.quickcommerce.common.dto.VariantDto;
+import com.quickcommerce.product.catalog.domain.Product;
+import com.quickcommerce.product.catalog.dto.GroupSummary;
+import com.quickcommerce.product.catalog.repository.ProductRepository;
+import com.quickcommerce.product.config.CatalogProperties;
+import com.quickcommerce.product.domain.InventoryItem;
+import com.quickcommerce.product.event.ProductChangedEvent;
+import com.quickcommerce.product.repository.InventoryItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the in-memory variant group index.
+ * Uses Mockito mocks — no Docker / DB required.
+ */
+@ExtendWith(MockitoExtension.class)
+class VariantGroupIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Mock
+    private CatalogService catalogService;
+
+    private VariantGroupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new VariantGroupIndex(productRepository, inventoryItemRepository, catalogService,
+                new CatalogProperties());
+    }
+
+    private Product variant(long id, String groupId, String size, double price) {
+        Product p = new Product();
+        p.setId(id);
+        p.setSku("SKU-" + id);
+        p.setGroupId(groupId);
+        p.setPackageSize(size);
+        p.setBasePrice(BigDecimal.valueOf(price));
+        p.setIsActive(true);
+        p.setIsAvailable(true);
+        p.setUpdatedAt(T0);
+        return p;
+    }
+
+    private void load(Product... products) {
+        when(productRepository.findAll()).thenReturn(Flux.just(products));
+        index.loadOnStartup();
+    }
+
+    private List<VariantDto> group(String groupId) {
+        return index.getVariantGroups(List.of(groupId), null).block().get(groupId);
+    }
+
+    @Test
+    @DisplayName("Groups are answered from memory sorted by price then id")
+    void loadedGroups_sortedByPriceThenId() {
+        load(variant(3, "milk", "1L", 60), variant(1, "milk", "500ml", 32), variant(2, "milk", "500ml", 32),
+                variant(4, "bread", "400g", 40));
+
+        Map<String, List<VariantDto>> result = index.getVariantGroups(List.of("milk", "unknown"), null).block();
+
+        assertThat(result).containsOnlyKeys("milk");
+        assertThat(result.get("milk")).extracting(VariantDto::getProductId).containsExactly(1L, 2L, 3L);
+        verifyNoInteractions(catalogService);
+    }
+
+    @Test
+    @DisplayName("Change events move, re-sort and drop variants")
+    void changeEvents_updateGroups() {
+        load(variant(1, "milk", "500ml", 32), variant(2, "milk", "1L", 60));
+
+        Product repriced = variant(2, "milk", "1L", 20);
+        repriced.setUpdatedAt(T0.plusMinutes(1));
+        index.onProductChanged(new ProductChangedEvent(List.of(repriced)));
+        assertThat(group("milk")).extracting(VariantDto::getProductId).containsExactly(2L, 1L);
+
+        Product moved = variant(1, "toned-milk", "500ml", 32);
+        moved.setUpdatedAt(T0.plusMinutes(2));
+        index.onProductChanged(new ProductChangedEvent(List.of(moved)));
+        assertThat(group("milk")).extracting(VariantDto::getProductId).containsExactly(2L);
+        assertThat(group("toned-milk")).extracting(VariantDto::getProductId).containsExactly(1L);
+
+        Product deactivated = variant(2, "milk", "1L", 20);
+        deactivated.setIsActive(false);
+        deactivated.setUpdatedAt(T0.plusMinutes(3));
+        index.onProductChanged(new ProductChangedEvent(List.of(deactivated)));
+        assertThat(group("milk")).isNull();
+
+        StepVerifier.create(index.getAllGroupSummaries())
+                .assertNext(s -> assertThat(s).isEqualTo(new GroupSummary("toned-milk", 1L)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Cached group summaries are rebuilt after a change event")
+    void summaries_rebuiltAfterChange() {
+        load(variant(1, "milk", "500ml", 32));
+        StepVerifier.create(index.getAllGroupSummaries())
+                .assertNext(s -> assertThat(s).isEqualTo(new GroupSummary("milk", 1L)))
+                .verifyComplete();
+
+        Product added = variant(2, "milk", "1L", 60);
+        added.setUpdatedAt(T0.plusMinutes(1));
+        index.onProductChanged(new ProductChangedEvent(List.of(added)));
+
+        StepVerifier.create(index.getAllGroupSummaries())
+                .assertNext(s -> assertThat(s).isEqualTo(new GroupSummary("milk", 2L)))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Delta refreshes re-read an overlap window below the watermark and pick up late commits")
+    void refreshDeltas_readsOverlapWindow() {
+        load(variant(1, "milk", "500ml", 32));
+        Product late = variant(2, "milk", "1L", 20);
+        late.setUpdatedAt(T0.minusSeconds(30));
+        when(productRepository.findUpdatedSince(T0.minusMinutes(1)))
+                .thenReturn(Flux.just(variant(1, "milk", "500ml", 32), late));
+
+        index.refreshDeltas();
+
+        assertThat(group("milk")).extracting(VariantDto::getProductId).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("storeId merges that store's available stock into inStock")
+    void storeId_mergesStoreStock() {
+        load(variant(1, "milk", "500ml", 32), variant(2, "milk", "1L", 60));
+        InventoryItem stocked = InventoryItem.builder().productId(1L).storeId(7L).currentStock(5).reservedStock(0).build();
+        InventoryItem soldOut = InventoryItem.builder().productId(2L).storeId(7L).currentStock(3).reservedStock(3).build();
+        when(inventoryItemRepository.findByStoreIdAndProductIdIn(eq(7L), anyList()))
+                .thenReturn(Flux.just(stocked, soldOut));
+
+        StepVerifier.create(index.getVariantGroups(List.of("milk"), 7L))
+                .assertNext(result -> assertThat(result.get("milk"))
+                        .extracting(VariantDto::getInStock)
+                        .containsExactly(true, false))
+                .verifyComplete();
+
+        // The shared index entries are not mutated by the merge
+        assertThat(group("milk")).extracting(VariantDto::getInStock).containsExactly(true, true);
+    }
+}
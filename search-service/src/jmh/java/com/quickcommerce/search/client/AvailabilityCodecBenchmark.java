@@ -0,0 +1,152 @@
+package com.quickcommerce.search.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.common.codec.AvailabilityCodec;
+import com.quickcommerce.search.dto.AvailabilityRequest;
+import com.quickcommerce.search.dto.AvailabilityResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs. binary availability check ({@link AvailabilityCodec}) for one search page (50), an over-fetched
+ * candidate set (500) and a large one (5000): encode and decode on both sides of the call. Payload sizes per
+ * encoding are printed once per trial.
+ *
+ * <pre>
+ * mvn -pl search-service -am -Pbenchmarks test-compile exec:exec -Djmh.args="AvailabilityCodecBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityCodecBenchmark {
+
+    private static final long STORE_ID = 17L;
+
+    /**
+     * Catalog the candidate IDs are drawn from
+     */
+    private static final int CATALOG_SIZE = 200_000;
+
+    @Param({"50", "500", "5000"})
+    public int ids;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<Long> productIds;
+    private long[] sortedIds;
+    private BitSet inStock;
+    private AvailabilityResponse jsonResponse;
+    private byte[] jsonRequestBody;
+    private byte[] jsonResponseBody;
+    private byte[] binaryRequestBody;
+    private byte[] binaryResponseBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        Set<Long> candidates = new LinkedHashSet<>();
+        while (candidates.size() < ids) {
+            candidates.add(1 + (long) random.nextInt(CATALOG_SIZE));
+        }
+        productIds = new ArrayList<>(candidates);
+        sortedIds = AvailabilityCodec.sortedDistinct(productIds);
+
+        inStock = new BitSet(ids);
+        Map<Long, Boolean> availability = new HashMap<>();
+        for (int i = 0; i < sortedIds.length; i++) {
+            boolean available = random.nextInt(10) != 0;
+            inStock.set(i, available);
+            availability.put(sortedIds[i], available);
+        }
+        jsonResponse = new AvailabilityResponse(STORE_ID, availability);
+
+        jsonRequestBody = objectMapper.writeValueAsBytes(new AvailabilityRequest(STORE_ID, productIds));
+        jsonResponseBody = objectMapper.writeValueAsBytes(jsonResponse);
+        binaryRequestBody = AvailabilityCodec.encodeRequest(STORE_ID, sortedIds);
+        binaryResponseBody = AvailabilityCodec.encodeResponse(ids, inStock);
+        System.out.printf("%n%d IDs: request json=%d binary=%d bytes, response json=%d binary=%d bytes%n",
+            ids, jsonRequestBody.length, binaryRequestBody.length, jsonResponseBody.length,
+            binaryResponseBody.length);
+    }
+
+    /**
+     * search-service: request body
+     */
+    @Benchmark
+    public byte[] jsonEncodeRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(new AvailabilityRequest(STORE_ID, productIds));
+    }
+
+    @Benchmark
+    public byte[] binaryEncodeRequest() {
+        return AvailabilityCodec.encodeRequest(STORE_ID, AvailabilityCodec.sortedDistinct(productIds));
+    }
+
+    /**
+     * product-service: request body to IDs
+     */
+    @Benchmark
+    public AvailabilityRequest jsonDecodeRequest() throws IOException {
+        return objectMapper.readValue(jsonRequestBody, AvailabilityRequest.class);
+    }
+
+    @Benchmark
+    public AvailabilityCodec.Request binaryDecodeRequest() {
+        return AvailabilityCodec.decodeRequest(binaryRequestBody, Integer.MAX_VALUE);
+    }
+
+    /**
+     * product-service: in-stock flags to response body
+     */
+    @Benchmark
+    public byte[] jsonEncodeResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(jsonResponse);
+    }
+
+    @Benchmark
+    public byte[] binaryEncodeResponse() {
+        return AvailabilityCodec.encodeResponse(ids, inStock);
+    }
+
+    /**
+     * search-service: response body to the product ID to in-stock map the stock filter reads
+     */
+    @Benchmark
+    public Map<Long, Boolean> jsonDecodeResponse() throws IOException {
+        return objectMapper.readValue(jsonResponseBody, AvailabilityResponse.class).getAvailability();
+    }
+
+    @Benchmark
+    public Map<Long, Boolean> binaryDecodeResponse() {
+        BitSet flags = AvailabilityCodec.decodeResponse(binaryResponseBody, sortedIds.length);
+        Map<Long, Boolean> availability = new HashMap<>(sortedIds.length * 4 / 3 + 1);
+        for (int i = 0; i < sortedIds.length; i++) {
+            availability.put(sortedIds[i], flags.get(i));
+        }
+        return availability;
+    }
+}
@@ -0,0 +1,125 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Composite strategy vs. top-K engine on one page (20), an over-fetched page (80) and a large candidate set
+ * (1000).
+ *
+ * <pre>
+ * mvn -pl search-service -am -Pbenchmarks test-compile exec:exec -Djmh.args="RankingBenchmark -prof gc"
+ * </pre>
+ * {@code -prof gc} adds the allocation rate per operation next to the timings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingBenchmark {
+
+    private static final long STORE_ID = 1L;
+
+    @Param({"20", "80", "1000"})
+    public int candidates;
+
+    /**
+     * Results per page
+     */
+    @Param({"20"})
+    public int limit;
+
+    private List<ProductDocument> documents;
+    private CompositeRelevanceFirstRankingStrategy composite;
+    private TopKRankingEngine engine;
+    private TopKRankingEngine engineAllFeatures;
+    private RankingRequest request;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        documents = new ArrayList<>(candidates);
+        Map<Long, Integer> storePriorities = new HashMap<>();
+        for (int i = 0; i < candidates; i++) {
+            long id = i + 1;
+            documents.add(ProductDocument.builder()
+                .id(id)
+                .sku("SKU-" + id)
+                .rankingScore(random.nextDouble())
+                .orderCount(random.nextInt(5000))
+                .searchPriority(random.nextInt(101))
+                .isBestseller(random.nextInt(10) == 0)
+                .price(random.nextInt(20) == 0 ? null : BigDecimal.valueOf(random.nextInt(100_000), 2))
+                .lastOrderedAt(random.nextInt(10) == 0 ? null : now - random.nextInt(30 * 24) * 3_600_000L)
+                .build());
+            if (random.nextInt(4) == 0) {
+                storePriorities.put(id, random.nextInt(101));
+            }
+        }
+        request = new RankingRequest(STORE_ID, limit, now);
+
+        SearchProperties props = new SearchProperties();
+        composite = new CompositeRelevanceFirstRankingStrategy(props);
+        engine = engine(props, new StorePriorityIndex(null, props));
+
+        SearchProperties allFeatures = new SearchProperties();
+        allFeatures.getRanking().setRecencyWeight(0.2);
+        allFeatures.getRanking().setStorePriorityWeight(0.2);
+        StorePriorityIndex storePriorityIndex = new StorePriorityIndex(null, allFeatures);
+        storePriorityIndex.replace(Map.of(STORE_ID, storePriorities));
+        engineAllFeatures = engine(allFeatures, storePriorityIndex);
+    }
+
+    private static TopKRankingEngine engine(SearchProperties props, StorePriorityIndex storePriorityIndex) {
+        return new TopKRankingEngine(props, List.of(
+            new OrderCountFeature(),
+            new SearchPriorityFeature(),
+            new BestsellerFeature(),
+            new RecencyFeature(props),
+            new StorePriorityFeature(storePriorityIndex)));
+    }
+
+    /**
+     * Current strategy: full sort, then the page is cut
+     */
+    @Benchmark
+    public List<ProductDocument> compositeFullSort() {
+        List<ProductDocument> ranked = composite.rank(documents);
+        return ranked.size() <= limit ? ranked : ranked.subList(0, limit);
+    }
+
+    @Benchmark
+    public List<ProductDocument> topKEngine() {
+        return engine.rank(documents, request);
+    }
+
+    /**
+     * Top-K with recency and store priority weighted in as well
+     */
+    @Benchmark
+    public List<ProductDocument> topKEngineAllFeatures() {
+        return engineAllFeatures.rank(documents, request);
+    }
+}
@@ -2,12 +2,14 @@ package com.quickcommerce.search;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for Search Service
  * Provides product search capabilities using Meilisearch
  */
 @SpringBootApplication
+@EnableScheduling
 public class SearchServiceApplication {
 
     public static void main(String[] args) {
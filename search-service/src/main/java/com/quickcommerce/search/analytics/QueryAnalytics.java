@@ -0,0 +1,385 @@
+package com.quickcommerce.search.analytics;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.QueryAnalyticsResponse;
+import com.quickcommerce.search.entity.SearchQueryLog;
+import com.quickcommerce.search.repository.SearchQueryLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Query analytics: what people search for, which searches find nothing and which results they click.
+ *
+ * Request threads only offer a {@link QueryEvent} to a lock-free ring ({@link QueryEventRing}); when the
+ * ring is full the event is dropped, never waited for. {@link #flush()} drains it off the request path:
+ * events update per-minute aggregates (top queries, zero-result queries, latency by query) and are written
+ * to {@code search_query_log} with one multi-row INSERT per batch. While {@code max-in-flight-batches} writes
+ * are outstanding, events stay in the ring.
+ *
+ * The same aggregates feed query suggestions ({@link #queriesWithResults}): searches that found products,
+ * with the stores they were made in.
+ */
+@Slf4j
+@Service
+public class QueryAnalytics {
+
+    static final String OTHER = "(other)";
+
+    /**
+     * Latency bucket upper bounds; the last bucket holds everything slower
+     */
+    private static final long[] LATENCY_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    /**
+     * Searches a query needs in the window before it is ranked by latency
+     */
+    private static final int MIN_LATENCY_SAMPLES = 5;
+
+    private static final int PURGE_BATCH = 10000;
+
+    private final SearchQueryLogRepository repository;
+    private final SearchProperties.Analytics config;
+    private final int maxStoresPerQuery;
+    private final QueryEventRing ring;
+    private final Bucket[] buckets;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    private final Counter writeFailureCounter;
+
+    public QueryAnalytics(SearchQueryLogRepository repository,
+                          SearchProperties searchProperties,
+                          MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.config = searchProperties.getAnalytics();
+        this.maxStoresPerQuery = searchProperties.getSuggest().getMaxStoresPerQuery();
+        this.ring = new QueryEventRing(config.getBufferSize());
+        this.buckets = new Bucket[Math.max(1, config.getWindowMinutes())];
+
+        FunctionCounter.builder("search.analytics.dropped", ring, QueryEventRing::dropped)
+            .description("Analytics events dropped because the buffer was full")
+            .register(meterRegistry);
+        Gauge.builder("search.analytics.buffered", ring, QueryEventRing::size)
+            .description("Analytics events waiting to be drained")
+            .register(meterRegistry);
+        this.writeFailureCounter = Counter.builder("search.analytics.write_failures")
+            .description("Analytics events lost because their batch insert failed")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record a completed search (never blocks; dropped when the buffer is full)
+     */
+    public void recordSearch(String query, Long storeId, int resultCount, long latencyMs, boolean zeroResult) {
+        if (!config.isEnabled() || query == null || query.isEmpty()) {
+            return;
+        }
+        ring.offer(new QueryEvent(QueryEvent.Type.SEARCH, truncate(query), storeId, resultCount,
+            (int) Math.min(latencyMs, Integer.MAX_VALUE), zeroResult, 0L, 0, System.currentTimeMillis()));
+    }
+
+    /**
+     * Record a click on a search result (never blocks; dropped when the buffer is full)
+     */
+    public void recordClick(String query, Long storeId, long productId, int position) {
+        if (!config.isEnabled() || query == null || query.isEmpty()) {
+            return;
+        }
+        ring.offer(new QueryEvent(QueryEvent.Type.CLICK, truncate(query), storeId, 0, 0, false, productId,
+            position, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drain buffered events into the aggregates and the database, one batch at a time
+     */
+    @Scheduled(fixedDelayString = "${search.analytics.flush-interval-ms:1000}")
+    public void flush() {
+        if (!config.isEnabled() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int batchSize = Math.max(1, config.getBatchSize());
+            while (inFlightBatches.get() < config.getMaxInFlightBatches()) {
+                List<QueryEvent> events = new ArrayList<>(Math.min(batchSize, ring.size()));
+                if (ring.drain(events::add, batchSize) == 0) {
+                    return;
+                }
+                aggregate(events);
+                write(events);
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Delete rows older than {@code retention-days}, in chunks so no single statement holds locks for long
+     */
+    @Scheduled(fixedDelayString = "${search.analytics.purge-interval-ms:3600000}",
+        initialDelayString = "${search.analytics.purge-interval-ms:3600000}")
+    public void purge() {
+        if (!config.isEnabled() || config.getRetentionDays() <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(config.getRetentionDays());
+        repository.deleteOlderThan(cutoff, PURGE_BATCH)
+            .expand(deleted -> deleted >= PURGE_BATCH
+                ? repository.deleteOlderThan(cutoff, PURGE_BATCH)
+                : Mono.empty())
+            .reduce(0L, (total, deleted) -> total + deleted)
+            .subscribe(deleted -> log.info("Purged {} search analytics rows older than {}", deleted, cutoff),
+                e -> log.warn("Search analytics purge failed: {}", e.getMessage()));
+    }
+
+    /**
+     * Aggregates over the rolling window
+     *
+     * @param limit Queries per list
+     */
+    public QueryAnalyticsResponse report(int limit) {
+        Map<String, QueryStats> merged = merged();
+        QueryStats totals = new QueryStats();
+        merged.values().forEach(stats -> totals.add(stats, 0));
+
+        return QueryAnalyticsResponse.builder()
+            .windowMinutes(buckets.length)
+            .searches(totals.searches)
+            .zeroResultSearches(totals.zeroResults)
+            .clicks(totals.clicks)
+            .droppedEvents(ring.dropped())
+            .bufferedEvents(ring.size())
+            .topQueries(top(merged, stats -> stats.searches > 0,
+                Comparator.comparingLong((QueryStats stats) -> stats.searches), limit))
+            .zeroResultQueries(top(merged, stats -> stats.zeroResults > 0,
+                Comparator.comparingLong((QueryStats stats) -> stats.zeroResults), limit))
+            .slowestQueries(top(merged, stats -> stats.searches >= MIN_LATENCY_SAMPLES,
+                Comparator.comparingLong(QueryStats::p95LatencyMs), limit))
+            .build();
+    }
+
+    /**
+     * Most searched queries in the rolling window that found products (fallback pages excluded), with the
+     * stores they found them in
+     *
+     * @param limit Max queries returned
+     */
+    public List<QueryHits> queriesWithResults(int limit) {
+        return merged().entrySet().stream()
+            .filter(entry -> !OTHER.equals(entry.getKey()) && entry.getValue().hits() > 0)
+            .sorted(Map.Entry.<String, QueryStats>comparingByValue(
+                    Comparator.comparingLong(QueryStats::hits).reversed())
+                .thenComparing(Map.Entry.comparingByKey()))
+            .limit(Math.max(0, limit))
+            .map(entry -> new QueryHits(entry.getKey(), entry.getValue().hits(),
+                entry.getValue().storeIds == null ? new long[0]
+                    : entry.getValue().storeIds.stream().mapToLong(Long::longValue).sorted().toArray()))
+            .collect(Collectors.toList());
+    }
+
+    private Map<String, QueryStats> merged() {
+        long currentMinute = System.currentTimeMillis() / 60_000;
+        Map<String, QueryStats> merged = new HashMap<>();
+        synchronized (buckets) {
+            for (Bucket bucket : buckets) {
+                if (bucket == null || currentMinute - bucket.minute >= buckets.length) {
+                    continue;
+                }
+                bucket.queries.forEach((query, stats) ->
+                    merged.computeIfAbsent(query, k -> new QueryStats()).add(stats, maxStoresPerQuery));
+            }
+        }
+        return merged;
+    }
+
+    private void aggregate(List<QueryEvent> events) {
+        int maxQueries = config.getMaxQueriesPerBucket();
+        synchronized (buckets) {
+            for (QueryEvent event : events) {
+                long minute = event.timestampMillis() / 60_000;
+                int index = (int) (minute % buckets.length);
+                Bucket bucket = buckets[index];
+                if (bucket == null || bucket.minute < minute) {
+                    bucket = new Bucket(minute);
+                    buckets[index] = bucket;
+                } else if (bucket.minute > minute) {
+                    continue; // older than the window
+                }
+                QueryStats stats = bucket.queries.get(event.query());
+                if (stats == null) {
+                    String key = bucket.queries.size() < maxQueries ? event.query() : OTHER;
+                    stats = bucket.queries.computeIfAbsent(key, k -> new QueryStats());
+                }
+                stats.record(event, maxStoresPerQuery);
+            }
+        }
+    }
+
+    private void write(List<QueryEvent> events) {
+        List<SearchQueryLog> rows = events.stream().map(QueryAnalytics::toRow).collect(Collectors.toList());
+        inFlightBatches.incrementAndGet();
+        repository.insertBatch(rows)
+            .doFinally(signal -> inFlightBatches.decrementAndGet())
+            .subscribe(inserted -> log.debug("Persisted {} search analytics events", inserted),
+                e -> {
+                    writeFailureCounter.increment(rows.size());
+                    log.warn("Failed to persist {} search analytics events: {}", rows.size(), e.getMessage());
+                });
+    }
+
+    private static SearchQueryLog toRow(QueryEvent event) {
+        boolean search = event.type() == QueryEvent.Type.SEARCH;
+        return SearchQueryLog.builder()
+            .eventType(event.type().name())
+            .query(event.query())
+            .storeId(event.storeId())
+            .resultCount(search ? event.resultCount() : null)
+            .latencyMs(search ? event.latencyMs() : null)
+            .zeroResult(event.zeroResult())
+            .productId(search ? null : event.productId())
+            .resultPosition(search ? null : event.position())
+            .createdAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestampMillis()), ZoneId.systemDefault()))
+            .build();
+    }
+
+    private String truncate(String query) {
+        int maxLength = config.getMaxQueryLength();
+        return query.length() > maxLength ? query.substring(0, maxLength) : query;
+    }
+
+    private static List<QueryAnalyticsResponse.QueryStat> top(Map<String, QueryStats> merged,
+                                                              Predicate<QueryStats> include,
+                                                              Comparator<QueryStats> order, int limit) {
+        return merged.entrySet().stream()
+            .filter(entry -> include.test(entry.getValue()))
+            .sorted(Map.Entry.<String, QueryStats>comparingByValue(order.reversed())
+                .thenComparing(Map.Entry.comparingByKey()))
+            .limit(Math.max(0, limit))
+            .map(entry -> entry.getValue().toStat(entry.getKey()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Aggregates of one minute, by query
+     */
+    private static final class Bucket {
+        final long minute;
+        final Map<String, QueryStats> queries = new HashMap<>();
+
+        Bucket(long minute) {
+            this.minute = minute;
+        }
+    }
+
+    /**
+     * A query that found products, the searches that did and the stores they were made in (sorted)
+     */
+    public record QueryHits(String query, long searches, long[] storeIds) {
+    }
+
+    /**
+     * Counters, latency histogram and stores with results of one query
+     */
+    private static final class QueryStats {
+        long searches;
+        long zeroResults;
+        long clicks;
+        long latencySumMs;
+        final long[] latencyBuckets = new long[LATENCY_BOUNDS_MS.length + 1];
+        Set<Long> storeIds;
+
+        void record(QueryEvent event, int maxStores) {
+            if (event.type() == QueryEvent.Type.CLICK) {
+                clicks++;
+                return;
+            }
+            searches++;
+            if (event.zeroResult()) {
+                zeroResults++;
+            } else if (event.storeId() != null) {
+                addStore(event.storeId(), maxStores);
+            }
+            latencySumMs += event.latencyMs();
+            int bucket = 0;
+            while (bucket < LATENCY_BOUNDS_MS.length && event.latencyMs() > LATENCY_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets[bucket]++;
+        }
+
+        void add(QueryStats other, int maxStores) {
+            searches += other.searches;
+            zeroResults += other.zeroResults;
+            clicks += other.clicks;
+            latencySumMs += other.latencySumMs;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                latencyBuckets[i] += other.latencyBuckets[i];
+            }
+            if (other.storeIds != null) {
+                other.storeIds.forEach(storeId -> addStore(storeId, maxStores));
+            }
+        }
+
+        long hits() {
+            return searches - zeroResults;
+        }
+
+        private void addStore(Long storeId, int maxStores) {
+            if (storeIds == null) {
+                if (maxStores <= 0) {
+                    return;
+                }
+                storeIds = new HashSet<>();
+            }
+            if (storeIds.size() < maxStores) {
+                storeIds.add(storeId);
+            }
+        }
+
+        /**
+         * Upper bound of the bucket holding the 95th percentile (the slowest bound doubled for the overflow)
+         */
+        long p95LatencyMs() {
+            long target = (long) Math.ceil(searches * 0.95);
+            long seen = 0;
+            for (int i = 0; i < LATENCY_BOUNDS_MS.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= target) {
+                    return LATENCY_BOUNDS_MS[i];
+                }
+            }
+            return LATENCY_BOUNDS_MS[LATENCY_BOUNDS_MS.length - 1] * 2;
+        }
+
+        QueryAnalyticsResponse.QueryStat toStat(String query) {
+            return QueryAnalyticsResponse.QueryStat.builder()
+                .query(query)
+                .searches(searches)
+                .zeroResults(zeroResults)
+                .clicks(clicks)
+                .clickThroughRate(searches > 0 ? (double) clicks / searches : null)
+                .avgLatencyMs(searches > 0 ? (double) latencySumMs / searches : null)
+                .p95LatencyMs(searches > 0 ? p95LatencyMs() : null)
+                .build();
+        }
+    }
+}
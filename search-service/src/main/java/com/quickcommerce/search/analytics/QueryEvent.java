@@ -0,0 +1,23 @@
+package com.quickcommerce.search.analytics;
+
+/**
+ * One recorded search or result click. Primitive fields keep recording to a single small allocation.
+ *
+ * @param type            SEARCH or CLICK
+ * @param query           Normalized query
+ * @param storeId         Store searched in (null when unknown)
+ * @param resultCount     Results returned (SEARCH)
+ * @param latencyMs       Search latency (SEARCH)
+ * @param zeroResult      Query matched nothing: the page was empty or served by the fallback (SEARCH)
+ * @param productId       Clicked product (CLICK)
+ * @param position        1-based position of the clicked result (CLICK)
+ * @param timestampMillis Epoch millis when the event was recorded
+ */
+public record QueryEvent(Type type, String query, Long storeId, int resultCount, int latencyMs,
+                         boolean zeroResult, long productId, int position, long timestampMillis) {
+
+    public enum Type {
+        SEARCH,
+        CLICK
+    }
+}
@@ -0,0 +1,92 @@
+package com.quickcommerce.search.analytics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer of query events: many request threads offer, one drainer consumes.
+ *
+ * Producers claim a sequence with a CAS on the producer index and publish the event into its slot; when the
+ * ring is full the event is counted as dropped instead of waiting. The drainer takes published events in
+ * sequence order, clears their slots and then advances the consumer index, which is what frees capacity.
+ * A claimed slot that is not yet published ends the drain; it is picked up by the next one.
+ */
+final class QueryEventRing {
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<QueryEvent> slots;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param requestedCapacity Events held between drains, rounded up to a power of two
+     */
+    QueryEventRing(int requestedCapacity) {
+        int capacity = requestedCapacity >= MAX_CAPACITY ? MAX_CAPACITY
+            : 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, requestedCapacity) - 1));
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Add an event without blocking; false (and counted as dropped) when the ring is full
+     */
+    boolean offer(QueryEvent event) {
+        while (true) {
+            long sequence = producerIndex.get();
+            if (sequence - consumerIndex.get() >= slots.length()) {
+                dropped.increment();
+                return false;
+            }
+            if (producerIndex.compareAndSet(sequence, sequence + 1)) {
+                slots.lazySet((int) sequence & mask, event);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hand up to {@code limit} events to {@code sink} in recording order. Single consumer only.
+     *
+     * @return Number of events drained
+     */
+    int drain(Consumer<QueryEvent> sink, int limit) {
+        long sequence = consumerIndex.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) sequence & mask;
+            QueryEvent event = slots.get(index);
+            if (event == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            sequence++;
+            drained++;
+            sink.accept(event);
+        }
+        if (drained > 0) {
+            consumerIndex.lazySet(sequence);
+        }
+        return drained;
+    }
+
+    /**
+     * Events claimed but not yet drained
+     */
+    int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
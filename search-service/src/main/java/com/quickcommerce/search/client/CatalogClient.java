@@ -37,4 +37,25 @@ public interface CatalogClient {
      * @return Flux of catalog products
      */
     reactor.core.publisher.Flux<CatalogProductDto> getAllProducts();
+
+    /**
+     * Get one keyset page of all products ordered by id
+     * Used by streaming bulk indexing; errors are propagated so a rebuild never indexes a partial catalog
+     *
+     * @param afterId Last product ID of the previous page (0 for the first page)
+     * @param limit   Page size
+     * @return Mono of the page (empty list after the last page)
+     */
+    Mono<List<CatalogProductDto>> getProductsPage(long afterId, int limit);
+
+    /**
+     * Get products changed strictly after the (since, afterId) cursor, ordered by updatedAt then id
+     * Used by incremental indexing; errors are propagated so the cursor never skips changes
+     *
+     * @param since   updatedAt of the last applied change
+     * @param afterId id of the last applied change
+     * @param limit   Page size
+     * @return Mono of the changed products (empty list when caught up)
+     */
+    Mono<List<CatalogProductDto>> getProductChanges(java.time.LocalDateTime since, long afterId, int limit);
 }
@@ -12,6 +12,7 @@ import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -111,4 +112,44 @@ public class CatalogClientImpl implements CatalogClient {
                                         return reactor.core.publisher.Flux.empty();
                                 });
         }
+
+        @Override
+        public Mono<List<CatalogProductDto>> getProductsPage(long afterId, int limit) {
+                log.debug("Fetching catalog page after id {} (limit {}) from {} (CB: {})",
+                                afterId, limit, catalogServiceUrl, circuitBreaker.getState());
+
+                return webClient
+                                .get()
+                                .uri(uriBuilder -> uriBuilder
+                                                .path("/api/v1/catalog/products/all")
+                                                .queryParam("afterId", afterId)
+                                                .queryParam("limit", limit)
+                                                .build())
+                                .retrieve()
+                                .bodyToFlux(CatalogProductDto.class)
+                                .collectList()
+                                .timeout(Duration.ofSeconds(30))
+                                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .doOnError(e -> log.warn("Error fetching catalog page after id {} (CB: {}): {}",
+                                                afterId, circuitBreaker.getState(), e.getMessage()));
+        }
+
+        @Override
+        public Mono<List<CatalogProductDto>> getProductChanges(LocalDateTime since, long afterId, int limit) {
+                return webClient
+                                .get()
+                                .uri(uriBuilder -> uriBuilder
+                                                .path("/api/v1/catalog/products/changes")
+                                                .queryParam("since", since)
+                                                .queryParam("afterId", afterId)
+                                                .queryParam("limit", limit)
+                                                .build())
+                                .retrieve()
+                                .bodyToFlux(CatalogProductDto.class)
+                                .collectList()
+                                .timeout(Duration.ofSeconds(10))
+                                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .doOnError(e -> log.warn("Error fetching catalog changes after {}/{} (CB: {}): {}",
+                                                since, afterId, circuitBreaker.getState(), e.getMessage()));
+        }
 }
@@ -1,8 +1,12 @@
 package com.quickcommerce.search.client;
 
 import com.quickcommerce.search.dto.AvailabilityResponse;
+import com.quickcommerce.search.dto.InventoryChangeDto;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
+import com.quickcommerce.search.dto.StoreLocationDto;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -29,4 +33,32 @@ public interface InventoryClient {
      * @return Mono of Map with productId to storeIds mapping
      */
     Mono<Map<Long, List<Long>>> getStoresForProducts(List<Long> productIds);
+
+    /**
+     * Get store IDs and in-stock store IDs for multiple products (bulk)
+     * Returns map of productId -> store stock; an empty map signals a failed lookup
+     *
+     * @param productIds List of product IDs
+     * @return Mono of Map with productId to store stock mapping
+     */
+    Mono<Map<Long, ProductStoreStockDto>> getStoreStockForProducts(List<Long> productIds);
+
+    /**
+     * Get inventory rows changed strictly after the (since, afterId) cursor, ordered by updatedAt then id
+     * Used by incremental indexing; errors are propagated so the cursor never skips changes
+     *
+     * @param since   updatedAt of the last applied change
+     * @param afterId id of the last applied change
+     * @param limit   Page size
+     * @return Mono of the changed rows (empty list when caught up)
+     */
+    Mono<List<InventoryChangeDto>> getInventoryChanges(LocalDateTime since, long afterId, int limit);
+
+    /**
+     * Get locations and service radii of all active stores
+     * Used by the store locator; errors are propagated so the previous copy is kept
+     *
+     * @return Mono of the active store locations
+     */
+    Mono<List<StoreLocationDto>> getStoreLocations();
 }
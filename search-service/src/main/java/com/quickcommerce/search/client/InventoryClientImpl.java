@@ -1,41 +1,85 @@
 package com.quickcommerce.search.client;
 
+import com.quickcommerce.common.codec.AvailabilityCodec;
+import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.dto.AvailabilityRequest;
 import com.quickcommerce.search.dto.AvailabilityResponse;
+import com.quickcommerce.search.dto.InventoryChangeDto;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
+import com.quickcommerce.search.dto.StoreLocationDto;
+import com.quickcommerce.search.latency.Hedger;
+import com.quickcommerce.search.latency.RequestDeadline;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Real implementation of InventoryClient using WebClient
  * Calls actual Inventory Service API with circuit breaker protection
+ *
+ * Availability checks are on the search path: they get the remaining search budget (at most
+ * {@code clients.inventory.timeout}) and are hedged when slower than usual ({@link Hedger}). They are sent
+ * in the compact binary encoding ({@link AvailabilityCodec}, {@code search.stock.binary-availability}) as one
+ * call; if product-service refuses it, checks go out as JSON in batches of 50 and binary is retried later.
  */
 @Slf4j
 @Component
 public class InventoryClientImpl implements InventoryClient {
 
+        private static final MediaType AVAILABILITY_BINARY = MediaType.parseMediaType(AvailabilityCodec.MEDIA_TYPE);
+
+        /**
+         * Most product IDs product-service accepts per JSON availability check
+         */
+        private static final int JSON_BATCH_SIZE = 50;
+
+        private static final Duration BINARY_RETRY_INTERVAL = Duration.ofMinutes(5);
+
         private final WebClient webClient;
         private final Duration timeout;
         private final String inventoryServiceUrl;
         private final CircuitBreaker circuitBreaker;
+        private final SearchProperties searchProperties;
+        private final Hedger hedger;
+        private final SearchMetrics searchMetrics;
+
+        /**
+         * Binary checks are skipped until then after product-service refused one
+         */
+        private volatile long binaryRetryAtNanos = System.nanoTime();
 
         public InventoryClientImpl(WebClient.Builder webClientBuilder,
                         @Value("${clients.inventory.url}") String inventoryServiceUrl,
                         @Value("${clients.inventory.timeout:200ms}") Duration timeout,
-                        @Qualifier("inventoryCircuitBreaker") CircuitBreaker circuitBreaker) {
+                        @Qualifier("inventoryCircuitBreaker") CircuitBreaker circuitBreaker,
+                        SearchProperties searchProperties,
+                        Hedger hedger,
+                        SearchMetrics searchMetrics) {
                 this.inventoryServiceUrl = inventoryServiceUrl;
                 this.timeout = timeout;
                 this.circuitBreaker = circuitBreaker;
+                this.searchProperties = searchProperties;
+                this.hedger = hedger;
+                this.searchMetrics = searchMetrics;
                 this.webClient = webClientBuilder
                                 .baseUrl(inventoryServiceUrl)
                                 .build();
@@ -47,24 +91,30 @@ public class InventoryClientImpl implements InventoryClient {
                                 productIds.size(), storeId, inventoryServiceUrl, 
                                 circuitBreaker.getState());
 
-                AvailabilityRequest request = AvailabilityRequest.builder()
-                                .storeId(storeId)
-                                .productIds(productIds)
-                                .build();
+                Mono<Map<Long, Boolean>> availability = useBinary()
+                                ? binaryAvailability(storeId, productIds)
+                                                .onErrorResume(InventoryClientImpl::binaryNotAccepted, e -> {
+                                                        binaryRetryAtNanos = System.nanoTime()
+                                                                        + BINARY_RETRY_INTERVAL.toNanos();
+                                                        log.warn("Inventory Service refused a binary availability check "
+                                                                        + "({}), using JSON for {}", e.getMessage(),
+                                                                        BINARY_RETRY_INTERVAL);
+                                                        return jsonAvailability(storeId, productIds);
+                                                })
+                                : jsonAvailability(storeId, productIds);
 
-                return webClient
-                                .post()
-                                .uri("/api/v1/inventory/availability")
-                                .bodyValue(request)
-                                .retrieve()
-                                .bodyToMono(AvailabilityResponse.class)
-                                .timeout(timeout)
+                return availability
                                 .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .map(map -> AvailabilityResponse.builder()
+                                                .storeId(storeId)
+                                                .availability(map)
+                                                .build())
                                 .doOnSuccess(response -> log.debug("Received availability response for {} products",
                                                 response.getAvailability().size()))
                                 .onErrorResume(e -> {
                                         log.error("Inventory Service call failed (CB: {}): {}", 
                                                 circuitBreaker.getState(), e.getMessage());
+                                        searchMetrics.recordAvailabilityFallback(fallbackReason(e));
                                         // Return response with NULL availability map to signal failure
                                         return Mono.just(AvailabilityResponse.builder()
                                                         .storeId(storeId)
@@ -73,6 +123,80 @@ public class InventoryClientImpl implements InventoryClient {
                                 });
         }
 
+        private boolean useBinary() {
+                return searchProperties.getStock().isBinaryAvailability()
+                                && System.nanoTime() - binaryRetryAtNanos >= 0;
+        }
+
+        /**
+         * One call for all IDs: varint deltas in, bitset out ({@link AvailabilityCodec})
+         */
+        private Mono<Map<Long, Boolean>> binaryAvailability(Long storeId, List<Long> productIds) {
+                return Mono.defer(() -> {
+                        long[] ids = AvailabilityCodec.sortedDistinct(productIds);
+                        byte[] body = AvailabilityCodec.encodeRequest(storeId, ids);
+                        return hedger.call("availability", () -> RequestDeadline.timeout(webClient
+                                                        .post()
+                                                        .uri("/api/v1/inventory/availability")
+                                                        .contentType(AVAILABILITY_BINARY)
+                                                        .accept(AVAILABILITY_BINARY)
+                                                        .bodyValue(body)
+                                                        .retrieve()
+                                                        .bodyToMono(byte[].class),
+                                                        timeout, minCallBudget()))
+                                        .map(response -> {
+                                                BitSet inStock = AvailabilityCodec.decodeResponse(response, ids.length);
+                                                Map<Long, Boolean> availability = new HashMap<>(ids.length * 4 / 3 + 1);
+                                                for (int i = 0; i < ids.length; i++) {
+                                                        availability.put(ids[i], inStock.get(i));
+                                                }
+                                                return availability;
+                                        });
+                });
+        }
+
+        /**
+         * JSON check, split into calls of at most {@value #JSON_BATCH_SIZE} IDs; fails when any call fails
+         */
+        private Mono<Map<Long, Boolean>> jsonAvailability(Long storeId, List<Long> productIds) {
+                return Flux.fromIterable(productIds)
+                                .buffer(JSON_BATCH_SIZE)
+                                .flatMap(batch -> hedger.call("availability", () -> RequestDeadline.timeout(webClient
+                                                                .post()
+                                                                .uri("/api/v1/inventory/availability")
+                                                                .bodyValue(AvailabilityRequest.builder()
+                                                                                .storeId(storeId)
+                                                                                .productIds(batch)
+                                                                                .build())
+                                                                .retrieve()
+                                                                .bodyToMono(AvailabilityResponse.class),
+                                                                timeout, minCallBudget())))
+                                .<Map<Long, Boolean>>collect(HashMap::new, (combined, response) -> {
+                                        if (response.getAvailability() != null) {
+                                                combined.putAll(response.getAvailability());
+                                        }
+                                });
+        }
+
+        private Duration minCallBudget() {
+                return Duration.ofMillis(searchProperties.getDeadline().getMinCallBudgetMs());
+        }
+
+        /**
+         * A product-service without the binary endpoint answers 415 (or 406) on the shared path
+         */
+        private static boolean binaryNotAccepted(Throwable e) {
+                return e instanceof WebClientResponseException.UnsupportedMediaType
+                                || e instanceof WebClientResponseException.NotAcceptable;
+        }
+
+        private static String fallbackReason(Throwable e) {
+                if (e instanceof TimeoutException) {
+                        return "timeout";
+                }
+                return e instanceof CallNotPermittedException ? "circuit_open" : "error";
+        }
+
         @Override
         public Mono<Map<Long, List<Long>>> getStoresForProducts(List<Long> productIds) {
                 log.debug("Fetching storeIds for {} products from {}", productIds.size(), inventoryServiceUrl);
@@ -91,4 +215,56 @@ public class InventoryClientImpl implements InventoryClient {
                                         return Mono.just(Map.of());
                                 });
         }
+
+        @Override
+        public Mono<Map<Long, ProductStoreStockDto>> getStoreStockForProducts(List<Long> productIds) {
+                log.debug("Fetching store stock for {} products from {}", productIds.size(), inventoryServiceUrl);
+
+                return webClient
+                                .post()
+                                .uri("/api/v1/inventory/products/store-stock")
+                                .bodyValue(productIds)
+                                .retrieve()
+                                .bodyToMono(new ParameterizedTypeReference<Map<Long, ProductStoreStockDto>>() {})
+                                .timeout(Duration.ofSeconds(30))
+                                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .doOnSuccess(map -> log.debug("Fetched store stock for {} products", map.size()))
+                                .onErrorResume(e -> {
+                                        log.warn("Failed to fetch store stock from inventory service: {}", e.getMessage());
+                                        return Mono.just(Map.of());
+                                });
+        }
+
+        @Override
+        public Mono<List<InventoryChangeDto>> getInventoryChanges(LocalDateTime since, long afterId, int limit) {
+                return webClient
+                                .get()
+                                .uri(uriBuilder -> uriBuilder
+                                                .path("/api/v1/inventory/changes")
+                                                .queryParam("since", since)
+                                                .queryParam("afterId", afterId)
+                                                .queryParam("limit", limit)
+                                                .build())
+                                .retrieve()
+                                .bodyToFlux(InventoryChangeDto.class)
+                                .collectList()
+                                .timeout(Duration.ofSeconds(10))
+                                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .doOnError(e -> log.warn("Error fetching inventory changes after {}/{} (CB: {}): {}",
+                                                since, afterId, circuitBreaker.getState(), e.getMessage()));
+        }
+
+        @Override
+        public Mono<List<StoreLocationDto>> getStoreLocations() {
+                return webClient
+                                .get()
+                                .uri("/api/v1/inventory/stores")
+                                .retrieve()
+                                .bodyToFlux(StoreLocationDto.class)
+                                .collectList()
+                                .timeout(Duration.ofSeconds(10))
+                                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                .doOnError(e -> log.warn("Error fetching store locations (CB: {}): {}",
+                                                circuitBreaker.getState(), e.getMessage()));
+        }
 }
@@ -2,10 +2,17 @@ package com.quickcommerce.search.config;
 
 import com.meilisearch.sdk.Client;
 import com.meilisearch.sdk.Config;
+import io.netty.channel.ChannelOption;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 /**
  * Configuration class for Meilisearch client
@@ -31,4 +38,34 @@ public class MeilisearchConfig {
         
         return new Client(config);
     }
+
+    /**
+     * Non-blocking WebClient for the search hot path, on its own pooled Netty connection provider.
+     * Pool metrics are published as {@code reactor.netty.connection.provider.*} with name=meilisearch.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "meilisearch.client", havingValue = "webclient", matchIfMissing = true)
+    public WebClient meilisearchWebClient(WebClient.Builder webClientBuilder) {
+        MeilisearchProperties.Pool pool = properties.getPool();
+        log.info("Initializing Meilisearch WebClient with host: {} (max {} connections)",
+            properties.getHost(), pool.getMaxConnections());
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("meilisearch")
+            .maxConnections(pool.getMaxConnections())
+            .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+            .maxIdleTime(pool.getMaxIdleTime())
+            .metrics(true)
+            .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+            .responseTimeout(properties.getTimeout());
+
+        return webClientBuilder.clone()
+            .baseUrl(properties.getHost())
+            .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getApiKey())
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
 }
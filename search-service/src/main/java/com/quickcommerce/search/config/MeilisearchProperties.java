@@ -33,4 +33,47 @@ public class MeilisearchProperties {
      * Request timeout duration
      */
     private Duration timeout = Duration.ofMillis(500);
+
+    /**
+     * Search client implementation: WEBCLIENT (non-blocking, pooled) or SDK (blocking meilisearch-java fallback)
+     */
+    private ClientType client = ClientType.WEBCLIENT;
+
+    /**
+     * HTTP connection pool for the WebClient search client
+     */
+    private Pool pool = new Pool();
+
+    public enum ClientType {
+        WEBCLIENT,
+        SDK
+    }
+
+    @Data
+    public static class Pool {
+        /**
+         * Max open connections to Meilisearch
+         */
+        private int maxConnections = 200;
+
+        /**
+         * Max requests queued waiting for a free connection
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * How long a request may wait for a free connection
+         */
+        private Duration pendingAcquireTimeout = Duration.ofMillis(200);
+
+        /**
+         * Idle connections are closed after this long
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * TCP connect timeout
+         */
+        private Duration connectTimeout = Duration.ofMillis(250);
+    }
 }
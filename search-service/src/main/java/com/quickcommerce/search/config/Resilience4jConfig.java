@@ -51,6 +51,23 @@ public class Resilience4jConfig {
         return registry.circuitBreaker("catalogService", config);
     }
 
+    /**
+     * Circuit breaker for Meilisearch searches; while open, searches are served by the standby index
+     */
+    @Bean
+    public CircuitBreaker meilisearchCircuitBreaker(CircuitBreakerRegistry registry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+            .slidingWindowSize(20)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofSeconds(10)) // Probe Meilisearch again soon, standby covers meanwhile
+            .permittedNumberOfCallsInHalfOpenState(5)
+            .slowCallDurationThreshold(Duration.ofMillis(300))
+            .slowCallRateThreshold(80)
+            .build();
+
+        return registry.circuitBreaker("meilisearchService", config);
+    }
+
     /**
      * Rate limiter for search endpoint
      */
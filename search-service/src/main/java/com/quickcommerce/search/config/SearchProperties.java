@@ -34,6 +34,77 @@ public class SearchProperties {
      */
     private Sync sync = new Sync();
 
+    /**
+     * Local copy of the last full sync, used to refill an empty Meilisearch at startup
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Incremental (near-real-time) indexing configuration
+     */
+    private Incremental incremental = new Incremental();
+
+    /**
+     * Store stock filtering: indexed {@code inStockStoreIds} vs live inventory checks
+     */
+    private Stock stock = new Stock();
+
+    /**
+     * Ranked result page cache for repeated (head) queries
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Autocomplete served from the in-memory prefix index
+     */
+    private Suggest suggest = new Suggest();
+
+    /**
+     * In-process Lucene index answering searches while Meilisearch is unavailable
+     */
+    private Standby standby = new Standby();
+
+    /**
+     * Precomputed per-store results for searches that find nothing
+     */
+    private Fallback fallback = new Fallback();
+
+    /**
+     * Search observability: stage timings and bounds on request-derived metric tags
+     */
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Query analytics: what people search for, which searches find nothing, which results they click
+     */
+    private Analytics analytics = new Analytics();
+
+    /**
+     * How synonym and settings edits are published to Meilisearch
+     */
+    private SettingsPublish settingsPublish = new SettingsPublish();
+
+    /**
+     * Time budget of one search; downstream calls get what is left of it
+     */
+    private Deadline deadline = new Deadline();
+
+    /**
+     * Hedged (duplicate) requests for slow idempotent reads: Meilisearch searches and availability checks
+     */
+    private Hedging hedging = new Hedging();
+
+    /**
+     * Serving store resolved from customer coordinates (in-memory copy of store locations)
+     */
+    private Geo geo = new Geo();
+
+    /**
+     * Shadow evaluation: sampled searches replayed off the response path against an alternate ranking,
+     * index or engine and compared with what was served
+     */
+    private Shadow shadow = new Shadow();
+
     /**
      * How Meilisearch relevance blends with catalog business signals (order_count, search_priority, bestseller).
      * Tune via {@code search.ranking.*} — see {@link Ranking}.
@@ -48,10 +119,25 @@ public class SearchProperties {
         private boolean enableOnStartup = true;
 
         /**
-         * Batch size for syncing products
+         * Batch size for syncing products (also the catalog page size during a full sync)
          */
         private int batchSize = 500;
 
+        /**
+         * Max product IDs per store lookup call to inventory during a full sync
+         */
+        private int storeLookupChunkSize = 250;
+
+        /**
+         * Catalog pages fetched and enriched concurrently ahead of indexing
+         */
+        private int enrichConcurrency = 2;
+
+        /**
+         * Max enqueued-but-unfinished Meilisearch indexing tasks before the full sync waits on the oldest
+         */
+        private int maxOutstandingTasks = 4;
+
         /**
          * Max retry attempts for sync operations
          */
@@ -66,6 +152,478 @@ public class SearchProperties {
          * Maximum delay for retry in milliseconds
          */
         private long maxRetryDelayMs = 10000;
+
+        /**
+         * Retries of the whole startup sequence (index check, settings, initial sync) before the instance gives
+         * up and stays unready; backs off from retryDelayMs up to maxRetryDelayMs
+         */
+        private int startupMaxRetries = 8;
+
+        /**
+         * How long a full rebuild waits for a Meilisearch task (create, settings, indexing, swap)
+         */
+        private long taskTimeoutMs = 120000;
+
+        /**
+         * Minimum staging/live document ratio required before a rebuild is swapped live (0–1)
+         */
+        private double minDocumentRatio = 0.5;
+
+        /**
+         * Staging indexes of rebuilds started longer ago than this are deleted by the next rebuild (leftovers
+         * of an instance that died mid-rebuild); younger ones may belong to a rebuild still running elsewhere
+         */
+        private long staleStagingHours = 6;
+    }
+
+    @Data
+    public static class Snapshot {
+        /**
+         * Write a snapshot on every successful full sync and restore from it when the index is empty at startup
+         */
+        private boolean enabled = true;
+
+        /**
+         * Gzipped snapshot file (one indexed page of documents per line)
+         */
+        private String path = "./data/search-snapshot/products.jsonl.gz";
+
+        /**
+         * Older snapshots are ignored and the index is filled by a full sync instead
+         */
+        private long maxAgeHours = 72;
+    }
+
+    @Data
+    public static class Incremental {
+        /**
+         * Tail catalog and inventory change feeds into the live index
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between polls; changes to the same product within one poll are coalesced
+         */
+        private long pollIntervalMs = 2000;
+
+        /**
+         * Changes fetched per feed request
+         */
+        private int pageSize = 500;
+
+        /**
+         * Max pages read per feed in one poll before applying (bounds a single cycle after downtime)
+         */
+        private int maxPagesPerCycle = 10;
+
+        /**
+         * Window before each cursor that every poll reads again: updated_at has second precision and rows
+         * commit out of order, so a change can appear behind a cursor that already passed its second
+         */
+        private long overlapMs = 10000;
+
+        /**
+         * Partial documents per Meilisearch update request
+         */
+        private int batchSize = 500;
+
+        /**
+         * How far before a full rebuild's start the cursors are rewound afterwards (covers clock skew
+         * between services and changes made while the rebuild was reading the catalog)
+         */
+        private long rewindMarginMs = 60000;
+
+        /**
+         * Indexing lag above which health reports the incremental indexer as lagging
+         */
+        private long maxLagSeconds = 300;
+
+        /**
+         * Inventory rows whose last indexed in-stock state is remembered, so stock changes that do not flip
+         * availability are skipped (rows not remembered are always re-indexed)
+         */
+        private int stockStateCacheSize = 500000;
+    }
+
+    @Data
+    public static class Stock {
+        /**
+         * Filter by {@code inStockStoreIds} inside Meilisearch so pages and totals only count in-stock products.
+         * Off by default: an index built before the attribute existed matches nothing on it, and a warm start
+         * serves the existing index before its reconciling rebuild completes. Enable once a full rebuild has
+         * been swapped live; until then search filters by storeIds and drops out-of-stock hits with a live
+         * inventory call.
+         */
+        private boolean indexFilter = false;
+
+        /**
+         * Share of searches (0–1) whose returned page is re-checked against live inventory to measure index
+         * staleness; never changes the response
+         */
+        private double verifySampleRate = 0.01;
+
+        /**
+         * Send live availability checks in the compact binary encoding ({@code AvailabilityCodec}); when
+         * product-service does not accept it the check falls back to JSON and binary is retried later
+         */
+        private boolean binaryAvailability = true;
+
+        /**
+         * Most product IDs per availability call from a search; JSON calls are split further into 50s
+         */
+        private int availabilityBatchSize = 1000;
+    }
+
+    @Data
+    public static class Cache {
+        /**
+         * Serve repeated identical searches from memory and coalesce concurrent identical misses
+         */
+        private boolean enabled = true;
+
+        /**
+         * Upper bound on entry age; stock and index changes invalidate sooner through generations
+         */
+        private long ttlMs = 15000;
+
+        /**
+         * Max cached pages (query, store, page, size)
+         */
+        private int maxEntries = 20000;
+
+        /**
+         * Max distinct product documents referenced by cached pages
+         */
+        private int maxDocuments = 100000;
+    }
+
+    @Data
+    public static class Suggest {
+        /**
+         * Build the prefix index and serve suggestions
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often the index checks for changes and rebuilds its snapshot when products changed
+         */
+        private long rebuildIntervalMs = 5000;
+
+        /**
+         * Max snapshot age; synonyms and query popularity are picked up at least this often
+         */
+        private long refreshIntervalMs = 60000;
+
+        /**
+         * Suggestions returned when the request does not ask for a number
+         */
+        private int defaultLimit = 8;
+
+        /**
+         * Upper bound on suggestions per request
+         */
+        private int maxLimit = 20;
+
+        /**
+         * Prefixes up to this length have their best candidates precomputed (their key ranges are largest)
+         */
+        private int headPrefixLength = 2;
+
+        /**
+         * Candidates kept per precomputed prefix
+         */
+        private int headCandidates = 64;
+
+        /**
+         * Score of each active synonym term (products score 1 + order count)
+         */
+        private double synonymWeight = 5.0;
+
+        /**
+         * Score per search of a query that returned results (query analytics window)
+         */
+        private double queryWeight = 1.0;
+
+        /**
+         * Most searched queries with results in the query analytics window that are offered as suggestions
+         */
+        private int maxTrackedQueries = 20000;
+
+        /**
+         * Stores the query analytics aggregates remember per query with results (suggestion store scope)
+         */
+        private int maxStoresPerQuery = 500;
+
+        /**
+         * Queries shorter than this are not suggested
+         */
+        private int minQueryLength = 3;
+
+        /**
+         * Queries longer than this are not suggested
+         */
+        private int maxQueryLength = 50;
+    }
+
+    @Data
+    public static class Standby {
+        /**
+         * Build the Lucene standby index during full syncs and keep it current from incremental indexing
+         */
+        private boolean enabled = true;
+
+        /**
+         * Serve searches from the standby when a Meilisearch call fails or its circuit breaker is open
+         */
+        private boolean failover = true;
+
+        /**
+         * How often query-time synonyms are reloaded from search_synonyms
+         */
+        private long synonymRefreshMs = 60000;
+    }
+
+    @Data
+    public static class Fallback {
+        /**
+         * Serve zero-result fallbacks from per-store lists built by full syncs (false = live catalog bestsellers)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Products returned as fallback
+         */
+        private int resultLimit = 20;
+
+        /**
+         * Best in-stock products kept per store by a full sync, so stock-outs can be backfilled between syncs
+         */
+        private int poolSize = 60;
+
+        /**
+         * Leading fallback positions reserved for products gaining the most orders since the last full sync
+         */
+        private int trendingSlots = 4;
+
+        /**
+         * How often per-store lists are rebuilt after stock or order count changes
+         */
+        private long refreshIntervalMs = 5000;
+    }
+
+    @Data
+    public static class Deadline {
+        /**
+         * Budget of one search or multi-search request (milliseconds); 0 disables deadlines
+         */
+        private long searchBudgetMs = 800;
+
+        /**
+         * A downstream call is not started with less budget left than this (milliseconds)
+         */
+        private long minCallBudgetMs = 5;
+    }
+
+    @Data
+    public static class Geo {
+        /**
+         * Accept coordinates instead of a store ID and keep store locations in memory
+         */
+        private boolean enabled = true;
+
+        /**
+         * How often store locations and radii are reloaded from product-service (milliseconds)
+         */
+        private long refreshIntervalMs = 300000;
+
+        /**
+         * Search the other stores covering the location when the nearest store returns fewer results
+         * on the first page; 0 disables the multi-store query
+         */
+        private int thinResultThreshold = 5;
+
+        /**
+         * Most stores (nearest first, including the serving store) a multi-store query spans
+         */
+        private int maxCoveringStores = 3;
+    }
+
+    @Data
+    public static class Shadow {
+        /**
+         * Replay sampled searches against the shadow target
+         */
+        private boolean enabled = false;
+
+        /**
+         * What the served results are compared with: {@code ranking} (same hits re-ranked with
+         * {@link #ranking}), {@code index} (Meilisearch index {@link #indexName}) or {@code lucene}
+         * (standby engine)
+         */
+        private String target = "ranking";
+
+        /**
+         * Share of searches replayed (0.0 - 1.0)
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Replays running at once; sampled searches beyond this are shed
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * Replays slower than this are abandoned (milliseconds)
+         */
+        private long timeoutMs = 2000;
+
+        /**
+         * Result positions compared (top-N of both lists)
+         */
+        private int depth = 10;
+
+        /**
+         * Index holding a copy of the products with candidate settings, for target {@code index}
+         */
+        private String indexName = "products_shadow";
+
+        /**
+         * Most divergent recent comparisons kept for the admin report
+         */
+        private int reportSize = 50;
+
+        /**
+         * Candidate ranking weights, for target {@code ranking}
+         */
+        private Ranking ranking = new Ranking();
+    }
+
+    @Data
+    public static class Hedging {
+        /**
+         * Send a second request when the first is slower than the observed percentile
+         */
+        private boolean enabled = true;
+
+        /**
+         * Latency percentile of recent first attempts after which the hedge is sent
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Recent first-attempt latencies kept per operation
+         */
+        private int windowSize = 512;
+
+        /**
+         * Latencies observed before an operation is hedged at all
+         */
+        private int minSamples = 100;
+
+        /**
+         * Lower bound of the hedge delay (milliseconds)
+         */
+        private long minDelayMs = 5;
+
+        /**
+         * Upper bound of the hedge delay (milliseconds)
+         */
+        private long maxDelayMs = 250;
+
+        /**
+         * Hedges per call at most (e.g. 0.05 = one extra request per 20 calls), so a slow dependency is not
+         * hit with twice the load
+         */
+        private double maxHedgeRatio = 0.05;
+    }
+
+    @Data
+    public static class Metrics {
+        /**
+         * Return per-request stage timings in a {@code Server-Timing} response header (debugging aid)
+         */
+        private boolean stageHeader = false;
+
+        /**
+         * Stores that get their own {@code store_id} tag; further stores are counted as {@code other}
+         */
+        private int maxStoreTags = 50;
+
+        /**
+         * Distinct {@code error_type} tag values before further types are counted as {@code other}
+         */
+        private int maxErrorTypes = 20;
+    }
+
+    @Data
+    public static class SettingsPublish {
+        /**
+         * Edits are published once none arrived for this long, so a bulk edit becomes one settings update
+         */
+        private long debounceMs = 2000;
+
+        /**
+         * Upper bound on how long a steady stream of edits can hold back a publish
+         */
+        private long maxDelayMs = 30000;
+
+        /**
+         * How often pending edits and enqueued Meilisearch settings tasks are checked
+         */
+        private long checkIntervalMs = 500;
+    }
+
+    @Data
+    public static class Analytics {
+        /**
+         * Record search and click events, persist them to search_query_log and keep rolling aggregates
+         */
+        private boolean enabled = true;
+
+        /**
+         * Events buffered between drains (rounded up to a power of two); events beyond it are dropped
+         */
+        private int bufferSize = 65536;
+
+        /**
+         * How often the buffer is drained into the aggregates and the database
+         */
+        private long flushIntervalMs = 1000;
+
+        /**
+         * Max rows per INSERT statement
+         */
+        private int batchSize = 500;
+
+        /**
+         * Batches written concurrently; while all are busy, events wait in the buffer (and drop when it is full)
+         */
+        private int maxInFlightBatches = 2;
+
+        /**
+         * Rolling aggregate window, kept as one bucket per minute
+         */
+        private int windowMinutes = 60;
+
+        /**
+         * Distinct queries tracked per minute bucket; further queries are counted under {@code (other)}
+         */
+        private int maxQueriesPerBucket = 5000;
+
+        /**
+         * Queries are truncated to this length before they are recorded
+         */
+        private int maxQueryLength = 200;
+
+        /**
+         * Rows older than this are purged from search_query_log
+         */
+        private int retentionDays = 30;
+
+        /**
+         * How often expired rows are purged
+         */
+        private long purgeIntervalMs = 3600000;
     }
 
     /**
@@ -75,6 +633,11 @@ public class SearchProperties {
     @Data
     public static class Ranking {
 
+        /**
+         * Reorder hits by the composite score; false keeps Meilisearch hit order
+         */
+        private boolean enabled = false;
+
         /**
          * Portion of final score from relevance (0–1). Complements {@link #businessWeight}.
          */
@@ -99,5 +662,26 @@ public class SearchProperties {
          * Relative importance of bestseller flag inside business component.
          */
         private double bestsellerWeight = 0.15;
+
+        /**
+         * Relative importance of order recency (last_ordered_at) inside business component; 0 disables it.
+         */
+        private double recencyWeight = 0.0;
+
+        /**
+         * Age after which the recency signal halves (hours)
+         */
+        private double recencyHalfLifeHours = 72;
+
+        /**
+         * Relative importance of the store's local_priority (0–100, product_store_assortment) inside business
+         * component; 0 disables it and skips loading the priorities.
+         */
+        private double storePriorityWeight = 0.0;
+
+        /**
+         * How often store priorities are reloaded from product_store_assortment (milliseconds)
+         */
+        private long storePriorityRefreshMs = 300000;
     }
 }
@@ -36,6 +36,7 @@ public final class SearchConstants {
     public static final class CircuitBreakers {
         public static final String INVENTORY_SERVICE = "inventoryService";
         public static final String CATALOG_SERVICE = "catalogService";
+        public static final String MEILISEARCH_SERVICE = "meilisearchService";
     }
 
     /**
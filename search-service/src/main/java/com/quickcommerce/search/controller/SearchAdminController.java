@@ -1,7 +1,12 @@
 package com.quickcommerce.search.controller;
 
+import com.quickcommerce.search.analytics.QueryAnalytics;
+import com.quickcommerce.search.dto.QueryAnalyticsResponse;
+import com.quickcommerce.search.dto.SettingsPublishStatus;
+import com.quickcommerce.search.dto.ShadowReport;
 import com.quickcommerce.search.entity.SearchSynonym;
 import com.quickcommerce.search.service.SearchConfigurationService;
+import com.quickcommerce.search.shadow.ShadowEvaluator;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +31,8 @@ import java.util.Map;
 public class SearchAdminController {
 
     private final SearchConfigurationService configurationService;
+    private final QueryAnalytics queryAnalytics;
+    private final ShadowEvaluator shadowEvaluator;
 
     /**
      * Create or Update a synonym group
@@ -140,7 +147,7 @@ public class SearchAdminController {
 
     /**
      * Add a single value to a JSON-array setting (idempotent).
-     * Auto-publishes to Meilisearch.
+     * Published to Meilisearch with the next debounced publish.
      */
     @PatchMapping("/settings/{key}/add")
     public Mono<ResponseEntity<com.quickcommerce.search.entity.SearchSetting>> addToSetting(
@@ -162,7 +169,7 @@ public class SearchAdminController {
 
     /**
      * Remove a single value from a JSON-array setting (idempotent).
-     * Auto-publishes to Meilisearch.
+     * Published to Meilisearch with the next debounced publish.
      */
     @PatchMapping("/settings/{key}/remove")
     public Mono<ResponseEntity<com.quickcommerce.search.entity.SearchSetting>> removeFromSetting(
@@ -200,6 +207,32 @@ public class SearchAdminController {
                 "message", "Index rebuild triggered in background")));
     }
 
+    /**
+     * Publishing state of synonym/settings edits: pending edits, last publish and unfinished Meilisearch tasks
+     */
+    @GetMapping("/settings/publish-status")
+    public Mono<ResponseEntity<SettingsPublishStatus>> getPublishStatus() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(configurationService.publishStatus()));
+    }
+
+    /**
+     * Rolling query analytics: top queries, zero-result queries and latency by query
+     */
+    @GetMapping("/analytics")
+    public Mono<ResponseEntity<QueryAnalyticsResponse>> getAnalytics(
+            @RequestParam(defaultValue = "20") int limit) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(queryAnalytics.report(Math.min(Math.max(limit, 1), 100))));
+    }
+
+    /**
+     * Shadow evaluation: overlap, rank correlation and latency of the shadow target against served results
+     */
+    @GetMapping("/shadow")
+    public Mono<ResponseEntity<ShadowReport>> getShadowReport(
+            @RequestParam(defaultValue = "20") int limit) {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(shadowEvaluator.report(Math.min(Math.max(limit, 1), 100))));
+    }
+
     @Data
     public static class SynonymRequest {
         private String term;
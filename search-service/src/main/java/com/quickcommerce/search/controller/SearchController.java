@@ -1,7 +1,11 @@
 package com.quickcommerce.search.controller;
 
+import com.quickcommerce.search.dto.MultiSearchRequest;
+import com.quickcommerce.search.dto.MultiSearchResponse;
+import com.quickcommerce.search.dto.SearchClickRequest;
 import com.quickcommerce.search.dto.SearchRequest;
 import com.quickcommerce.search.dto.SearchResponse;
+import com.quickcommerce.search.metrics.SearchTrace;
 import com.quickcommerce.search.service.SearchService;
 import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
@@ -40,16 +44,22 @@ public class SearchController {
      * "pageSize": 20
      * }
      *
+     * Instead of "storeId", "latitude" and "longitude" resolve the nearest serving store; with
+     * "includeNearbyStores": true a thin first page is extended with the other stores covering the location.
+     *
      * @param request Search request
      * @return Mono of Search response with results
      */
     @PostMapping
     public Mono<ResponseEntity<SearchResponse>> search(@Valid @RequestBody SearchRequest request) {
-        log.info("Search request: query='{}', storeId={}", request.getQuery(), request.getStoreId());
+        log.info("Search request: query='{}', storeId={}, location=({}, {})", request.getQuery(), request.getStoreId(),
+                request.getLatitude(), request.getLongitude());
 
         return searchService.search(request)
                 .transformDeferred(RateLimiterOperator.of(rateLimiter))
-                .map(ResponseEntity::ok)
+                .map(response -> response.getServerTiming() == null
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.ok().header(SearchTrace.HEADER, response.getServerTiming()).body(response))
                 .onErrorResume(io.github.resilience4j.ratelimiter.RequestNotPermitted.class, e -> {
                     log.warn("Rate limit exceeded for search request");
                     return Mono.just(ResponseEntity
@@ -57,4 +67,50 @@ public class SearchController {
                         .build());
                 });
     }
+
+    /**
+     * Composite search: all searches of one screen in one call, rate limited as a single request
+     *
+     * POST /search/multi
+     *
+     * Request body:
+     * {
+     * "storeId": 1,
+     * "queries": [
+     * {"query": "milk", "pageSize": 20, "includeFacets": true, "fallback": true},
+     * {"query": "dairy", "pageSize": 8}
+     * ]
+     * }
+     *
+     * @param request Composite search request
+     * @return Mono of one search response per query, in request order
+     */
+    @PostMapping("/multi")
+    public Mono<ResponseEntity<MultiSearchResponse>> multiSearch(@Valid @RequestBody MultiSearchRequest request) {
+        log.info("Multi-search request: {} queries, storeId={}", request.getQueries().size(), request.getStoreId());
+
+        return searchService.multiSearch(request)
+                .transformDeferred(RateLimiterOperator.of(rateLimiter))
+                .map(ResponseEntity::ok)
+                .onErrorResume(io.github.resilience4j.ratelimiter.RequestNotPermitted.class, e -> {
+                    log.warn("Rate limit exceeded for multi-search request");
+                    return Mono.just(ResponseEntity
+                        .status(HttpStatus.TOO_MANY_REQUESTS)
+                        .build());
+                });
+    }
+
+    /**
+     * Record a click on a search result (query analytics); buffered, never waits for the database
+     *
+     * POST /search/click
+     *
+     * @param request Clicked product, its position and the query it was shown for
+     * @return 202 Accepted
+     */
+    @PostMapping("/click")
+    public Mono<ResponseEntity<Void>> click(@Valid @RequestBody SearchClickRequest request) {
+        return Mono.fromRunnable(() -> searchService.recordClick(request))
+                .thenReturn(ResponseEntity.accepted().<Void>build());
+    }
 }
@@ -0,0 +1,58 @@
+package com.quickcommerce.search.controller;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SuggestResponse;
+import com.quickcommerce.search.service.SuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST controller for search-as-you-type suggestions.
+ * Served from the in-memory {@link SuggestIndex}, so it does not call Meilisearch and is not rate limited.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/search")
+@RequiredArgsConstructor
+public class SuggestController {
+
+    private final SuggestIndex suggestIndex;
+    private final SearchProperties searchProperties;
+
+    /**
+     * Suggestions for a typed prefix
+     *
+     * GET /search/suggest?q=mil&storeId=1&limit=8
+     *
+     * @param query   Prefix typed so far
+     * @param storeId Store to scope product, brand, category and query suggestions to (optional)
+     * @param limit   Max suggestions (defaults to search.suggest.default-limit, capped at max-limit)
+     * @return Mono of suggestions, most popular first
+     */
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<SuggestResponse>> suggest(@RequestParam("q") String query,
+                                                         @RequestParam(required = false) Long storeId,
+                                                         @RequestParam(required = false) Integer limit) {
+        SearchProperties.Suggest config = searchProperties.getSuggest();
+        int size = Math.min(limit != null && limit > 0 ? limit : config.getDefaultLimit(), config.getMaxLimit());
+
+        return Mono.fromSupplier(() -> {
+            long start = System.nanoTime();
+            List<SuggestResponse.Suggestion> suggestions = suggestIndex.suggest(query, storeId, size);
+            return ResponseEntity.ok(SuggestResponse.builder()
+                    .query(query)
+                    .storeId(storeId)
+                    .suggestions(suggestions)
+                    .processingTimeMicros((System.nanoTime() - start) / 1000)
+                    .build());
+        });
+    }
+}
@@ -41,6 +41,7 @@ public class CatalogProductDto {
     private Integer searchPriority;
     private Boolean isBestseller;
     private Integer orderCount;
+    private LocalDateTime lastOrderedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
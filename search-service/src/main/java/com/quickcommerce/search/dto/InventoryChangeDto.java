@@ -0,0 +1,23 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO mirroring the inventory change feed (InventoryChange) for deserialization.
+ * (updatedAt, id) is the feed cursor.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChangeDto {
+
+    private Long id;
+    private Long productId;
+    private Long storeId;
+    private Integer availableStock;
+    private LocalDateTime updatedAt;
+}
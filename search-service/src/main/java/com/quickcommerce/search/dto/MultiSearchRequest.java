@@ -0,0 +1,88 @@
+package com.quickcommerce.search.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Composite search request DTO: the searches of one screen (results, "did you mean", category rail),
+ * answered in one response
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiSearchRequest {
+
+    /**
+     * Store ID every query is filtered by
+     */
+    @NotNull(message = "Store ID is required")
+    private Long storeId;
+
+    /**
+     * Searches to run; results come back in the same order
+     */
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 5, message = "At most 5 queries per request")
+    @Valid
+    private List<Query> queries;
+
+    /**
+     * One search of the composite
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Query {
+
+        /**
+         * Search query string
+         */
+        @NotBlank(message = "Query cannot be blank")
+        private String query;
+
+        /**
+         * Page number (1-indexed, default 1)
+         */
+        @Min(value = 1, message = "Page must be at least 1")
+        @Builder.Default
+        private Integer page = 1;
+
+        /**
+         * Number of results per page (max 100, default 20)
+         */
+        @Min(value = 1, message = "Page size must be at least 1")
+        @Max(value = 100, message = "Page size cannot exceed 100")
+        @Builder.Default
+        private Integer pageSize = 20;
+
+        /**
+         * Facet filters applied next to the store filter
+         */
+        @Valid
+        private SearchFilters filters;
+
+        /**
+         * Return facet distributions with this query's results
+         */
+        private Boolean includeFacets;
+
+        /**
+         * Serve popular products when this (unfiltered) query matches nothing; off by default so secondary
+         * queries such as a category rail stay empty
+         */
+        private Boolean fallback;
+    }
+}
@@ -0,0 +1,33 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Composite search response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiSearchResponse {
+
+    /**
+     * Store ID used for filtering
+     */
+    private Long storeId;
+
+    /**
+     * One response per query, in request order
+     */
+    private List<SearchResponse> results;
+
+    /**
+     * Total processing time of the composite in milliseconds
+     */
+    private Long processingTimeMs;
+}
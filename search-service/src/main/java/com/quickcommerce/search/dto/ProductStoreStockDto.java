@@ -0,0 +1,20 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO mirroring ProductStoreStock for deserialization.
+ * inStockStoreIds is the subset of storeIds with available stock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStoreStockDto {
+
+    private List<Long> storeIds;
+    private List<Long> inStockStoreIds;
+}
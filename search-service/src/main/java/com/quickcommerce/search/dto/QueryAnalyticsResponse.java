@@ -0,0 +1,96 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rolling query analytics over the last {@code windowMinutes}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryAnalyticsResponse {
+
+    /**
+     * Aggregation window in minutes
+     */
+    private Integer windowMinutes;
+
+    /**
+     * Searches recorded in the window
+     */
+    private Long searches;
+
+    /**
+     * Searches in the window that matched nothing
+     */
+    private Long zeroResultSearches;
+
+    /**
+     * Result clicks recorded in the window
+     */
+    private Long clicks;
+
+    /**
+     * Events dropped since startup because the buffer was full
+     */
+    private Long droppedEvents;
+
+    /**
+     * Events waiting to be drained
+     */
+    private Integer bufferedEvents;
+
+    /**
+     * Most searched queries
+     */
+    private List<QueryStat> topQueries;
+
+    /**
+     * Queries that most often matched nothing
+     */
+    private List<QueryStat> zeroResultQueries;
+
+    /**
+     * Queries with the highest p95 latency (at least 5 searches in the window)
+     */
+    private List<QueryStat> slowestQueries;
+
+    /**
+     * Aggregate of one query
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueryStat {
+
+        /**
+         * Normalized query ({@code (other)} collects queries beyond the tracking bound)
+         */
+        private String query;
+
+        private Long searches;
+
+        private Long zeroResults;
+
+        private Long clicks;
+
+        /**
+         * Clicks per search
+         */
+        private Double clickThroughRate;
+
+        private Double avgLatencyMs;
+
+        /**
+         * Upper bound of the latency bucket holding the 95th percentile
+         */
+        private Long p95LatencyMs;
+    }
+}
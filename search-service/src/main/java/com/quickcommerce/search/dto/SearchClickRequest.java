@@ -0,0 +1,43 @@
+package com.quickcommerce.search.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Search result click DTO (query analytics)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchClickRequest {
+
+    /**
+     * Query whose results were shown, as searched
+     */
+    @NotBlank(message = "Query cannot be blank")
+    private String query;
+
+    /**
+     * Store ID the search ran in
+     */
+    @NotNull(message = "Store ID is required")
+    private Long storeId;
+
+    /**
+     * Clicked product
+     */
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    /**
+     * 1-based position of the clicked result in the list
+     */
+    @Min(value = 1, message = "Position must be at least 1")
+    private Integer position;
+}
@@ -0,0 +1,65 @@
+package com.quickcommerce.search.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facet filters of a search request. Values within one facet are OR-ed, facets are AND-ed with each other
+ * and with the store filter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFilters {
+
+    /**
+     * Brands to include (facet values of {@code brand})
+     */
+    private List<String> brands;
+
+    /**
+     * Category names to include (facet values of {@code categoryName})
+     */
+    private List<String> categories;
+
+    /**
+     * Price ranges to include (facet values of {@code priceBucket}, e.g. "50-100")
+     */
+    private List<String> priceBuckets;
+
+    /**
+     * Lowest price (inclusive)
+     */
+    @DecimalMin(value = "0", message = "Minimum price cannot be negative")
+    private BigDecimal minPrice;
+
+    /**
+     * Highest price (inclusive)
+     */
+    @DecimalMin(value = "0", message = "Maximum price cannot be negative")
+    private BigDecimal maxPrice;
+
+    /**
+     * Only bestsellers when true
+     */
+    private Boolean bestseller;
+
+    /**
+     * Whether any filter is set
+     */
+    public boolean isEmpty() {
+        return isBlank(brands) && isBlank(categories) && isBlank(priceBuckets)
+                && minPrice == null && maxPrice == null && !Boolean.TRUE.equals(bestseller);
+    }
+
+    private static boolean isBlank(List<String> values) {
+        return values == null || values.isEmpty();
+    }
+}
@@ -1,9 +1,12 @@
 package com.quickcommerce.search.dto;
 
+import com.quickcommerce.search.provider.SearchEngineType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,11 +28,30 @@ public class SearchRequest {
     private String query;
 
     /**
-     * Store ID to filter results by
+     * Store ID to filter results by; when absent the serving store is resolved from latitude/longitude
      */
-    @NotNull(message = "Store ID is required")
     private Long storeId;
 
+    /**
+     * Customer latitude, used with longitude instead of a store ID
+     */
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    /**
+     * Customer longitude, used with latitude instead of a store ID
+     */
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    /**
+     * With coordinates: when the serving store has few results on the first page, also search the other
+     * stores covering the location
+     */
+    private Boolean includeNearbyStores;
+
     /**
      * Page number (1-indexed, default 1)
      */
@@ -44,4 +66,22 @@ public class SearchRequest {
     @Max(value = 100, message = "Page size cannot exceed 100")
     @Builder.Default
     private Integer pageSize = 20;
+
+    /**
+     * Pin the search to one engine ("meilisearch" or "lucene"); unset = Meilisearch with standby failover.
+     * Pinned searches bypass the result cache.
+     */
+    private SearchEngineType engine;
+
+    /**
+     * Facet filters applied next to the store filter (brand, category, price, bestseller)
+     */
+    @Valid
+    private SearchFilters filters;
+
+    /**
+     * Return facet distributions (brands, categories, price buckets, bestsellers) with the results.
+     * Filtered and faceted searches bypass the result cache.
+     */
+    private Boolean includeFacets;
 }
@@ -1,5 +1,7 @@
 package com.quickcommerce.search.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +28,12 @@ public class SearchResponse {
      */
     private Long storeId;
 
+    /**
+     * Stores searched when nearby stores were included (serving store first); only present then
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Long> storeIds;
+
     /**
      * List of product results
      */
@@ -36,6 +44,18 @@ public class SearchResponse {
      */
     private SearchMeta meta;
 
+    /**
+     * Facet distributions for filter chips; only present when requested
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Facets facets;
+
+    /**
+     * Per-stage timings for the {@code Server-Timing} debug header; never serialized into the body
+     */
+    @JsonIgnore
+    private String serverTiming;
+
     /**
      * Metadata inner class
      */
@@ -80,4 +100,64 @@ public class SearchResponse {
          */
         private Integer totalHits;
     }
+
+    /**
+     * Facet distributions of all matches (not just the returned page)
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facets {
+
+        /**
+         * Brands, most matches first
+         */
+        private List<FacetValue> brands;
+
+        /**
+         * Category names, most matches first
+         */
+        private List<FacetValue> categories;
+
+        /**
+         * Price ranges in ascending price order
+         */
+        private List<FacetValue> priceBuckets;
+
+        /**
+         * Number of matching bestsellers
+         */
+        private Integer bestsellers;
+
+        /**
+         * Lowest price among the matches
+         */
+        private Double minPrice;
+
+        /**
+         * Highest price among the matches
+         */
+        private Double maxPrice;
+    }
+
+    /**
+     * One facet value and how many matches have it
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+
+        /**
+         * Facet value, usable as a filter value
+         */
+        private String value;
+
+        /**
+         * Matching products with this value
+         */
+        private Integer count;
+    }
 }
@@ -0,0 +1,73 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * State of synonym/settings publishing to Meilisearch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettingsPublishStatus {
+
+    /**
+     * Whether saved edits are waiting for the debounced publish
+     */
+    private Boolean pendingEdits;
+
+    /**
+     * When the oldest unpublished edit was saved
+     */
+    private LocalDateTime pendingSince;
+
+    /**
+     * When settings were last sent to Meilisearch
+     */
+    private LocalDateTime lastPublishedAt;
+
+    /**
+     * Settings sections sent by the last publish
+     */
+    private List<String> lastPublishedSections;
+
+    /**
+     * Error of the last settings task that did not succeed, if any
+     */
+    private String lastFailure;
+
+    /**
+     * Settings tasks enqueued in Meilisearch and not yet finished
+     */
+    private List<PendingTask> pendingTasks;
+
+    /**
+     * An enqueued Meilisearch settings task
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingTask {
+
+        private Integer taskUid;
+
+        /**
+         * Settings sections the task updates
+         */
+        private List<String> sections;
+
+        /**
+         * Last known Meilisearch status (enqueued, processing)
+         */
+        private String status;
+
+        private LocalDateTime enqueuedAt;
+    }
+}
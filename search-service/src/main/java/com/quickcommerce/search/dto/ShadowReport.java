@@ -0,0 +1,113 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Shadow evaluation since startup: how the shadow target's results and latency compare with what was served
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShadowReport {
+
+    /**
+     * Whether searches are being replayed
+     */
+    private Boolean enabled;
+
+    /**
+     * Shadow target: ranking, index or lucene
+     */
+    private String target;
+
+    /**
+     * Share of searches replayed
+     */
+    private Double sampleRate;
+
+    /**
+     * Result positions compared
+     */
+    private Integer depth;
+
+    /**
+     * Replays compared with the served results
+     */
+    private Long compared;
+
+    /**
+     * Sampled searches not replayed because {@code max-concurrent} replays were running
+     */
+    private Long shed;
+
+    /**
+     * Replays that failed or timed out
+     */
+    private Long failed;
+
+    /**
+     * Mean top-N overlap (1.0 = same results)
+     */
+    private Double meanOverlap;
+
+    /**
+     * Mean Kendall tau of the shared results (1.0 = same order, -1.0 = reversed)
+     */
+    private Double meanRankCorrelation;
+
+    /**
+     * Mean latency of the compared searches as served, in milliseconds
+     */
+    private Double meanLiveMs;
+
+    /**
+     * Mean latency of the replays, in milliseconds
+     */
+    private Double meanShadowMs;
+
+    /**
+     * Most divergent recent comparisons, lowest overlap first
+     */
+    private List<Comparison> divergent;
+
+    /**
+     * One served search and its replay
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Comparison {
+
+        private String query;
+
+        private Long storeId;
+
+        private Double overlap;
+
+        private Double rankCorrelation;
+
+        private Long liveMs;
+
+        private Long shadowMs;
+
+        /**
+         * Top-N product ids as served
+         */
+        private List<Long> liveIds;
+
+        /**
+         * Top-N product ids of the shadow target
+         */
+        private List<Long> shadowIds;
+
+        private LocalDateTime comparedAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO mirroring the active store locations (StoreLocation) for deserialization
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreLocationDto {
+
+    private Long id;
+    private String name;
+    private Double latitude;
+    private Double longitude;
+    private Integer serviceableRadiusKm;
+}
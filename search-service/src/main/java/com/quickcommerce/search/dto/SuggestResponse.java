@@ -0,0 +1,58 @@
+package com.quickcommerce.search.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Autocomplete response DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestResponse {
+
+    /**
+     * Prefix as typed
+     */
+    private String query;
+
+    /**
+     * Store ID suggestions were scoped to (null = all stores)
+     */
+    private Long storeId;
+
+    /**
+     * Suggestions, most popular first
+     */
+    private List<Suggestion> suggestions;
+
+    /**
+     * Lookup time in microseconds
+     */
+    private Long processingTimeMicros;
+
+    /**
+     * Suggestion inner class
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestion {
+
+        /**
+         * Text to show and to search for when picked
+         */
+        private String text;
+
+        /**
+         * Source of the term: product, brand, category, synonym or query
+         */
+        private String type;
+    }
+}
@@ -0,0 +1,36 @@
+package com.quickcommerce.search.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC entity for incremental indexing cursors
+ * One row per change feed; (lastUpdatedAt, lastId) is the last change applied to the index
+ */
+@Table("search_index_cursors")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexCursor {
+
+    @Id
+    @Column("cursor_name")
+    private String name;
+
+    @Column("last_updated_at")
+    private LocalDateTime lastUpdatedAt;
+
+    @Column("last_id")
+    private Long lastId;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,56 @@
+package com.quickcommerce.search.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC entity for search analytics
+ * One row per search (result count, latency) or result click (product, position)
+ */
+@Table("search_query_log")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchQueryLog {
+
+    @Id
+    private Long id;
+
+    /**
+     * SEARCH or CLICK
+     */
+    @Column("event_type")
+    private String eventType;
+
+    @Column("query")
+    private String query;
+
+    @Column("store_id")
+    private Long storeId;
+
+    @Column("result_count")
+    private Integer resultCount;
+
+    @Column("latency_ms")
+    private Integer latencyMs;
+
+    @Column("zero_result")
+    private Boolean zeroResult;
+
+    @Column("product_id")
+    private Long productId;
+
+    @Column("result_position")
+    private Integer resultPosition;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+package com.quickcommerce.search.health;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Readiness of this instance to answer searches
+ * Part of the readiness group, so a new instance only receives traffic once its index can serve
+ * (existing index, snapshot restore or completed initial sync), not while the index is still being filled
+ */
+@Component
+@Slf4j
+public class SearchReadinessHealthIndicator implements ReactiveHealthIndicator {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+
+    private final AtomicReference<Readiness> readiness = new AtomicReference<>(
+        new Readiness(false, "Startup initialization not started", LocalDateTime.now())
+    );
+
+    @Override
+    public Mono<Health> health() {
+        Readiness current = readiness.get();
+        Health.Builder builder = current.serving() ? Health.up() : Health.outOfService();
+        return Mono.just(builder
+            .withDetail("message", current.message())
+            .withDetail("since", current.since().format(FORMATTER))
+            .build());
+    }
+
+    /**
+     * The index can answer searches; reconciliation may still be running in the background
+     */
+    public void markServing(String message) {
+        update(true, message);
+    }
+
+    public void markNotServing(String message) {
+        update(false, message);
+    }
+
+    public boolean isServing() {
+        return readiness.get().serving();
+    }
+
+    private void update(boolean serving, String message) {
+        readiness.set(new Readiness(serving, message, LocalDateTime.now()));
+        log.info("Search readiness updated: serving={}, message={}", serving, message);
+    }
+
+    public record Readiness(boolean serving, String message, LocalDateTime since) {}
+}
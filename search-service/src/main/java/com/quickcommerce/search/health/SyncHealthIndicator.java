@@ -8,6 +8,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -24,24 +25,43 @@ public class SyncHealthIndicator implements ReactiveHealthIndicator {
         new SyncStatus(SyncState.NOT_STARTED, "Sync not yet initiated", null, 0)
     );
 
+    private final AtomicReference<IndexingLag> indexingLag = new AtomicReference<>();
+
     @Override
     public Mono<Health> health() {
         SyncStatus currentStatus = status.get();
-        
-        Health.Builder builder = currentStatus.state == SyncState.HEALTHY
+        IndexingLag lag = indexingLag.get();
+        boolean lagging = lag != null && lag.lagging();
+
+        Health.Builder builder = currentStatus.state == SyncState.HEALTHY && !lagging
             ? Health.up()
             : currentStatus.state == SyncState.FAILED
                 ? Health.down()
                 : Health.unknown();
 
-        return Mono.just(builder
+        builder
             .withDetail("state", currentStatus.state)
             .withDetail("message", currentStatus.message)
             .withDetail("lastSync", currentStatus.lastSyncTime != null 
                 ? currentStatus.lastSyncTime.format(FORMATTER) 
                 : "Never")
-            .withDetail("itemsSynced", currentStatus.itemsSynced)
-            .build());
+            .withDetail("itemsSynced", currentStatus.itemsSynced);
+        if (lag != null) {
+            builder.withDetail("incrementalIndexing", Map.of(
+                "status", lagging ? "LAGGING" : "CURRENT",
+                "lagSeconds", lag.lagSeconds()));
+        }
+        return Mono.just(builder.build());
+    }
+
+    /**
+     * Record incremental indexing lag (time since the indexer was last fully caught up)
+     */
+    public void updateIndexingLag(long lagSeconds, boolean lagging) {
+        IndexingLag previous = indexingLag.getAndSet(new IndexingLag(lagSeconds, lagging));
+        if (lagging && (previous == null || !previous.lagging())) {
+            log.warn("Incremental indexing is lagging: {}s behind", lagSeconds);
+        }
     }
 
     public void updateStatus(SyncState state, String message, int itemsSynced) {
@@ -61,6 +81,8 @@ public class SyncHealthIndicator implements ReactiveHealthIndicator {
         DEGRADED
     }
 
+    public record IndexingLag(long lagSeconds, boolean lagging) {}
+
     public record SyncStatus(
         SyncState state,
         String message,
@@ -0,0 +1,190 @@
+package com.quickcommerce.search.latency;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for idempotent reads (Meilisearch searches, availability checks).
+ *
+ * The latency of first attempts is tracked per operation ({@link LatencyWindow}). Once an attempt has been
+ * outstanding for the observed percentile (p95 by default, within {@code min/max-delay-ms}), a second identical
+ * attempt is sent; the first value wins and the other attempt is cancelled. Only the slowest ~5% of calls
+ * can be hedged, and a token bucket caps hedges at {@code max-hedge-ratio} per call, so average load rises by
+ * a few percent at most while the tail is cut. No hedge is sent when the request's {@link RequestDeadline}
+ * would expire before it could start, when the first attempt already failed, or before
+ * {@code min-samples} latencies were observed.
+ *
+ * Metrics: {@code search.hedge.requests} (outcome sent/won/wasted/throttled) and {@code search.hedge.wasted}
+ * (how long the losing attempt had been running when the winner answered).
+ */
+@Slf4j
+@Component
+public class Hedger {
+
+    /**
+     * Token bucket unit: one hedge
+     */
+    private static final long HEDGE = 1_000_000L;
+
+    /**
+     * Hedges a quiet period can save up for a burst
+     */
+    private static final long MAX_SAVED = 10 * HEDGE;
+
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public Hedger(SearchProperties searchProperties, SearchMetrics searchMetrics) {
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+    }
+
+    /**
+     * Run an idempotent read, hedging it when it is slower than usual
+     *
+     * @param operation Operation name (metric tag, latency window)
+     * @param attempt   Builds one attempt; called once, or twice when hedged
+     */
+    public <T> Mono<T> call(String operation, Supplier<Mono<T>> attempt) {
+        SearchProperties.Hedging config = searchProperties.getHedging();
+        if (!config.isEnabled()) {
+            return Mono.defer(attempt);
+        }
+        Operation op = operations.computeIfAbsent(operation, name -> new Operation(config));
+        return Mono.deferContextual(context -> {
+            op.credit(config.getMaxHedgeRatio());
+            long startNanos = System.nanoTime();
+            long delayNanos = op.delayNanos(config);
+            RequestDeadline deadline = RequestDeadline.current(context);
+            if (delayNanos < 0 || (deadline != null && deadline.remaining().toNanos() <= delayNanos)) {
+                return Mono.defer(attempt)
+                    .doOnNext(value -> op.latencies.record(System.nanoTime() - startNanos));
+            }
+
+            AtomicBoolean answered = new AtomicBoolean(false);
+            AtomicLong hedgeStartNanos = new AtomicLong(0);
+            Sinks.Empty<Void> firstDone = Sinks.empty();
+
+            Mono<T> first = Mono.defer(attempt)
+                .doOnNext(value -> {
+                    if (!answered.compareAndSet(false, true)) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    op.latencies.record(now - startNanos);
+                    long hedgeStart = hedgeStartNanos.get();
+                    if (hedgeStart != 0) {
+                        searchMetrics.recordHedge(operation, "wasted");
+                        searchMetrics.recordHedgeWaste(operation, now - hedgeStart);
+                    }
+                })
+                .doOnTerminate(firstDone::tryEmitEmpty);
+
+            Mono<T> hedge = Mono.delay(Duration.ofNanos(delayNanos))
+                .takeUntilOther(firstDone.asMono())
+                .flatMap(tick -> {
+                    if (!op.tryAcquireHedge()) {
+                        searchMetrics.recordHedge(operation, "throttled");
+                        return Mono.<T>empty();
+                    }
+                    hedgeStartNanos.set(System.nanoTime());
+                    searchMetrics.recordHedge(operation, "sent");
+                    log.debug("Hedging {} after {}ms", operation, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+                    return Mono.defer(attempt)
+                        .doOnNext(value -> {
+                            if (!answered.compareAndSet(false, true)) {
+                                return;
+                            }
+                            long now = System.nanoTime();
+                            // The first attempt took at least this long; keeps the window from drifting low
+                            op.latencies.record(now - startNanos);
+                            searchMetrics.recordHedge(operation, "won");
+                            searchMetrics.recordHedgeWaste(operation, now - startNanos);
+                        });
+                });
+
+            return Mono.firstWithValue(first, hedge)
+                .onErrorMap(NoSuchElementException.class, Hedger::attemptError);
+        });
+    }
+
+    /**
+     * Current hedge delay of an operation; negative while it is not hedged
+     */
+    long delayNanos(String operation) {
+        Operation op = operations.get(operation);
+        return op != null ? op.delayNanos(searchProperties.getHedging()) : -1;
+    }
+
+    /**
+     * firstWithValue reports "no attempt produced a value"; surface the first attempt's own error instead
+     */
+    private static Throwable attemptError(NoSuchElementException e) {
+        if (e.getCause() != null) {
+            for (Throwable error : Exceptions.unwrapMultiple(e.getCause())) {
+                if (!(error instanceof NoSuchElementException)) {
+                    return error;
+                }
+            }
+        }
+        for (Throwable error : e.getSuppressed()) {
+            if (!(error instanceof NoSuchElementException)) {
+                return error;
+            }
+        }
+        return e;
+    }
+
+    private static final class Operation {
+
+        private final LatencyWindow latencies;
+        private final AtomicLong tokens = new AtomicLong(0);
+
+        Operation(SearchProperties.Hedging config) {
+            this.latencies = new LatencyWindow(config.getWindowSize(), config.getPercentile());
+        }
+
+        void credit(double maxHedgeRatio) {
+            long earned = (long) (Math.max(0.0, maxHedgeRatio) * HEDGE);
+            if (earned > 0) {
+                tokens.accumulateAndGet(earned, (saved, add) -> Math.min(MAX_SAVED, saved + add));
+            }
+        }
+
+        boolean tryAcquireHedge() {
+            long saved;
+            do {
+                saved = tokens.get();
+                if (saved < HEDGE) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(saved, saved - HEDGE));
+            return true;
+        }
+
+        long delayNanos(SearchProperties.Hedging config) {
+            long percentileNanos = latencies.percentileNanos();
+            if (latencies.count() < config.getMinSamples() || percentileNanos < 0) {
+                return -1;
+            }
+            long min = TimeUnit.MILLISECONDS.toNanos(config.getMinDelayMs());
+            long max = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMs());
+            return Math.min(max, Math.max(min, percentileNanos));
+        }
+    }
+}
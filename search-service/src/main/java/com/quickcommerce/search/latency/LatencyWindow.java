@@ -0,0 +1,65 @@
+package com.quickcommerce.search.latency;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the most recent calls of one operation in a fixed ring, with a cached percentile.
+ *
+ * Recording is one array write; the percentile is recomputed (copy and sort of the ring) every
+ * {@code size / 8} samples by whichever caller crosses the mark, never on every call.
+ */
+final class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicBoolean computing = new AtomicBoolean(false);
+    private final int refreshEvery;
+    private final double percentile;
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new AtomicLongArray(Math.max(8, size));
+        this.refreshEvery = Math.max(1, samples.length() / 8);
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+    }
+
+    void record(long nanos) {
+        long n = recorded.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if ((n + 1) % refreshEvery == 0) {
+            refresh();
+        }
+    }
+
+    long count() {
+        return recorded.get();
+    }
+
+    /**
+     * Percentile of the window at the last refresh; -1 before the first one
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void refresh() {
+        if (!computing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int size = (int) Math.min(recorded.get(), samples.length());
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            percentileNanos = sorted[Math.min(size - 1, Math.max(0, index))];
+        } finally {
+            computing.set(false);
+        }
+    }
+}
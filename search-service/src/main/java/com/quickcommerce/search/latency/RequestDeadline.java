@@ -0,0 +1,73 @@
+package com.quickcommerce.search.latency;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deadline of one search request, carried in the Reactor context.
+ *
+ * {@code SearchService} starts the budget ({@link #start}); downstream calls wrap themselves in
+ * {@link #timeout}, which waits for the configured timeout or the remaining budget, whichever is shorter, and
+ * fails fast once the budget is spent. Calls made outside a search (syncs, admin) have no deadline and keep
+ * their own timeout.
+ */
+public final class RequestDeadline {
+
+    private static final Object KEY = RequestDeadline.class;
+
+    private final long expiresAtNanos;
+
+    private RequestDeadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Context with a deadline {@code budget} from now; an enclosing (earlier) deadline is kept
+     */
+    public static Context start(Context context, Duration budget) {
+        if (budget.isZero() || budget.isNegative() || context.hasKey(KEY)) {
+            return context;
+        }
+        return context.put(KEY, after(budget));
+    }
+
+    /**
+     * Deadline of the current request, null outside one
+     */
+    public static RequestDeadline current(ContextView context) {
+        return context.getOrDefault(KEY, null);
+    }
+
+    /**
+     * Budget left; zero or negative once the deadline passed
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * Run {@code call} within {@code cap} and the remaining budget of the request; errors with
+     * {@link TimeoutException} without subscribing when less than {@code minBudget} is left
+     */
+    public static <T> Mono<T> timeout(Mono<T> call, Duration cap, Duration minBudget) {
+        return Mono.deferContextual(context -> {
+            RequestDeadline deadline = current(context);
+            if (deadline == null) {
+                return call.timeout(cap);
+            }
+            Duration remaining = deadline.remaining();
+            if (remaining.compareTo(minBudget) < 0) {
+                return Mono.error(new TimeoutException("Request deadline exceeded"));
+            }
+            return call.timeout(remaining.compareTo(cap) < 0 ? remaining : cap);
+        });
+    }
+}
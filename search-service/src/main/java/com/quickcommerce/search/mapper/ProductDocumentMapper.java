@@ -1,8 +1,11 @@
 package com.quickcommerce.search.mapper;
 
 import com.quickcommerce.search.dto.CatalogProductDto;
+import com.quickcommerce.search.model.PriceBuckets;
 import com.quickcommerce.search.model.ProductDocument;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +37,7 @@ public final class ProductDocumentMapper {
                 .barcode(dto.getBarcode())
                 .isActive(dto.getIsActive())
                 .price(dto.getBasePrice())
+                .priceBucket(PriceBuckets.of(dto.getBasePrice()))
                 .unitOfMeasure(dto.getUnitOfMeasure())
                 .unitText(dto.getPackageSize())
                 .slug(dto.getSlug())
@@ -41,9 +45,14 @@ public final class ProductDocumentMapper {
                 .searchPriority(dto.getSearchPriority() != null ? dto.getSearchPriority() : 0)
                 .isBestseller(dto.getIsBestseller() != null ? dto.getIsBestseller() : false)
                 .orderCount(dto.getOrderCount() != null ? dto.getOrderCount() : 0)
+                .lastOrderedAt(toEpochMillis(dto.getLastOrderedAt()))
                 .build();
     }
 
+    private static Long toEpochMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : null;
+    }
+
     private static List<String> parseKeywords(String searchKeywords) {
         if (searchKeywords == null || searchKeywords.isBlank()) {
             return Collections.emptyList();
@@ -1,49 +1,118 @@
 package com.quickcommerce.search.metrics;
 
+import com.quickcommerce.search.config.SearchProperties;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Metrics collector for search operations using Micrometer
+ *
+ * Every meter is registered once: tagged meters are cached per tag value, and tag values that come from
+ * requests (store IDs, error types) are bounded so a burst of distinct values cannot grow the registry
+ * without limit. Values beyond the bound are counted under {@value #OTHER}.
  */
 @Slf4j
 @Component
 public class SearchMetrics {
 
+    static final String OTHER = "other";
+
     private final Counter searchRequestCounter;
-    private final Counter searchErrorCounter;
     private final Counter noResultsCounter;
     private final Timer searchDurationTimer;
+    private final DistributionSummary resultCountSummary;
+    private final Counter stockVerifiedCounter;
+    private final Counter stockStaleCounter;
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+    private final Counter coalescedCounter;
     private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final SearchProperties.Metrics properties;
+
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> storeCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> standbyCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hedgeCounters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> hedgeWasteTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> availabilityFallbackCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> shadowCounters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> shadowSummaries = new ConcurrentHashMap<>();
+    private final Map<String, Timer> shadowLatencyTimers = new ConcurrentHashMap<>();
 
-    public SearchMetrics(MeterRegistry meterRegistry) {
+    public SearchMetrics(MeterRegistry meterRegistry,
+                         ObjectProvider<ObservationRegistry> observationRegistry,
+                         SearchProperties searchProperties) {
         this.meterRegistry = meterRegistry;
-        
+        this.observationRegistry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        this.properties = searchProperties.getMetrics();
+
         // Counter for total search requests
         this.searchRequestCounter = Counter.builder("search.requests.total")
             .description("Total number of search requests")
             .register(meterRegistry);
 
-        // Counter for search errors
-        this.searchErrorCounter = Counter.builder("search.errors.total")
-            .description("Total number of search errors")
-            .register(meterRegistry);
-
         // Counter for searches with no results
         this.noResultsCounter = Counter.builder("search.no_results.total")
             .description("Total number of searches with no results")
             .register(meterRegistry);
 
-        // Timer for search duration
+        // End-to-end search duration; per-stage timers come from SearchTrace observations
         this.searchDurationTimer = Timer.builder("search.duration")
             .description("Search request duration")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+
+        // Results returned per search
+        this.resultCountSummary = DistributionSummary.builder("search.results.count")
+            .description("Number of results returned per search")
+            .baseUnit("results")
+            .publishPercentileHistogram()
+            .maximumExpectedValue((double) searchProperties.getMaxResultLimit())
+            .register(meterRegistry);
+
+        // Sampled comparison of indexed stock against live inventory
+        this.stockVerifiedCounter = Counter.builder("search.stock.verified")
+            .description("Search hits re-checked against live inventory")
+            .register(meterRegistry);
+        this.stockStaleCounter = Counter.builder("search.stock.stale")
+            .description("Re-checked hits the index showed in stock but live inventory did not")
             .register(meterRegistry);
+
+        // Result cache: hit ratio and requests that joined an identical in-flight search
+        this.cacheHitCounter = Counter.builder("search.cache.requests")
+            .tag("result", "hit")
+            .description("Search result cache lookups")
+            .register(meterRegistry);
+        this.cacheMissCounter = Counter.builder("search.cache.requests")
+            .tag("result", "miss")
+            .description("Search result cache lookups")
+            .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("search.cache.coalesced")
+            .description("Searches that shared an identical in-flight backend call")
+            .register(meterRegistry);
+        Gauge.builder("search.cache.hit_ratio", this, SearchMetrics::cacheHitRatio)
+            .description("Share of search result cache lookups served from memory")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start the stage trace of one search request
+     */
+    public SearchTrace startTrace() {
+        return new SearchTrace(observationRegistry, properties.isStageHeader());
     }
 
     /**
@@ -57,10 +126,11 @@ public class SearchMetrics {
      * Increment search error counter with error type tag
      */
     public void incrementSearchErrors(String errorType) {
-        Counter.builder("search.errors.total")
-            .tag("error_type", errorType)
+        boundedCounter(errorCounters, errorType, properties.getMaxErrorTypes(), tag -> Counter
+            .builder("search.errors.total")
+            .tag("error_type", tag)
             .description("Search errors by type")
-            .register(meterRegistry)
+            .register(meterRegistry))
             .increment();
     }
 
@@ -82,17 +152,159 @@ public class SearchMetrics {
      * Record search result count
      */
     public void recordSearchResults(int count) {
-        meterRegistry.gauge("search.results.count", count);
+        resultCountSummary.record(count);
     }
 
     /**
-     * Record search with store ID tag
+     * Record search with store ID tag (the first {@code search.metrics.max-store-tags} stores seen get their
+     * own series, the rest share {@value #OTHER})
      */
     public void recordSearchByStore(Long storeId, int resultCount) {
-        Counter.builder("search.by_store.total")
-            .tag("store_id", String.valueOf(storeId))
+        boundedCounter(storeCounters, String.valueOf(storeId), properties.getMaxStoreTags(), tag -> Counter
+            .builder("search.by_store.total")
+            .tag("store_id", tag)
             .description("Search requests by store")
-            .register(meterRegistry)
+            .register(meterRegistry))
             .increment();
     }
+
+    /**
+     * Record a sampled stock verification (hits checked, hits found out of stock)
+     */
+    public void recordStockVerification(int checked, int stale) {
+        stockVerifiedCounter.increment(checked);
+        stockStaleCounter.increment(stale);
+    }
+
+    /**
+     * Record a search served from the result cache
+     */
+    public void recordCacheHit() {
+        cacheHitCounter.increment();
+    }
+
+    /**
+     * Record a search that missed the result cache
+     */
+    public void recordCacheMiss() {
+        cacheMissCounter.increment();
+    }
+
+    /**
+     * Record a search answered by the Lucene standby index (reason: failover or requested)
+     */
+    public void recordStandbySearch(String reason) {
+        standbyCounters.computeIfAbsent(reason, tag -> Counter.builder("search.standby.requests")
+            .tag("reason", tag)
+            .description("Searches served by the standby index instead of Meilisearch")
+            .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * Record a search that joined an identical in-flight backend call instead of issuing its own
+     */
+    public void recordSearchCoalesced() {
+        coalescedCounter.increment();
+    }
+
+    /**
+     * Record a hedging decision for an operation (outcome: sent, won, wasted or throttled)
+     */
+    public void recordHedge(String operation, String outcome) {
+        hedgeCounters.computeIfAbsent(operation + ':' + outcome, key -> Counter.builder("search.hedge.requests")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .description("Hedged requests: sent, answered first (won), answered second (wasted), over budget")
+            .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * Record how long the losing attempt of a hedged call had been running when the winner answered
+     */
+    public void recordHedgeWaste(String operation, long nanos) {
+        hedgeWasteTimers.computeIfAbsent(operation, tag -> Timer.builder("search.hedge.wasted")
+            .tag("operation", tag)
+            .description("Work spent on the cancelled attempt of hedged calls")
+            .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record an availability check answered without live stock (reason: timeout, circuit_open or error); the
+     * page falls back to the index stock data
+     */
+    public void recordAvailabilityFallback(String reason) {
+        availabilityFallbackCounters.computeIfAbsent(reason, tag -> Counter.builder("search.availability.fallback")
+            .tag("reason", tag)
+            .description("Availability checks that failed and fell back to indexed stock")
+            .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * Record a sampled shadow replay (outcome: compared, shed or failed)
+     */
+    public void recordShadow(String target, String outcome) {
+        shadowCounters.computeIfAbsent(target + ':' + outcome, key -> Counter.builder("search.shadow.requests")
+            .tag("target", target)
+            .tag("outcome", outcome)
+            .description("Searches replayed against the shadow target: compared, shed under load or failed")
+            .register(meterRegistry))
+            .increment();
+    }
+
+    /**
+     * Record one shadow comparison: top-N overlap, rank correlation of the shared results (null when fewer
+     * than two are shared) and the latency of both sides
+     */
+    public void recordShadowComparison(String target, double overlap, Double rankCorrelation, long liveNanos,
+                                       long shadowNanos) {
+        shadowSummary("search.shadow.overlap", target, "Share of top-N results served and returned by the shadow")
+            .record(overlap);
+        if (rankCorrelation != null) {
+            // Kendall tau is in [-1, 1]; shifted so that negative correlations are not dropped by the summary
+            shadowSummary("search.shadow.rank_agreement", target,
+                "Kendall tau of the shared results, as (tau + 1) / 2: 1 = same order, 0.5 = unrelated, 0 = reversed")
+                .record((rankCorrelation + 1) / 2);
+        }
+        shadowLatencyTimer(target, "live").record(liveNanos, TimeUnit.NANOSECONDS);
+        shadowLatencyTimer(target, "shadow").record(shadowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary shadowSummary(String name, String target, String description) {
+        return shadowSummaries.computeIfAbsent(name + ':' + target, key -> DistributionSummary.builder(name)
+            .tag("target", target)
+            .description(description)
+            .register(meterRegistry));
+    }
+
+    private Timer shadowLatencyTimer(String target, String side) {
+        return shadowLatencyTimers.computeIfAbsent(target + ':' + side, key -> Timer.builder("search.shadow.latency")
+            .tag("target", target)
+            .tag("side", side)
+            .description("Latency of compared searches: as served (live) and replayed (shadow)")
+            .register(meterRegistry));
+    }
+
+    double cacheHitRatio() {
+        double hits = cacheHitCounter.count();
+        double total = hits + cacheMissCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    /**
+     * Cached counter for a tag value; once {@code maxTags} values have their own counter, new values map to
+     * the shared {@value #OTHER} counter. The bound is approximate under concurrent first use.
+     */
+    private static Counter boundedCounter(Map<String, Counter> counters, String tag, int maxTags,
+                                          Function<String, Counter> register) {
+        Counter counter = counters.get(tag);
+        if (counter != null) {
+            return counter;
+        }
+        String key = counters.size() < maxTags ? tag : OTHER;
+        return counters.computeIfAbsent(key, register);
+    }
 }
@@ -0,0 +1,123 @@
+package com.quickcommerce.search.metrics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-request stage timings of one search.
+ *
+ * Each stage runs inside a {@code search.stage} Observation (tag {@code stage}), which the actuator's meter
+ * handler turns into a percentile-histogram timer per stage. The same durations are kept on the request so
+ * they can be returned in a {@code Server-Timing} debug header. Stages that did not run (cache hits skip the
+ * engine, ranking and fallback) are simply absent.
+ */
+public final class SearchTrace {
+
+    public static final String STAGE_OBSERVATION = "search.stage";
+    public static final String HEADER = "Server-Timing";
+
+    /**
+     * Stages of the search pipeline, in execution order
+     */
+    public enum Stage {
+        NORMALIZE,
+        ENGINE,
+        AVAILABILITY,
+        RANKING,
+        FALLBACK,
+        SERIALIZATION;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final ObservationRegistry observationRegistry;
+    private final boolean exposeTimings;
+    // Stages run sequentially but may hop threads between operators
+    private final Map<Stage, Long> stageNanos = new ConcurrentHashMap<>();
+
+    public SearchTrace(ObservationRegistry observationRegistry, boolean exposeTimings) {
+        this.observationRegistry = observationRegistry;
+        this.exposeTimings = exposeTimings;
+    }
+
+    /**
+     * Trace that records nothing; used when metrics are not wired (tests, tools)
+     */
+    public static SearchTrace noop() {
+        return new SearchTrace(ObservationRegistry.NOOP, false);
+    }
+
+    /**
+     * Time a synchronous stage
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        Observation observation = start(stage);
+        long started = System.nanoTime();
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            stageNanos.merge(stage, System.nanoTime() - started, Long::sum);
+            observation.stop();
+        }
+    }
+
+    /**
+     * Time a reactive stage from subscription to termination or cancellation
+     */
+    public <T> Mono<T> time(Stage stage, Mono<T> work) {
+        return Mono.defer(() -> {
+            Observation observation = start(stage);
+            long started = System.nanoTime();
+            return work
+                .doOnError(observation::error)
+                .doFinally(signal -> {
+                    stageNanos.merge(stage, System.nanoTime() - started, Long::sum);
+                    observation.stop();
+                });
+        });
+    }
+
+    /**
+     * Recorded duration of a stage in milliseconds, or null if it did not run
+     */
+    public Double stageMillis(Stage stage) {
+        Long nanos = stageNanos.get(stage);
+        return nanos == null ? null : nanos / 1_000_000.0;
+    }
+
+    /**
+     * {@code Server-Timing} header value ({@code normalize;dur=0.02, engine;dur=11.87, ...}),
+     * or null when the debug header is disabled
+     */
+    public String serverTiming() {
+        if (!exposeTimings) {
+            return null;
+        }
+        StringJoiner header = new StringJoiner(", ");
+        for (Stage stage : Stage.values()) {
+            Double millis = stageMillis(stage);
+            if (millis != null) {
+                header.add(String.format(Locale.ROOT, "%s;dur=%.2f", stage.tag(), millis));
+            }
+        }
+        return header.length() == 0 ? null : header.toString();
+    }
+
+    private Observation start(Stage stage) {
+        return Observation.createNotStarted(STAGE_OBSERVATION, observationRegistry)
+            .lowCardinalityKeyValue("stage", stage.tag())
+            .start();
+    }
+}
@@ -0,0 +1,52 @@
+package com.quickcommerce.search.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed price ranges indexed as {@code priceBucket} so Meilisearch can facet and filter on them directly.
+ * Changing the edges requires a full sync.
+ */
+public final class PriceBuckets {
+
+    /**
+     * Upper bounds (exclusive) of every bucket but the last
+     */
+    private static final int[] EDGES = { 50, 100, 200, 500, 1000 };
+
+    /**
+     * Bucket labels in ascending price order, e.g. {@code 0-50}, {@code 50-100}, ..., {@code 1000+}
+     */
+    public static final List<String> LABELS = labels();
+
+    private PriceBuckets() {
+    }
+
+    /**
+     * Bucket label for a price, or null when the price is unknown
+     */
+    public static String of(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (int i = 0; i < EDGES.length; i++) {
+            if (price.compareTo(BigDecimal.valueOf(EDGES[i])) < 0) {
+                return LABELS.get(i);
+            }
+        }
+        return LABELS.get(EDGES.length);
+    }
+
+    private static List<String> labels() {
+        List<String> labels = new ArrayList<>(EDGES.length + 1);
+        int lower = 0;
+        for (int edge : EDGES) {
+            labels.add(lower + "-" + edge);
+            lower = edge;
+        }
+        labels.add(lower + "+");
+        return Collections.unmodifiableList(labels);
+    }
+}
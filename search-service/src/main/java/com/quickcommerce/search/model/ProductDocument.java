@@ -87,6 +87,13 @@ public class ProductDocument {
     @JsonProperty("storeIds")
     private List<Long> storeIds;
 
+    /**
+     * Store IDs where this product currently has available stock (subset of storeIds)
+     * Maintained by incremental indexing on in-stock/out-of-stock flips; used for filtering by store
+     */
+    @JsonProperty("inStockStoreIds")
+    private List<Long> inStockStoreIds;
+
     /**
      * Whether product is active in catalog
      */
@@ -99,6 +106,12 @@ public class ProductDocument {
     @JsonProperty("price")
     private BigDecimal price;
 
+    /**
+     * Price range label for faceting (see {@link PriceBuckets})
+     */
+    @JsonProperty("priceBucket")
+    private String priceBucket;
+
     /**
      * Unit of measure (e.g., "kg", "L", "piece")
      */
@@ -141,6 +154,12 @@ public class ProductDocument {
     @JsonProperty("orderCount")
     private Integer orderCount;
 
+    /**
+     * Time of the most recent order (epoch millis), null when never ordered
+     */
+    @JsonProperty("lastOrderedAt")
+    private Long lastOrderedAt;
+
     /**
      * Meilisearch relevance score (0–1), present when {@code showRankingScore} is
      * enabled on the search request.
@@ -0,0 +1,64 @@
+package com.quickcommerce.search.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Meilisearch search response with hits decoded straight into ProductDocument
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductSearchResult {
+
+    /**
+     * Matching documents for the requested page
+     */
+    private List<ProductDocument> hits;
+
+    /**
+     * Meilisearch estimate of total matches across all pages
+     */
+    private long estimatedTotalHits;
+
+    /**
+     * Engine-side processing time
+     */
+    private long processingTimeMs;
+
+    /**
+     * Value counts per requested facet attribute (facet → value → matching documents); null unless facets
+     * were requested
+     */
+    private Map<String, Map<String, Integer>> facetDistribution;
+
+    /**
+     * Min/max of numeric facet attributes among the matches; null unless facets were requested
+     */
+    private Map<String, FacetStats> facetStats;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FacetStats {
+
+        /**
+         * Smallest value among the matches
+         */
+        private Double min;
+
+        /**
+         * Largest value among the matches
+         */
+        private Double max;
+    }
+}
@@ -0,0 +1,112 @@
+package com.quickcommerce.search.provider;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.latency.Hedger;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductSearchResult;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Search engine injected by services: Meilisearch behind the {@code meilisearchService} circuit breaker,
+ * with the in-process {@link LuceneSearchEngine} as hot standby.
+ *
+ * A failed Meilisearch call, or any call while the breaker is open, is answered by the standby once it has
+ * been built by a full sync; until then the original error propagates and search degrades to bestsellers as
+ * before. Requests may also pin an engine ({@link SearchEngineType}), e.g. to compare results.
+ * Meilisearch calls slower than usual are hedged ({@link Hedger}); hedging happens inside the breaker, so a
+ * hedged call counts once.
+ */
+@Slf4j
+@Primary
+@Component
+public class FailoverSearchEngine implements ProductSearchEngine {
+
+    private final ProductSearchEngine meilisearch;
+    private final LuceneSearchEngine standby;
+    private final CircuitBreaker circuitBreaker;
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final Hedger hedger;
+
+    public FailoverSearchEngine(ObjectProvider<WebClientSearchEngine> webClientSearchEngine,
+                                MeilisearchProvider meilisearchProvider,
+                                LuceneSearchEngine standby,
+                                @Qualifier("meilisearchCircuitBreaker") CircuitBreaker circuitBreaker,
+                                SearchProperties searchProperties,
+                                SearchMetrics searchMetrics,
+                                Hedger hedger) {
+        // meilisearch.client=sdk disables the WebClient engine
+        this.meilisearch = webClientSearchEngine.getIfAvailable(() -> meilisearchProvider);
+        this.standby = standby;
+        this.circuitBreaker = circuitBreaker;
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+        this.hedger = hedger;
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize) {
+        return search(query, storeId, page, pageSize, null);
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize,
+                                            SearchEngineType engine) {
+        return route(query, engine, target -> target.search(query, storeId, page, pageSize));
+    }
+
+    /**
+     * Filtered/faceted search. The standby applies the filters but returns no facet distributions.
+     */
+    @Override
+    public Mono<ProductSearchResult> search(SearchQuery query) {
+        return route(query.query(), query.engine(), target -> target.search(query));
+    }
+
+    /**
+     * Composite search: one Meilisearch multi-search behind the breaker; on failover the standby answers
+     * every query.
+     */
+    @Override
+    public Mono<List<ProductSearchResult>> multiSearch(List<SearchQuery> queries) {
+        String description = queries.stream().map(SearchQuery::query).collect(Collectors.joining("', '"));
+        return route(description, null, target -> target.multiSearch(queries));
+    }
+
+    private <T> Mono<T> route(String query, SearchEngineType engine, Function<ProductSearchEngine, Mono<T>> call) {
+        if (engine == SearchEngineType.LUCENE) {
+            searchMetrics.recordStandbySearch("requested");
+            return call.apply(standby);
+        }
+        // Deferred so an open breaker rejects the call before any request is built
+        Mono<T> primary = Mono.defer(() -> hedger.call("meilisearch", () -> call.apply(meilisearch)))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        if (engine == SearchEngineType.MEILISEARCH) {
+            return primary;
+        }
+        return primary.onErrorResume(e -> {
+            if (!searchProperties.getStandby().isFailover() || !standby.isEnabled() || !standby.isReady()) {
+                return Mono.error(e);
+            }
+            log.warn("Meilisearch unavailable (circuit {}), serving '{}' from the standby index: {}",
+                circuitBreaker.getState(), query, e.getMessage());
+            searchMetrics.recordStandbySearch("failover");
+            return call.apply(standby)
+                .onErrorResume(standbyError -> {
+                    e.addSuppressed(standbyError);
+                    return Mono.error(e);
+                });
+        });
+    }
+}
@@ -0,0 +1,564 @@
+package com.quickcommerce.search.provider;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SearchFilters;
+import com.quickcommerce.search.entity.SearchSynonym;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.model.ProductSearchResult;
+import com.quickcommerce.search.repository.SearchSynonymRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.synonym.SynonymGraphFilter;
+import org.apache.lucene.analysis.synonym.SynonymMap;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexOrDocValuesQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.CharsRef;
+import org.apache.lucene.util.CharsRefBuilder;
+import org.apache.lucene.util.IOUtils;
+import org.apache.lucene.util.QueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-process Lucene index used as a hot standby for Meilisearch.
+ *
+ * Built from the same enriched ProductDocument stream as the Meilisearch full sync ({@link Rebuild}, swapped
+ * in together with the live index) and kept current with the incremental indexer's partial documents.
+ * Text fields are weighted like Meilisearch's searchable attributes and scored with BM25, so standby hits are
+ * ordered by text relevance only, like the default Meilisearch ranking rules: orderCount, bestseller and
+ * searchPriority are not applied here. Scores are normalized into {@code _rankingScore}; business signals come
+ * from {@code RankingService} for both engines, and only when {@code search.ranking.enabled} is set.
+ * Store filtering uses points with doc values ({@code storeIds}/{@code inStockStoreIds}, following
+ * {@code search.stock.index-filter}; any of several stores for a multi-store query); synonyms from
+ * {@code search_synonyms} are expanded at query time so edits apply without reindexing. Facet filters
+ * match keyword copies of brand, category, price bucket and bestseller plus a price point; facet
+ * distributions are not computed here.
+ *
+ * The index lives on the heap; each hit's ProductDocument is stored as JSON to rebuild hits and merge partials.
+ */
+@Slf4j
+@Component
+public class LuceneSearchEngine implements ProductSearchEngine {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String BRAND = "brand";
+    static final String KEYWORDS = "keywords";
+    static final String CATEGORY_NAME = "categoryName";
+    static final String DESCRIPTION = "description";
+    static final String BARCODE = "barcode";
+    static final String ACTIVE = "isActive";
+    static final String STORE_IDS = "storeIds";
+    static final String IN_STOCK_STORE_IDS = "inStockStoreIds";
+    static final String SOURCE = "_source";
+    static final String BRAND_FILTER = "brand_filter";
+    static final String CATEGORY_FILTER = "categoryName_filter";
+    static final String PRICE_BUCKET = "priceBucket";
+    static final String BESTSELLER = "isBestseller";
+    static final String PRICE = "price";
+
+    /**
+     * Field weights in the order of the Meilisearch searchable attributes
+     */
+    private static final Map<String, Float> FIELD_BOOSTS = orderedBoosts();
+
+    private static final ObjectMapper SOURCE_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private static final Analyzer INDEX_ANALYZER = new ProductAnalyzer(null);
+
+    private final SearchSynonymRepository synonymRepository;
+    private final SearchProperties searchProperties;
+
+    private volatile Generation live;
+    private volatile Analyzer queryAnalyzer = INDEX_ANALYZER;
+
+    public LuceneSearchEngine(SearchSynonymRepository synonymRepository, SearchProperties searchProperties) {
+        this.synonymRepository = synonymRepository;
+        this.searchProperties = searchProperties;
+    }
+
+    public boolean isEnabled() {
+        return searchProperties.getStandby().isEnabled();
+    }
+
+    /**
+     * Whether a full sync has populated the index so it can answer searches
+     */
+    public boolean isReady() {
+        return live != null;
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize) {
+        return search(new SearchQuery(query, storeId, page, pageSize, null, null, false));
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(SearchQuery query) {
+        return Mono.fromCallable(() -> {
+                Generation current = live;
+                if (current == null) {
+                    throw new IllegalStateException("Standby search index has not been built yet");
+                }
+                return search(current, query.query(), query.storeIds(), query.page(), query.pageSize(),
+                    query.filters());
+            })
+            // In-memory but CPU bound: keep scoring off the Netty event loop
+            .subscribeOn(Schedulers.parallel());
+    }
+
+    private ProductSearchResult search(Generation current, String query, List<Long> storeIds, int page, int pageSize,
+                                       SearchFilters filters) throws IOException {
+        long start = System.nanoTime();
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        Query text = textQuery(query);
+        builder.add(text != null ? text : new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        builder.add(new TermQuery(new Term(ACTIVE, "true")), BooleanClause.Occur.FILTER);
+        String field = searchProperties.getStock().isIndexFilter() ? IN_STOCK_STORE_IDS : STORE_IDS;
+        if (storeIds.size() == 1) {
+            long storeId = storeIds.get(0);
+            builder.add(new IndexOrDocValuesQuery(LongPoint.newExactQuery(field, storeId),
+                SortedNumericDocValuesField.newSlowExactQuery(field, storeId)), BooleanClause.Occur.FILTER);
+        } else if (!storeIds.isEmpty()) {
+            // Multi-store query: any of the stores
+            builder.add(LongPoint.newSetQuery(field, storeIds), BooleanClause.Occur.FILTER);
+        }
+        if (filters != null) {
+            addFilters(builder, filters);
+        }
+
+        int offset = (page - 1) * pageSize;
+        IndexSearcher searcher = current.searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(builder.build(), offset + pageSize);
+            float maxScore = top.scoreDocs.length > 0 ? top.scoreDocs[0].score : 1f;
+            StoredFields storedFields = searcher.storedFields();
+            List<ProductDocument> hits = new ArrayList<>(Math.max(0, top.scoreDocs.length - offset));
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = top.scoreDocs[i];
+                BytesRef source = storedFields.document(scoreDoc.doc).getBinaryValue(SOURCE);
+                ProductDocument hit = SOURCE_MAPPER.readValue(source.bytes, source.offset, source.length,
+                    ProductDocument.class);
+                hit.setRankingScore(maxScore > 0 ? (double) (scoreDoc.score / maxScore) : 0.0);
+                hits.add(hit);
+            }
+            return ProductSearchResult.builder()
+                .hits(hits)
+                .estimatedTotalHits(top.totalHits.value)
+                .processingTimeMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+        } finally {
+            current.searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Same semantics as {@code MeilisearchProvider.buildFilters}: values of one facet OR-ed, facets AND-ed
+     */
+    private static void addFilters(BooleanQuery.Builder builder, SearchFilters filters) {
+        addAnyOf(builder, BRAND_FILTER, filters.getBrands());
+        addAnyOf(builder, CATEGORY_FILTER, filters.getCategories());
+        addAnyOf(builder, PRICE_BUCKET, filters.getPriceBuckets());
+        if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+            double min = filters.getMinPrice() != null ? filters.getMinPrice().doubleValue() : Double.NEGATIVE_INFINITY;
+            double max = filters.getMaxPrice() != null ? filters.getMaxPrice().doubleValue() : Double.POSITIVE_INFINITY;
+            builder.add(DoublePoint.newRangeQuery(PRICE, min, max), BooleanClause.Occur.FILTER);
+        }
+        if (Boolean.TRUE.equals(filters.getBestseller())) {
+            builder.add(new TermQuery(new Term(BESTSELLER, "true")), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static void addAnyOf(BooleanQuery.Builder builder, String field, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        BooleanQuery.Builder anyOf = new BooleanQuery.Builder();
+        values.stream()
+            .filter(Objects::nonNull)
+            .forEach(value -> anyOf.add(new TermQuery(new Term(field, filterKey(value))), BooleanClause.Occur.SHOULD));
+        builder.add(anyOf.build(), BooleanClause.Occur.FILTER);
+    }
+
+    /**
+     * Keyword form of a facet value; case-insensitive like Meilisearch string filters
+     */
+    private static String filterKey(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Any query word in any searchable field (BM25 rewards documents matching more of them), plus a prefix
+     * match on the last word while it is still being typed and one-typo matches on longer words
+     */
+    private Query textQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        QueryBuilder queryBuilder = new QueryBuilder(queryAnalyzer);
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        FIELD_BOOSTS.forEach((field, boost) -> {
+            Query fieldQuery = queryBuilder.createBooleanQuery(field, query, BooleanClause.Occur.SHOULD);
+            if (fieldQuery != null) {
+                builder.add(new BoostQuery(fieldQuery, boost), BooleanClause.Occur.SHOULD);
+            }
+        });
+        List<String> words = analyze(query);
+        if (!words.isEmpty()) {
+            builder.add(new PrefixQuery(new Term(NAME, words.get(words.size() - 1))), BooleanClause.Occur.SHOULD);
+        }
+        for (String word : words) {
+            if (word.length() >= 4) {
+                builder.add(new BoostQuery(new FuzzyQuery(new Term(NAME, word), 1), 0.5f), BooleanClause.Occur.SHOULD);
+            }
+        }
+        builder.add(new BoostQuery(new TermQuery(new Term(BARCODE, query.trim())), 10f), BooleanClause.Occur.SHOULD);
+        return builder.build();
+    }
+
+    /**
+     * Swap in the index built by a full sync (called once Meilisearch swapped its staging index live)
+     */
+    public void replaceIndex(Rebuild rebuild) {
+        if (!isEnabled() || rebuild.writer == null) {
+            rebuild.close();
+            return;
+        }
+        try {
+            rebuild.writer.commit();
+            Generation previous = live;
+            live = new Generation(rebuild.writer, new SearcherManager(rebuild.writer, null));
+            log.info("Standby Lucene index swapped live with {} documents", rebuild.writer.getDocStats().numDocs);
+            if (previous != null) {
+                previous.close();
+            }
+        } catch (IOException e) {
+            log.error("Failed to open standby Lucene index, keeping the previous one", e);
+            rebuild.close();
+        }
+    }
+
+    /**
+     * Overlay the partial documents incremental indexing applied to Meilisearch.
+     * Partials for products not in the index create them from the fields present.
+     */
+    public void applyPartials(Collection<Map<String, Object>> partials) {
+        Generation current = live;
+        if (current == null || partials.isEmpty()) {
+            return;
+        }
+        try {
+            IndexSearcher searcher = current.searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                for (Map<String, Object> partial : partials) {
+                    Object id = partial.get(ID);
+                    if (!(id instanceof Number)) {
+                        continue;
+                    }
+                    Term idTerm = new Term(ID, String.valueOf(((Number) id).longValue()));
+                    TopDocs existing = searcher.search(new TermQuery(idTerm), 1);
+                    Map<String, Object> fields = new HashMap<>();
+                    if (existing.scoreDocs.length > 0) {
+                        BytesRef source = storedFields.document(existing.scoreDocs[0].doc).getBinaryValue(SOURCE);
+                        fields.putAll(SOURCE_MAPPER.readValue(source.bytes, source.offset, source.length, FIELDS));
+                    }
+                    fields.putAll(partial);
+                    current.writer.updateDocument(idTerm,
+                        toLuceneDocument(SOURCE_MAPPER.convertValue(fields, ProductDocument.class)));
+                }
+            } finally {
+                current.searcherManager.release(searcher);
+            }
+            current.searcherManager.maybeRefresh();
+        } catch (AlreadyClosedException e) {
+            // A rebuild swapped in concurrently; its generation already holds these changes
+            log.debug("Standby generation closed while applying {} partial documents, skipping", partials.size());
+        } catch (IOException e) {
+            log.warn("Failed to apply {} partial documents to the standby index: {}", partials.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reload query-time synonyms from {@code search_synonyms}
+     */
+    @Scheduled(fixedDelayString = "${search.standby.synonym-refresh-ms:60000}")
+    public void refreshSynonyms() {
+        if (!isEnabled()) {
+            return;
+        }
+        loadSynonyms().subscribe(null,
+            e -> log.warn("Failed to refresh standby synonyms, keeping the previous ones: {}", e.getMessage()));
+    }
+
+    Mono<Void> loadSynonyms() {
+        return synonymRepository.findAllByIsActiveTrue()
+            .collectList()
+            .map(LuceneSearchEngine::buildQueryAnalyzer)
+            .doOnNext(analyzer -> queryAnalyzer = analyzer)
+            .then();
+    }
+
+    @PreDestroy
+    public void close() {
+        Generation current = live;
+        live = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private static Analyzer buildQueryAnalyzer(List<SearchSynonym> synonyms) {
+        // One-way like Meilisearch: searching the term also finds its synonyms
+        SynonymMap.Builder builder = new SynonymMap.Builder(true);
+        int entries = 0;
+        for (SearchSynonym synonym : synonyms) {
+            if (synonym.getTerm() == null || synonym.getSynonymsJson() == null) {
+                continue;
+            }
+            List<String> alternatives;
+            try {
+                alternatives = SOURCE_MAPPER.readValue(synonym.getSynonymsJson(), STRING_LIST);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable synonyms for '{}': {}", synonym.getTerm(), e.getMessage());
+                continue;
+            }
+            CharsRef input = phrase(synonym.getTerm());
+            for (String alternative : alternatives) {
+                if (input.length > 0 && alternative != null && !analyze(alternative).isEmpty()) {
+                    builder.add(input, phrase(alternative), true);
+                    entries++;
+                }
+            }
+        }
+        if (entries == 0) {
+            return INDEX_ANALYZER;
+        }
+        try {
+            return new ProductAnalyzer(builder.build());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CharsRef phrase(String text) {
+        return SynonymMap.Builder.join(analyze(text).toArray(new String[0]), new CharsRefBuilder());
+    }
+
+    /**
+     * Tokens of the text as indexed (lowercased, accents folded)
+     */
+    static List<String> analyze(String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = INDEX_ANALYZER.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    static Document toLuceneDocument(ProductDocument product) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(product.getId()), Field.Store.NO));
+        addText(document, NAME, product.getName());
+        addText(document, BRAND, product.getBrand());
+        if (product.getKeywords() != null) {
+            product.getKeywords().forEach(keyword -> addText(document, KEYWORDS, keyword));
+        }
+        addText(document, CATEGORY_NAME, product.getCategoryName());
+        addText(document, DESCRIPTION, product.getDescription());
+        if (product.getBarcode() != null && !product.getBarcode().isBlank()) {
+            document.add(new StringField(BARCODE, product.getBarcode().trim(), Field.Store.NO));
+        }
+        document.add(new StringField(ACTIVE, Boolean.FALSE.equals(product.getIsActive()) ? "false" : "true",
+            Field.Store.NO));
+        addKeyword(document, BRAND_FILTER, product.getBrand());
+        addKeyword(document, CATEGORY_FILTER, product.getCategoryName());
+        addKeyword(document, PRICE_BUCKET, product.getPriceBucket());
+        document.add(new StringField(BESTSELLER, Boolean.TRUE.equals(product.getIsBestseller()) ? "true" : "false",
+            Field.Store.NO));
+        if (product.getPrice() != null) {
+            document.add(new DoublePoint(PRICE, product.getPrice().doubleValue()));
+        }
+        addStores(document, STORE_IDS, product.getStoreIds());
+        addStores(document, IN_STOCK_STORE_IDS, product.getInStockStoreIds());
+
+        document.add(new StoredField(SOURCE, new BytesRef(SOURCE_MAPPER.writeValueAsBytes(product))));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addKeyword(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new StringField(field, filterKey(value), Field.Store.NO));
+        }
+    }
+
+    private static void addStores(Document document, String field, List<Long> storeIds) {
+        if (storeIds == null) {
+            return;
+        }
+        for (Long storeId : storeIds) {
+            if (storeId != null) {
+                document.add(new LongPoint(field, storeId));
+                document.add(new SortedNumericDocValuesField(field, storeId));
+            }
+        }
+    }
+
+    private static Map<String, Float> orderedBoosts() {
+        Map<String, Float> boosts = new LinkedHashMap<>();
+        boosts.put(NAME, 6f);
+        boosts.put(BRAND, 5f);
+        boosts.put(KEYWORDS, 4f);
+        boosts.put(CATEGORY_NAME, 3f);
+        boosts.put(DESCRIPTION, 1f);
+        return boosts;
+    }
+
+    /**
+     * Standby index written during one full sync. Created empty when the standby is disabled.
+     */
+    public static class Rebuild implements AutoCloseable {
+
+        private final IndexWriter writer;
+
+        public Rebuild(boolean enabled) {
+            try {
+                this.writer = enabled ? new IndexWriter(new ByteBuffersDirectory(),
+                    new IndexWriterConfig(INDEX_ANALYZER).setOpenMode(IndexWriterConfig.OpenMode.CREATE)) : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void addAll(List<ProductDocument> documents) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                for (ProductDocument document : documents) {
+                    if (document.getId() != null) {
+                        writer.addDocument(toLuceneDocument(document));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Discard a rebuild that will not be swapped in
+         */
+        @Override
+        public void close() {
+            if (writer != null && writer.isOpen()) {
+                try {
+                    writer.rollback();
+                } catch (IOException e) {
+                    log.debug("Failed to discard standby rebuild: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private record Generation(IndexWriter writer, SearcherManager searcherManager) {
+
+        void close() {
+            // Searches still holding an acquired searcher keep their reader until they release it
+            try {
+                IOUtils.close(searcherManager, writer);
+            } catch (IOException e) {
+                log.debug("Failed to close previous standby index: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Standard tokens, lowercased and accent-folded; the query-time variant also expands synonyms
+     */
+    private static final class ProductAnalyzer extends Analyzer {
+
+        private final SynonymMap synonyms;
+
+        ProductAnalyzer(SynonymMap synonyms) {
+            this.synonyms = synonyms;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            if (synonyms != null && synonyms.fst != null) {
+                stream = new SynonymGraphFilter(stream, synonyms, true);
+            }
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
@@ -1,23 +1,41 @@
 package com.quickcommerce.search.provider;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.meilisearch.sdk.Client;
 import com.meilisearch.sdk.Index;
 import com.meilisearch.sdk.SearchRequest;
+import com.meilisearch.sdk.exceptions.MeilisearchApiException;
+import com.meilisearch.sdk.model.IndexesQuery;
 import com.meilisearch.sdk.model.SearchResult;
 import com.meilisearch.sdk.model.Settings;
+import com.meilisearch.sdk.model.SwapIndexesParams;
+import com.meilisearch.sdk.model.Task;
+import com.meilisearch.sdk.model.TaskInfo;
+import com.meilisearch.sdk.model.TaskStatus;
 import com.quickcommerce.search.config.MeilisearchProperties;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SearchFilters;
 import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.model.ProductSearchResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 
 /**
  * Provider/Wrapper for Meilisearch operations
@@ -26,10 +44,41 @@ import java.util.Map;
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class MeilisearchProvider {
+public class MeilisearchProvider implements ProductSearchEngine {
+
+    /**
+     * Fields returned for search hits (everything ranking and ProductResult need)
+     */
+    static final List<String> RETRIEVED_ATTRIBUTES = List.of(
+            "id", "sku", "groupId", "name", "brand", "categoryId", "categoryName",
+            "unitText", "price", "unitOfMeasure", "images", "slug", "isActive",
+            "searchPriority", "isBestseller", "orderCount", "lastOrderedAt");
+
+    /**
+     * Attributes whose distributions are returned when a search asks for facets ({@code price} for its stats)
+     */
+    public static final List<String> FACET_ATTRIBUTES = List.of(
+            "brand", "categoryName", "priceBucket", "isBestseller", "price");
+
+    /**
+     * Attributes search filters on; published as filterable by SearchConfigurationService
+     */
+    public static final List<String> FILTERABLE_ATTRIBUTES = List.of(
+            "isActive", "storeIds", "inStockStoreIds",
+            "brand", "categoryName", "priceBucket", "isBestseller", "price");
+
+    private static final String STAGING_INFIX = "_staging_";
+
+    private static final TypeReference<Map<String, Map<String, Integer>>> FACET_DISTRIBUTION =
+            new TypeReference<>() {
+            };
+    private static final TypeReference<Map<String, ProductSearchResult.FacetStats>> FACET_STATS =
+            new TypeReference<>() {
+            };
 
     private final Client meilisearchClient;
     private final MeilisearchProperties properties;
+    private final SearchProperties searchProperties;
     private final ObjectMapper objectMapper;
 
     /**
@@ -40,41 +89,57 @@ public class MeilisearchProvider {
     }
 
     /**
-     * Search for products using query and filters
+     * Search for products using query, filters, and pagination
+     * Optimized with attributesToRetrieve for reduced payload size.
+     * Blocking SDK fallback for {@link WebClientSearchEngine} ({@code meilisearch.client=sdk}).
      */
+    @Override
+    public Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize) {
+        return search(new SearchQuery(query, storeId, page, pageSize, null, null, false));
+    }
+
     /**
-     * Search for products using query, filters, and pagination
-     * Optimized with attributesToRetrieve for reduced payload size
+     * Blocking SDK search with facet filters and facet distributions computed in the same query.
      */
-    public Mono<SearchResult> search(String query, Long storeId, int page, int pageSize) {
+    @Override
+    public Mono<ProductSearchResult> search(SearchQuery query) {
         return Mono.fromCallable(() -> {
             Index index = getProductsIndex();
 
-            int offset = (page - 1) * pageSize;
+            int offset = (query.page() - 1) * query.pageSize();
 
             SearchRequest searchRequest = SearchRequest.builder()
-                    .q(query)
+                    .q(query.query())
                     .offset(offset)
-                    .limit(pageSize)
-                    .filter(new String[] { buildFilter(storeId) })
+                    .limit(query.pageSize())
+                    .filter(buildFilters(query, searchProperties.getStock().isIndexFilter()).toArray(new String[0]))
+                    .facets(query.facets() ? FACET_ATTRIBUTES.toArray(new String[0]) : null)
                     .showRankingScore(true)
-                    .attributesToRetrieve(new String[] {
-                        "id", "sku", "groupId", "name", "brand", "categoryId", "categoryName",
-                        "unitText", "price", "unitOfMeasure", "images", "slug", "isActive",
-                        "searchPriority", "isBestseller", "orderCount"
-                    })
+                    .attributesToRetrieve(RETRIEVED_ATTRIBUTES.toArray(new String[0]))
                     .build();
 
             log.debug("Executing search: '{}', storeId: {}, page: {}, size: {}, offset: {}",
-                    query, storeId, page, pageSize, offset);
+                    query.query(), query.storeId(), query.page(), query.pageSize(), offset);
 
             // Index.search() returns Searchable interface - cast to SearchResult
-            return (SearchResult) index.search(searchRequest);
+            SearchResult result = (SearchResult) index.search(searchRequest);
+            return ProductSearchResult.builder()
+                    .hits(result.getHits().stream()
+                            .map(hit -> objectMapper.convertValue(hit, ProductDocument.class))
+                            .toList())
+                    .estimatedTotalHits(result.getEstimatedTotalHits())
+                    .processingTimeMs(result.getProcessingTimeMs())
+                    .facetDistribution(query.facets()
+                            ? objectMapper.convertValue(result.getFacetDistribution(), FACET_DISTRIBUTION) : null)
+                    .facetStats(query.facets()
+                            ? objectMapper.convertValue(result.getFacetStats(), FACET_STATS) : null)
+                    .build();
         })
                 .subscribeOn(Schedulers.boundedElastic())
                 .doOnSuccess(result -> log.debug("Search returned {} hits (total: {}) in {}ms",
                         result.getHits().size(), result.getEstimatedTotalHits(), result.getProcessingTimeMs()))
-                .doOnError(e -> log.error("Error executing search query: '{}', storeId: {}", query, storeId, e));
+                .doOnError(e -> log.error("Error executing search query: '{}', storeId: {}",
+                        query.query(), query.storeId(), e));
     }
 
     /**
@@ -214,11 +279,229 @@ public class MeilisearchProvider {
                 .doOnError(e -> log.error("Error getting index stats", e));
     }
 
+    // ============ Index lifecycle (blue/green rebuild) ============
+
+    /**
+     * Name of the live index searches are served from
+     */
+    public String getIndexName() {
+        return properties.getIndexName();
+    }
+
     /**
-     * Builds filter string for Meilisearch query
+     * Fresh staging index name for one full rebuild, {@code <index>_staging_<start millis>_<random>}: unique per
+     * run, so a rebuild on another instance never writes into or deletes this one's staging index
      */
-    private String buildFilter(Long storeId) {
-        return String.format("isActive = true AND storeIds = %d", storeId);
+    public String newStagingIndexName() {
+        return String.format("%s%s%d_%04x", properties.getIndexName(), STAGING_INFIX, System.currentTimeMillis(),
+                ThreadLocalRandom.current().nextInt(0x10000));
+    }
+
+    /**
+     * Staging indexes of rebuilds started before {@code startedBeforeMillis} (left behind by an instance that
+     * died mid-rebuild); names this instance did not generate are never returned
+     */
+    public Flux<String> getStagingIndexesStartedBefore(long startedBeforeMillis) {
+        String prefix = properties.getIndexName() + STAGING_INFIX;
+        return Mono.fromCallable(() -> {
+                    IndexesQuery query = new IndexesQuery();
+                    query.setLimit(1000);
+                    return meilisearchClient.getIndexes(query).getResults();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(Arrays::asList)
+                .map(Index::getUid)
+                .filter(uid -> uid.startsWith(prefix)
+                        && stagingStartedAt(uid.substring(prefix.length())) < startedBeforeMillis);
+    }
+
+    /**
+     * Start time encoded in a staging index name suffix, or {@link Long#MAX_VALUE} when it has none
+     */
+    static long stagingStartedAt(String suffix) {
+        int end = suffix.indexOf('_');
+        try {
+            return Long.parseLong(end < 0 ? suffix : suffix.substring(0, end));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Enqueues creation of the given index with primaryKey='id'
+     */
+    public Mono<TaskInfo> createIndex(String indexUid) {
+        return Mono.fromCallable(() -> meilisearchClient.createIndex(indexUid, "id"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error creating index: {}", indexUid, e));
+    }
+
+    /**
+     * Enqueues deletion of the given index
+     */
+    public Mono<TaskInfo> deleteIndex(String indexUid) {
+        return Mono.fromCallable(() -> meilisearchClient.deleteIndex(indexUid))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error deleting index: {}", indexUid, e));
+    }
+
+    /**
+     * Settings currently applied to the products index
+     */
+    public Mono<Settings> getSettings() {
+        return Mono.fromCallable(() -> getProductsIndex().getSettings())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Enqueues a settings update on the given index
+     */
+    public Mono<TaskInfo> updateSettings(String indexUid, Settings settings) {
+        return Mono.fromCallable(() -> meilisearchClient.index(indexUid).updateSettings(settings))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error updating settings on index: {}", indexUid, e));
+    }
+
+    /**
+     * Serializes documents into a Meilisearch add-documents payload (JSON array)
+     */
+    public String serializeDocuments(List<ProductDocument> documents) {
+        return toJsonArray(documents);
+    }
+
+    /**
+     * Enqueues an add-or-replace of a pre-serialized JSON array payload into the given index
+     */
+    public Mono<TaskInfo> upsertPayload(String indexUid, String jsonArray) {
+        return Mono.fromCallable(() -> meilisearchClient.index(indexUid).addDocuments(jsonArray, "id"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error upserting payload ({} chars) into {}", jsonArray.length(), indexUid, e));
+    }
+
+    /**
+     * Enqueues an atomic swap of two indexes' contents and settings
+     */
+    public Mono<TaskInfo> swapIndexes(String firstUid, String secondUid) {
+        return Mono.fromCallable(() -> meilisearchClient.swapIndexes(new SwapIndexesParams[] {
+                    new SwapIndexesParams().setIndexes(new String[] { firstUid, secondUid })
+                }))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error swapping indexes {} <-> {}", firstUid, secondUid, e));
+    }
+
+    /**
+     * Number of documents currently stored in the given index
+     */
+    public Mono<Long> countDocuments(String indexUid) {
+        return Mono.fromCallable(() -> meilisearchClient.index(indexUid).getStats().getNumberOfDocuments())
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * True when Meilisearch refused the call because the index does not exist; connection failures, timeouts
+     * and other API errors are not
+     */
+    public boolean isIndexNotFound(Throwable error) {
+        return error instanceof MeilisearchApiException api && "index_not_found".equals(api.getCode());
+    }
+
+    /**
+     * Waits until the task leaves the queue and fails if it did not succeed.
+     * Meilisearch processes tasks in enqueue order, so awaiting the last task of a
+     * sequence also drains everything enqueued before it.
+     */
+    public Mono<Void> awaitTask(int taskUid, Duration timeout) {
+        return Mono.fromCallable(() -> {
+                    meilisearchClient.index(properties.getIndexName())
+                            .waitForTask(taskUid, (int) timeout.toMillis(), 100);
+                    Task task = meilisearchClient.getTask(taskUid);
+                    if (task.getStatus() != TaskStatus.SUCCEEDED) {
+                        throw new IllegalStateException("Meilisearch task " + taskUid + " ended with status "
+                                + task.getStatus() + (task.getError() != null ? ": " + task.getError().getMessage() : ""));
+                    }
+                    return task;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Current state of a Meilisearch task, without waiting for it to finish
+     */
+    public Mono<Task> getTask(int taskUid) {
+        return Mono.fromCallable(() -> meilisearchClient.getTask(taskUid))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Builds filter string for Meilisearch query.
+     * With {@code inStockOnly} the store match is on inStockStoreIds, so pagination and estimatedTotalHits
+     * already exclude out-of-stock products.
+     */
+    static String buildFilter(Long storeId, boolean inStockOnly) {
+        return String.format("isActive = true AND %s = %d", inStockOnly ? "inStockStoreIds" : "storeIds", storeId);
+    }
+
+    /**
+     * Filter string matching products of any of the given stores (multi-store query)
+     */
+    static String buildFilter(List<Long> storeIds, boolean inStockOnly) {
+        if (storeIds.size() == 1) {
+            return buildFilter(storeIds.get(0), inStockOnly);
+        }
+        return String.format("isActive = true AND %s IN [%s]", inStockOnly ? "inStockStoreIds" : "storeIds",
+                storeIds.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * {@link #buildFilters(Long, boolean, SearchFilters)} for one engine call, with the store filter spanning
+     * every store of a multi-store query
+     */
+    static List<String> buildFilters(SearchQuery query, boolean inStockOnly) {
+        List<String> expressions = buildFilters(query.storeId(), inStockOnly, query.filters());
+        if (query.isMultiStore()) {
+            expressions.set(0, buildFilter(query.storeIds(), inStockOnly));
+        }
+        return expressions;
+    }
+
+    /**
+     * Store filter followed by one expression per facet filter; Meilisearch ANDs the array elements.
+     * String values are quoted and escaped, so user input cannot change the expression.
+     */
+    static List<String> buildFilters(Long storeId, boolean inStockOnly, SearchFilters filters) {
+        List<String> expressions = new ArrayList<>();
+        expressions.add(buildFilter(storeId, inStockOnly));
+        if (filters == null) {
+            return expressions;
+        }
+        addIn(expressions, "brand", filters.getBrands());
+        addIn(expressions, "categoryName", filters.getCategories());
+        addIn(expressions, "priceBucket", filters.getPriceBuckets());
+        if (filters.getMinPrice() != null) {
+            expressions.add("price >= " + toPlain(filters.getMinPrice()));
+        }
+        if (filters.getMaxPrice() != null) {
+            expressions.add("price <= " + toPlain(filters.getMaxPrice()));
+        }
+        if (Boolean.TRUE.equals(filters.getBestseller())) {
+            expressions.add("isBestseller = true");
+        }
+        return expressions;
+    }
+
+    private static void addIn(List<String> expressions, String attribute, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        expressions.add(values.stream()
+                .filter(Objects::nonNull)
+                .map(value -> '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"')
+                .collect(Collectors.joining(", ", attribute + " IN [", "]")));
+    }
+
+    private static String toPlain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
     }
 
     /**
@@ -232,6 +515,16 @@ public class MeilisearchProvider {
         }
     }
 
+    /**
+     * Enqueues a partial update of the live index: only fields present in each JSON object are
+     * replaced, the rest of the stored document is kept (documents that do not exist yet are created)
+     */
+    public Mono<TaskInfo> updatePartialDocuments(String jsonArray) {
+        return Mono.fromCallable(() -> getProductsIndex().updateDocuments(jsonArray, "id"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Error applying partial document updates", e));
+    }
+
     /**
      * Delete all documents from the index (used before full re-sync).
      */
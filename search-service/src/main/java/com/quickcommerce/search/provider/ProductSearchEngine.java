@@ -0,0 +1,53 @@
+package com.quickcommerce.search.provider;
+
+import com.quickcommerce.search.model.ProductSearchResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Query side of the search hot path.
+ * {@link WebClientSearchEngine} (non-blocking, default) and the SDK-backed {@link MeilisearchProvider}
+ * (blocking, fallback via {@code meilisearch.client=sdk}) query Meilisearch; {@link LuceneSearchEngine}
+ * is the in-process standby. {@link FailoverSearchEngine} routes between them and is what services inject.
+ */
+public interface ProductSearchEngine {
+
+    /**
+     * Search active products available in the given store
+     *
+     * @param query    Normalized query
+     * @param storeId  Store ID filter
+     * @param page     1-based page number
+     * @param pageSize Page size
+     * @return Mono of hits already decoded into ProductDocument
+     */
+    Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize);
+
+    /**
+     * Search pinned to one engine. Engines that are not routers ignore the preference.
+     */
+    default Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize,
+                                             SearchEngineType engine) {
+        return search(query, storeId, page, pageSize);
+    }
+
+    /**
+     * Search with facet filters and/or facet distributions. Engines that do not support them answer the plain
+     * search, so the result has no facets and is not narrowed by the filters.
+     */
+    default Mono<ProductSearchResult> search(SearchQuery query) {
+        return search(query.query(), query.storeId(), query.page(), query.pageSize(), query.engine());
+    }
+
+    /**
+     * Several searches answered together, results in query order. Engines without a batch API run the
+     * queries concurrently; {@link WebClientSearchEngine} sends them as one Meilisearch multi-search request.
+     */
+    default Mono<List<ProductSearchResult>> multiSearch(List<SearchQuery> queries) {
+        return Flux.fromIterable(queries)
+                .flatMapSequential(this::search)
+                .collectList();
+    }
+}
@@ -0,0 +1,19 @@
+package com.quickcommerce.search.provider;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.util.Locale;
+
+/**
+ * Engine a search can be pinned to ({@code "engine"} on the search request).
+ * Unset means Meilisearch with automatic failover to the Lucene standby.
+ */
+public enum SearchEngineType {
+    MEILISEARCH,
+    LUCENE;
+
+    @JsonCreator
+    public static SearchEngineType fromValue(String value) {
+        return value == null || value.isBlank() ? null : valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
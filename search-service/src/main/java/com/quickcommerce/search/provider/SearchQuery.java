@@ -0,0 +1,59 @@
+package com.quickcommerce.search.provider;
+
+import com.quickcommerce.search.dto.SearchFilters;
+
+import java.util.List;
+
+/**
+ * One engine call: normalized query, store(s), page, optional engine pin, facet filters and whether facet
+ * distributions are wanted.
+ *
+ * @param query    Normalized query
+ * @param storeId  Store ID filter (the serving store)
+ * @param page     1-based page number
+ * @param pageSize Page size
+ * @param engine   Engine preference, or null for the default routing
+ * @param filters  Facet filters, or null
+ * @param facets   Whether to compute facet distributions
+ * @param storeIds Stores searched, serving store first; more than one for a multi-store query
+ */
+public record SearchQuery(String query, Long storeId, int page, int pageSize, SearchEngineType engine,
+                          SearchFilters filters, boolean facets, List<Long> storeIds) {
+
+    public SearchQuery {
+        if (filters != null && filters.isEmpty()) {
+            filters = null;
+        }
+        if (storeIds == null || storeIds.isEmpty()) {
+            storeIds = storeId != null ? List.of(storeId) : List.of();
+        } else {
+            storeIds = List.copyOf(storeIds);
+        }
+    }
+
+    public SearchQuery(String query, Long storeId, int page, int pageSize, SearchEngineType engine,
+                       SearchFilters filters, boolean facets) {
+        this(query, storeId, page, pageSize, engine, filters, facets, null);
+    }
+
+    /**
+     * Same query across several stores (serving store first)
+     */
+    public SearchQuery withStoreIds(List<Long> stores) {
+        return new SearchQuery(query, storeId, page, pageSize, engine, filters, facets, stores);
+    }
+
+    /**
+     * Whether the call narrows results by facet filters or asks for facet distributions
+     */
+    public boolean isRefined() {
+        return filters != null || facets;
+    }
+
+    /**
+     * Whether the call matches products of any of several stores
+     */
+    public boolean isMultiStore() {
+        return storeIds.size() > 1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.quickcommerce.search.provider;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.quickcommerce.search.config.MeilisearchProperties;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.latency.RequestDeadline;
+import com.quickcommerce.search.model.ProductSearchResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking search against the Meilisearch HTTP API.
+ * Runs on the Netty event loop over a pooled connection (no elastic thread per request) and decodes
+ * the response body straight into {@link ProductSearchResult}/ProductDocument hits.
+ * Composite screens send their queries as one {@code /multi-search} request ({@link #multiSearch}).
+ * Calls wait for {@code meilisearch.timeout} or the remaining search budget ({@link RequestDeadline}),
+ * whichever is shorter.
+ * Disabled with {@code meilisearch.client=sdk}, which falls back to the blocking {@link MeilisearchProvider}.
+ * Called through {@link FailoverSearchEngine}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "meilisearch.client", havingValue = "webclient", matchIfMissing = true)
+public class WebClientSearchEngine implements ProductSearchEngine {
+
+    private final WebClient webClient;
+    private final MeilisearchProperties properties;
+    private final SearchProperties searchProperties;
+
+    public WebClientSearchEngine(@Qualifier("meilisearchWebClient") WebClient webClient,
+                                 MeilisearchProperties properties,
+                                 SearchProperties searchProperties) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.searchProperties = searchProperties;
+    }
+
+    @Override
+    public Mono<ProductSearchResult> search(String query, Long storeId, int page, int pageSize) {
+        return search(new SearchQuery(query, storeId, page, pageSize, null, null, false));
+    }
+
+    /**
+     * Search with facet filters and, when requested, facet distributions ({@link #searchBody})
+     */
+    @Override
+    public Mono<ProductSearchResult> search(SearchQuery query) {
+        return search(properties.getIndexName(), query);
+    }
+
+    /**
+     * Same search against another index, e.g. a copy of the products with candidate settings
+     * (shadow evaluation)
+     */
+    public Mono<ProductSearchResult> search(String indexUid, SearchQuery query) {
+        log.debug("Executing search on {}: '{}', storeId: {}, page: {}, size: {}",
+                indexUid, query.query(), query.storeId(), query.page(), query.pageSize());
+
+        return webClient
+                .post()
+                .uri("/indexes/{indexUid}/search", indexUid)
+                .bodyValue(searchBody(query))
+                .retrieve()
+                .bodyToMono(ProductSearchResult.class)
+                .transform(call -> RequestDeadline.timeout(call, properties.getTimeout(), minCallBudget()))
+                .doOnSuccess(result -> log.debug("Search returned {} hits (total: {}) in {}ms",
+                        result.getHits().size(), result.getEstimatedTotalHits(), result.getProcessingTimeMs()))
+                .doOnError(e -> log.error("Error executing search query: '{}', storeId: {}: {}",
+                        query.query(), query.storeId(), e.getMessage()));
+    }
+
+    /**
+     * All queries in one {@code POST /multi-search} round trip; Meilisearch answers them in request order.
+     */
+    @Override
+    public Mono<List<ProductSearchResult>> multiSearch(List<SearchQuery> queries) {
+        if (queries.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        List<Map<String, Object>> bodies = new ArrayList<>(queries.size());
+        for (SearchQuery query : queries) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("indexUid", properties.getIndexName());
+            body.putAll(searchBody(query));
+            bodies.add(body);
+        }
+
+        log.debug("Executing multi-search: {} queries", queries.size());
+
+        return webClient
+                .post()
+                .uri("/multi-search")
+                .bodyValue(Map.of("queries", bodies))
+                .retrieve()
+                .bodyToMono(MultiSearchResult.class)
+                .transform(call -> RequestDeadline.timeout(call, properties.getTimeout(), minCallBudget()))
+                .flatMap(result -> result.results() != null && result.results().size() == queries.size()
+                        ? Mono.just(result.results())
+                        : Mono.error(new IllegalStateException("Multi-search returned "
+                                + (result.results() != null ? result.results().size() : 0) + " results for "
+                                + queries.size() + " queries")))
+                .doOnError(e -> log.error("Error executing multi-search ({} queries): {}",
+                        queries.size(), e.getMessage()));
+    }
+
+    /**
+     * Search parameters of one query: facet filters compiled next to the store filter, facet distributions
+     * computed by Meilisearch in the same query when requested
+     */
+    private Map<String, Object> searchBody(SearchQuery query) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("q", query.query());
+        body.put("offset", (query.page() - 1) * query.pageSize());
+        body.put("limit", query.pageSize());
+        body.put("filter", MeilisearchProvider.buildFilters(query, searchProperties.getStock().isIndexFilter()));
+        if (query.facets()) {
+            body.put("facets", MeilisearchProvider.FACET_ATTRIBUTES);
+        }
+        body.put("showRankingScore", true);
+        body.put("attributesToRetrieve", MeilisearchProvider.RETRIEVED_ATTRIBUTES);
+        return body;
+    }
+
+    private Duration minCallBudget() {
+        return Duration.ofMillis(searchProperties.getDeadline().getMinCallBudgetMs());
+    }
+
+    /**
+     * {@code /multi-search} response: one search result per query, in request order
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record MultiSearchResult(List<ProductSearchResult> results) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bestseller flag
+ */
+@Component
+@Order(3)
+public class BestsellerFeature implements RankingFeature {
+
+    @Override
+    public String name() {
+        return "bestseller";
+    }
+
+    @Override
+    public double weight(SearchProperties.Ranking ranking) {
+        return ranking.getBestsellerWeight();
+    }
+
+    @Override
+    public void score(List<ProductDocument> candidates, RankingRequest request, double[] out) {
+        for (int i = 0, n = candidates.size(); i < n; i++) {
+            out[i] = Boolean.TRUE.equals(candidates.get(i).getIsBestseller()) ? 1.0 : 0.0;
+        }
+    }
+}
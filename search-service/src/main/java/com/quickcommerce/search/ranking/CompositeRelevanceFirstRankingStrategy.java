@@ -4,7 +4,6 @@ import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.model.ProductDocument;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -16,9 +15,11 @@ import java.util.List;
  *
  * <p>Relevance: {@code _rankingScore} when present; otherwise a position-based fallback preserving hit order.
  * Business: normalized order_count, search_priority (0–100), bestseller — combined with configurable sub-weights.
+ *
+ * <p>Reference implementation: {@link TopKRankingEngine} computes the same order without per-document objects
+ * and is the strategy bean; this class remains the baseline for its tests and benchmarks.
  */
 @Slf4j
-@Component
 @RequiredArgsConstructor
 public class CompositeRelevanceFirstRankingStrategy implements SearchRankingStrategy {
 
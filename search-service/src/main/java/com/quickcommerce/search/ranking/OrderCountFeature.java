@@ -0,0 +1,43 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * order_count relative to the most ordered candidate
+ */
+@Component
+@Order(1)
+public class OrderCountFeature implements RankingFeature {
+
+    @Override
+    public String name() {
+        return "orderCount";
+    }
+
+    @Override
+    public double weight(SearchProperties.Ranking ranking) {
+        return ranking.getOrderCountWeight();
+    }
+
+    @Override
+    public void score(List<ProductDocument> candidates, RankingRequest request, double[] out) {
+        int n = candidates.size();
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            Integer count = candidates.get(i).getOrderCount();
+            if (count != null) {
+                max = Math.max(max, count);
+            }
+        }
+        double maxOrder = Math.max(1, max);
+        for (int i = 0; i < n; i++) {
+            Integer count = candidates.get(i).getOrderCount();
+            out[i] = count == null ? 0.0 : Math.min(1.0, count / maxOrder);
+        }
+    }
+}
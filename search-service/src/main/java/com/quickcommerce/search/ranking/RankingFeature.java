@@ -0,0 +1,31 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+
+import java.util.List;
+
+/**
+ * One business signal of {@link TopKRankingEngine}. Features are Spring beans; adding a bean adds a signal,
+ * and its weight is normalized together with the other features' weights into the business component.
+ *
+ * <p>Implementations write into the caller's array and must not allocate per candidate: they run on the
+ * request path for every search.
+ */
+public interface RankingFeature {
+
+    /**
+     * Short name for logs and debugging
+     */
+    String name();
+
+    /**
+     * Relative weight inside the business component; 0 skips the feature
+     */
+    double weight(SearchProperties.Ranking ranking);
+
+    /**
+     * Write the feature value (0–1, higher ranks first) of {@code candidates.get(i)} into {@code out[i]}
+     */
+    void score(List<ProductDocument> candidates, RankingRequest request, double[] out);
+}
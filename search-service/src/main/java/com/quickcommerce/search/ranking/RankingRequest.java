@@ -0,0 +1,22 @@
+package com.quickcommerce.search.ranking;
+
+/**
+ * Per-query inputs of ranking beyond the candidates themselves.
+ *
+ * @param storeId   store the search runs in; null when not store scoped
+ * @param limit     number of top results wanted (top-K); the rest of the candidates is dropped
+ * @param nowMillis reference time for time-based features such as recency
+ */
+public record RankingRequest(Long storeId, int limit, long nowMillis) {
+
+    public static RankingRequest of(Long storeId, int limit) {
+        return new RankingRequest(storeId, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Rank every candidate, no store context
+     */
+    public static RankingRequest unbounded() {
+        return of(null, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,47 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * How recently the product was ordered (last_ordered_at): 1 for an order right now, halving every
+ * {@code recency-half-life-hours}; 0 when never ordered
+ */
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class RecencyFeature implements RankingFeature {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private final SearchProperties searchProperties;
+
+    @Override
+    public String name() {
+        return "recency";
+    }
+
+    @Override
+    public double weight(SearchProperties.Ranking ranking) {
+        return ranking.getRecencyWeight();
+    }
+
+    @Override
+    public void score(List<ProductDocument> candidates, RankingRequest request, double[] out) {
+        double halfLifeMillis = searchProperties.getRanking().getRecencyHalfLifeHours() * MILLIS_PER_HOUR;
+        for (int i = 0, n = candidates.size(); i < n; i++) {
+            Long orderedAt = candidates.get(i).getLastOrderedAt();
+            if (orderedAt == null || halfLifeMillis <= 0) {
+                out[i] = 0.0;
+            } else {
+                double age = Math.max(0L, request.nowMillis() - orderedAt);
+                out[i] = Math.pow(0.5, age / halfLifeMillis);
+            }
+        }
+    }
+}
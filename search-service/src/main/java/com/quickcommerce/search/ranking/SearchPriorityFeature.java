@@ -0,0 +1,44 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Catalog search_priority (0–100) relative to the highest priority among the candidates
+ */
+@Component
+@Order(2)
+public class SearchPriorityFeature implements RankingFeature {
+
+    @Override
+    public String name() {
+        return "searchPriority";
+    }
+
+    @Override
+    public double weight(SearchProperties.Ranking ranking) {
+        return ranking.getSearchPriorityWeight();
+    }
+
+    @Override
+    public void score(List<ProductDocument> candidates, RankingRequest request, double[] out) {
+        int n = candidates.size();
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            Integer priority = candidates.get(i).getSearchPriority();
+            if (priority != null) {
+                max = Math.max(max, priority);
+            }
+        }
+        double denom = max <= 0 ? 100.0 : (double) max;
+        for (int i = 0; i < n; i++) {
+            Integer priority = candidates.get(i).getSearchPriority();
+            double raw = priority == null ? 0.0 : Math.min(100.0, Math.max(0.0, priority));
+            out[i] = Math.min(1.0, raw / denom);
+        }
+    }
+}
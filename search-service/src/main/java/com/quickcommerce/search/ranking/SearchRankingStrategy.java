@@ -5,7 +5,7 @@ import com.quickcommerce.search.model.ProductDocument;
 import java.util.List;
 
 /**
- * Pluggable search result ordering. Default: relevance-first composite — swap implementation
+ * Pluggable search result ordering. Default: relevance-first composite ({@link TopKRankingEngine}) — swap implementation
  * (e.g. pure lexical, ML reranker) via a Spring {@code @Bean} if needed.
  */
 public interface SearchRankingStrategy {
@@ -14,4 +14,13 @@ public interface SearchRankingStrategy {
      * @param documents Meilisearch hit order; may be mutated and returned (same as legacy {@code RankingService}).
      */
     List<ProductDocument> rank(List<ProductDocument> documents);
+
+    /**
+     * Rank for one query and keep the best {@link RankingRequest#limit()} documents. The default ranks all
+     * documents and truncates; implementations that only need the top K can avoid ordering the rest.
+     */
+    default List<ProductDocument> rank(List<ProductDocument> documents, RankingRequest request) {
+        List<ProductDocument> ranked = rank(documents);
+        return ranked.size() <= request.limit() ? ranked : ranked.subList(0, Math.max(0, request.limit()));
+    }
 }
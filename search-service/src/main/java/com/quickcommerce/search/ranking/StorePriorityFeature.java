@@ -0,0 +1,40 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The store's local_priority (0–100) for the product from product_store_assortment; 0 outside a store
+ */
+@Component
+@Order(5)
+@RequiredArgsConstructor
+public class StorePriorityFeature implements RankingFeature {
+
+    private final StorePriorityIndex storePriorityIndex;
+
+    @Override
+    public String name() {
+        return "storePriority";
+    }
+
+    @Override
+    public double weight(SearchProperties.Ranking ranking) {
+        return ranking.getStorePriorityWeight();
+    }
+
+    @Override
+    public void score(List<ProductDocument> candidates, RankingRequest request, double[] out) {
+        Map<Long, Integer> priorities = storePriorityIndex.forStore(request.storeId());
+        for (int i = 0, n = candidates.size(); i < n; i++) {
+            Integer priority = priorities.get(candidates.get(i).getId());
+            out[i] = priority == null ? 0.0 : Math.min(100, Math.max(0, priority)) / 100.0;
+        }
+    }
+}
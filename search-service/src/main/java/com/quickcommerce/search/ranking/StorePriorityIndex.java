@@ -0,0 +1,79 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory copy of the positive {@code local_priority} values of active rows in
+ * {@code product_store_assortment}, keyed by store then product, for {@link StorePriorityFeature}.
+ *
+ * Reloaded every {@code store-priority-refresh-ms} off the request path; nothing is loaded while the
+ * store priority weight is 0. A failed reload keeps the previous priorities.
+ */
+@Slf4j
+@Component
+public class StorePriorityIndex {
+
+    private static final String SELECT_PRIORITIES = "SELECT store_id, product_id, local_priority "
+        + "FROM product_store_assortment WHERE is_active = TRUE AND local_priority > 0";
+
+    private final DatabaseClient databaseClient;
+    private final SearchProperties searchProperties;
+
+    private volatile Map<Long, Map<Long, Integer>> priorities = Map.of();
+
+    public StorePriorityIndex(DatabaseClient databaseClient, SearchProperties searchProperties) {
+        this.databaseClient = databaseClient;
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * Product id → local priority in one store; empty outside a store or when the store has none
+     */
+    public Map<Long, Integer> forStore(Long storeId) {
+        if (storeId == null) {
+            return Map.of();
+        }
+        return priorities.getOrDefault(storeId, Map.of());
+    }
+
+    @Scheduled(fixedDelayString = "${search.ranking.store-priority-refresh-ms:300000}")
+    public void refresh() {
+        if (searchProperties.getRanking().getStorePriorityWeight() <= 0) {
+            return;
+        }
+        load().subscribe(null,
+            e -> log.warn("Failed to refresh store priorities, keeping the previous ones: {}", e.getMessage()));
+    }
+
+    Mono<Void> load() {
+        return databaseClient.sql(SELECT_PRIORITIES)
+            .map((row, metadata) -> new Row(
+                row.get("store_id", Long.class),
+                row.get("product_id", Long.class),
+                row.get("local_priority", Integer.class)))
+            .all()
+            .collect(HashMap<Long, Map<Long, Integer>>::new,
+                (byStore, r) -> byStore.computeIfAbsent(r.storeId(), k -> new HashMap<>()).put(r.productId(), r.priority()))
+            .doOnNext(this::replace)
+            .then();
+    }
+
+    /**
+     * Replace all priorities (store id → product id → local priority)
+     */
+    public void replace(Map<Long, Map<Long, Integer>> byStore) {
+        priorities = byStore;
+        log.debug("Store priorities loaded for {} stores", byStore.size());
+    }
+
+    private record Row(Long storeId, Long productId, Integer priority) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Default {@link SearchRankingStrategy}: the relevance-first blend of {@link CompositeRelevanceFirstRankingStrategy}
+ * over pluggable {@link RankingFeature}s, computed without per-candidate objects.
+ *
+ * <p>Scores, prices and feature values go into primitive arrays reused per thread; the best {@code limit}
+ * candidates are kept in a bounded binary heap of indices (O(n log k)) and heap-sorted in place, so candidates
+ * that cannot make the page are never sorted. Order matches the composite strategy: final score desc, then
+ * cheaper first, then Meilisearch hit order.
+ *
+ * <p>With the recency and store priority weights at 0 the result is the same as the composite strategy's.
+ */
+@Slf4j
+@Component
+public class TopKRankingEngine implements SearchRankingStrategy {
+
+    private final SearchProperties searchProperties;
+    private final RankingFeature[] features;
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    public TopKRankingEngine(SearchProperties searchProperties, List<RankingFeature> features) {
+        this.searchProperties = searchProperties;
+        this.features = features.toArray(new RankingFeature[0]);
+    }
+
+    @Override
+    public List<ProductDocument> rank(List<ProductDocument> documents) {
+        return rank(documents, RankingRequest.unbounded());
+    }
+
+    @Override
+    public List<ProductDocument> rank(List<ProductDocument> documents, RankingRequest request) {
+        if (documents == null) {
+            return List.of();
+        }
+        int n = documents.size();
+        int k = Math.min(n, Math.max(0, request.limit()));
+        if (n <= 1 && k == n) {
+            return documents;
+        }
+        if (k == 0) {
+            return List.of();
+        }
+
+        Scratch s = scratch.get();
+        s.ensureCapacity(n);
+        score(documents, request, s);
+
+        double[] scores = s.scores;
+        double[] prices = s.prices;
+        int[] heap = s.heap;
+
+        // Bounded heap with the worst kept candidate at the root
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, scores, prices);
+            } else if (ranksBefore(i, heap[0], scores, prices)) {
+                heap[0] = i;
+                siftDown(heap, 0, size, scores, prices);
+            }
+        }
+        // Heap sort in place: each step moves the worst remaining candidate to the end
+        for (int end = size - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end, scores, prices);
+        }
+
+        List<ProductDocument> out = new ArrayList<>(size);
+        for (int j = 0; j < size; j++) {
+            out.add(documents.get(heap[j]));
+        }
+        return out;
+    }
+
+    /**
+     * Fill {@code s.scores} and {@code s.prices} for the first {@code documents.size()} slots
+     */
+    private void score(List<ProductDocument> documents, RankingRequest request, Scratch s) {
+        int n = documents.size();
+        SearchProperties.Ranking cfg = searchProperties.getRanking();
+        double relevanceWeight = cfg.getRelevanceWeight();
+        double businessWeight = cfg.getBusinessWeight();
+        double pairSum = relevanceWeight + businessWeight;
+        double relPortion = pairSum <= 0 ? 0.5 : relevanceWeight / pairSum;
+        double busPortion = pairSum <= 0 ? 0.5 : businessWeight / pairSum;
+
+        double[] weights = s.weights;
+        double weightSum = 0;
+        for (int f = 0; f < features.length; f++) {
+            weights[f] = Math.max(0.0, features[f].weight(cfg));
+            weightSum += weights[f];
+        }
+
+        double[] business = s.business;
+        Arrays.fill(business, 0, n, 0.0);
+        for (int f = 0; f < features.length; f++) {
+            double w = weightSum <= 0 ? 1.0 / features.length : weights[f] / weightSum;
+            if (w == 0.0) {
+                continue;
+            }
+            features[f].score(documents, request, s.column);
+            for (int i = 0; i < n; i++) {
+                business[i] += w * s.column[i];
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            ProductDocument doc = documents.get(i);
+            double relevance = relevanceScore(doc, i, n);
+            s.scores[i] = relPortion * relevance + busPortion * business[i];
+            BigDecimal price = doc.getPrice();
+            s.prices[i] = price == null ? Double.POSITIVE_INFINITY : price.doubleValue();
+            if (log.isDebugEnabled() && i < 5) {
+                log.debug("rank sku={} rel={} bus={} final={}", doc.getSku(), relevance, business[i], s.scores[i]);
+            }
+        }
+    }
+
+    private static double relevanceScore(ProductDocument doc, int indexInHitList, int hitCount) {
+        Double rankingScore = doc.getRankingScore();
+        if (rankingScore != null) {
+            return rankingScore.isNaN() ? 0.0 : Math.min(1.0, Math.max(0.0, rankingScore));
+        }
+        // Preserve Meilisearch order: earlier hits score higher when API did not return _rankingScore
+        return 1.0 - (indexInHitList / (double) hitCount);
+    }
+
+    /**
+     * Whether candidate {@code a} ranks before candidate {@code b}
+     */
+    private static boolean ranksBefore(int a, int b, double[] scores, double[] prices) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        if (byScore != 0) {
+            return byScore < 0;
+        }
+        int byPrice = Double.compare(prices[a], prices[b]);
+        if (byPrice != 0) {
+            return byPrice < 0;
+        }
+        return a < b;
+    }
+
+    private static void siftUp(int[] heap, int pos, double[] scores, double[] prices) {
+        int item = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!ranksBefore(heap[parent], item, scores, prices)) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = item;
+    }
+
+    private static void siftDown(int[] heap, int pos, int size, double[] scores, double[] prices) {
+        int item = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && ranksBefore(heap[child], heap[right], scores, prices)) {
+                child = right;
+            }
+            if (!ranksBefore(item, heap[child], scores, prices)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+
+    /**
+     * Per-thread working arrays, grown to the largest candidate list seen
+     */
+    private final class Scratch {
+
+        private double[] scores = new double[0];
+        private double[] prices = new double[0];
+        private double[] business = new double[0];
+        private double[] column = new double[0];
+        private int[] heap = new int[0];
+        private final double[] weights = new double[features.length];
+
+        void ensureCapacity(int n) {
+            if (scores.length >= n) {
+                return;
+            }
+            int capacity = Math.max(n, 64);
+            scores = new double[capacity];
+            prices = new double[capacity];
+            business = new double[capacity];
+            column = new double[capacity];
+            heap = new int[capacity];
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.quickcommerce.search.repository;
+
+import com.quickcommerce.search.entity.IndexCursor;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC reactive repository for incremental indexing cursors
+ */
+@Repository
+public interface IndexCursorRepository extends ReactiveCrudRepository<IndexCursor, String> {
+
+    @Modifying
+    @Query("INSERT INTO search_index_cursors (cursor_name, last_updated_at, last_id) VALUES (:name, :lastUpdatedAt, :lastId) "
+            + "ON DUPLICATE KEY UPDATE last_updated_at = VALUES(last_updated_at), last_id = VALUES(last_id)")
+    Mono<Integer> upsert(String name, LocalDateTime lastUpdatedAt, Long lastId);
+}
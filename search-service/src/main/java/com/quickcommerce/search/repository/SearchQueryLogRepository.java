@@ -0,0 +1,22 @@
+package com.quickcommerce.search.repository;
+
+import com.quickcommerce.search.entity.SearchQueryLog;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC reactive repository for search analytics events
+ */
+@Repository
+public interface SearchQueryLogRepository extends ReactiveCrudRepository<SearchQueryLog, Long>,
+        SearchQueryLogRepositoryCustom {
+
+    @Modifying
+    @Query("DELETE FROM search_query_log WHERE created_at < :cutoff LIMIT :limit")
+    Mono<Integer> deleteOlderThan(LocalDateTime cutoff, int limit);
+}
@@ -0,0 +1,18 @@
+package com.quickcommerce.search.repository;
+
+import com.quickcommerce.search.entity.SearchQueryLog;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Custom repository fragment for batched analytics writes.
+ * Implemented by SearchQueryLogRepositoryCustomImpl using DatabaseClient.
+ */
+public interface SearchQueryLogRepositoryCustom {
+
+    /**
+     * Inserts all rows with one multi-row INSERT statement. Returns the number of rows inserted.
+     */
+    Mono<Long> insertBatch(List<SearchQueryLog> rows);
+}
@@ -0,0 +1,56 @@
+package com.quickcommerce.search.repository;
+
+import com.quickcommerce.search.entity.SearchQueryLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched analytics writes: {@code INSERT INTO search_query_log (...) VALUES (:e0, ...), (:e1, ...)}
+ * so a drained buffer costs one statement instead of one round trip per event.
+ */
+@RequiredArgsConstructor
+public class SearchQueryLogRepositoryCustomImpl implements SearchQueryLogRepositoryCustom {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Mono<Long> insertBatch(List<SearchQueryLog> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return Mono.just(0L);
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO search_query_log (event_type, query, store_id, "
+                + "result_count, latency_ms, zero_result, product_id, result_position, created_at) VALUES ");
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:e").append(i).append(", :q").append(i).append(", :s").append(i)
+                    .append(", :r").append(i).append(", :l").append(i).append(", :z").append(i)
+                    .append(", :p").append(i).append(", :n").append(i).append(", :t").append(i).append(')');
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < rows.size(); i++) {
+            SearchQueryLog row = rows.get(i);
+            spec = spec.bind("e" + i, row.getEventType())
+                    .bind("q" + i, row.getQuery());
+            spec = bind(spec, "s" + i, row.getStoreId(), Long.class);
+            spec = bind(spec, "r" + i, row.getResultCount(), Integer.class);
+            spec = bind(spec, "l" + i, row.getLatencyMs(), Integer.class);
+            spec = spec.bind("z" + i, Boolean.TRUE.equals(row.getZeroResult()));
+            spec = bind(spec, "p" + i, row.getProductId(), Long.class);
+            spec = bind(spec, "n" + i, row.getResultPosition(), Integer.class);
+            spec = bind(spec, "t" + i, row.getCreatedAt(), LocalDateTime.class);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,247 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed zero-result fallback per store, served from memory.
+ *
+ * A full sync keeps, for every store, the best {@code pool-size} in-stock products by business signals
+ * (bestseller flag, order_count, search_priority); incremental indexing applies the same partial documents it
+ * sent to Meilisearch, so stock flips and order counts stay current ({@link #applyPartials}). Orders gained
+ * since the last full sync mark a product as trending; the first {@code trending-slots} of a store's list go
+ * to its most trending products, the rest to bestsellers. Lists are rebuilt off the request path by
+ * {@link #refresh()} and only ever contain products in stock in that store. Products outside every pool
+ * enter at the next full sync.
+ */
+@Slf4j
+@Service
+public class FallbackIndex {
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    /**
+     * Bestseller order: flagged bestsellers, then order count, then search priority
+     */
+    static final Comparator<ProductDocument> BESTSELLER_ORDER = Comparator
+        .comparing((ProductDocument doc) -> Boolean.TRUE.equals(doc.getIsBestseller()))
+        .thenComparingInt(doc -> orders(doc))
+        .thenComparingInt(doc -> doc.getSearchPriority() != null ? doc.getSearchPriority() : 0)
+        .thenComparing(ProductDocument::getId, Comparator.reverseOrder())
+        .reversed();
+
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+
+    private volatile Map<Long, Candidate> candidates = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public FallbackIndex(SearchProperties searchProperties, ObjectMapper objectMapper) {
+        this.searchProperties = searchProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Candidates kept per store by a full sync; 0 when the index is disabled
+     */
+    public int poolSize() {
+        SearchProperties.Fallback config = searchProperties.getFallback();
+        return config.isEnabled() ? Math.max(config.getPoolSize(), config.getResultLimit()) : 0;
+    }
+
+    /**
+     * Whether a full sync has built the fallback lists
+     */
+    public boolean isReady() {
+        return snapshot.built();
+    }
+
+    /**
+     * Pre-ranked in-stock fallback products for a store (all stores when {@code storeId} is null)
+     */
+    public List<ProductDocument> fallbackFor(Long storeId) {
+        Snapshot current = snapshot;
+        if (storeId == null) {
+            return current.global();
+        }
+        return current.byStore().getOrDefault(storeId, List.of());
+    }
+
+    /**
+     * Replace all candidates with those collected by a full sync and rebuild the lists immediately
+     */
+    public void replaceCandidates(Rebuild rebuild) {
+        if (rebuild.poolSize <= 0) {
+            return;
+        }
+        Map<Long, Candidate> collected = new ConcurrentHashMap<>();
+        rebuild.pools.values().forEach(pool -> pool.forEach(doc -> collected.put(doc.getId(), Candidate.of(doc))));
+        rebuild.global.forEach(doc -> collected.put(doc.getId(), Candidate.of(doc)));
+        candidates = collected;
+        dirty.set(false);
+        rebuildSnapshot();
+        log.info("Fallback index rebuilt: {} candidates across {} stores", collected.size(), snapshot.byStore().size());
+    }
+
+    /**
+     * Apply incremental partial documents (catalog fields and/or storeIds + inStockStoreIds) to known candidates
+     */
+    public void applyPartials(Collection<Map<String, Object>> partials) {
+        Map<Long, Candidate> current = candidates;
+        boolean changed = false;
+        for (Map<String, Object> partial : partials) {
+            if (!(partial.get("id") instanceof Number id)) {
+                continue;
+            }
+            Candidate updated = current.computeIfPresent(id.longValue(), (k, candidate) -> candidate.merge(partial,
+                objectMapper));
+            changed |= updated != null;
+        }
+        if (changed) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Rebuild the per-store lists after stock or order count changes
+     */
+    @Scheduled(fixedDelayString = "${search.fallback.refresh-interval-ms:5000}")
+    public void refresh() {
+        if (dirty.compareAndSet(true, false)) {
+            rebuildSnapshot();
+        }
+    }
+
+    void rebuildSnapshot() {
+        SearchProperties.Fallback config = searchProperties.getFallback();
+        Map<Long, List<Candidate>> byStore = new HashMap<>();
+        List<Candidate> global = new ArrayList<>();
+        for (Candidate candidate : candidates.values()) {
+            ProductDocument doc = candidate.doc();
+            List<Long> inStock = doc.getInStockStoreIds();
+            if (!Boolean.TRUE.equals(doc.getIsActive()) || inStock == null || inStock.isEmpty()) {
+                continue;
+            }
+            global.add(candidate);
+            for (Long storeId : inStock) {
+                byStore.computeIfAbsent(storeId, k -> new ArrayList<>()).add(candidate);
+            }
+        }
+        Map<Long, List<ProductDocument>> lists = new HashMap<>(byStore.size() * 2);
+        byStore.forEach((storeId, storeCandidates) -> lists.put(storeId, rank(storeCandidates, config)));
+        snapshot = new Snapshot(Map.copyOf(lists), rank(global, config), true);
+    }
+
+    /**
+     * Up to {@code trending-slots} trending products first, then bestsellers, truncated to the result limit
+     */
+    private static List<ProductDocument> rank(List<Candidate> candidates, SearchProperties.Fallback config) {
+        int limit = config.getResultLimit();
+        List<ProductDocument> ranked = new ArrayList<>(Math.min(limit, candidates.size()));
+        List<Candidate> trending = candidates.stream()
+            .filter(candidate -> candidate.trend() > 0)
+            .sorted(Comparator.comparingInt(Candidate::trend).reversed()
+                .thenComparing(Candidate::doc, BESTSELLER_ORDER))
+            .limit(Math.min(config.getTrendingSlots(), limit))
+            .toList();
+        trending.forEach(candidate -> ranked.add(candidate.doc()));
+        candidates.stream()
+            .map(Candidate::doc)
+            .sorted(BESTSELLER_ORDER)
+            .filter(doc -> trending.stream().noneMatch(candidate -> candidate.doc() == doc))
+            .limit(limit - ranked.size())
+            .forEach(ranked::add);
+        return List.copyOf(ranked);
+    }
+
+    private static int orders(ProductDocument doc) {
+        return doc.getOrderCount() != null ? doc.getOrderCount() : 0;
+    }
+
+    /**
+     * Accumulates per-store candidate pools from the enriched pages of a full sync
+     */
+    public static class Rebuild {
+
+        private final int poolSize;
+        private final Map<Long, PriorityQueue<ProductDocument>> pools = new HashMap<>();
+        private final PriorityQueue<ProductDocument> global;
+
+        /**
+         * @param poolSize candidates kept per store ({@link FallbackIndex#poolSize()}); 0 collects nothing
+         */
+        public Rebuild(int poolSize) {
+            this.poolSize = poolSize;
+            // Heads are the weakest candidates so they can be evicted
+            this.global = new PriorityQueue<>(BESTSELLER_ORDER.reversed());
+        }
+
+        public synchronized void addAll(List<ProductDocument> documents) {
+            if (poolSize <= 0) {
+                return;
+            }
+            for (ProductDocument doc : documents) {
+                List<Long> inStock = doc.getInStockStoreIds();
+                if (doc.getId() == null || !Boolean.TRUE.equals(doc.getIsActive()) || inStock == null) {
+                    continue;
+                }
+                for (Long storeId : inStock) {
+                    offer(pools.computeIfAbsent(storeId, k -> new PriorityQueue<>(BESTSELLER_ORDER.reversed())), doc);
+                }
+                if (!inStock.isEmpty()) {
+                    offer(global, doc);
+                }
+            }
+        }
+
+        private void offer(PriorityQueue<ProductDocument> pool, ProductDocument doc) {
+            if (pool.size() < poolSize) {
+                pool.add(doc);
+            } else if (BESTSELLER_ORDER.compare(doc, pool.peek()) < 0) {
+                pool.poll();
+                pool.add(doc);
+            }
+        }
+    }
+
+    /**
+     * A pooled product with the order count it had at the last full sync
+     */
+    private record Candidate(ProductDocument doc, int baselineOrders) {
+
+        static Candidate of(ProductDocument doc) {
+            return new Candidate(doc, orders(doc));
+        }
+
+        int trend() {
+            return orders(doc) - baselineOrders;
+        }
+
+        Candidate merge(Map<String, Object> partial, ObjectMapper objectMapper) {
+            Map<String, Object> fields = objectMapper.convertValue(doc, FIELDS);
+            fields.putAll(partial);
+            return new Candidate(objectMapper.convertValue(fields, ProductDocument.class), baselineOrders);
+        }
+    }
+
+    private record Snapshot(Map<Long, List<ProductDocument>> byStore, List<ProductDocument> global, boolean built) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), List.of(), false);
+    }
+}
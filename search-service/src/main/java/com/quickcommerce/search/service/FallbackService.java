@@ -1,6 +1,7 @@
 package com.quickcommerce.search.service;
 
 import com.quickcommerce.search.client.CatalogClient;
+import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.mapper.ProductDocumentMapper;
 import com.quickcommerce.search.model.ProductDocument;
 import lombok.RequiredArgsConstructor;
@@ -14,7 +15,8 @@ import java.util.stream.Collectors;
 
 /**
  * Service for handling zero-results fallback
- * Ensures we never return empty search results
+ * Serves precomputed per-store lists from {@link FallbackIndex}; live catalog bestsellers only until the
+ * first full sync has built them
  */
 @Slf4j
 @Service
@@ -22,23 +24,31 @@ import java.util.stream.Collectors;
 public class FallbackService {
 
     private final CatalogClient catalogClient;
+    private final FallbackIndex fallbackIndex;
+    private final SearchProperties searchProperties;
 
     /**
      * Get fallback results when search returns no results
      * 
      * Strategy:
-     * 1. Return bestseller items for the store
-     * 2. Never return empty results
+     * 1. Return the store's precomputed trending and bestseller items (in stock, pre-ranked, from memory)
+     * 2. Before the first full sync, return catalog bestsellers (not stock-filtered)
      *
      * @param query   Original search query
      * @param storeId Store ID
      * @return Mono of Fallback product list
      */
     public Mono<List<ProductDocument>> getFallbackResults(String query, Long storeId) {
+        if (searchProperties.getFallback().isEnabled() && fallbackIndex.isReady()) {
+            List<ProductDocument> fallback = fallbackIndex.fallbackFor(storeId);
+            log.debug("Returning {} precomputed fallback products for query: '{}', storeId: {}",
+                    fallback.size(), query, storeId);
+            return Mono.just(fallback);
+        }
         log.info("Getting fallback results for query: '{}', storeId: {}", query, storeId);
 
         // Fetch bestsellers as fallback, map to ProductDocument
-        return catalogClient.getBestsellers(storeId, 20)
+        return catalogClient.getBestsellers(storeId, searchProperties.getFallback().getResultLimit())
                 .map(dtos -> dtos == null ? List.<ProductDocument>of() :
                         dtos.stream().map(ProductDocumentMapper::toProductDocument).collect(Collectors.toList()))
                 .doOnSuccess(bestsellers -> {
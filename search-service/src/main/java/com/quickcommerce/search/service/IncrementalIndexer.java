@@ -0,0 +1,504 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.client.CatalogClient;
+import com.quickcommerce.search.client.InventoryClient;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.CatalogProductDto;
+import com.quickcommerce.search.dto.InventoryChangeDto;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
+import com.quickcommerce.search.health.SyncHealthIndicator;
+import com.quickcommerce.search.mapper.ProductDocumentMapper;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
+import com.quickcommerce.search.provider.MeilisearchProvider;
+import com.quickcommerce.search.repository.IndexCursorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Near-real-time index updates from the catalog and inventory change feeds.
+ *
+ * Each poll reads both feeds from their durable cursors ({@code search_index_cursors}), coalesces
+ * all changes per product into one partial document (catalog fields and/or storeIds + inStockStoreIds),
+ * sends them as partial updates in batches, waits for Meilisearch to apply them and only then persists
+ * the new cursors, so a crash or failed task replays changes instead of skipping them.
+ *
+ * {@code updated_at} has second precision and rows commit out of order, so a change can become visible
+ * behind a cursor that already moved past its second. Every poll therefore starts {@code overlap-ms}
+ * before the cursor; re-read catalog rows identical to what was applied are skipped, and re-read inventory
+ * rows only cost a write when they flip stock state, like any other inventory change.
+ *
+ * Inventory rows only touch a document when they flip between in-stock and out-of-stock (or are new to
+ * this instance): the last indexed state per row is remembered in a bounded LRU, so the steady stream of
+ * stock decrements costs no index writes.
+ *
+ * Lag is the time since the indexer was last fully caught up; it is exported as
+ * {@code search.incremental.lag_seconds} and reported through {@link SyncHealthIndicator}.
+ * Polling pauses while a full rebuild runs, and cursors are rewound to the rebuild start afterwards
+ * so changes swapped away with the old index are re-applied.
+ */
+@Service
+@Slf4j
+public class IncrementalIndexer {
+
+    static final String CATALOG_FEED = "catalog_products";
+    static final String INVENTORY_FEED = "inventory_items";
+
+    private static final TypeReference<Map<String, Object>> FIELDS = new TypeReference<>() {
+    };
+
+    /**
+     * Document fields the catalog feed does not own: store fields come from inventory, the score is search-time only
+     */
+    private static final Set<String> NON_CATALOG_FIELDS = Set.of("storeIds", "inStockStoreIds", "_rankingScore");
+
+    /**
+     * Catalog fields the order popularity flush rewrites every few seconds; they only reorder hits, so cached
+     * result pages are left to expire within their TTL instead of being invalidated
+     */
+    private static final Set<String> POPULARITY_FIELDS = Set.of("orderCount", "lastOrderedAt");
+
+    private final CatalogClient catalogClient;
+    private final InventoryClient inventoryClient;
+    private final MeilisearchProvider meilisearchProvider;
+    private final IndexCursorRepository cursorRepository;
+    private final IndexSyncService indexSyncService;
+    private final SyncHealthIndicator syncHealthIndicator;
+    private final SearchResultCache searchResultCache;
+    private final SuggestIndex suggestIndex;
+    private final LuceneSearchEngine standbySearchEngine;
+    private final FallbackIndex fallbackIndex;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+    private final Counter documentsCounter;
+    private final Counter failureCounter;
+    private final Counter stockFlipCounter;
+
+    /**
+     * Inventory row id → in-stock state last applied to the index, least recently seen evicted first
+     */
+    private final Map<Long, Boolean> indexedStockStates;
+
+    /**
+     * Product id → catalog fields last applied, kept for rows inside the overlap window so re-reads are skipped
+     */
+    private final Map<Long, AppliedFields> appliedCatalogFields = new ConcurrentHashMap<>();
+
+    /**
+     * Product id → hash of the non-popularity catalog fields last applied, least recently seen evicted first.
+     * A product missing here counts as changed.
+     */
+    private final Map<Long, Integer> indexedContentHashes;
+
+    private final AtomicBoolean polling = new AtomicBoolean(false);
+    private volatile Cursor catalogCursor;
+    private volatile Cursor inventoryCursor;
+    private volatile boolean cursorsRewound = false;
+    private volatile LocalDateTime handledRebuildStartedAt;
+    private volatile long caughtUpAtMillis = System.currentTimeMillis();
+
+    public IncrementalIndexer(CatalogClient catalogClient,
+                              InventoryClient inventoryClient,
+                              MeilisearchProvider meilisearchProvider,
+                              IndexCursorRepository cursorRepository,
+                              IndexSyncService indexSyncService,
+                              SyncHealthIndicator syncHealthIndicator,
+                              SearchResultCache searchResultCache,
+                              SuggestIndex suggestIndex,
+                              LuceneSearchEngine standbySearchEngine,
+                              FallbackIndex fallbackIndex,
+                              SearchProperties searchProperties,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.catalogClient = catalogClient;
+        this.inventoryClient = inventoryClient;
+        this.meilisearchProvider = meilisearchProvider;
+        this.cursorRepository = cursorRepository;
+        this.indexSyncService = indexSyncService;
+        this.syncHealthIndicator = syncHealthIndicator;
+        this.searchResultCache = searchResultCache;
+        this.suggestIndex = suggestIndex;
+        this.standbySearchEngine = standbySearchEngine;
+        this.fallbackIndex = fallbackIndex;
+        this.searchProperties = searchProperties;
+        this.objectMapper = objectMapper;
+
+        this.documentsCounter = Counter.builder("search.incremental.documents")
+            .description("Partial documents applied by incremental indexing")
+            .register(meterRegistry);
+        this.failureCounter = Counter.builder("search.incremental.failures")
+            .description("Incremental indexing cycles that failed and will be retried")
+            .register(meterRegistry);
+        this.stockFlipCounter = Counter.builder("search.incremental.stock_flips")
+            .description("Inventory rows re-indexed because they flipped in/out of stock or were new to this instance")
+            .register(meterRegistry);
+
+        int stateCacheSize = Math.max(1, searchProperties.getIncremental().getStockStateCacheSize());
+        this.indexedStockStates = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > stateCacheSize;
+            }
+        });
+        this.indexedContentHashes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                return size() > stateCacheSize;
+            }
+        });
+        Gauge.builder("search.incremental.lag_seconds", this, IncrementalIndexer::lagSeconds)
+            .description("Seconds since incremental indexing was last fully caught up")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Poll both change feeds and apply what changed since the last cycle
+     */
+    @Scheduled(fixedDelayString = "${search.incremental.poll-interval-ms:2000}")
+    public void poll() {
+        if (!searchProperties.getIncremental().isEnabled() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        runCycle()
+            .doFinally(signal -> polling.set(false))
+            .subscribe(
+                applied -> {
+                    if (applied > 0) {
+                        log.debug("Incremental indexing applied {} partial documents", applied);
+                    }
+                },
+                e -> {
+                    failureCounter.increment();
+                    log.warn("Incremental indexing cycle failed, will retry from the last cursor: {}", e.getMessage());
+                });
+    }
+
+    /**
+     * One poll cycle. Emits the number of partial documents applied.
+     */
+    Mono<Integer> runCycle() {
+        if (indexSyncService.isRebuildInProgress()) {
+            reportLag();
+            return Mono.just(0);
+        }
+        return loadCursors()
+            .then(Mono.defer(() -> {
+                rewindAfterRebuild();
+                return Mono.zip(
+                    readFeed(catalogCursor, catalogClient::getProductChanges,
+                        CatalogProductDto::getUpdatedAt, CatalogProductDto::getId),
+                    readFeed(inventoryCursor, inventoryClient::getInventoryChanges,
+                        InventoryChangeDto::getUpdatedAt, InventoryChangeDto::getId));
+            }))
+            .flatMap(feeds -> apply(feeds.getT1(), feeds.getT2()))
+            .doFinally(signal -> reportLag());
+    }
+
+    long lagSeconds() {
+        if (!searchProperties.getIncremental().isEnabled()) {
+            return 0;
+        }
+        return Math.max(0, (System.currentTimeMillis() - caughtUpAtMillis) / 1000);
+    }
+
+    private void reportLag() {
+        long lag = lagSeconds();
+        syncHealthIndicator.updateIndexingLag(lag, lag > searchProperties.getIncremental().getMaxLagSeconds());
+    }
+
+    private Mono<Void> loadCursors() {
+        if (catalogCursor != null && inventoryCursor != null) {
+            return Mono.empty();
+        }
+        // No stored cursor: start tailing from now; older changes are covered by the full sync
+        Cursor initial = new Cursor(LocalDateTime.now()
+            .minus(Duration.ofMillis(searchProperties.getIncremental().getRewindMarginMs())), 0L);
+        return Mono.zip(loadCursor(CATALOG_FEED, initial), loadCursor(INVENTORY_FEED, initial))
+            .doOnNext(cursors -> {
+                catalogCursor = cursors.getT1();
+                inventoryCursor = cursors.getT2();
+                log.info("Incremental indexing resuming from catalog {} and inventory {}", catalogCursor, inventoryCursor);
+            })
+            .then();
+    }
+
+    private Mono<Cursor> loadCursor(String feed, Cursor initial) {
+        return cursorRepository.findById(feed)
+            .map(stored -> new Cursor(stored.getLastUpdatedAt(), stored.getLastId() != null ? stored.getLastId() : 0L))
+            .defaultIfEmpty(initial);
+    }
+
+    private void rewindAfterRebuild() {
+        LocalDateTime rebuildStartedAt = indexSyncService.getLastRebuildStartedAt();
+        if (rebuildStartedAt == null || rebuildStartedAt.equals(handledRebuildStartedAt)) {
+            return;
+        }
+        LocalDateTime replayFrom = rebuildStartedAt
+            .minus(Duration.ofMillis(searchProperties.getIncremental().getRewindMarginMs()));
+        catalogCursor = catalogCursor.rewindTo(replayFrom);
+        inventoryCursor = inventoryCursor.rewindTo(replayFrom);
+        cursorsRewound = true;
+        handledRebuildStartedAt = rebuildStartedAt;
+        // The rebuilt index carries stock and fields read during the rebuild, not what this instance last applied
+        indexedStockStates.clear();
+        appliedCatalogFields.clear();
+        indexedContentHashes.clear();
+        log.info("Full rebuild started at {}: replaying changes from {}", rebuildStartedAt, replayFrom);
+    }
+
+    /**
+     * Re-read the overlap window before {@code from}, then read up to {@code maxPagesPerCycle} pages after it.
+     * The returned end cursor never moves behind {@code from}.
+     */
+    private <T> Mono<FeedPage<T>> readFeed(Cursor from, FeedFetcher<T> fetcher,
+                                           Function<T, LocalDateTime> updatedAt, Function<T, Long> id) {
+        SearchProperties.Incremental config = searchProperties.getIncremental();
+        int pageSize = config.getPageSize();
+        Cursor start = from.minus(Duration.ofMillis(config.getOverlapMs()));
+        AtomicInteger pages = new AtomicInteger(0);
+        AtomicReference<Cursor> position = new AtomicReference<>(start);
+        AtomicReference<Cursor> end = new AtomicReference<>(from);
+        AtomicBoolean drained = new AtomicBoolean(false);
+
+        return fetcher.fetch(start.updatedAt(), start.id(), pageSize)
+            .expand(page -> {
+                if (!page.isEmpty()) {
+                    T last = page.get(page.size() - 1);
+                    if (updatedAt.apply(last) != null && id.apply(last) != null) {
+                        position.set(new Cursor(updatedAt.apply(last), id.apply(last)));
+                        if (position.get().isAfter(end.get())) {
+                            end.set(position.get());
+                        }
+                    }
+                }
+                if (page.size() < pageSize) {
+                    drained.set(true);
+                    return Mono.empty();
+                }
+                // Pages still inside the overlap window do not count against the per-cycle budget
+                if (position.get().isAfter(from) && pages.incrementAndGet() >= config.getMaxPagesPerCycle()) {
+                    return Mono.empty();
+                }
+                return fetcher.fetch(position.get().updatedAt(), position.get().id(), pageSize);
+            })
+            .flatMapIterable(Function.identity())
+            .collectList()
+            .map(changes -> new FeedPage<>(changes, end.get(), drained.get()));
+    }
+
+    private Mono<Integer> apply(FeedPage<CatalogProductDto> catalog, FeedPage<InventoryChangeDto> inventory) {
+        // Feeds are ordered by updatedAt, so later changes to the same product overwrite earlier ones
+        Map<Long, Map<String, Object>> partials = new LinkedHashMap<>();
+        Map<Long, AppliedFields> catalogApplied = new HashMap<>();
+        Map<Long, Integer> contentHashes = new HashMap<>();
+        boolean catalogChanged = false;
+        for (CatalogProductDto product : catalog.changes()) {
+            if (product.getId() == null) {
+                continue;
+            }
+            Map<String, Object> fields = objectMapper.convertValue(ProductDocumentMapper.toProductDocument(product), FIELDS);
+            NON_CATALOG_FIELDS.forEach(fields::remove);
+            AppliedFields applied = appliedCatalogFields.get(product.getId());
+            if (applied != null && applied.fields().equals(fields)) {
+                // Re-read from the overlap window and already indexed
+                continue;
+            }
+            partialFor(partials, product.getId()).putAll(fields);
+            catalogApplied.put(product.getId(), new AppliedFields(product.getUpdatedAt(), fields));
+            int contentHash = contentHash(fields);
+            if (!Objects.equals(indexedContentHashes.get(product.getId()), contentHash)) {
+                // Name, brand, category, price, active, priority or bestseller changed: visible in every store
+                catalogChanged = true;
+            }
+            contentHashes.put(product.getId(), contentHash);
+        }
+        boolean invalidateAll = catalogChanged;
+        Map<Long, Boolean> seenStockStates = new LinkedHashMap<>();
+        Set<Long> stockFlipped = new LinkedHashSet<>();
+        Set<Long> flippedStores = new HashSet<>();
+        for (InventoryChangeDto change : inventory.changes()) {
+            if (change.getId() == null || change.getProductId() == null) {
+                continue;
+            }
+            boolean inStock = change.getAvailableStock() != null && change.getAvailableStock() > 0;
+            Boolean previous = seenStockStates.containsKey(change.getId())
+                ? seenStockStates.get(change.getId())
+                : indexedStockStates.get(change.getId());
+            if (previous == null || previous != inStock) {
+                stockFlipped.add(change.getProductId());
+                flippedStores.add(change.getStoreId());
+            }
+            seenStockStates.put(change.getId(), inStock);
+        }
+
+        return storeStockFor(new ArrayList<>(stockFlipped))
+            .flatMap(storeStock -> {
+                storeStock.forEach((productId, stock) -> {
+                    Map<String, Object> partial = partialFor(partials, productId);
+                    partial.put("storeIds", Objects.requireNonNullElse(stock.getStoreIds(), List.of()));
+                    partial.put("inStockStoreIds", Objects.requireNonNullElse(stock.getInStockStoreIds(), List.of()));
+                });
+                return send(partials.values());
+            })
+            .then(Mono.fromRunnable(() -> {
+                indexedStockStates.putAll(seenStockStates);
+                indexedContentHashes.putAll(contentHashes);
+                rememberCatalogFields(catalogApplied, catalog.end());
+                stockFlipCounter.increment(stockFlipped.size());
+                // Cached result pages: catalog fields show in every store, stock flips only in their own
+                if (invalidateAll) {
+                    searchResultCache.invalidateAll();
+                } else if (!flippedStores.isEmpty()) {
+                    searchResultCache.invalidateStores(flippedStores);
+                }
+                suggestIndex.applyPartials(partials.values());
+                standbySearchEngine.applyPartials(partials.values());
+                fallbackIndex.applyPartials(partials.values());
+            }))
+            .then(Mono.defer(() -> saveCursors(catalog, inventory, !partials.isEmpty())))
+            .then(Mono.fromCallable(() -> {
+                documentsCounter.increment(partials.size());
+                if (catalog.drained() && inventory.drained()) {
+                    caughtUpAtMillis = System.currentTimeMillis();
+                }
+                return partials.size();
+            }));
+    }
+
+    /**
+     * Remember applied catalog fields and forget rows that fell out of the next poll's overlap window
+     */
+    private void rememberCatalogFields(Map<Long, AppliedFields> applied, Cursor end) {
+        appliedCatalogFields.putAll(applied);
+        LocalDateTime windowStart = end.minus(Duration.ofMillis(searchProperties.getIncremental().getOverlapMs()))
+            .updatedAt();
+        appliedCatalogFields.values()
+            .removeIf(fields -> fields.updatedAt() == null || fields.updatedAt().isBefore(windowStart));
+    }
+
+    private static int contentHash(Map<String, Object> fields) {
+        Map<String, Object> content = new HashMap<>(fields);
+        POPULARITY_FIELDS.forEach(content::remove);
+        return content.hashCode();
+    }
+
+    private static Map<String, Object> partialFor(Map<Long, Map<String, Object>> partials, Long productId) {
+        return partials.computeIfAbsent(productId, k -> {
+            Map<String, Object> partial = new HashMap<>();
+            partial.put("id", k);
+            return partial;
+        });
+    }
+
+    /**
+     * Current store and in-stock store IDs for the given products, chunked like the full sync.
+     * The inventory client maps failures to an empty result, so a missing product means the lookup failed.
+     */
+    private Mono<Map<Long, ProductStoreStockDto>> storeStockFor(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        int chunkSize = Math.max(1, searchProperties.getSync().getStoreLookupChunkSize());
+        return Flux.fromIterable(productIds)
+            .buffer(chunkSize)
+            .concatMap(chunk -> inventoryClient.getStoreStockForProducts(chunk)
+                .flatMap(found -> found.keySet().containsAll(chunk)
+                    ? Mono.just(found)
+                    : Mono.error(new IllegalStateException("Store lookup failed for " + chunk.size() + " products"))))
+            .<Map<Long, ProductStoreStockDto>>collect(HashMap::new, Map::putAll);
+    }
+
+    private Mono<Void> send(Collection<Map<String, Object>> partials) {
+        if (partials.isEmpty()) {
+            return Mono.empty();
+        }
+        Duration taskTimeout = Duration.ofMillis(searchProperties.getSync().getTaskTimeoutMs());
+        return Flux.fromIterable(new ArrayList<>(partials))
+            .buffer(Math.max(1, searchProperties.getIncremental().getBatchSize()))
+            .concatMap(batch -> Mono.fromCallable(() -> toJson(batch))
+                .flatMap(meilisearchProvider::updatePartialDocuments))
+            .last()
+            // Tasks run in enqueue order: once the last one succeeded, the whole cycle is applied
+            .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout));
+    }
+
+    private Mono<Void> saveCursors(FeedPage<CatalogProductDto> catalog, FeedPage<InventoryChangeDto> inventory,
+                                   boolean applied) {
+        if (!applied && !cursorsRewound && catalog.end().equals(catalogCursor) && inventory.end().equals(inventoryCursor)) {
+            return Mono.empty();
+        }
+        return cursorRepository.upsert(CATALOG_FEED, catalog.end().updatedAt(), catalog.end().id())
+            .then(cursorRepository.upsert(INVENTORY_FEED, inventory.end().updatedAt(), inventory.end().id()))
+            .doOnSuccess(v -> {
+                catalogCursor = catalog.end();
+                inventoryCursor = inventory.end();
+                cursorsRewound = false;
+            })
+            .then();
+    }
+
+    private String toJson(List<Map<String, Object>> batch) {
+        try {
+            return objectMapper.writeValueAsString(batch);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to convert to JSON", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface FeedFetcher<T> {
+        Mono<List<T>> fetch(LocalDateTime since, long afterId, int limit);
+    }
+
+    record Cursor(LocalDateTime updatedAt, long id) {
+
+        Cursor rewindTo(LocalDateTime replayFrom) {
+            return updatedAt.isAfter(replayFrom) ? new Cursor(replayFrom, 0L) : this;
+        }
+
+        /**
+         * Start of the window {@code overlap} before this cursor
+         */
+        Cursor minus(Duration overlap) {
+            return overlap.isZero() || overlap.isNegative() ? this : new Cursor(updatedAt.minus(overlap), 0L);
+        }
+
+        boolean isAfter(Cursor other) {
+            int byTime = updatedAt.compareTo(other.updatedAt);
+            return byTime > 0 || (byTime == 0 && id > other.id);
+        }
+    }
+
+    private record AppliedFields(LocalDateTime updatedAt, Map<String, Object> fields) {
+    }
+
+    record FeedPage<T>(List<T> changes, Cursor end, boolean drained) {
+    }
+}
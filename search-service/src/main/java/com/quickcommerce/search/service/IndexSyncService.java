@@ -3,9 +3,11 @@ package com.quickcommerce.search.service;
 import com.quickcommerce.search.client.CatalogClient;
 import com.quickcommerce.search.client.InventoryClient;
 import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
 import com.quickcommerce.search.health.SyncHealthIndicator;
 import com.quickcommerce.search.mapper.ProductDocumentMapper;
 import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
 import com.quickcommerce.search.provider.MeilisearchProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,7 +17,11 @@ import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -29,65 +35,334 @@ public class IndexSyncService {
     private final MeilisearchProvider meilisearchProvider;
     private final SearchProperties searchProperties;
     private final SyncHealthIndicator syncHealthIndicator;
+    private final SearchConfigurationService searchConfigurationService;
+    private final SearchResultCache searchResultCache;
+    private final SuggestIndex suggestIndex;
+    private final LuceneSearchEngine standbySearchEngine;
+    private final FallbackIndex fallbackIndex;
+    private final ProductSnapshot productSnapshot;
+
+    private final AtomicBoolean rebuildInProgress = new AtomicBoolean(false);
+    private volatile LocalDateTime lastRebuildStartedAt;
 
     /**
-     * Full sync: wipe the index clean, fetch all products from catalog,
-     * enrich with store IDs, and insert fresh.
-     * Designed for startup and nightly re-sync (no users during sync window).
-     * TODO: migrate to Meilisearch index-swap for zero-downtime when scaling.
+     * Full sync as a blue/green rebuild: build a fresh staging index (settings first, then all
+     * catalog products enriched with store IDs), wait for Meilisearch to finish indexing, validate
+     * document counts, then atomically swap it with the live index and drop the old copy.
+     * Searches keep hitting the live index the whole time; if any step fails before the swap the
+     * staging index is discarded and the live index is left untouched.
      */
     public Mono<Integer> syncAllProducts() {
-        log.info("Starting full product sync (delete-all + insert-fresh)...");
+        return Mono.defer(() -> {
+            if (!rebuildInProgress.compareAndSet(false, true)) {
+                return Mono.error(new IllegalStateException("A full index rebuild is already in progress"));
+            }
+            lastRebuildStartedAt = LocalDateTime.now();
+            return rebuild().doFinally(signal -> rebuildInProgress.set(false));
+        });
+    }
+
+    /**
+     * Whether a full rebuild is currently running (incremental indexing pauses meanwhile)
+     */
+    public boolean isRebuildInProgress() {
+        return rebuildInProgress.get();
+    }
+
+    /**
+     * Start time of the most recent full rebuild, or null if none ran in this process.
+     * Changes applied to the live index after this instant may be lost by the swap and must be replayed.
+     */
+    public LocalDateTime getLastRebuildStartedAt() {
+        return lastRebuildStartedAt;
+    }
+
+    private Mono<Integer> rebuild() {
+        String liveIndex = meilisearchProvider.getIndexName();
+        String stagingIndex = meilisearchProvider.newStagingIndexName();
+        Duration taskTimeout = Duration.ofMillis(searchProperties.getSync().getTaskTimeoutMs());
+        log.info("Starting full product rebuild into '{}' (live index '{}' keeps serving)...", stagingIndex, liveIndex);
+        SuggestIndex.Rebuild suggestRebuild = new SuggestIndex.Rebuild();
+        LuceneSearchEngine.Rebuild standbyRebuild = new LuceneSearchEngine.Rebuild(standbySearchEngine.isEnabled());
+        FallbackIndex.Rebuild fallbackRebuild = new FallbackIndex.Rebuild(fallbackIndex.poolSize());
+        ProductSnapshot.Writer snapshotWriter = new ProductSnapshot.Writer(productSnapshot.writePath(),
+            lastRebuildStartedAt);
+
+        return dropStaleStagingIndexes(taskTimeout)
+            .then(meilisearchProvider.createIndex(stagingIndex))
+            .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout))
+            .then(searchConfigurationService.buildSettings())
+            .flatMap(settings -> meilisearchProvider.updateSettings(stagingIndex, settings))
+            .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout))
+            .then(indexIntoStaging(stagingIndex, taskTimeout, suggestRebuild, standbyRebuild, fallbackRebuild,
+                snapshotWriter))
+            .flatMap(indexed -> validateStaging(liveIndex, stagingIndex, indexed)
+                .then(meilisearchProvider.swapIndexes(liveIndex, stagingIndex))
+                .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout))
+                .then(Mono.fromRunnable(() -> {
+                    log.info("Swapped '{}' live with {} documents", liveIndex, indexed);
+                    searchResultCache.invalidateAll();
+                    suggestIndex.replaceProducts(suggestRebuild);
+                    standbySearchEngine.replaceIndex(standbyRebuild);
+                    fallbackIndex.replaceCandidates(fallbackRebuild);
+                    snapshotWriter.commit();
+                }))
+                // After the swap the staging uid holds the previous live documents
+                .then(dropIndexQuietly(stagingIndex, taskTimeout))
+                .thenReturn(indexed))
+            .doOnSuccess(total -> log.info("Full sync complete. {} products indexed.", total))
+            .doOnError(e -> log.error("Full sync failed, live index '{}' left unchanged", liveIndex, e))
+            .onErrorResume(e -> {
+                standbyRebuild.close();
+                snapshotWriter.close();
+                return dropIndexQuietly(stagingIndex, taskTimeout).then(Mono.error(e));
+            });
+    }
+
+    /**
+     * Stream the catalog into the staging index with bounded memory:
+     * keyset pages → chunked store enrichment ({@code enrichConcurrency} pages ahead) → JSON payload
+     * → enqueue, keeping at most {@code maxOutstandingTasks} indexing tasks unfinished in Meilisearch.
+     * Only a few pages are alive at once regardless of catalog size; enriched pages also feed the
+     * suggest, standby and fallback index rebuilds, and each payload is appended to the product snapshot. Finally waits for the last enqueued task (Meilisearch processes tasks in order,
+     * so earlier batches are done too).
+     */
+    private Mono<Integer> indexIntoStaging(String stagingIndex, Duration taskTimeout,
+                                           SuggestIndex.Rebuild suggestRebuild,
+                                           LuceneSearchEngine.Rebuild standbyRebuild,
+                                           FallbackIndex.Rebuild fallbackRebuild,
+                                           ProductSnapshot.Writer snapshotWriter) {
+        SearchProperties.Sync sync = searchProperties.getSync();
+        SyncThroughput throughput = new SyncThroughput();
         AtomicInteger count = new AtomicInteger(0);
-        int batchSize = searchProperties.getSync().getBatchSize();
-
-        return meilisearchProvider.deleteAllDocuments()
-            .then(catalogClient.getAllProducts()
-                .map(ProductDocumentMapper::toProductDocument)
-                .collectList())
-            .flatMap(allProducts -> {
-                log.info("Fetched {} products from catalog, enriching with store data...", allProducts.size());
-
-                List<Long> productIds = allProducts.stream()
-                    .map(ProductDocument::getId)
-                    .collect(Collectors.toList());
-
-                return inventoryClient.getStoresForProducts(productIds)
-                    .map(storeIdsMap -> {
-                        allProducts.forEach(product -> {
-                            List<Long> storeIds = storeIdsMap.get(product.getId());
-                            if (storeIds != null && !storeIds.isEmpty()) {
-                                product.setStoreIds(storeIds);
-                            }
-                        });
-                        return allProducts;
-                    });
+        // Only touched from the serial enqueue stage
+        Deque<Integer> outstandingTasks = new ArrayDeque<>();
+
+        return fetchCatalogPages(sync.getBatchSize(), throughput)
+            .flatMapSequential(page -> enrichWithStores(page, sync.getStoreLookupChunkSize(), throughput),
+                Math.max(1, sync.getEnrichConcurrency()), 1)
+            .doOnNext(suggestRebuild::addAll)
+            .doOnNext(standbyRebuild::addAll)
+            .doOnNext(fallbackRebuild::addAll)
+            .map(documents -> {
+                long start = System.nanoTime();
+                String payload = meilisearchProvider.serializeDocuments(documents);
+                throughput.record(SyncThroughput.Stage.SERIALIZE, documents.size(), start);
+                snapshotWriter.addPage(payload);
+                return new Payload(payload, documents.size());
             })
-            .flatMap(allProducts ->
-                Flux.fromIterable(allProducts)
-                    .buffer(batchSize)
-                    .concatMap(batch -> {
-                        log.debug("Indexing batch of {} products...", batch.size());
-                        return meilisearchProvider.upsertDocuments(batch)
-                            .doOnSuccess(v -> {
-                                int current = count.addAndGet(batch.size());
-                                log.info("Indexed {} / {} products", current, allProducts.size());
-                            })
-                            .retryWhen(createRetrySpec("batch indexing"))
-                            .onErrorResume(e -> {
-                                log.error("Failed to index batch after retries, skipping {} products", batch.size(), e);
-                                syncHealthIndicator.updateStatus(
-                                    SyncHealthIndicator.SyncState.DEGRADED,
-                                    "Some batches failed to sync",
-                                    count.get()
-                                );
-                                return Mono.empty();
-                            });
-                    })
-                    .then(Mono.fromCallable(count::get))
-            )
-            .doOnSuccess(total -> log.info("Full sync complete. {} products indexed.", total))
-            .doOnError(e -> log.error("Full sync failed", e));
+            .concatMap(payload -> enqueue(stagingIndex, payload, outstandingTasks, taskTimeout, count, throughput), 1)
+            .then(Mono.defer(() -> outstandingTasks.isEmpty()
+                ? Mono.<Void>empty()
+                : meilisearchProvider.awaitTask(outstandingTasks.peekLast(), taskTimeout)))
+            .then(Mono.fromCallable(count::get))
+            .doFinally(signal -> log.info("Full sync throughput: {}", throughput.summary()));
+    }
+
+    /**
+     * Warm start from the product snapshot of the last full sync: rebuilds the suggest, standby and fallback
+     * indexes and, with {@code loadIndex}, re-sends the snapshot pages to the (empty) live index. Counts as a
+     * rebuild for incremental indexing, which pauses meanwhile and then replays changes made since the
+     * full sync that wrote the snapshot started. Emits the number of restored products; 0 when there is no usable snapshot or the
+     * restore failed.
+     */
+    public Mono<Integer> restoreFromSnapshot(boolean loadIndex) {
+        return Mono.defer(() -> {
+            LocalDateTime takenAt = productSnapshot.takenAt();
+            if (!productSnapshot.isAvailable()) {
+                log.info("No usable product snapshot (taken at {}), skipping restore", takenAt);
+                return Mono.just(0);
+            }
+            if (loadIndex) {
+                if (!rebuildInProgress.compareAndSet(false, true)) {
+                    return Mono.just(0);
+                }
+                lastRebuildStartedAt = productSnapshot.syncStartedAt();
+            }
+            return restore(loadIndex, takenAt)
+                .doFinally(signal -> {
+                    if (loadIndex) {
+                        rebuildInProgress.set(false);
+                    }
+                });
+        });
+    }
+
+    private Mono<Integer> restore(boolean loadIndex, LocalDateTime takenAt) {
+        String liveIndex = meilisearchProvider.getIndexName();
+        Duration taskTimeout = Duration.ofMillis(searchProperties.getSync().getTaskTimeoutMs());
+        log.info("Restoring products from snapshot taken at {} (into '{}': {})", takenAt, liveIndex, loadIndex);
+        SuggestIndex.Rebuild suggestRebuild = new SuggestIndex.Rebuild();
+        LuceneSearchEngine.Rebuild standbyRebuild = new LuceneSearchEngine.Rebuild(standbySearchEngine.isEnabled());
+        FallbackIndex.Rebuild fallbackRebuild = new FallbackIndex.Rebuild(fallbackIndex.poolSize());
+        AtomicInteger lastTask = new AtomicInteger(-1);
+
+        return productSnapshot.read()
+            .doOnNext(page -> suggestRebuild.addAll(page.documents()))
+            .doOnNext(page -> standbyRebuild.addAll(page.documents()))
+            .doOnNext(page -> fallbackRebuild.addAll(page.documents()))
+            .concatMap(page -> !loadIndex
+                ? Mono.just(page.documents().size())
+                : meilisearchProvider.upsertPayload(liveIndex, page.json())
+                    .retryWhen(createRetrySpec("snapshot restore"))
+                    .doOnNext(task -> lastTask.set(task.getTaskUid()))
+                    .thenReturn(page.documents().size()), 1)
+            .reduce(0, Integer::sum)
+            .flatMap(total -> lastTask.get() < 0
+                ? Mono.just(total)
+                : meilisearchProvider.awaitTask(lastTask.get(), taskTimeout).thenReturn(total))
+            .doOnSuccess(total -> {
+                searchResultCache.invalidateAll();
+                suggestIndex.replaceProducts(suggestRebuild);
+                standbySearchEngine.replaceIndex(standbyRebuild);
+                fallbackIndex.replaceCandidates(fallbackRebuild);
+                log.info("Restored {} products from snapshot", total);
+            })
+            .onErrorResume(e -> {
+                log.error("Snapshot restore failed", e);
+                standbyRebuild.close();
+                return Mono.just(0);
+            });
+    }
+
+    private Flux<List<ProductDocument>> fetchCatalogPages(int pageSize, SyncThroughput throughput) {
+        return fetchCatalogPage(0L, pageSize, throughput)
+            .expand(page -> page.size() < pageSize
+                ? Mono.empty()
+                : fetchCatalogPage(page.get(page.size() - 1).getId(), pageSize, throughput))
+            .filter(page -> !page.isEmpty());
+    }
+
+    private Mono<List<ProductDocument>> fetchCatalogPage(long afterId, int pageSize, SyncThroughput throughput) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return catalogClient.getProductsPage(afterId, pageSize)
+                .retryWhen(createRetrySpec("catalog page fetch"))
+                .map(products -> {
+                    List<ProductDocument> documents = products.stream()
+                        .map(ProductDocumentMapper::toProductDocument)
+                        .collect(Collectors.toList());
+                    throughput.record(SyncThroughput.Stage.FETCH, documents.size(), start);
+                    return documents;
+                });
+        });
+    }
+
+    /**
+     * Attach store IDs and in-stock store IDs with one inventory call per chunk, so no single request
+     * carries the whole catalog
+     */
+    private Mono<List<ProductDocument>> enrichWithStores(List<ProductDocument> documents, int chunkSize,
+                                                         SyncThroughput throughput) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(documents)
+                .buffer(Math.max(1, chunkSize))
+                .concatMap(chunk -> inventoryClient.getStoreStockForProducts(chunk.stream()
+                        .map(ProductDocument::getId)
+                        .collect(Collectors.toList()))
+                    .doOnNext(storeStockMap -> chunk.forEach(product -> {
+                        ProductStoreStockDto storeStock = storeStockMap.get(product.getId());
+                        if (storeStock == null) {
+                            return;
+                        }
+                        if (storeStock.getStoreIds() != null && !storeStock.getStoreIds().isEmpty()) {
+                            product.setStoreIds(storeStock.getStoreIds());
+                        }
+                        if (storeStock.getInStockStoreIds() != null && !storeStock.getInStockStoreIds().isEmpty()) {
+                            product.setInStockStoreIds(storeStock.getInStockStoreIds());
+                        }
+                    })))
+                .then(Mono.fromCallable(() -> {
+                    throughput.record(SyncThroughput.Stage.ENRICH, documents.size(), start);
+                    return documents;
+                }));
+        });
+    }
+
+    private Mono<Void> enqueue(String stagingIndex, Payload payload, Deque<Integer> outstandingTasks,
+                               Duration taskTimeout, AtomicInteger count, SyncThroughput throughput) {
+        return Mono.defer(() -> {
+            int maxOutstanding = Math.max(1, searchProperties.getSync().getMaxOutstandingTasks());
+            if (outstandingTasks.size() < maxOutstanding) {
+                return Mono.<Void>empty();
+            }
+            long start = System.nanoTime();
+            return meilisearchProvider.awaitTask(outstandingTasks.pollFirst(), taskTimeout)
+                .doOnSuccess(v -> throughput.record(SyncThroughput.Stage.INGEST_WAIT, 0, start));
+        }).then(Mono.defer(() -> {
+            long start = System.nanoTime();
+            log.debug("Indexing batch of {} products...", payload.documents());
+            return meilisearchProvider.upsertPayload(stagingIndex, payload.json())
+                .retryWhen(createRetrySpec("batch indexing"))
+                .doOnSuccess(task -> {
+                    outstandingTasks.addLast(task.getTaskUid());
+                    throughput.record(SyncThroughput.Stage.ENQUEUE, payload.documents(), start);
+                    int current = count.addAndGet(payload.documents());
+                    log.info("Enqueued {} products", current);
+                })
+                .then()
+                .onErrorResume(e -> {
+                    log.error("Failed to index batch after retries, skipping {} products", payload.documents(), e);
+                    syncHealthIndicator.updateStatus(
+                        SyncHealthIndicator.SyncState.DEGRADED,
+                        "Some batches failed to sync",
+                        count.get()
+                    );
+                    return Mono.empty();
+                });
+        }));
+    }
+
+    /**
+     * Refuse to swap when staging is missing documents we enqueued (a batch task failed inside
+     * Meilisearch) or is suspiciously small compared to what is live (e.g. a partial catalog response).
+     */
+    private Mono<Void> validateStaging(String liveIndex, String stagingIndex, int indexed) {
+        double minRatio = searchProperties.getSync().getMinDocumentRatio();
+        return Mono.zip(meilisearchProvider.countDocuments(stagingIndex), meilisearchProvider.countDocuments(liveIndex))
+            .flatMap(counts -> {
+                long staged = counts.getT1();
+                long live = counts.getT2();
+                if (staged != indexed) {
+                    return Mono.error(new IllegalStateException(String.format(
+                        "Staging index has %d documents but %d were indexed", staged, indexed)));
+                }
+                if (staged < live * minRatio) {
+                    return Mono.error(new IllegalStateException(String.format(
+                        "Staging index has %d documents, below %.0f%% of the %d live documents",
+                        staged, minRatio * 100, live)));
+                }
+                log.info("Staging index validated: {} documents (live has {})", staged, live);
+                return Mono.<Void>empty();
+            });
+    }
+
+    /**
+     * Delete staging indexes whose rebuild started more than {@code staleStagingHours} ago. Staging names are
+     * unique per run, so rebuilds still running on other instances keep theirs.
+     */
+    private Mono<Void> dropStaleStagingIndexes(Duration taskTimeout) {
+        long cutoff = System.currentTimeMillis()
+            - Duration.ofHours(searchProperties.getSync().getStaleStagingHours()).toMillis();
+        return meilisearchProvider.getStagingIndexesStartedBefore(cutoff)
+            .doOnNext(indexUid -> log.info("Dropping stale staging index '{}'", indexUid))
+            .concatMap(indexUid -> dropIndexQuietly(indexUid, taskTimeout))
+            .then()
+            .onErrorResume(e -> {
+                log.warn("Could not list staging indexes for cleanup: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> dropIndexQuietly(String indexUid, Duration taskTimeout) {
+        return meilisearchProvider.deleteIndex(indexUid)
+            .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout))
+            // index_not_found is expected when there is nothing to clean up
+            .onErrorResume(e -> {
+                log.debug("Could not delete index '{}': {}", indexUid, e.getMessage());
+                return Mono.empty();
+            });
     }
 
     private Retry createRetrySpec(String operation) {
@@ -108,4 +383,7 @@ public class IndexSyncService {
                     retrySignal.failure())
             );
     }
+
+    private record Payload(String json, int documents) {
+    }
 }
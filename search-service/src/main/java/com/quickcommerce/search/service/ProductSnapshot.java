@@ -0,0 +1,237 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped local copy of the documents indexed by the last successful full sync.
+ *
+ * The first line is a header recording when the full sync that wrote the snapshot started; every other
+ * line is one page exactly as it was sent to Meilisearch (a JSON array of {@link ProductDocument}), so
+ * writing costs no extra serialization and a restore can re-send the lines as they are. A full sync writes
+ * into a temporary file that replaces the snapshot only once the rebuilt index is live ({@link Writer}).
+ * At startup an empty index is refilled from the snapshot instead of pulling the whole catalog from
+ * product-service; snapshots older than {@code max-age-hours} are ignored.
+ */
+@Slf4j
+@Service
+public class ProductSnapshot {
+
+    private static final TypeReference<List<ProductDocument>> DOCUMENTS = new TypeReference<>() {
+    };
+
+    private static final String SYNC_STARTED_HEADER = "#sync-started-at=";
+
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+
+    public ProductSnapshot(SearchProperties searchProperties, ObjectMapper objectMapper) {
+        this.searchProperties = searchProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Snapshot file a full sync should write; null when snapshots are disabled
+     */
+    public Path writePath() {
+        SearchProperties.Snapshot config = searchProperties.getSnapshot();
+        return config.isEnabled() ? Path.of(config.getPath()) : null;
+    }
+
+    /**
+     * When the current snapshot was taken; null when there is none
+     */
+    public LocalDateTime takenAt() {
+        Path path = writePath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            Instant modified = Files.getLastModifiedTime(path).toInstant();
+            return LocalDateTime.ofInstant(modified, ZoneId.systemDefault());
+        } catch (IOException e) {
+            log.warn("Cannot read snapshot timestamp of {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * When the full sync that wrote the current snapshot started, from the snapshot header. Changes made
+     * while that sync was paging the catalog may be missing from the snapshot, so a restore replays from
+     * here rather than from {@link #takenAt()}. Null when there is no snapshot or it has no header.
+     */
+    public LocalDateTime syncStartedAt() {
+        Path path = writePath();
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            return header != null && header.startsWith(SYNC_STARTED_HEADER)
+                ? LocalDateTime.parse(header.substring(SYNC_STARTED_HEADER.length()))
+                : null;
+        } catch (IOException | DateTimeParseException e) {
+            log.warn("Cannot read snapshot header of {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Whether a snapshot exists, records when its sync started and is recent enough to serve from
+     */
+    public boolean isAvailable() {
+        LocalDateTime takenAt = takenAt();
+        return takenAt != null && Duration.between(takenAt, LocalDateTime.now()).toHours()
+            < searchProperties.getSnapshot().getMaxAgeHours()
+            && syncStartedAt() != null;
+    }
+
+    /**
+     * Pages of the current snapshot in the order they were indexed
+     */
+    public Flux<Page> read() {
+        Path path = writePath();
+        return Flux.using(
+                () -> new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(path)), StandardCharsets.UTF_8)),
+                reader -> Flux.fromStream(reader.lines()),
+                ProductSnapshot::closeQuietly)
+            .filter(line -> !line.isBlank() && !line.startsWith(SYNC_STARTED_HEADER))
+            .map(this::toPage)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Page toPage(String json) {
+        try {
+            return new Page(json, objectMapper.readValue(json, DOCUMENTS));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt snapshot page", e);
+        }
+    }
+
+    private static void closeQuietly(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.debug("Failed to close snapshot reader: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * One indexed page: the JSON array sent to Meilisearch and its documents
+     */
+    public record Page(String json, List<ProductDocument> documents) {
+    }
+
+    /**
+     * Writes the pages of one full sync next to the snapshot; {@link #commit()} replaces the snapshot,
+     * {@link #close()} without a commit discards the pages. Snapshots are best effort: an I/O error stops
+     * writing but never fails the sync.
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final Path target;
+        private final Path temp;
+        private final LocalDateTime syncStartedAt;
+        private BufferedWriter out;
+        private boolean failed;
+        private int pages;
+
+        /**
+         * @param target        snapshot file ({@link ProductSnapshot#writePath()}); null writes nothing
+         * @param syncStartedAt when the full sync writing the pages started, stored as the snapshot header
+         */
+        public Writer(Path target, LocalDateTime syncStartedAt) {
+            this.target = target;
+            this.temp = target != null ? target.resolveSibling(target.getFileName() + ".tmp") : null;
+            this.syncStartedAt = syncStartedAt;
+        }
+
+        public synchronized void addPage(String jsonArray) {
+            if (temp == null || failed) {
+                return;
+            }
+            try {
+                if (out == null) {
+                    if (temp.getParent() != null) {
+                        Files.createDirectories(temp.getParent());
+                    }
+                    out = new BufferedWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8));
+                    out.write(SYNC_STARTED_HEADER + syncStartedAt);
+                    out.newLine();
+                }
+                out.write(jsonArray);
+                out.newLine();
+                pages++;
+            } catch (IOException e) {
+                log.warn("Writing product snapshot {} failed, this sync leaves no snapshot: {}", temp, e.getMessage());
+                failed = true;
+                close();
+            }
+        }
+
+        /**
+         * Atomically replace the snapshot with the pages written so far
+         */
+        public synchronized void commit() {
+            if (out == null || failed) {
+                return;
+            }
+            try {
+                out.close();
+                out = null;
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Product snapshot written: {} pages to {}", pages, target);
+            } catch (IOException e) {
+                log.warn("Replacing product snapshot {} failed: {}", target, e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * Discard uncommitted pages
+         */
+        @Override
+        public synchronized void close() {
+            if (temp == null) {
+                return;
+            }
+            try {
+                if (out != null) {
+                    out.close();
+                    out = null;
+                }
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.debug("Failed to discard snapshot file {}: {}", temp, e.getMessage());
+            }
+        }
+    }
+}
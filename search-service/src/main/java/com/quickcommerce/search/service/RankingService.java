@@ -1,6 +1,8 @@
 package com.quickcommerce.search.service;
 
+import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.ranking.RankingRequest;
 import com.quickcommerce.search.ranking.SearchRankingStrategy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,7 +12,8 @@ import java.util.List;
 
 /**
  * Facade for result ordering — delegates to {@link SearchRankingStrategy} (default: relevance + business blend).
- * To change behavior, replace the strategy bean or tune {@code search.ranking.*}.
+ * To change behavior, replace the strategy bean or tune {@code search.ranking.*}; with
+ * {@code search.ranking.enabled=false} hits keep their Meilisearch order.
  */
 @Slf4j
 @Service
@@ -18,18 +21,30 @@ import java.util.List;
 public class RankingService {
 
     private final SearchRankingStrategy searchRankingStrategy;
+    private final SearchProperties searchProperties;
 
     /**
      * @param documents Meilisearch hit order before ranking
      * @return New list in ranked order (does not require the input list to be mutable)
      */
     public List<ProductDocument> rank(List<ProductDocument> documents) {
+        return rank(documents, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param documents Meilisearch hit order before ranking
+     * @param storeId   Store the search runs in, for store-specific signals; may be null
+     * @param limit     Number of results to keep
+     * @return New list with the best {@code limit} documents in ranked order
+     */
+    public List<ProductDocument> rank(List<ProductDocument> documents, Long storeId, int limit) {
         if (documents == null) {
             return List.of();
         }
         log.debug("Ranking {} documents", documents.size());
-        // return searchRankingStrategy.rank(documents);
-        // TODO: Remove this later
-        return documents;
+        if (!searchProperties.getRanking().isEnabled()) {
+            return documents.size() <= limit ? documents : documents.subList(0, limit);
+        }
+        return searchRankingStrategy.rank(documents, RankingRequest.of(storeId, limit));
     }
 }
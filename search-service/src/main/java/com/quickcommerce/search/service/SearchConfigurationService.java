@@ -2,10 +2,17 @@ package com.quickcommerce.search.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.meilisearch.sdk.model.Settings;
 import com.meilisearch.sdk.model.TaskInfo;
+import com.meilisearch.sdk.model.TaskStatus;
 import com.meilisearch.sdk.model.TypoTolerance;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SettingsPublishStatus;
 import com.quickcommerce.search.entity.SearchSetting;
 import com.quickcommerce.search.entity.SearchSynonym;
 import com.quickcommerce.search.provider.MeilisearchProvider;
@@ -13,31 +20,105 @@ import com.quickcommerce.search.repository.SearchSettingRepository;
 import com.quickcommerce.search.repository.SearchSynonymRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 /**
  * Fully reactive service for managing search configuration
  * Handles synonyms and settings persistence with JSON conversion
+ *
+ * Edits are saved immediately but published lazily: each one only marks the configuration as pending, and
+ * {@link #publishPending()} publishes once edits have paused for {@code debounce-ms} (or after
+ * {@code max-delay-ms} of continuous edits), so a bulk edit becomes a single settings update. A publish
+ * compares each settings section with what was last sent and sends only the sections that changed, since
+ * Meilisearch re-indexes on attribute and ranking changes. The resulting settings tasks are tracked until
+ * Meilisearch finishes them ({@link #publishStatus()}); a failed task makes the next publish send everything.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SearchConfigurationService {
 
+    /**
+     * DB settings keys mapped onto Meilisearch settings
+     */
+    private static final Set<String> PUBLISHED_SETTING_KEYS = Set.of(
+        "ranking_rules",
+        "searchable_attributes",
+        "filterable_attributes",
+        "sortable_attributes",
+        "stop_words"
+    );
+
+    /**
+     * Settings sections compared and published independently
+     */
+    private static final List<Section> SECTIONS = List.of(
+        new Section("synonyms", Settings::getSynonyms, (from, to) -> to.setSynonyms(from.getSynonyms()),
+            SearchConfigurationService::sortedValues),
+        new Section("rankingRules", Settings::getRankingRules,
+            (from, to) -> to.setRankingRules(from.getRankingRules()), UnaryOperator.identity()),
+        new Section("searchableAttributes", Settings::getSearchableAttributes,
+            (from, to) -> to.setSearchableAttributes(from.getSearchableAttributes()), UnaryOperator.identity()),
+        new Section("filterableAttributes", Settings::getFilterableAttributes,
+            (from, to) -> to.setFilterableAttributes(from.getFilterableAttributes()),
+            SearchConfigurationService::sorted),
+        new Section("sortableAttributes", Settings::getSortableAttributes,
+            (from, to) -> to.setSortableAttributes(from.getSortableAttributes()), SearchConfigurationService::sorted),
+        new Section("stopWords", Settings::getStopWords, (from, to) -> to.setStopWords(from.getStopWords()),
+            SearchConfigurationService::sorted),
+        new Section("typoTolerance", Settings::getTypoTolerance,
+            (from, to) -> to.setTypoTolerance(from.getTypoTolerance()),
+            node -> node.isObject() ? ((ObjectNode) node.deepCopy()).retain("enabled", "minWordSizeForTypos") : node)
+    );
+
+    private static final List<String> SECTION_NAMES = SECTIONS.stream().map(Section::name).toList();
+
     private final SearchSettingRepository settingRepository;
     private final SearchSynonymRepository synonymRepository;
     private final MeilisearchProvider meilisearchProvider;
+    private final SearchResultCache searchResultCache;
     private final ObjectMapper objectMapper;
     private final TransactionalOperator transactionalOperator;
+    private final SearchProperties searchProperties;
+
+    /**
+     * Edit time of the oldest unpublished change, 0 when nothing is pending
+     */
+    private final AtomicLong pendingSince = new AtomicLong();
+    private final AtomicLong lastEditAt = new AtomicLong();
+    private final AtomicBoolean publishing = new AtomicBoolean(false);
+    private final Map<Integer, SettingsPublishStatus.PendingTask> pendingTasks = new ConcurrentHashMap<>();
+
+    /**
+     * Sections as last sent to Meilisearch; null until the first publish or after a failed task
+     */
+    private volatile Map<String, JsonNode> lastPublished;
+    private volatile LocalDateTime lastPublishedAt;
+    private volatile List<String> lastPublishedSections = List.of();
+    private volatile String lastFailure;
 
     /**
      * Upsert a synonym group (fully reactive)
@@ -65,7 +146,7 @@ public class SearchConfigurationService {
                 }
             })
             .as(transactionalOperator::transactional)
-            .flatMap(saved -> publishConfiguration().thenReturn(saved));
+            .doOnSuccess(saved -> requestPublish());
     }
 
     /**
@@ -105,8 +186,7 @@ public class SearchConfigurationService {
         return synonymRepository.findByTerm(term)
             .flatMap(synonymRepository::delete)
             .as(transactionalOperator::transactional)
-            .then(publishConfiguration())
-            .then();
+            .then(Mono.fromRunnable(this::requestPublish));
     }
 
     /**
@@ -136,12 +216,12 @@ public class SearchConfigurationService {
                 return settingRepository.save(entity);
             })
             .as(transactionalOperator::transactional)
-            .flatMap(saved -> publishConfiguration().thenReturn(saved));
+            .doOnSuccess(saved -> requestPublish());
     }
 
     /**
      * Add a single value to a JSON-array setting (idempotent — skips if already present).
-     * Auto-publishes to Meilisearch after the DB update.
+     * Published to Meilisearch with the next debounced publish.
      */
     public Mono<SearchSetting> addToArraySetting(String key, String value, String updatedBy) {
         return settingRepository.findByKey(key)
@@ -164,12 +244,12 @@ public class SearchConfigurationService {
                 }
             })
             .as(transactionalOperator::transactional)
-            .flatMap(saved -> publishConfiguration().thenReturn(saved));
+            .doOnSuccess(saved -> requestPublish());
     }
 
     /**
      * Remove a single value from a JSON-array setting (idempotent — skips if not present).
-     * Auto-publishes to Meilisearch after the DB update.
+     * Published to Meilisearch with the next debounced publish.
      */
     public Mono<SearchSetting> removeFromArraySetting(String key, String value, String updatedBy) {
         return settingRepository.findByKey(key)
@@ -191,16 +271,252 @@ public class SearchConfigurationService {
                 }
             })
             .as(transactionalOperator::transactional)
-            .flatMap(saved -> publishConfiguration().thenReturn(saved));
+            .doOnSuccess(saved -> requestPublish());
     }
 
     /**
      * Get all active settings and push to Meilisearch (fully reactive)
+     * Sends every section regardless of what was published before; used for explicit syncs and at startup.
      * Returns the Task Info from Meilisearch
      */
     public Mono<TaskInfo> publishConfiguration() {
         log.info("Starting reactive Search Configuration Sync...");
 
+        return buildSettings()
+            .flatMap(settings -> {
+                Map<String, JsonNode> current = snapshot(settings);
+                return push(settings, current, changedSections(null, current));
+            });
+    }
+
+    /**
+     * Mark the configuration as changed; it is published by {@link #publishPending()} once edits pause
+     */
+    void requestPublish() {
+        long now = System.currentTimeMillis();
+        lastEditAt.set(now);
+        pendingSince.compareAndSet(0L, now);
+    }
+
+    /**
+     * Publish pending edits once they are due and refresh the state of enqueued settings tasks
+     */
+    @Scheduled(fixedDelayString = "${search.settings-publish.check-interval-ms:500}")
+    public void publishPending() {
+        refreshPendingTasks().subscribe();
+        if (isPublishDue(System.currentTimeMillis())) {
+            publishChanges().subscribe(
+                task -> { },
+                e -> log.error("Debounced settings publish failed, retrying after the next debounce", e));
+        }
+    }
+
+    boolean isPublishDue(long now) {
+        long since = pendingSince.get();
+        if (since == 0L || publishing.get()) {
+            return false;
+        }
+        SearchProperties.SettingsPublish config = searchProperties.getSettingsPublish();
+        return now - lastEditAt.get() >= config.getDebounceMs() || now - since >= config.getMaxDelayMs();
+    }
+
+    /**
+     * Publish the sections that differ from the last publish; completes empty when nothing changed or another
+     * publish is in flight (pending edits then stay marked for the next tick)
+     */
+    Mono<TaskInfo> publishChanges() {
+        return Mono.defer(() -> {
+            if (!publishing.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+            // Edits saved from here on are not guaranteed to be in this build and schedule another publish
+            pendingSince.set(0L);
+            return buildSettings()
+                .flatMap(settings -> {
+                    Map<String, JsonNode> current = snapshot(settings);
+                    List<String> changed = changedSections(lastPublished, current);
+                    if (changed.isEmpty()) {
+                        log.info("Search configuration unchanged since last publish, nothing to send");
+                        return Mono.<TaskInfo>empty();
+                    }
+                    return push(onlySections(settings, changed), current, changed);
+                })
+                .doOnError(e -> requestPublish())
+                .doFinally(signal -> publishing.set(false));
+        });
+    }
+
+    /**
+     * Whether the live index already carries the configured settings. If so they become the baseline of the
+     * next debounced publish, so a restart does not resend them (and re-index) when nothing changed.
+     */
+    public Mono<Boolean> isLiveConfigurationCurrent() {
+        return Mono.zip(buildSettings(), meilisearchProvider.getSettings())
+            .map(settings -> {
+                Map<String, JsonNode> desired = snapshot(settings.getT1());
+                List<String> stale = changedSections(snapshot(settings.getT2()), desired);
+                if (!stale.isEmpty()) {
+                    log.info("Live index settings differ from configuration in {}", stale);
+                    return false;
+                }
+                lastPublished = desired;
+                return true;
+            });
+    }
+
+    /**
+     * Publishing state: pending edits, last publish and settings tasks Meilisearch has not finished
+     */
+    public SettingsPublishStatus publishStatus() {
+        long since = pendingSince.get();
+        return SettingsPublishStatus.builder()
+            .pendingEdits(since != 0L)
+            .pendingSince(since != 0L ? toDateTime(since) : null)
+            .lastPublishedAt(lastPublishedAt)
+            .lastPublishedSections(lastPublishedSections)
+            .lastFailure(lastFailure)
+            .pendingTasks(pendingTasks.values().stream()
+                .sorted(Comparator.comparing(SettingsPublishStatus.PendingTask::getTaskUid))
+                .toList())
+            .build();
+    }
+
+    private Mono<TaskInfo> push(Settings update, Map<String, JsonNode> published, List<String> sections) {
+        return Mono.fromCallable(() -> {
+                log.info("Pushing configuration to Meilisearch: sections {}, {} synonyms", sections,
+                    update.getSynonyms() != null ? update.getSynonyms().size() : 0);
+                return meilisearchProvider.updateSettingsBlocking(update);
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnSuccess(task -> {
+                lastPublished = published;
+                lastPublishedAt = LocalDateTime.now();
+                lastPublishedSections = sections;
+                if (task != null) {
+                    pendingTasks.put(task.getTaskUid(), SettingsPublishStatus.PendingTask.builder()
+                        .taskUid(task.getTaskUid())
+                        .sections(sections)
+                        .status("enqueued")
+                        .enqueuedAt(lastPublishedAt)
+                        .build());
+                }
+                searchResultCache.invalidateAll();
+            });
+    }
+
+    /**
+     * Poll the settings tasks still running; finished ones are dropped, failed ones force a full publish
+     */
+    Mono<Void> refreshPendingTasks() {
+        if (pendingTasks.isEmpty()) {
+            return Mono.empty();
+        }
+        return Flux.fromIterable(List.copyOf(pendingTasks.values()))
+            .flatMap(pending -> meilisearchProvider.getTask(pending.getTaskUid())
+                .doOnNext(task -> onTaskStatus(pending, task.getStatus(),
+                    task.getError() != null ? task.getError().getMessage() : null))
+                .onErrorResume(e -> {
+                    log.debug("Could not fetch status of settings task {}", pending.getTaskUid(), e);
+                    return Mono.empty();
+                }))
+            .then();
+    }
+
+    private void onTaskStatus(SettingsPublishStatus.PendingTask pending, TaskStatus status, String error) {
+        if (status == TaskStatus.ENQUEUED || status == TaskStatus.PROCESSING) {
+            pending.setStatus(status.name().toLowerCase());
+            return;
+        }
+        pendingTasks.remove(pending.getTaskUid());
+        if (status == TaskStatus.SUCCEEDED) {
+            // Settings apply when the task finishes, not when it is enqueued
+            searchResultCache.invalidateAll();
+            return;
+        }
+        lastFailure = "Task " + pending.getTaskUid() + " " + status.name().toLowerCase()
+            + (error != null ? ": " + error : "");
+        log.error("Settings task {} for sections {} did not succeed: {}", pending.getTaskUid(),
+            pending.getSections(), lastFailure);
+        // What Meilisearch holds is unknown now: send every section with the next publish
+        lastPublished = null;
+        requestPublish();
+    }
+
+    /**
+     * Sections whose value differs from the last publish (all of them when nothing was published yet).
+     * Sections absent from the current build are skipped: Meilisearch keeps their last value either way.
+     */
+    static List<String> changedSections(Map<String, JsonNode> previous, Map<String, JsonNode> current) {
+        List<String> changed = new ArrayList<>();
+        for (String section : SECTION_NAMES) {
+            JsonNode value = current.get(section);
+            if (value != null && (previous == null || !value.equals(previous.get(section)))) {
+                changed.add(section);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Comparable form of each section; JSON trees compare arrays in order and objects by content, so
+     * set-like sections are sorted first
+     */
+    private Map<String, JsonNode> snapshot(Settings settings) {
+        Map<String, JsonNode> snapshot = new HashMap<>();
+        for (Section section : SECTIONS) {
+            Object value = section.value().apply(settings);
+            if (value != null) {
+                snapshot.put(section.name(), section.normalize().apply(objectMapper.valueToTree(value)));
+            }
+        }
+        return snapshot;
+    }
+
+    private static JsonNode sorted(JsonNode node) {
+        if (!node.isArray()) {
+            return node;
+        }
+        List<String> values = new ArrayList<>();
+        node.forEach(value -> values.add(value.asText()));
+        values.sort(Comparator.naturalOrder());
+        ArrayNode sorted = JsonNodeFactory.instance.arrayNode();
+        values.forEach(sorted::add);
+        return sorted;
+    }
+
+    private static JsonNode sortedValues(JsonNode node) {
+        if (!node.isObject()) {
+            return node;
+        }
+        ObjectNode sorted = JsonNodeFactory.instance.objectNode();
+        node.fields().forEachRemaining(entry -> sorted.set(entry.getKey(), sorted(entry.getValue())));
+        return sorted;
+    }
+
+    /**
+     * Settings carrying only the given sections; Meilisearch leaves omitted sections untouched
+     */
+    private static Settings onlySections(Settings settings, List<String> sections) {
+        Settings update = new Settings();
+        for (Section section : SECTIONS) {
+            if (sections.contains(section.name())) {
+                section.copy().accept(settings, update);
+            }
+        }
+        return update;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Build the full Meilisearch Settings (synonyms, DB settings, typo tolerance, filterable attributes search
+     * depends on) without pushing them.
+     * Also used to configure the staging index during a blue/green rebuild.
+     */
+    public Mono<Settings> buildSettings() {
+
         // 1. Build Synonyms Map reactively
         Mono<HashMap<String, String[]>> synonymsMapMono = synonymRepository.findAllByIsActiveTrue()
             .flatMap(synonym -> {
@@ -228,71 +544,58 @@ public class SearchConfigurationService {
             return applyAllSettings(settings)
                 .then(Mono.fromCallable(() -> {
                     applyTypoToleranceForShortWords(settings);
-                    log.info("Pushing configuration to Meilisearch: {} synonyms, settings applied.", synonymsMap.size());
-                    return meilisearchProvider.updateSettingsBlocking(settings);
-                }).subscribeOn(Schedulers.boundedElastic()));
+                    ensureFilterableAttributes(settings);
+                    return settings;
+                }));
         });
     }
 
     /**
-     * Apply all known settings from DB to the Settings object
+     * Apply all known settings from DB to the Settings object (one query for all keys)
      */
     private Mono<Void> applyAllSettings(Settings settings) {
-        return Flux.just(
-            "ranking_rules", 
-            "searchable_attributes", 
-            "filterable_attributes", 
-            "sortable_attributes", 
-            "stop_words"
-        )
-        .flatMap(key -> applySetting(settings, key))
-        .then();
-    }
-
-    /**
-     * Helper to apply setting from DB reactively
-     */
-    private Mono<Void> applySetting(Settings settings, String key) {
-        return settingRepository.findByKey(key)
-            .doOnNext(dbSetting -> {
-                try {
-                    String[] value = convertJsonToStringArray(dbSetting.getValueJson());
-                    
-                    // Map known keys to Settings setters
-                    switch (key) {
-                        case "ranking_rules":
-                            settings.setRankingRules(value);
-                            break;
-                        case "searchable_attributes":
-                            settings.setSearchableAttributes(value);
-                            break;
-                        case "filterable_attributes":
-                            settings.setFilterableAttributes(value);
-                            break;
-                        case "sortable_attributes":
-                            settings.setSortableAttributes(value);
-                            break;
-                        case "stop_words":
-                            settings.setStopWords(value);
-                            break;
-                        default:
-                            log.warn("Setting '{}' present in DB but not mapped in Service code", key);
-                    }
-                } catch (Exception e) {
-                    log.error("Failed to apply setting {}", key, e);
-                }
-            })
-            .switchIfEmpty(Mono.defer(() -> {
-                log.debug("Setting '{}' not found in DB, skipping.", key);
-                return Mono.empty();
-            }))
+        return settingRepository.findAll()
+            .filter(dbSetting -> PUBLISHED_SETTING_KEYS.contains(dbSetting.getKey()))
+            .doOnNext(dbSetting -> applySetting(settings, dbSetting))
             .onErrorResume(e -> {
-                log.error("Failed to fetch setting {}", key, e);
+                log.error("Failed to fetch search settings", e);
                 return Mono.empty();
             })
             .then();
     }
 
+    /**
+     * Map a DB setting to the matching Settings setter
+     */
+    private void applySetting(Settings settings, SearchSetting dbSetting) {
+        String key = dbSetting.getKey();
+        try {
+            String[] value = convertJsonToStringArray(dbSetting.getValueJson());
+
+            switch (key) {
+                case "ranking_rules":
+                    settings.setRankingRules(value);
+                    break;
+                case "searchable_attributes":
+                    settings.setSearchableAttributes(value);
+                    break;
+                case "filterable_attributes":
+                    settings.setFilterableAttributes(value);
+                    break;
+                case "sortable_attributes":
+                    settings.setSortableAttributes(value);
+                    break;
+                case "stop_words":
+                    settings.setStopWords(value);
+                    break;
+                default:
+                    log.warn("Setting '{}' present in DB but not mapped in Service code", key);
+            }
+        } catch (Exception e) {
+            log.error("Failed to apply setting {}", key, e);
+        }
+    }
+
     /**
      * Convert JSON string to String array
      */
@@ -300,6 +603,19 @@ public class SearchConfigurationService {
         return objectMapper.readValue(jsonValue, String[].class);
     }
 
+    /**
+     * Add the attributes search filters and facets on (store stock, facet attributes) to the configured
+     * filterable attributes, so a DB edit cannot break store filtering or facet requests.
+     */
+    private void ensureFilterableAttributes(Settings settings) {
+        Set<String> filterable = new LinkedHashSet<>();
+        if (settings.getFilterableAttributes() != null) {
+            filterable.addAll(Arrays.asList(settings.getFilterableAttributes()));
+        }
+        filterable.addAll(MeilisearchProvider.FILTERABLE_ATTRIBUTES);
+        settings.setFilterableAttributes(filterable.toArray(new String[0]));
+    }
+
     /**
      * Apply typo tolerance for short words (e.g. "milk" 4 chars).
      * Default Meilisearch requires 5+ chars for one typo - we lower to 4 so "milc" matches "milk".
@@ -313,4 +629,12 @@ public class SearchConfigurationService {
         typoTolerance.setMinWordSizeForTypos(new HashMap<>(minWordSize));
         settings.setTypoTolerance(typoTolerance);
     }
+
+    /**
+     * A settings section: how to read it, copy it into a partial update and normalize it for comparison
+     * (Meilisearch returns set-like sections sorted and typo tolerance with defaults filled in)
+     */
+    private record Section(String name, Function<Settings, Object> value, BiConsumer<Settings, Settings> copy,
+                           UnaryOperator<JsonNode> normalize) {
+    }
 }
@@ -0,0 +1,223 @@
+package com.quickcommerce.search.service;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SearchResponse;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of ranked search pages keyed by (normalized query, storeId, page, pageSize).
+ *
+ * Entries hold only the ranked product ID list and total; documents are kept once in a shared map so
+ * head queries returning the same products do not duplicate them. Every entry remembers the store's
+ * generation and the global generation from when its backend call started. Stock flips bump the store
+ * generation ({@link #invalidateStores}), catalog updates, rebuild swaps and settings publishes bump the
+ * global one ({@link #invalidateAll}), so stale entries are simply skipped instead of being scanned for.
+ *
+ * Concurrent misses for the same key and generations share one backend call (singleflight).
+ */
+@Slf4j
+@Component
+public class SearchResultCache {
+
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, ProductDocument> documents = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> storeGenerations = new ConcurrentHashMap<>();
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final Map<Flight, Mono<CachedPage>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+    public SearchResultCache(SearchProperties searchProperties, SearchMetrics searchMetrics) {
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+    }
+
+    /**
+     * Cached page for the key, or the result of {@code loader} shared with concurrent identical requests
+     */
+    Mono<CachedPage> get(String query, Long storeId, int page, int pageSize, Supplier<Mono<CachedPage>> loader) {
+        if (!searchProperties.getCache().isEnabled()) {
+            return Mono.defer(loader);
+        }
+        return Mono.defer(() -> {
+            Key key = new Key(query, storeId, page, pageSize);
+            long storeGeneration = storeGeneration(storeId);
+            long globalGen = globalGeneration.get();
+
+            CachedPage cached = lookup(key, storeGeneration, globalGen);
+            if (cached != null) {
+                searchMetrics.recordCacheHit();
+                return Mono.just(cached);
+            }
+            searchMetrics.recordCacheMiss();
+
+            Flight flight = new Flight(key, storeGeneration, globalGen);
+            AtomicBoolean leader = new AtomicBoolean(false);
+            Mono<CachedPage> shared = inFlight.computeIfAbsent(flight, f -> {
+                leader.set(true);
+                return Mono.defer(loader)
+                    .doOnNext(result -> store(key, result, storeGeneration, globalGen))
+                    .doFinally(signal -> inFlight.remove(f))
+                    .cache();
+            });
+            if (!leader.get()) {
+                searchMetrics.recordSearchCoalesced();
+            }
+            return shared;
+        });
+    }
+
+    /**
+     * Stock changed in these stores: their cached pages are no longer served
+     */
+    public void invalidateStores(Collection<Long> storeIds) {
+        for (Long storeId : storeIds) {
+            if (storeId != null) {
+                storeGenerations.computeIfAbsent(storeId, k -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Documents or ranking changed for every store (catalog update, index swap, settings)
+     */
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private long storeGeneration(Long storeId) {
+        if (storeId == null) {
+            return 0L;
+        }
+        AtomicLong generation = storeGenerations.get(storeId);
+        return generation != null ? generation.get() : 0L;
+    }
+
+    private CachedPage lookup(Key key, long storeGeneration, long globalGen) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isCurrent(storeGeneration, globalGen, System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        List<ProductDocument> hits = new ArrayList<>(entry.productIds().size());
+        for (Long id : entry.productIds()) {
+            ProductDocument document = documents.get(id);
+            if (document == null) {
+                // Swept while the entry was still live; reload rather than serve a partial page
+                entries.remove(key, entry);
+                return null;
+            }
+            hits.add(document);
+        }
+        return new CachedPage(hits, entry.totalHits(), true, entry.fallback());
+    }
+
+    private void store(Key key, CachedPage result, long storeGeneration, long globalGen) {
+        if (!result.cacheable() || result.documents().stream().anyMatch(doc -> doc.getId() == null)) {
+            return;
+        }
+        if (storeGeneration != storeGeneration(key.storeId()) || globalGen != globalGeneration.get()) {
+            // Invalidated while loading: must not overwrite newer shared documents
+            return;
+        }
+        SearchProperties.Cache config = searchProperties.getCache();
+        if (isFull(config, result)) {
+            sweep();
+            if (isFull(config, result)) {
+                return;
+            }
+        }
+        List<Long> productIds = new ArrayList<>(result.documents().size());
+        for (ProductDocument document : result.documents()) {
+            documents.put(document.getId(), document);
+            productIds.add(document.getId());
+        }
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getTtlMs());
+        entries.put(key, new Entry(List.copyOf(productIds), result.totalHits(), result.fallback(), storeGeneration,
+            globalGen, expiresAt));
+    }
+
+    /**
+     * No room for one more entry, or for the page's documents (counted as if none were shared yet)
+     */
+    private boolean isFull(SearchProperties.Cache config, CachedPage result) {
+        return entries.size() >= config.getMaxEntries()
+            || documents.size() + result.documents().size() > config.getMaxDocuments();
+    }
+
+    /**
+     * Drop expired or invalidated entries, then documents no remaining entry refers to
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            long globalGen = globalGeneration.get();
+            entries.entrySet().removeIf(e ->
+                !e.getValue().isCurrent(storeGeneration(e.getKey().storeId()), globalGen, now));
+
+            Set<Long> referenced = new HashSet<>();
+            entries.values().forEach(entry -> referenced.addAll(entry.productIds()));
+            documents.keySet().retainAll(referenced);
+            log.debug("Search cache sweep: {} entries, {} documents retained", entries.size(), documents.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Ranked page plus total hits. Results produced while the search engine was failing are not cacheable;
+     * {@code fallback} marks popular products served because the query itself matched nothing.
+     * {@code facets} is only set for faceted searches, which are never cached.
+     */
+    record CachedPage(List<ProductDocument> documents, int totalHits, boolean cacheable, boolean fallback,
+                      SearchResponse.Facets facets) {
+
+        CachedPage(List<ProductDocument> documents, int totalHits, boolean cacheable, boolean fallback) {
+            this(documents, totalHits, cacheable, fallback, null);
+        }
+    }
+
+    private record Key(String query, Long storeId, int page, int pageSize) {
+    }
+
+    private record Flight(Key key, long storeGeneration, long globalGeneration) {
+    }
+
+    private record Entry(List<Long> productIds, int totalHits, boolean fallback, long storeGeneration,
+                         long globalGeneration, long expiresAtNanos) {
+
+        boolean isCurrent(long currentStoreGeneration, long currentGlobalGeneration, long nowNanos) {
+            return storeGeneration == currentStoreGeneration
+                && globalGeneration == currentGlobalGeneration
+                && expiresAtNanos - nowNanos > 0;
+        }
+    }
+}
@@ -1,53 +1,81 @@
 package com.quickcommerce.search.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.meilisearch.sdk.model.SearchResult;
+import com.quickcommerce.search.analytics.QueryAnalytics;
 import com.quickcommerce.search.client.InventoryClient;
 import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.MultiSearchRequest;
+import com.quickcommerce.search.dto.MultiSearchResponse;
 import com.quickcommerce.search.dto.ProductResult;
+import com.quickcommerce.search.dto.SearchClickRequest;
 import com.quickcommerce.search.dto.SearchRequest;
 import com.quickcommerce.search.dto.SearchResponse;
+import com.quickcommerce.search.exception.InvalidRequestException;
+import com.quickcommerce.search.exception.ResourceNotFoundException;
+import com.quickcommerce.search.exception.ServiceUnavailableException;
+import com.quickcommerce.search.latency.RequestDeadline;
 import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.metrics.SearchTrace;
+import com.quickcommerce.search.metrics.SearchTrace.Stage;
+import com.quickcommerce.search.model.PriceBuckets;
 import com.quickcommerce.search.model.ProductDocument;
-import com.quickcommerce.search.provider.MeilisearchProvider;
+import com.quickcommerce.search.model.ProductSearchResult;
+import com.quickcommerce.search.provider.ProductSearchEngine;
+import com.quickcommerce.search.provider.SearchQuery;
+import com.quickcommerce.search.shadow.ShadowEvaluator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuples;
+import reactor.util.context.Context;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Main search orchestration service with metrics tracking
- * Coordinates search flow: query → Meilisearch → filter → rank → response
+ * Coordinates search flow: query → result cache → Meilisearch (store + stock filter) → rank → response.
+ * Composite screens use {@link #multiSearch}: one engine round trip and one availability check for all queries.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
-    private final MeilisearchProvider meilisearchProvider;
+    private final ProductSearchEngine searchEngine;
     private final RankingService rankingService;
     private final FallbackService fallbackService;
     private final SearchProperties searchProperties;
-    private final ObjectMapper objectMapper;
     private final InventoryClient inventoryClient;
     private final SearchMetrics searchMetrics;
+    private final SearchResultCache searchResultCache;
+    private final QueryAnalytics queryAnalytics;
+    private final StoreLocator storeLocator;
+    private final ShadowEvaluator shadowEvaluator;
 
     /**
-     * Execute product search with metrics tracking
+     * Execute product search with metrics tracking. Without a store ID the serving store is the nearest store
+     * covering the request coordinates ({@link StoreLocator}).
      */
     public Mono<SearchResponse> search(SearchRequest request) {
         // Increment search request counter
         searchMetrics.incrementSearchRequests();
 
         return Mono.defer(() -> { // Defer for fresh context
-            String normalizedQuery = normalizeQuery(request.getQuery());
+            SearchTrace trace = searchMetrics.startTrace();
+            String normalizedQuery = trace.time(Stage.NORMALIZE, () -> normalizeQuery(request.getQuery()));
+            ServingStore store = resolveStore(request);
+            Long storeId = store.storeId();
 
             // Handle pagination with standard page/pageSize
             int page = request.getPage() != null ? request.getPage() : 1;
@@ -55,93 +83,373 @@ public class SearchService {
                     : searchProperties.getDefaultResultLimit();
 
             log.info("Executing search: query='{}', storeId={}, page={}, size={}",
-                    request.getQuery(), request.getStoreId(), page, pageSize);
+                    request.getQuery(), storeId, page, pageSize);
 
             // Need final variables for lambda
             int finalPage = page;
             int finalPageSize = pageSize;
 
-            return meilisearchProvider.search(
-                    normalizedQuery,
-                    request.getStoreId(),
-                    finalPage,
-                    finalPageSize)
-                    .map(result -> {
-                        List<ProductDocument> docs = parseDocuments(result);
-                        int estimatedTotalHits = (int) result.getEstimatedTotalHits();
-                        return Tuples.of(docs, estimatedTotalHits);
-                    })
-                    .onErrorResume(e -> {
-                        log.error("CRITICAL DATA ERROR: Parsing failed", e);
-                        return Mono.just(Tuples.of(new ArrayList<ProductDocument>(), 0));
-                    })
-                    // 1. Capture Candidate Count and Total Hits
-                    .flatMap(tuple -> {
-                        List<ProductDocument> candidates = tuple.getT1();
-                        int totalHits = tuple.getT2();
-
-                        // Filter by stock (Availability Check)
-                        return filterByStock(candidates, request.getStoreId())
-                                .doOnNext(inStockProducts -> log.debug("After stock filter: {} products",
-                                        inStockProducts.size()))
-                                .map(rankingService::rank)
-                                .flatMap(ranked -> {
-                                    if (ranked.isEmpty()) {
-                                        // Fallback logic
-                                        // Note: Fallback pagination is tricky.
-                                        // For now, we return fallback results as a single page or limited set.
-                                        log.warn("No results found, applying fallback");
-                                        return fallbackService.getFallbackResults(normalizedQuery,
-                                                request.getStoreId())
-                                                .map(fallbackResults -> Tuples.of(fallbackResults,
-                                                        fallbackResults.size())); // Fallback total is just size
-                                    }
-                                    return Mono.just(Tuples.of(ranked, totalHits)); // Keep original Meilisearch total
-                                                                                    // hits
-                                });
-                    })
+            // Head queries are answered from the result cache; identical concurrent misses share one call.
+            // Searches pinned to an engine, filtered or faceted always go to the engine.
+            SearchQuery searchQuery = new SearchQuery(normalizedQuery, storeId, finalPage,
+                    finalPageSize, request.getEngine(), request.getFilters(),
+                    Boolean.TRUE.equals(request.getIncludeFacets()));
+            Mono<SearchResultCache.CachedPage> resultPages = searchQuery.engine() != null || searchQuery.isRefined()
+                    ? executeSearch(searchQuery, trace)
+                    : searchResultCache.get(normalizedQuery, storeId, finalPage, finalPageSize,
+                            () -> executeSearch(searchQuery, trace));
+            AtomicReference<List<Long>> searchedStores = new AtomicReference<>();
+            if (Boolean.TRUE.equals(request.getIncludeNearbyStores())) {
+                resultPages = resultPages.flatMap(resultPage -> includeNearbyStores(searchQuery, store, resultPage,
+                        searchedStores, trace));
+            }
+
+            return resultPages
                     .elapsed() // 3. Reactive Timing
                     .map(tupleTime -> {
                         long timeMs = tupleTime.getT1();
-                        var dataTuple = tupleTime.getT2();
-                        List<ProductDocument> results = dataTuple.getT1();
-                        int totalHits = dataTuple.getT2();
-
-                        // Calculate pagination meta
-                        int totalPages = (int) Math.ceil((double) totalHits / finalPageSize);
+                        SearchResultCache.CachedPage resultPage = tupleTime.getT2();
 
                         log.info("Search completed in {}ms, hits: {}, returned: {}",
-                                timeMs, totalHits, results.size());
+                                timeMs, resultPage.totalHits(), resultPage.documents().size());
 
                         // Record metrics
                         searchMetrics.recordSearchDuration(timeMs);
-                        searchMetrics.recordSearchResults(results.size());
-                        searchMetrics.recordSearchByStore(request.getStoreId(), results.size());
+                        recordResult(normalizedQuery, storeId, resultPage, timeMs);
 
-                        if (results.isEmpty()) {
-                            searchMetrics.incrementNoResults();
+                        SearchResponse response = trace.time(Stage.SERIALIZATION, () -> toResponse(
+                                request.getQuery(), storeId, resultPage, finalPage, finalPageSize, timeMs));
+                        response.setStoreIds(searchedStores.get());
+                        response.setServerTiming(trace.serverTiming());
+                        // Sampled replay against the shadow target, off the response path
+                        if (!resultPage.fallback() && searchedStores.get() == null) {
+                            shadowEvaluator.offer(searchQuery, resultPage.documents(), timeMs);
                         }
+                        return response;
+                    })
+                    .doOnError(e -> {
+                        log.error("Search failed", e);
+                        searchMetrics.incrementSearchErrors(e.getClass().getSimpleName());
+                    });
+        }).contextWrite(this::startDeadline);
+    }
+
+    /**
+     * Serving store of a search: the requested store, else the nearest store whose service radius covers the
+     * coordinates, with the other covering stores (nearest first) for {@link #includeNearbyStores}
+     */
+    private ServingStore resolveStore(SearchRequest request) {
+        if (request.getStoreId() != null) {
+            return new ServingStore(request.getStoreId(), List.of());
+        }
+        if (request.getLatitude() == null || request.getLongitude() == null) {
+            throw new InvalidRequestException("Store ID or latitude and longitude are required");
+        }
+        SearchProperties.Geo geo = searchProperties.getGeo();
+        if (!geo.isEnabled()) {
+            throw new InvalidRequestException("Store ID is required");
+        }
+        if (!storeLocator.isLoaded()) {
+            throw new ServiceUnavailableException("Store locations are not loaded yet");
+        }
+        List<StoreLocator.StoreMatch> covering = storeLocator.covering(request.getLatitude(),
+                request.getLongitude(), Math.max(1, geo.getMaxCoveringStores()));
+        if (covering.isEmpty()) {
+            throw new ResourceNotFoundException(String.format("No store serves location (%s, %s)",
+                    request.getLatitude(), request.getLongitude()));
+        }
+        return new ServingStore(covering.get(0).storeId(),
+                covering.stream().map(StoreLocator.StoreMatch::storeId).toList());
+    }
+
+    /**
+     * When the serving store is thin on results (fewer than {@code search.geo.thin-result-threshold} on the
+     * first page, or only fallback products), run the query once more across every store covering the
+     * location. Multi-store pages are not cached; the serving store's page is kept if nothing more is found.
+     */
+    private Mono<SearchResultCache.CachedPage> includeNearbyStores(SearchQuery searchQuery, ServingStore store,
+                                                                   SearchResultCache.CachedPage resultPage,
+                                                                   AtomicReference<List<Long>> searchedStores,
+                                                                   SearchTrace trace) {
+        int found = resultPage.fallback() ? 0 : resultPage.documents().size();
+        if (store.coveringStoreIds().size() < 2 || searchQuery.page() != 1
+                || found >= searchProperties.getGeo().getThinResultThreshold()) {
+            return Mono.just(resultPage);
+        }
+        SearchQuery multiStore = searchQuery.withStoreIds(store.coveringStoreIds());
+        return executeSearch(multiStore, trace)
+                .map(expanded -> {
+                    if (expanded.fallback() || expanded.documents().size() <= found) {
+                        return resultPage;
+                    }
+                    log.debug("Included nearby stores {} for '{}': {} → {} results", multiStore.storeIds(),
+                            searchQuery.query(), found, expanded.documents().size());
+                    searchedStores.set(multiStore.storeIds());
+                    return expanded;
+                });
+    }
+
+    /**
+     * Backend path of a search: Meilisearch (or standby) page → stock policy → rank → fallback when empty.
+     * Pages served while Meilisearch was failing are marked non-cacheable. Each step is a stage of the trace.
+     */
+    private Mono<SearchResultCache.CachedPage> executeSearch(SearchQuery searchQuery, SearchTrace trace) {
+        String normalizedQuery = searchQuery.query();
+        Long storeId = searchQuery.storeId();
+        AtomicBoolean degraded = new AtomicBoolean(false);
+        Mono<ProductSearchResult> hits;
+        if (searchQuery.isRefined() || searchQuery.isMultiStore()) {
+            hits = searchEngine.search(searchQuery);
+        } else if (searchQuery.engine() != null) {
+            hits = searchEngine.search(normalizedQuery, storeId, searchQuery.page(), searchQuery.pageSize(),
+                    searchQuery.engine());
+        } else {
+            hits = searchEngine.search(normalizedQuery, storeId, searchQuery.page(), searchQuery.pageSize());
+        }
+        return trace.time(Stage.ENGINE, hits)
+                .map(result -> toEngineHits(searchQuery, result))
+                .onErrorResume(e -> {
+                    log.error("CRITICAL DATA ERROR: Parsing failed", e);
+                    degraded.set(true);
+                    return Mono.just(EngineHits.EMPTY);
+                })
+                // 1. Capture Candidate Count and Total Hits
+                .flatMap(engineHits -> {
+                    // Stock is filtered by the index (inStockStoreIds) when enabled
+                    return trace.time(Stage.AVAILABILITY,
+                                    Mono.defer(() -> applyStockFilter(engineHits.documents(), searchQuery)))
+                            .doOnNext(inStockProducts -> log.debug("After stock filter: {} products",
+                                    inStockProducts.size()))
+                            .flatMap(inStockProducts -> rankPage(searchQuery, engineHits, inStockProducts, true,
+                                    !degraded.get(), trace));
+                });
+    }
+
+    /**
+     * Execute the searches of one screen together: one engine round trip (a Meilisearch multi-search),
+     * one availability check across the union of hits, then each list ranked on its own. Composite searches
+     * bypass the result cache; a failed engine call answers every query empty (or with its fallback).
+     */
+    public Mono<MultiSearchResponse> multiSearch(MultiSearchRequest request) {
+        List<MultiSearchRequest.Query> requests = request.getQueries();
+        requests.forEach(query -> searchMetrics.incrementSearchRequests());
+
+        return Mono.defer(() -> {
+            SearchTrace trace = searchMetrics.startTrace();
+            Long storeId = request.getStoreId();
+            List<SearchQuery> searchQueries = trace.time(Stage.NORMALIZE, () -> requests.stream()
+                    .map(query -> new SearchQuery(normalizeQuery(query.getQuery()), storeId,
+                            query.getPage() != null ? query.getPage() : 1,
+                            query.getPageSize() != null ? query.getPageSize()
+                                    : searchProperties.getDefaultResultLimit(),
+                            null, query.getFilters(), Boolean.TRUE.equals(query.getIncludeFacets())))
+                    .collect(Collectors.toList()));
+
+            log.info("Executing multi-search: {} queries, storeId={}", searchQueries.size(), storeId);
+
+            return executeMultiSearch(searchQueries, requests, trace)
+                    .elapsed()
+                    .map(tupleTime -> {
+                        long timeMs = tupleTime.getT1();
+                        List<SearchResultCache.CachedPage> resultPages = tupleTime.getT2();
+                        searchMetrics.recordSearchDuration(timeMs);
 
-                        return SearchResponse.builder()
-                                .query(request.getQuery())
-                                .storeId(request.getStoreId())
-                                .results(convertToProductResults(results))
-                                .meta(SearchResponse.SearchMeta.builder()
-                                        .processingTimeMs(timeMs)
-                                        .page(finalPage)
-                                        .pageSize(finalPageSize)
-                                        .totalPages(totalPages)
-                                        .totalHits(totalHits)
-                                        .candidates(totalHits) // Keeping candidates for debug/legacy
-                                        .returned(results.size())
-                                        .build())
+                        List<SearchResponse> responses = new ArrayList<>(resultPages.size());
+                        for (int i = 0; i < resultPages.size(); i++) {
+                            SearchQuery searchQuery = searchQueries.get(i);
+                            SearchResultCache.CachedPage resultPage = resultPages.get(i);
+                            String query = requests.get(i).getQuery();
+                            recordResult(searchQuery.query(), storeId, resultPage, timeMs);
+                            responses.add(trace.time(Stage.SERIALIZATION, () -> toResponse(query, storeId,
+                                    resultPage, searchQuery.page(), searchQuery.pageSize(), timeMs)));
+                        }
+                        log.info("Multi-search completed in {}ms: {} queries", timeMs, responses.size());
+                        return MultiSearchResponse.builder()
+                                .storeId(storeId)
+                                .results(responses)
+                                .processingTimeMs(timeMs)
                                 .build();
                     })
                     .doOnError(e -> {
-                        log.error("Search failed", e);
+                        log.error("Multi-search failed", e);
                         searchMetrics.incrementSearchErrors(e.getClass().getSimpleName());
                     });
-        });
+        }).contextWrite(this::startDeadline);
+    }
+
+    /**
+     * Each search gets {@code search.deadline.search-budget-ms}; the engine and availability calls wait at most
+     * for what is left of it ({@link RequestDeadline})
+     */
+    private Context startDeadline(Context context) {
+        return RequestDeadline.start(context, Duration.ofMillis(searchProperties.getDeadline().getSearchBudgetMs()));
+    }
+
+    /**
+     * Record a click on a search result for query analytics
+     */
+    public void recordClick(SearchClickRequest request) {
+        queryAnalytics.recordClick(normalizeQuery(request.getQuery()), request.getStoreId(), request.getProductId(),
+                request.getPosition() != null ? request.getPosition() : 0);
+    }
+
+    private Mono<List<SearchResultCache.CachedPage>> executeMultiSearch(List<SearchQuery> searchQueries,
+                                                                       List<MultiSearchRequest.Query> requests,
+                                                                       SearchTrace trace) {
+        Long storeId = searchQueries.get(0).storeId();
+        AtomicBoolean degraded = new AtomicBoolean(false);
+        return trace.time(Stage.ENGINE, searchEngine.multiSearch(searchQueries))
+                .map(results -> {
+                    List<EngineHits> engineHits = new ArrayList<>(results.size());
+                    for (int i = 0; i < results.size(); i++) {
+                        engineHits.add(toEngineHits(searchQueries.get(i), results.get(i)));
+                    }
+                    return engineHits;
+                })
+                .onErrorResume(e -> {
+                    log.error("Multi-search engine call failed", e);
+                    degraded.set(true);
+                    return Mono.just(Collections.nCopies(searchQueries.size(), EngineHits.EMPTY));
+                })
+                .flatMap(engineHits -> {
+                    // One availability check for every product shown on the screen
+                    Map<Long, ProductDocument> union = new LinkedHashMap<>();
+                    engineHits.forEach(hits -> hits.documents().forEach(doc -> union.putIfAbsent(doc.getId(), doc)));
+                    return trace.time(Stage.AVAILABILITY,
+                                    Mono.defer(() -> applyStockFilter(new ArrayList<>(union.values()), storeId)))
+                            .flatMap(inStockProducts -> {
+                                Set<Long> inStockIds = inStockProducts.stream()
+                                        .map(ProductDocument::getId)
+                                        .collect(Collectors.toSet());
+                                return Flux.range(0, engineHits.size())
+                                        .flatMapSequential(i -> rankPage(searchQueries.get(i), engineHits.get(i),
+                                                engineHits.get(i).documents().stream()
+                                                        .filter(doc -> inStockIds.contains(doc.getId()))
+                                                        .collect(Collectors.toList()),
+                                                Boolean.TRUE.equals(requests.get(i).getFallback()),
+                                                !degraded.get(), trace))
+                                        .collectList();
+                            });
+                });
+    }
+
+    /**
+     * Rank the in-stock hits of one query; when nothing is left and {@code fallback} is allowed, serve popular
+     * products instead. Filtered searches that match nothing stay empty (the filters explain why).
+     */
+    private Mono<SearchResultCache.CachedPage> rankPage(SearchQuery searchQuery, EngineHits engineHits,
+                                                        List<ProductDocument> inStockProducts, boolean fallback,
+                                                        boolean cacheable, SearchTrace trace) {
+        List<ProductDocument> ranked = trace.time(Stage.RANKING,
+                () -> rankingService.rank(inStockProducts, searchQuery.storeId(), searchQuery.pageSize()));
+        if (ranked.isEmpty() && fallback && searchQuery.filters() == null) {
+            // Fallback logic
+            // Note: Fallback pagination is tricky.
+            // For now, we return fallback results as a single page or limited set.
+            log.warn("No results found, applying fallback");
+            return trace.time(Stage.FALLBACK, Mono.defer(
+                            () -> fallbackService.getFallbackResults(searchQuery.query(), searchQuery.storeId())))
+                    .map(fallbackResults -> new SearchResultCache.CachedPage(fallbackResults,
+                            fallbackResults.size(), // Fallback total is just size
+                            cacheable, true, engineHits.facets()));
+        }
+        // Keep original Meilisearch total hits
+        return Mono.just(new SearchResultCache.CachedPage(ranked, engineHits.totalHits(), cacheable, false,
+                engineHits.facets()));
+    }
+
+    private EngineHits toEngineHits(SearchQuery searchQuery, ProductSearchResult result) {
+        List<ProductDocument> docs = result.getHits() != null ? result.getHits() : List.of();
+        return new EngineHits(docs, (int) result.getEstimatedTotalHits(),
+                searchQuery.facets() ? toFacets(result) : null);
+    }
+
+    /**
+     * Result metrics and analytics event of one query; the analytics aggregates also feed query suggestions
+     */
+    private void recordResult(String normalizedQuery, Long storeId, SearchResultCache.CachedPage resultPage,
+                              long timeMs) {
+        int returned = resultPage.documents().size();
+        searchMetrics.recordSearchResults(returned);
+        searchMetrics.recordSearchByStore(storeId, returned);
+        queryAnalytics.recordSearch(normalizedQuery, storeId, returned, timeMs,
+                returned == 0 || resultPage.fallback());
+
+        if (returned == 0) {
+            searchMetrics.incrementNoResults();
+        }
+    }
+
+    private SearchResponse toResponse(String query, Long storeId, SearchResultCache.CachedPage resultPage,
+                                      int page, int pageSize, long timeMs) {
+        List<ProductDocument> results = resultPage.documents();
+        int totalHits = resultPage.totalHits();
+        // Calculate pagination meta
+        int totalPages = (int) Math.ceil((double) totalHits / pageSize);
+        return SearchResponse.builder()
+                .query(query)
+                .storeId(storeId)
+                .results(convertToProductResults(results))
+                .meta(SearchResponse.SearchMeta.builder()
+                        .processingTimeMs(timeMs)
+                        .page(page)
+                        .pageSize(pageSize)
+                        .totalPages(totalPages)
+                        .totalHits(totalHits)
+                        .candidates(totalHits) // Keeping candidates for debug/legacy
+                        .returned(results.size())
+                        .build())
+                .facets(resultPage.facets())
+                .build();
+    }
+
+    /**
+     * Facet distributions of the engine response as filter chips; null when the engine computed none
+     * (e.g. the standby index)
+     */
+    private SearchResponse.Facets toFacets(ProductSearchResult result) {
+        Map<String, Map<String, Integer>> distribution = result.getFacetDistribution();
+        if (distribution == null) {
+            return null;
+        }
+        ProductSearchResult.FacetStats price = result.getFacetStats() != null
+                ? result.getFacetStats().get("price") : null;
+        Map<String, Integer> buckets = distribution.getOrDefault("priceBucket", Map.of());
+        return SearchResponse.Facets.builder()
+                .brands(byCount(distribution.get("brand")))
+                .categories(byCount(distribution.get("categoryName")))
+                .priceBuckets(PriceBuckets.LABELS.stream()
+                        .filter(buckets::containsKey)
+                        .map(label -> new SearchResponse.FacetValue(label, buckets.get(label)))
+                        .collect(Collectors.toList()))
+                .bestsellers(distribution.getOrDefault("isBestseller", Map.of()).getOrDefault("true", 0))
+                .minPrice(price != null ? price.getMin() : null)
+                .maxPrice(price != null ? price.getMax() : null)
+                .build();
+    }
+
+    private static List<SearchResponse.FacetValue> byCount(Map<String, Integer> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new SearchResponse.FacetValue(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Store a search is served from and, when resolved from coordinates, every store covering the location
+     */
+    private record ServingStore(Long storeId, List<Long> coveringStoreIds) {
+    }
+
+    /**
+     * Engine page before stock policy and ranking
+     */
+    private record EngineHits(List<ProductDocument> documents, int totalHits, SearchResponse.Facets facets) {
+        static final EngineHits EMPTY = new EngineHits(List.of(), 0, null);
     }
 
     /**
@@ -170,14 +478,68 @@ public class SearchService {
     }
 
     /**
-     * Parse ProductDocument objects from Meilisearch search result
+     * In-stock hits for the page. With the index filter on, Meilisearch already excluded out-of-stock
+     * products, so pages are full and totalHits is exact; a sampled share of pages is still compared with
+     * live inventory to measure index staleness. Otherwise falls back to the live post-filter.
+     */
+    private Mono<List<ProductDocument>> applyStockFilter(List<ProductDocument> products, Long storeId) {
+        if (!searchProperties.getStock().isIndexFilter()) {
+            return filterByStock(products, storeId);
+        }
+        verifyStockSample(products, storeId);
+        return Mono.just(products);
+    }
+
+    /**
+     * Stock policy of one engine call. A multi-store page keeps products in stock in any of its stores: the
+     * index filter already matched {@code inStockStoreIds} against all of them (the single-store staleness
+     * sample is skipped), the live post-filter checks each store.
      */
-    @SuppressWarnings("unchecked")
-    private List<ProductDocument> parseDocuments(SearchResult result) {
-        List<?> hits = result.getHits();
-        return hits.stream()
-                .map(hit -> objectMapper.convertValue(hit, ProductDocument.class))
+    private Mono<List<ProductDocument>> applyStockFilter(List<ProductDocument> products, SearchQuery searchQuery) {
+        if (!searchQuery.isMultiStore()) {
+            return applyStockFilter(products, searchQuery.storeId());
+        }
+        if (searchProperties.getStock().isIndexFilter() || products.isEmpty()) {
+            return Mono.just(products);
+        }
+        return Flux.fromIterable(searchQuery.storeIds())
+                .flatMap(storeId -> filterByStock(products, storeId))
+                .flatMapIterable(inStock -> inStock)
+                .map(ProductDocument::getId)
+                .collect(Collectors.toSet())
+                .map(inStockIds -> products.stream()
+                        .filter(product -> inStockIds.contains(product.getId()))
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Out-of-band check of a sampled page against live inventory. Only records metrics, never alters results.
+     */
+    private void verifyStockSample(List<ProductDocument> products, Long storeId) {
+        double sampleRate = searchProperties.getStock().getVerifySampleRate();
+        if (products.isEmpty() || sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        List<Long> productIds = products.stream()
+                .map(ProductDocument::getId)
+                .distinct()
                 .collect(Collectors.toList());
+
+        inventoryClient.checkAvailability(storeId, productIds)
+                .subscribe(response -> {
+                    Map<Long, Boolean> liveStock = response.getAvailability();
+                    if (liveStock == null) {
+                        return; // Inventory Service unavailable, nothing to compare against
+                    }
+                    int stale = (int) productIds.stream()
+                            .filter(id -> !Boolean.TRUE.equals(liveStock.get(id)))
+                            .count();
+                    searchMetrics.recordStockVerification(productIds.size(), stale);
+                    if (stale > 0) {
+                        log.debug("Stock verification: {} of {} indexed in-stock hits are out of stock in store {}",
+                                stale, productIds.size(), storeId);
+                    }
+                }, e -> log.debug("Stock verification failed: {}", e.getMessage()));
     }
 
     /**
@@ -196,11 +558,12 @@ public class SearchService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        // Smart batching: if more than 50 products, check in smaller batches
-        if (productIds.size() > 50) {
+        // Smart batching: very large candidate sets are checked in several calls
+        int batchSize = Math.max(1, searchProperties.getStock().getAvailabilityBatchSize());
+        if (productIds.size() > batchSize) {
             log.debug("Large product set ({}), using batched availability check", productIds.size());
             return reactor.core.publisher.Flux.fromIterable(productIds)
-                    .buffer(50)
+                    .buffer(batchSize)
                     .flatMap(batch -> inventoryClient.checkAvailability(storeId, batch))
                     .collectList()
                     .map(responses -> {
@@ -262,7 +625,7 @@ public class SearchService {
                         .packageSize(doc.getUnitText())
                         .images(doc.getImages())
                         .slug(doc.getSlug())
-                        .inStock(true) // All results are in-stock after filtering
+                        .inStock(true) // All results are in-stock (index filter or live check)
                         .build())
                 .collect(Collectors.toList());
     }
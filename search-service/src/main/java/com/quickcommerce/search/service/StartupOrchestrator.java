@@ -1,6 +1,7 @@
 package com.quickcommerce.search.service;
 
 import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.health.SearchReadinessHealthIndicator;
 import com.quickcommerce.search.health.SyncHealthIndicator;
 import com.quickcommerce.search.provider.MeilisearchProvider;
 import lombok.RequiredArgsConstructor;
@@ -8,10 +9,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
 
 /**
  * Coordinates the startup sequence for the search service
- * Ensures proper ordering: Index Creation → Settings Bootstrap → Configuration Sync → Product Sync
+ * Ensures proper ordering: Index Creation → Configuration Sync → Product Sync
+ *
+ * The sequence runs in the background and gates readiness ({@link SearchReadinessHealthIndicator}) instead of
+ * blocking the ready event:
+ * <ul>
+ *   <li>Warm start — the live index has documents: serve as soon as its settings are current (publishing them
+ *       first if not), then reconcile with a full sync in the background. The blue/green rebuild keeps the
+ *       live index serving throughout.</li>
+ *   <li>Cold start — the index is empty: publish settings, refill it from the local product snapshot if one
+ *       is usable and serve, reconciling in the background; without a snapshot, serve only after the
+ *       initial full sync.</li>
+ * </ul>
+ * A rolling deploy therefore never routes traffic to an instance whose index is empty or being filled.
+ * A failed sequence (Meilisearch or the catalog not reachable yet) is retried from the start with backoff; the
+ * instance stays unready only once {@code search.sync.startup-max-retries} is exhausted.
  */
 @Slf4j
 @Service
@@ -23,94 +42,165 @@ public class StartupOrchestrator {
     private final IndexSyncService indexSyncService;
     private final SearchProperties searchProperties;
     private final SyncHealthIndicator syncHealthIndicator;
+    private final SearchReadinessHealthIndicator searchReadiness;
 
     @EventListener(ApplicationReadyEvent.class)
     public void initializeSearchService() {
         log.info("=== Starting Search Service Initialization ===");
+        searchReadiness.markNotServing("Startup initialization in progress");
+
+        initialize().subscribe(
+            v -> { },
+            e -> {
+                log.error("FATAL: Search service initialization failed", e);
+                syncHealthIndicator.updateStatus(
+                    SyncHealthIndicator.SyncState.FAILED,
+                    "Startup initialization failed: " + e.getMessage(),
+                    0
+                );
+                // Stay unready: instances that can serve keep the traffic
+                searchReadiness.markNotServing("Startup initialization failed: " + e.getMessage());
+            },
+            () -> log.info("=== Search Service Initialization Complete ==="));
+    }
 
-        try {
-            // Step 1: Ensure index exists
-            ensureIndexExists();
-
-            // Step 2: Sync settings and synonyms from DB → Meilisearch
-            // (DB is the single source of truth; seeded by Flyway migrations)
-            syncConfiguration();
-
-            // Step 3: Sync products (if enabled)
-            if (searchProperties.getSync().isEnableOnStartup()) {
-                syncProducts();
-            } else {
-                log.info("Product sync disabled in configuration");
-            }
-
-            log.info("=== Search Service Initialization Complete ===");
-
-        } catch (Exception e) {
-            log.error("FATAL: Search service initialization failed", e);
-            syncHealthIndicator.updateStatus(
-                SyncHealthIndicator.SyncState.FAILED,
-                "Startup initialization failed: " + e.getMessage(),
-                0
-            );
-            // Don't throw - let app start but mark service as unhealthy
-        }
+    /**
+     * Startup sequence; completes once this instance serves (background reconciliation may still run)
+     */
+    Mono<Void> initialize() {
+        return Mono.defer(() -> ensureIndexExists()
+                .flatMap(documents -> documents > 0 ? warmStart(documents) : coldStart()))
+            .retryWhen(startupRetrySpec());
     }
 
-    private void ensureIndexExists() {
+    /**
+     * Step 1: number of documents in the live index, creating the index only when Meilisearch reports it missing
+     */
+    private Mono<Long> ensureIndexExists() {
         log.info("Step 1: Checking if index exists...");
-        try {
-            var stats = meilisearchProvider.getProductsIndex().getStats();
-            log.info("Index exists with {} documents", stats.getNumberOfDocuments());
-        } catch (Exception e) {
-            log.info("Index does not exist, creating with primaryKey='id'...");
-            meilisearchProvider.createIndex().block();
-            log.info("Index created successfully");
-        }
+        String indexName = meilisearchProvider.getIndexName();
+        return meilisearchProvider.countDocuments(indexName)
+            .doOnNext(count -> log.info("Index exists with {} documents", count))
+            .onErrorResume(meilisearchProvider::isIndexNotFound, e -> {
+                log.info("Index does not exist, creating with primaryKey='id'...");
+                return meilisearchProvider.createIndex(indexName)
+                    .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout()))
+                    .doOnSuccess(v -> log.info("Index created successfully"))
+                    .thenReturn(0L);
+            });
+    }
+
+    private Mono<Void> warmStart(long documents) {
+        return configurationService.isLiveConfigurationCurrent()
+            .onErrorResume(e -> {
+                log.warn("Could not read live index settings, republishing configuration", e);
+                return Mono.just(false);
+            })
+            .flatMap(current -> current
+                ? Mono.<Void>fromRunnable(() -> log.info("Step 2: Live index settings are current, skipping sync"))
+                : syncConfiguration().onErrorResume(e -> {
+                    // The index has data; serving it with older settings beats not serving at all
+                    log.error("Failed to sync configuration, serving the existing index with its settings", e);
+                    return Mono.empty();
+                }))
+            .then(Mono.fromRunnable(() -> {
+                searchReadiness.markServing("Serving existing index with " + documents + " documents");
+                reconcileInBackground(indexSyncService.restoreFromSnapshot(false));
+            }));
+    }
+
+    private Mono<Void> coldStart() {
+        return syncConfiguration()
+            .then(indexSyncService.restoreFromSnapshot(true))
+            .flatMap(restored -> {
+                if (restored > 0) {
+                    searchReadiness.markServing("Serving " + restored + " products restored from snapshot");
+                    reconcileInBackground(Mono.empty());
+                    return Mono.<Void>empty();
+                }
+                if (!searchProperties.getSync().isEnableOnStartup()) {
+                    log.info("Product sync disabled in configuration");
+                    searchReadiness.markServing("Index is empty and startup sync is disabled");
+                    return Mono.<Void>empty();
+                }
+                return syncProducts()
+                    .doOnSuccess(count -> searchReadiness.markServing("Initial sync indexed " + count + " products"))
+                    .then();
+            });
     }
 
-    private void syncConfiguration() {
+    /**
+     * Step 2: push settings and synonyms from DB → Meilisearch and wait until they are applied
+     * (DB is the single source of truth; seeded by Flyway migrations)
+     */
+    private Mono<Void> syncConfiguration() {
         log.info("Step 2: Syncing settings and synonyms to Meilisearch...");
-        try {
-            var task = configurationService.publishConfiguration()
-                .retry(3)
-                .block();
-            log.info("Configuration synced. Task UID: {}", task.getTaskUid());
-            
-            // Wait for Meilisearch to process the settings update
-            Thread.sleep(1000);
-            
-        } catch (Exception e) {
-            log.error("Failed to sync configuration", e);
-            throw new RuntimeException("Configuration sync failed", e);
-        }
+        return configurationService.publishConfiguration()
+            .retry(3)
+            .doOnNext(task -> log.info("Configuration synced. Task UID: {}", task.getTaskUid()))
+            .flatMap(task -> meilisearchProvider.awaitTask(task.getTaskUid(), taskTimeout()))
+            .onErrorMap(e -> new RuntimeException("Configuration sync failed", e));
+    }
+
+    /**
+     * Bring a serving instance up to date without holding readiness: optional warm-up, then the startup full sync
+     */
+    private void reconcileInBackground(Mono<?> warmUp) {
+        Mono<?> sync = searchProperties.getSync().isEnableOnStartup()
+            ? syncProducts()
+            : Mono.fromRunnable(() -> log.info("Product sync disabled in configuration"));
+        warmUp.then(sync).subscribe(
+            v -> { },
+            e -> log.error("Background reconciliation failed, still serving the existing index", e));
+    }
+
+    /**
+     * Step 3: full product sync (blue/green rebuild)
+     */
+    private Mono<Integer> syncProducts() {
+        return Mono.defer(() -> {
+                log.info("Step 3: Syncing products to Meilisearch...");
+                syncHealthIndicator.updateStatus(
+                    SyncHealthIndicator.SyncState.IN_PROGRESS,
+                    "Starting initial product sync",
+                    0
+                );
+                return indexSyncService.syncAllProducts();
+            })
+            .doOnSuccess(count -> {
+                log.info("Product sync complete. {} products indexed", count);
+                syncHealthIndicator.updateStatus(
+                    SyncHealthIndicator.SyncState.HEALTHY,
+                    "Sync completed successfully",
+                    count != null ? count : 0
+                );
+            })
+            .doOnError(e -> {
+                log.error("Product sync failed", e);
+                syncHealthIndicator.updateStatus(
+                    SyncHealthIndicator.SyncState.FAILED,
+                    "Product sync failed: " + e.getMessage(),
+                    0
+                );
+            });
+    }
+
+    private Retry startupRetrySpec() {
+        SearchProperties.Sync syncConfig = searchProperties.getSync();
+
+        return Retry.backoff(syncConfig.getStartupMaxRetries(), Duration.ofMillis(syncConfig.getRetryDelayMs()))
+            .maxBackoff(Duration.ofMillis(syncConfig.getMaxRetryDelayMs()))
+            .doBeforeRetry(signal -> {
+                log.warn("Retrying search service initialization (attempt {}/{}): {}",
+                    signal.totalRetries() + 1,
+                    syncConfig.getStartupMaxRetries(),
+                    signal.failure().getMessage());
+                searchReadiness.markNotServing("Startup initialization retrying: " + signal.failure().getMessage());
+            })
+            .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure());
     }
 
-    private void syncProducts() {
-        log.info("Step 3: Syncing products to Meilisearch...");
-        
-        syncHealthIndicator.updateStatus(
-            SyncHealthIndicator.SyncState.IN_PROGRESS,
-            "Starting initial product sync",
-            0
-        );
-        
-        try {
-            Integer count = indexSyncService.syncAllProducts().block();
-            log.info("Product sync complete. {} products indexed", count);
-            
-            syncHealthIndicator.updateStatus(
-                SyncHealthIndicator.SyncState.HEALTHY,
-                "Sync completed successfully",
-                count != null ? count : 0
-            );
-        } catch (Exception e) {
-            log.error("Product sync failed", e);
-            syncHealthIndicator.updateStatus(
-                SyncHealthIndicator.SyncState.FAILED,
-                "Product sync failed: " + e.getMessage(),
-                0
-            );
-            // Don't throw - service can still work for search if index has data
-        }
+    private Duration taskTimeout() {
+        return Duration.ofMillis(searchProperties.getSync().getTaskTimeoutMs());
     }
 }
@@ -0,0 +1,155 @@
+package com.quickcommerce.search.service;
+
+import com.quickcommerce.search.client.InventoryClient;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.StoreLocationDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * In-memory copy of active store locations and service radii from product-service, used to resolve the
+ * serving store of a search from customer coordinates without a {@code /nearest-store} round trip.
+ *
+ * Stores are kept in primitive arrays sorted by latitude; a lookup binary-searches the latitude band the
+ * largest service radius can reach and computes haversine distances only for stores inside it.
+ * Reloaded every {@code search.geo.refresh-interval-ms} off the request path (first load at startup);
+ * a failed reload keeps the previous locations.
+ */
+@Slf4j
+@Component
+public class StoreLocator {
+
+    private static final double EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final InventoryClient inventoryClient;
+    private final SearchProperties searchProperties;
+
+    private volatile Locations locations = Locations.EMPTY;
+
+    public StoreLocator(InventoryClient inventoryClient, SearchProperties searchProperties) {
+        this.inventoryClient = inventoryClient;
+        this.searchProperties = searchProperties;
+    }
+
+    /**
+     * Whether store locations were loaded at least once
+     */
+    public boolean isLoaded() {
+        return locations.loaded();
+    }
+
+    /**
+     * Stores whose service radius covers the location, nearest first; the first one is the serving store
+     *
+     * @param limit Most stores returned
+     */
+    public List<StoreMatch> covering(double latitude, double longitude, int limit) {
+        Locations current = locations;
+        if (limit <= 0 || current.ids().length == 0) {
+            return List.of();
+        }
+        double band = current.maxRadiusKm() / KM_PER_DEGREE_LATITUDE;
+        double[] latitudes = current.latitudes();
+        List<StoreMatch> matches = new ArrayList<>();
+        for (int i = lowerBound(latitudes, latitude - band); i < latitudes.length && latitudes[i] <= latitude + band;
+             i++) {
+            double distanceKm = distanceKm(latitude, longitude, latitudes[i], current.longitudes()[i]);
+            if (distanceKm <= current.radiiKm()[i]) {
+                matches.add(new StoreMatch(current.ids()[i], distanceKm));
+            }
+        }
+        if (matches.size() > 1) {
+            matches.sort(Comparator.comparingDouble(StoreMatch::distanceKm));
+        }
+        return matches.size() > limit ? List.copyOf(matches.subList(0, limit)) : matches;
+    }
+
+    @Scheduled(fixedDelayString = "${search.geo.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!searchProperties.getGeo().isEnabled()) {
+            return;
+        }
+        load().subscribe(null,
+            e -> log.warn("Failed to refresh store locations, keeping the previous ones: {}", e.getMessage()));
+    }
+
+    Mono<Void> load() {
+        return inventoryClient.getStoreLocations()
+            .doOnNext(this::replace)
+            .then();
+    }
+
+    /**
+     * Replace all store locations; stores without coordinates or radius are skipped
+     */
+    public void replace(List<StoreLocationDto> stores) {
+        List<StoreLocationDto> usable = stores.stream()
+            .filter(store -> store.getId() != null && store.getLatitude() != null && store.getLongitude() != null
+                && store.getServiceableRadiusKm() != null)
+            .sorted(Comparator.comparingDouble(StoreLocationDto::getLatitude))
+            .toList();
+        int n = usable.size();
+        long[] ids = new long[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] radiiKm = new double[n];
+        double maxRadiusKm = 0;
+        for (int i = 0; i < n; i++) {
+            StoreLocationDto store = usable.get(i);
+            ids[i] = store.getId();
+            latitudes[i] = store.getLatitude();
+            longitudes[i] = store.getLongitude();
+            radiiKm[i] = store.getServiceableRadiusKm();
+            maxRadiusKm = Math.max(maxRadiusKm, radiiKm[i]);
+        }
+        locations = new Locations(ids, latitudes, longitudes, radiiKm, maxRadiusKm, true);
+        log.debug("Store locations loaded: {} stores, max radius {} km", n, maxRadiusKm);
+    }
+
+    /**
+     * Great-circle distance, same formula as product-service {@code Store.calculateDistanceKm}
+     */
+    static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    /**
+     * First index whose latitude is at least {@code latitude}
+     */
+    private static int lowerBound(double[] latitudes, double latitude) {
+        int i = Arrays.binarySearch(latitudes, latitude);
+        if (i < 0) {
+            return -i - 1;
+        }
+        while (i > 0 && latitudes[i - 1] == latitude) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * A store covering the location and its distance from it
+     */
+    public record StoreMatch(Long storeId, double distanceKm) {
+    }
+
+    private record Locations(long[] ids, double[] latitudes, double[] longitudes, double[] radiiKm,
+                             double maxRadiusKm, boolean loaded) {
+
+        static final Locations EMPTY = new Locations(new long[0], new double[0], new double[0], new double[0], 0,
+            false);
+    }
+}
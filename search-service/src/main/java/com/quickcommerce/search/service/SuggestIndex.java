@@ -0,0 +1,492 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.analytics.QueryAnalytics;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SuggestResponse;
+import com.quickcommerce.search.entity.SearchSynonym;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.repository.SearchSynonymRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory prefix index behind {@code GET /search/suggest}.
+ *
+ * Suggestion terms come from product names, brands and category names (weighted by order count, scoped to
+ * the stores that stock the product), active synonyms (all stores) and queries that returned results
+ * (scoped to the stores they were searched in). Query popularity is read from the {@link QueryAnalytics}
+ * rolling window on each rebuild, so searches are recorded once, by analytics. Terms are kept in an immutable snapshot of sorted keys:
+ * the full term plus each word-boundary suffix, so "gold" finds "amul gold milk". A prefix lookup is a
+ * binary search plus a scan of the matching key range; the best candidates for 1–2 character prefixes,
+ * whose ranges are largest, are precomputed.
+ *
+ * Product terms follow the index: a full sync replaces them on swap ({@link #replaceProducts}) and
+ * incremental indexing applies the same partial documents it sent to Meilisearch ({@link #applyPartials}).
+ * Changes only mark the index dirty; the snapshot is rebuilt off the request path by {@link #refresh()}.
+ */
+@Slf4j
+@Service
+public class SuggestIndex {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {
+    };
+
+    private static final long[] NO_STORES = new long[0];
+
+    /**
+     * Word-boundary suffixes indexed per term beyond the full text
+     */
+    private static final int MAX_SUFFIX_WORDS = 4;
+
+    private final SearchSynonymRepository synonymRepository;
+    private final QueryAnalytics queryAnalytics;
+    private final SearchProperties searchProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, ProductTerms> products = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long builtAtMillis = 0L;
+
+    public SuggestIndex(SearchSynonymRepository synonymRepository,
+                        QueryAnalytics queryAnalytics,
+                        SearchProperties searchProperties,
+                        ObjectMapper objectMapper) {
+        this.synonymRepository = synonymRepository;
+        this.queryAnalytics = queryAnalytics;
+        this.searchProperties = searchProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Best suggestions for a typed prefix, optionally limited to terms available in one store
+     */
+    public List<SuggestResponse.Suggestion> suggest(String prefix, Long storeId, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        int[] top = current.headCandidates.get(key);
+        if (top != null) {
+            List<SuggestResponse.Suggestion> head = collect(current, top, top.length, storeId, limit);
+            // A short head list holds every term for the prefix; a full one may be missing store-scoped terms
+            if (head.size() == limit || top.length < searchProperties.getSuggest().getHeadCandidates()) {
+                return head;
+            }
+        } else if (key.length() <= searchProperties.getSuggest().getHeadPrefixLength()) {
+            return List.of();
+        }
+        return scan(current, key, storeId, limit);
+    }
+
+    /**
+     * Replace all product terms with what a full sync just swapped live
+     */
+    public void replaceProducts(Rebuild rebuild) {
+        products.clear();
+        products.putAll(rebuild.products);
+        dirty.set(true);
+        log.debug("Suggest index: {} products from full sync", rebuild.products.size());
+    }
+
+    /**
+     * Apply the partial documents incremental indexing sent to Meilisearch
+     */
+    public void applyPartials(Collection<Map<String, Object>> partials) {
+        for (Map<String, Object> partial : partials) {
+            Long id = toLong(partial.get("id"));
+            if (id != null) {
+                products.compute(id, (k, existing) -> (existing != null ? existing : ProductTerms.EMPTY).merge(partial));
+            }
+        }
+        if (!partials.isEmpty()) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Rebuild the snapshot when product terms changed, or periodically to pick up synonyms and query counts
+     */
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:5000}")
+    public void refresh() {
+        SearchProperties.Suggest config = searchProperties.getSuggest();
+        boolean stale = System.currentTimeMillis() - builtAtMillis >= config.getRefreshIntervalMs();
+        if (!config.isEnabled() || (!dirty.get() && !stale) || !rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildSnapshot()
+            .doFinally(signal -> rebuilding.set(false))
+            .subscribe(null, e -> {
+                dirty.set(true);
+                log.warn("Suggest index rebuild failed, keeping the previous snapshot: {}", e.getMessage());
+            });
+    }
+
+    Mono<Void> rebuildSnapshot() {
+        return Mono.defer(() -> {
+            dirty.set(false);
+            return synonymRepository.findAllByIsActiveTrue()
+                .collectList()
+                // Sorting a few hundred thousand keys is CPU work, keep it off the R2DBC event loop
+                .publishOn(Schedulers.parallel())
+                .map(this::build)
+                .doOnNext(built -> {
+                    snapshot = built;
+                    builtAtMillis = System.currentTimeMillis();
+                })
+                .then();
+        });
+    }
+
+    int termCount() {
+        return snapshot.texts.length;
+    }
+
+    private Snapshot build(List<SearchSynonym> synonyms) {
+        long start = System.nanoTime();
+        SearchProperties.Suggest config = searchProperties.getSuggest();
+        boolean inStockOnly = searchProperties.getStock().isIndexFilter();
+        Map<String, TermBuilder> terms = new HashMap<>();
+
+        for (ProductTerms product : products.values()) {
+            long[] stores = inStockOnly ? product.inStockStoreIds() : product.storeIds();
+            if (!product.active() || stores.length == 0) {
+                continue;
+            }
+            double weight = 1 + Math.max(0, product.orderCount());
+            addTerm(terms, product.name(), SuggestType.PRODUCT, weight, stores);
+            addTerm(terms, product.brand(), SuggestType.BRAND, weight, stores);
+            addTerm(terms, product.categoryName(), SuggestType.CATEGORY, weight, stores);
+        }
+        for (SearchSynonym synonym : synonyms) {
+            addTerm(terms, synonym.getTerm(), SuggestType.SYNONYM, config.getSynonymWeight(), null);
+            for (String alternative : parseSynonyms(synonym)) {
+                addTerm(terms, alternative, SuggestType.SYNONYM, config.getSynonymWeight(), null);
+            }
+        }
+        for (QueryAnalytics.QueryHits query : queryAnalytics.queriesWithResults(config.getMaxTrackedQueries())) {
+            int length = query.query().length();
+            if (length < config.getMinQueryLength() || length > config.getMaxQueryLength()) {
+                continue;
+            }
+            addTerm(terms, query.query(), SuggestType.QUERY, query.searches() * config.getQueryWeight(),
+                query.storeIds().length == 0 ? null : query.storeIds());
+        }
+
+        Snapshot built = Snapshot.of(terms.values(), config.getHeadPrefixLength(), config.getHeadCandidates());
+        log.debug("Suggest index rebuilt: {} terms, {} keys in {}ms", built.texts.length, built.keys.length,
+            (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private static void addTerm(Map<String, TermBuilder> terms, String text, SuggestType type, double weight,
+                                long[] stores) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+        terms.computeIfAbsent(key, k -> new TermBuilder(k, text.trim())).add(type, weight, stores);
+    }
+
+    private List<String> parseSynonyms(SearchSynonym synonym) {
+        if (synonym.getSynonymsJson() == null) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(synonym.getSynonymsJson(), STRING_LIST);
+        } catch (Exception e) {
+            log.warn("Skipping unreadable synonyms for '{}': {}", synonym.getTerm(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static List<SuggestResponse.Suggestion> collect(Snapshot current, int[] termIds, int length, Long storeId,
+                                                            int limit) {
+        List<SuggestResponse.Suggestion> result = new ArrayList<>(Math.min(limit, length));
+        for (int i = 0; i < length && result.size() < limit; i++) {
+            int term = termIds[i];
+            if (current.availableIn(term, storeId)) {
+                result.add(current.suggestion(term));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Top {@code limit} distinct terms over the sorted key range sharing the prefix.
+     * Term IDs are assigned in descending score order, so the best terms are the smallest IDs.
+     */
+    private static List<SuggestResponse.Suggestion> scan(Snapshot current, String key, Long storeId, int limit) {
+        int[] top = new int[limit];
+        int size = 0;
+        for (int i = lowerBound(current.keys, key); i < current.keys.length && current.keys[i].startsWith(key); i++) {
+            int term = current.keyTerms[i];
+            if ((size == limit && term >= top[size - 1]) || contains(top, size, term)
+                || !current.availableIn(term, storeId)) {
+                continue;
+            }
+            int pos = size < limit ? size++ : size - 1;
+            while (pos > 0 && top[pos - 1] > term) {
+                top[pos] = top[pos - 1];
+                pos--;
+            }
+            top[pos] = term;
+        }
+        return collect(current, top, size, null, limit);
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static long[] toStoreArray(Collection<?> storeIds) {
+        if (storeIds == null || storeIds.isEmpty()) {
+            return NO_STORES;
+        }
+        return storeIds.stream()
+            .filter(Number.class::isInstance)
+            .mapToLong(id -> ((Number) id).longValue())
+            .sorted()
+            .distinct()
+            .toArray();
+    }
+
+    /**
+     * Product terms collected from a full sync while it streams the catalog into staging.
+     * Only handed to the index once the staging index has been swapped live.
+     */
+    public static class Rebuild {
+
+        private final Map<Long, ProductTerms> products = new ConcurrentHashMap<>();
+
+        public void addAll(List<ProductDocument> documents) {
+            for (ProductDocument document : documents) {
+                if (document.getId() != null) {
+                    products.put(document.getId(), ProductTerms.of(document));
+                }
+            }
+        }
+    }
+
+    enum SuggestType {
+        PRODUCT, BRAND, CATEGORY, SYNONYM, QUERY;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Suggestion-relevant fields of one indexed product; store arrays are sorted
+     */
+    record ProductTerms(String name, String brand, String categoryName, int orderCount, boolean active,
+                        long[] storeIds, long[] inStockStoreIds) {
+
+        static final ProductTerms EMPTY = new ProductTerms(null, null, null, 0, true, NO_STORES, NO_STORES);
+
+        static ProductTerms of(ProductDocument document) {
+            return new ProductTerms(document.getName(), document.getBrand(), document.getCategoryName(),
+                document.getOrderCount() != null ? document.getOrderCount() : 0,
+                !Boolean.FALSE.equals(document.getIsActive()),
+                toStoreArray(document.getStoreIds()), toStoreArray(document.getInStockStoreIds()));
+        }
+
+        /**
+         * Overlay the fields present in a partial document
+         */
+        ProductTerms merge(Map<String, Object> partial) {
+            return new ProductTerms(
+                partial.containsKey("name") ? (String) partial.get("name") : name,
+                partial.containsKey("brand") ? (String) partial.get("brand") : brand,
+                partial.containsKey("categoryName") ? (String) partial.get("categoryName") : categoryName,
+                partial.containsKey("orderCount") && partial.get("orderCount") instanceof Number count
+                    ? count.intValue() : orderCount,
+                partial.containsKey("isActive") ? !Boolean.FALSE.equals(partial.get("isActive")) : active,
+                partial.containsKey("storeIds") ? toStoreArray((Collection<?>) partial.get("storeIds")) : storeIds,
+                partial.containsKey("inStockStoreIds")
+                    ? toStoreArray((Collection<?>) partial.get("inStockStoreIds")) : inStockStoreIds);
+        }
+    }
+
+    /**
+     * Accumulates one distinct term across all sources while a snapshot is built
+     */
+    private static final class TermBuilder {
+        private final String key;
+        private final String display;
+        private double score;
+        private SuggestType type;
+        private double typeWeight;
+        private Set<Long> stores = new HashSet<>();
+
+        TermBuilder(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+
+        void add(SuggestType source, double weight, long[] sourceStores) {
+            score += weight;
+            if (type == null || weight > typeWeight) {
+                type = source;
+                typeWeight = weight;
+            }
+            if (sourceStores == null) {
+                stores = null; // available everywhere
+            } else if (stores != null) {
+                for (long store : sourceStores) {
+                    stores.add(store);
+                }
+            }
+        }
+    }
+
+    /**
+     * Immutable lookup structure; replaced wholesale so readers never lock
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new int[0], new String[0], new SuggestType[0],
+            new long[0][], Map.of());
+
+        /**
+         * Sorted normalized keys (full terms and word-boundary suffixes) and the term each belongs to
+         */
+        final String[] keys;
+        final int[] keyTerms;
+        final String[] texts;
+        final SuggestType[] types;
+        /**
+         * Sorted store IDs per term, null when the term is suggested in every store
+         */
+        final long[][] stores;
+        /**
+         * Short prefix → term IDs by descending score, capped at {@code headCandidates}
+         */
+        final Map<String, int[]> headCandidates;
+
+        private Snapshot(String[] keys, int[] keyTerms, String[] texts, SuggestType[] types, long[][] stores,
+                         Map<String, int[]> headCandidates) {
+            this.keys = keys;
+            this.keyTerms = keyTerms;
+            this.texts = texts;
+            this.types = types;
+            this.stores = stores;
+            this.headCandidates = headCandidates;
+        }
+
+        static Snapshot of(Collection<TermBuilder> builders, int headPrefixLength, int headCandidates) {
+            // Term IDs in descending score order, so lower IDs always rank higher
+            List<TermBuilder> ordered = new ArrayList<>(builders);
+            ordered.sort(Comparator.comparingDouble((TermBuilder t) -> t.score).reversed()
+                .thenComparing(t -> t.key));
+
+            int termCount = ordered.size();
+            String[] texts = new String[termCount];
+            SuggestType[] types = new SuggestType[termCount];
+            long[][] stores = new long[termCount][];
+            List<Map.Entry<String, Integer>> keyList = new ArrayList<>(termCount * 2);
+            Map<String, List<Integer>> head = new HashMap<>();
+
+            for (int id = 0; id < termCount; id++) {
+                TermBuilder term = ordered.get(id);
+                texts[id] = term.display;
+                types[id] = term.type;
+                stores[id] = term.stores == null ? null
+                    : term.stores.stream().mapToLong(Long::longValue).sorted().toArray();
+
+                Set<String> termKeys = new HashSet<>();
+                termKeys.add(term.key);
+                int words = 0;
+                for (int i = term.key.indexOf(' '); i >= 0 && words < MAX_SUFFIX_WORDS; i = term.key.indexOf(' ', i + 1)) {
+                    termKeys.add(term.key.substring(i + 1));
+                    words++;
+                }
+                Set<String> prefixes = new HashSet<>();
+                for (String key : termKeys) {
+                    keyList.add(Map.entry(key, id));
+                    for (int length = 1; length <= Math.min(headPrefixLength, key.length()); length++) {
+                        prefixes.add(key.substring(0, length));
+                    }
+                }
+                for (String prefix : prefixes) {
+                    List<Integer> candidates = head.computeIfAbsent(prefix, p -> new ArrayList<>());
+                    if (candidates.size() < headCandidates) {
+                        candidates.add(id); // IDs arrive in score order
+                    }
+                }
+            }
+
+            keyList.sort(Map.Entry.comparingByKey());
+            String[] keys = new String[keyList.size()];
+            int[] keyTerms = new int[keyList.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = keyList.get(i).getKey();
+                keyTerms[i] = keyList.get(i).getValue();
+            }
+            Map<String, int[]> headCandidateIds = new HashMap<>(head.size() * 2);
+            head.forEach((prefix, ids) -> headCandidateIds.put(prefix, ids.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(keys, keyTerms, texts, types, stores, headCandidateIds);
+        }
+
+        boolean availableIn(int term, Long storeId) {
+            return storeId == null || stores[term] == null || Arrays.binarySearch(stores[term], storeId) >= 0;
+        }
+
+        SuggestResponse.Suggestion suggestion(int term) {
+            return SuggestResponse.Suggestion.builder()
+                .text(texts[term])
+                .type(types[term].label())
+                .build();
+        }
+    }
+}
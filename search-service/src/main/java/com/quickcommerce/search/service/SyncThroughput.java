@@ -0,0 +1,52 @@
+package com.quickcommerce.search.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-stage document counts and busy time for one full sync run.
+ * Busy time is summed across concurrent work, so docs/busy-second is the stage's own rate while
+ * docs/wall-second is what the pipeline achieved; the stage with the most busy time is the bottleneck
+ * (ideally INGEST_WAIT, i.e. Meilisearch).
+ */
+final class SyncThroughput {
+
+    enum Stage {
+        FETCH, ENRICH, SERIALIZE, ENQUEUE, INGEST_WAIT
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Stage, LongAdder> documents = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> busyNanos = new EnumMap<>(Stage.class);
+
+    SyncThroughput() {
+        for (Stage stage : Stage.values()) {
+            documents.put(stage, new LongAdder());
+            busyNanos.put(stage, new LongAdder());
+        }
+    }
+
+    void record(Stage stage, int docs, long startedAtNanos) {
+        documents.get(stage).add(docs);
+        busyNanos.get(stage).add(System.nanoTime() - startedAtNanos);
+    }
+
+    long documents(Stage stage) {
+        return documents.get(stage).sum();
+    }
+
+    String summary() {
+        long wallMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        StringBuilder sb = new StringBuilder("wall ").append(wallMs).append("ms");
+        for (Stage stage : Stage.values()) {
+            long docs = documents.get(stage).sum();
+            long busyMs = TimeUnit.NANOSECONDS.toMillis(busyNanos.get(stage).sum());
+            sb.append(" | ").append(stage.name().toLowerCase())
+                    .append(' ').append(docs).append(" docs, busy ").append(busyMs).append("ms, ")
+                    .append(docs * 1000 / wallMs).append("/s");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.quickcommerce.search.shadow;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Agreement of two result lists over their top {@code depth} positions.
+ *
+ * @param overlap         Shared results over the longer of the two top-N lists (1.0 when both are empty)
+ * @param rankCorrelation Kendall tau of the shared results' positions; null when fewer than two are shared
+ * @param shared          Number of shared results
+ */
+public record RankComparison(double overlap, Double rankCorrelation, int shared) {
+
+    /**
+     * Compare the top {@code depth} product ids of the served and the shadow list
+     */
+    public static RankComparison of(List<Long> live, List<Long> shadow, int depth) {
+        int liveSize = Math.min(depth, live.size());
+        int shadowSize = Math.min(depth, shadow.size());
+        if (liveSize == 0 && shadowSize == 0) {
+            return new RankComparison(1.0, null, 0);
+        }
+        Map<Long, Integer> shadowPositions = new HashMap<>(shadowSize * 2);
+        for (int i = 0; i < shadowSize; i++) {
+            shadowPositions.putIfAbsent(shadow.get(i), i);
+        }
+        // Shadow positions of the shared results, in served order
+        int[] positions = new int[liveSize];
+        int shared = 0;
+        for (int i = 0; i < liveSize; i++) {
+            Integer position = shadowPositions.remove(live.get(i));
+            if (position != null) {
+                positions[shared++] = position;
+            }
+        }
+        double overlap = shared / (double) Math.max(liveSize, shadowSize);
+        return new RankComparison(overlap, kendallTau(positions, shared), shared);
+    }
+
+    /**
+     * Kendall tau of {@code positions[0..n)} against 0..n-1: (concordant - discordant) / pairs
+     */
+    private static Double kendallTau(int[] positions, int n) {
+        if (n < 2) {
+            return null;
+        }
+        long concordant = 0;
+        long discordant = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (positions[i] < positions[j]) {
+                    concordant++;
+                } else {
+                    discordant++;
+                }
+            }
+        }
+        return (concordant - discordant) / (double) (concordant + discordant);
+    }
+}
@@ -0,0 +1,236 @@
+package com.quickcommerce.search.shadow;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.ShadowReport;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.model.ProductSearchResult;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
+import com.quickcommerce.search.provider.SearchQuery;
+import com.quickcommerce.search.provider.WebClientSearchEngine;
+import com.quickcommerce.search.ranking.RankingFeature;
+import com.quickcommerce.search.ranking.RankingRequest;
+import com.quickcommerce.search.ranking.TopKRankingEngine;
+import com.quickcommerce.search.service.RankingService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shadow evaluation of ranking, settings and engine changes on live traffic.
+ *
+ * A sampled share of served searches ({@code search.shadow.sample-rate}) is replayed after the response was
+ * built, against one target: the same hits re-ranked with candidate weights ({@code ranking}), a Meilisearch
+ * index holding candidate settings ({@code index}) or the Lucene standby ({@code lucene}). Replays skip the
+ * availability check, the result cache, the circuit breaker and query analytics, so they never change what
+ * users see or what production metrics count. They run on their own bounded scheduler; while
+ * {@code max-concurrent} replays are in flight further samples are shed.
+ *
+ * Each replay is compared with the served list over the top {@code depth} positions (overlap and Kendall tau,
+ * {@link RankComparison}) and recorded as {@code search.shadow.*} metrics and in the admin report.
+ */
+@Slf4j
+@Component
+public class ShadowEvaluator {
+
+    static final String RANKING = "ranking";
+    static final String INDEX = "index";
+    static final String LUCENE = "lucene";
+
+    private final SearchProperties searchProperties;
+    private final SearchMetrics searchMetrics;
+    private final RankingService rankingService;
+    private final LuceneSearchEngine standby;
+    private final ObjectProvider<WebClientSearchEngine> webClientSearchEngine;
+    private final TopKRankingEngine shadowRanking;
+    private final Scheduler scheduler;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder compared = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final DoubleAdder overlapSum = new DoubleAdder();
+    private final DoubleAdder rankCorrelationSum = new DoubleAdder();
+    private final LongAdder rankCorrelations = new LongAdder();
+    private final LongAdder liveNanosSum = new LongAdder();
+    private final LongAdder shadowNanosSum = new LongAdder();
+    private final Deque<ShadowReport.Comparison> recent = new ArrayDeque<>();
+
+    public ShadowEvaluator(SearchProperties searchProperties,
+                           SearchMetrics searchMetrics,
+                           RankingService rankingService,
+                           LuceneSearchEngine standby,
+                           ObjectProvider<WebClientSearchEngine> webClientSearchEngine,
+                           List<RankingFeature> features) {
+        this.searchProperties = searchProperties;
+        this.searchMetrics = searchMetrics;
+        this.rankingService = rankingService;
+        this.standby = standby;
+        this.webClientSearchEngine = webClientSearchEngine;
+        // Same features, weighted by the candidate search.shadow.ranking
+        SearchProperties candidate = new SearchProperties();
+        candidate.setRanking(searchProperties.getShadow().getRanking());
+        this.shadowRanking = new TopKRankingEngine(candidate, features);
+        int threads = Math.max(1, searchProperties.getShadow().getMaxConcurrent());
+        this.scheduler = Schedulers.newBoundedElastic(threads, threads, "search-shadow");
+    }
+
+    /**
+     * Maybe replay a served search; returns at once, the comparison happens in the background
+     *
+     * @param query  Engine call of the served search
+     * @param served Results as served, in order
+     * @param liveMs Latency of the served search
+     */
+    public void offer(SearchQuery query, List<ProductDocument> served, long liveMs) {
+        SearchProperties.Shadow config = searchProperties.getShadow();
+        if (!config.isEnabled() || ThreadLocalRandom.current().nextDouble() >= config.getSampleRate()) {
+            return;
+        }
+        String target = config.getTarget();
+        if (inFlight.incrementAndGet() > Math.max(1, config.getMaxConcurrent())) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            searchMetrics.recordShadow(target, "shed");
+            return;
+        }
+        List<ProductDocument> live = List.copyOf(served);
+        Mono.defer(() -> replay(target, query, live))
+            .subscribeOn(scheduler)
+            .timeout(Duration.ofMillis(config.getTimeoutMs()))
+            .elapsed()
+            .doFinally(signal -> inFlight.decrementAndGet())
+            .subscribe(timed -> record(target, query, live, TimeUnit.MILLISECONDS.toNanos(liveMs),
+                    TimeUnit.MILLISECONDS.toNanos(timed.getT1()), timed.getT2()),
+                e -> {
+                    failed.increment();
+                    searchMetrics.recordShadow(target, "failed");
+                    log.debug("Shadow replay of '{}' against {} failed: {}", query.query(), target, e.getMessage());
+                });
+    }
+
+    /**
+     * Results the target returns for the served search, ranked like the served ones
+     */
+    private Mono<List<ProductDocument>> replay(String target, SearchQuery query, List<ProductDocument> live) {
+        return switch (target) {
+            case RANKING -> Mono.fromCallable(
+                () -> shadowRanking.rank(live, RankingRequest.of(query.storeId(), query.pageSize())));
+            case INDEX -> {
+                WebClientSearchEngine meilisearch = webClientSearchEngine.getIfAvailable();
+                if (meilisearch == null) {
+                    yield Mono.error(new IllegalStateException("Shadow index needs meilisearch.client=webclient"));
+                }
+                yield meilisearch.search(searchProperties.getShadow().getIndexName(), query)
+                    .map(result -> rank(query, result));
+            }
+            case LUCENE -> standby.search(query).map(result -> rank(query, result));
+            default -> Mono.error(new IllegalArgumentException("Unknown shadow target: " + target));
+        };
+    }
+
+    /**
+     * Engine targets: hits ranked by the live ranking, so only the engine differs
+     */
+    private List<ProductDocument> rank(SearchQuery query, ProductSearchResult result) {
+        List<ProductDocument> hits = result.getHits() != null ? result.getHits() : List.of();
+        return rankingService.rank(hits, query.storeId(), query.pageSize());
+    }
+
+    private void record(String target, SearchQuery query, List<ProductDocument> live, long liveNanos,
+                        long shadowNanos, List<ProductDocument> shadow) {
+        int depth = Math.max(1, searchProperties.getShadow().getDepth());
+        List<Long> liveIds = topIds(live, depth);
+        List<Long> shadowIds = topIds(shadow, depth);
+        RankComparison comparison = RankComparison.of(liveIds, shadowIds, depth);
+
+        searchMetrics.recordShadow(target, "compared");
+        searchMetrics.recordShadowComparison(target, comparison.overlap(), comparison.rankCorrelation(), liveNanos,
+            shadowNanos);
+
+        ShadowReport.Comparison entry = ShadowReport.Comparison.builder()
+            .query(query.query())
+            .storeId(query.storeId())
+            .overlap(comparison.overlap())
+            .rankCorrelation(comparison.rankCorrelation())
+            .liveMs(TimeUnit.NANOSECONDS.toMillis(liveNanos))
+            .shadowMs(TimeUnit.NANOSECONDS.toMillis(shadowNanos))
+            .liveIds(liveIds)
+            .shadowIds(shadowIds)
+            .comparedAt(LocalDateTime.now())
+            .build();
+        synchronized (recent) {
+            recent.addLast(entry);
+            while (recent.size() > Math.max(0, searchProperties.getShadow().getReportSize())) {
+                recent.removeFirst();
+            }
+        }
+        overlapSum.add(comparison.overlap());
+        if (comparison.rankCorrelation() != null) {
+            rankCorrelationSum.add(comparison.rankCorrelation());
+            rankCorrelations.increment();
+        }
+        liveNanosSum.add(liveNanos);
+        shadowNanosSum.add(shadowNanos);
+        compared.increment();
+    }
+
+    /**
+     * Comparison totals since startup and the most divergent recent comparisons
+     */
+    public ShadowReport report(int limit) {
+        SearchProperties.Shadow config = searchProperties.getShadow();
+        long comparisons = compared.sum();
+        long correlations = rankCorrelations.sum();
+        List<ShadowReport.Comparison> divergent;
+        synchronized (recent) {
+            divergent = recent.stream()
+                .sorted(Comparator.comparing(ShadowReport.Comparison::getOverlap)
+                    .thenComparing(c -> c.getRankCorrelation() != null ? c.getRankCorrelation() : 1.0))
+                .limit(limit)
+                .toList();
+        }
+        return ShadowReport.builder()
+            .enabled(config.isEnabled())
+            .target(config.getTarget())
+            .sampleRate(config.getSampleRate())
+            .depth(config.getDepth())
+            .compared(comparisons)
+            .shed(shed.sum())
+            .failed(failed.sum())
+            .meanOverlap(comparisons == 0 ? null : overlapSum.sum() / comparisons)
+            .meanRankCorrelation(correlations == 0 ? null : rankCorrelationSum.sum() / correlations)
+            .meanLiveMs(comparisons == 0 ? null : liveNanosSum.sum() / 1e6 / comparisons)
+            .meanShadowMs(comparisons == 0 ? null : shadowNanosSum.sum() / 1e6 / comparisons)
+            .divergent(divergent)
+            .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    private static List<Long> topIds(List<ProductDocument> documents, int depth) {
+        return documents.stream()
+            .limit(depth)
+            .map(ProductDocument::getId)
+            .toList();
+    }
+}
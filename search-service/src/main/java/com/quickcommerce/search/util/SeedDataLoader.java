@@ -56,6 +56,11 @@ public class SeedDataLoader {
 
                 log.info("Loaded {} sample products from JSON", products.size());
 
+                // Sample data has no stock levels: treat the whole assortment as in stock
+                products.stream()
+                    .filter(product -> product.getInStockStoreIds() == null)
+                    .forEach(product -> product.setInStockStoreIds(product.getStoreIds()));
+
                 // Upsert products to Meilisearch
                 meilisearchProvider.upsertDocuments(products);
 
@@ -44,5 +44,9 @@ public abstract class AbstractIntegrationTest {
 
         registry.add("clients.inventory.url", () -> wireMockServer.baseUrl());
         registry.add("clients.catalog.url", () -> wireMockServer.baseUrl());
+
+        // Startup runs in the background; tests seed the index themselves
+        registry.add("search.sync.enable-on-startup", () -> false);
+        registry.add("search.snapshot.enabled", () -> false);
     }
 }
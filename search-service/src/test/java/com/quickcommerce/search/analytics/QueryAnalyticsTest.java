@@ -0,0 +1,167 @@
+package com.quickcommerce.search.analytics;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.QueryAnalyticsResponse;
+import com.quickcommerce.search.entity.SearchQueryLog;
+import com.quickcommerce.search.repository.SearchQueryLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for QueryAnalytics: non-blocking recording, batched persistence and rolling aggregates.
+ * No Docker / MySQL required.
+ */
+class QueryAnalyticsTest {
+
+    private SearchQueryLogRepository repository;
+    private SearchProperties searchProperties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(SearchQueryLogRepository.class);
+        when(repository.insertBatch(anyList())).thenAnswer(inv -> Mono.just((long) inv.<List<?>>getArgument(0).size()));
+        searchProperties = new SearchProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("a full buffer drops events instead of blocking and drained events are inserted in batches")
+    void dropsWhenFullAndPersistsInBatches() {
+        searchProperties.getAnalytics().setBufferSize(4);
+        searchProperties.getAnalytics().setBatchSize(3);
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+
+        for (int i = 0; i < 6; i++) {
+            analytics.recordSearch("milk", 1L, 10, 12, false);
+        }
+        assertThat(meterRegistry.get("search.analytics.dropped").functionCounter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("search.analytics.buffered").gauge().value()).isEqualTo(4.0);
+
+        analytics.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SearchQueryLog>> batches = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(2)).insertBatch(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(3, 1);
+        SearchQueryLog row = batches.getAllValues().get(0).get(0);
+        assertThat(row.getEventType()).isEqualTo("SEARCH");
+        assertThat(row.getQuery()).isEqualTo("milk");
+        assertThat(row.getLatencyMs()).isEqualTo(12);
+        assertThat(row.getProductId()).isNull();
+        assertThat(meterRegistry.get("search.analytics.buffered").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("events wait in the buffer while the batch writes in flight are at their limit")
+    void holdsEventsWhileWritesAreBusy() {
+        when(repository.insertBatch(anyList())).thenReturn(Mono.never());
+        searchProperties.getAnalytics().setBatchSize(2);
+        searchProperties.getAnalytics().setMaxInFlightBatches(1);
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            analytics.recordSearch("milk", 1L, 10, 12, false);
+        }
+        analytics.flush();
+        analytics.flush();
+
+        verify(repository, times(1)).insertBatch(anyList());
+        assertThat(analytics.report(10).getBufferedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("aggregates top queries, zero-result queries, click-through and latency by query")
+    void aggregates() {
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+        for (int i = 0; i < 6; i++) {
+            analytics.recordSearch("milk", 1L, 20, i == 5 ? 1000 : 10, false);
+        }
+        analytics.recordSearch("paneer", 1L, 3, 8, false);
+        analytics.recordSearch("paneer", 2L, 3, 9, false);
+        analytics.recordSearch("quinoa", 1L, 20, 15, true);
+        analytics.recordClick("milk", 1L, 100L, 1);
+        analytics.recordClick("milk", 1L, 101L, 3);
+        analytics.recordClick("milk", 1L, 100L, 1);
+
+        analytics.flush();
+        QueryAnalyticsResponse report = analytics.report(2);
+
+        assertThat(report.getSearches()).isEqualTo(9);
+        assertThat(report.getZeroResultSearches()).isEqualTo(1);
+        assertThat(report.getClicks()).isEqualTo(3);
+        assertThat(report.getTopQueries()).extracting(QueryAnalyticsResponse.QueryStat::getQuery)
+                .containsExactly("milk", "paneer");
+        QueryAnalyticsResponse.QueryStat milk = report.getTopQueries().get(0);
+        assertThat(milk.getClickThroughRate()).isEqualTo(0.5);
+        assertThat(milk.getAvgLatencyMs()).isEqualTo(175.0);
+        assertThat(milk.getP95LatencyMs()).isEqualTo(1000L);
+        assertThat(report.getZeroResultQueries()).extracting(QueryAnalyticsResponse.QueryStat::getQuery)
+                .containsExactly("quinoa");
+        // only queries with enough searches are ranked by latency
+        assertThat(report.getSlowestQueries()).extracting(QueryAnalyticsResponse.QueryStat::getQuery)
+                .containsExactly("milk");
+    }
+
+    @Test
+    @DisplayName("queries that found products are reported with the stores they found them in")
+    void queriesWithResults() {
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            analytics.recordSearch("milk", 1L, 20, 10, false);
+        }
+        analytics.recordSearch("milk", 2L, 20, 10, false);
+        analytics.recordSearch("milk", 3L, 0, 10, true);
+        analytics.recordSearch("paneer", 2L, 3, 8, false);
+        analytics.recordSearch("quinoa", 1L, 0, 15, true);
+
+        analytics.flush();
+        List<QueryAnalytics.QueryHits> hits = analytics.queriesWithResults(10);
+
+        assertThat(hits).extracting(QueryAnalytics.QueryHits::query).containsExactly("milk", "paneer");
+        assertThat(hits.get(0).searches()).isEqualTo(4);
+        assertThat(hits.get(0).storeIds()).containsExactly(1L, 2L);
+        assertThat(analytics.queriesWithResults(1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("queries beyond the per-bucket bound are counted under (other)")
+    void boundsTrackedQueries() {
+        searchProperties.getAnalytics().setMaxQueriesPerBucket(2);
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+        List.of("milk", "bread", "eggs", "butter").forEach(query -> analytics.recordSearch(query, 1L, 1, 5, false));
+
+        analytics.flush();
+
+        assertThat(analytics.report(10).getTopQueries()).extracting(QueryAnalyticsResponse.QueryStat::getQuery)
+                .containsExactly(QueryAnalytics.OTHER, "bread", "milk");
+    }
+
+    @Test
+    @DisplayName("disabled analytics records and persists nothing")
+    void disabled() {
+        searchProperties.getAnalytics().setEnabled(false);
+        QueryAnalytics analytics = new QueryAnalytics(repository, searchProperties, meterRegistry);
+
+        analytics.recordSearch("milk", 1L, 10, 12, false);
+        analytics.flush();
+
+        verify(repository, never()).insertBatch(anyList());
+        assertThat(analytics.report(10).getSearches()).isZero();
+    }
+}
@@ -0,0 +1,138 @@
+package com.quickcommerce.search.client;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.quickcommerce.common.codec.AvailabilityCodec;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.latency.Hedger;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.binaryEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for InventoryClientImpl availability checks against a stubbed product-service: the binary
+ * encoding, falling back to JSON when it is refused, and JSON only when binary is disabled.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class InventoryClientImplTest {
+
+    private static final String AVAILABILITY = "/api/v1/inventory/availability";
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    private WireMockServer productService;
+    private SearchProperties searchProperties;
+    private InventoryClientImpl client;
+
+    @BeforeEach
+    void setUp() {
+        productService = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        productService.start();
+
+        searchProperties = new SearchProperties();
+        client = new InventoryClientImpl(WebClient.builder(), productService.baseUrl(), Duration.ofSeconds(2),
+                CircuitBreaker.ofDefaults("inventoryService"), searchProperties,
+                new Hedger(searchProperties, searchMetrics), searchMetrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.stop();
+    }
+
+    @Test
+    @DisplayName("sends sorted varint IDs once and maps the returned bitset back to product IDs")
+    void binaryRoundTrip() {
+        BitSet inStock = new BitSet();
+        inStock.set(0);
+        inStock.set(2);
+        productService.stubFor(post(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", equalTo(AvailabilityCodec.MEDIA_TYPE))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", AvailabilityCodec.MEDIA_TYPE)
+                        .withBody(AvailabilityCodec.encodeResponse(3, inStock))));
+
+        StepVerifier.create(client.checkAvailability(1L, List.of(300L, 100L, 200L, 100L)))
+                .assertNext(response -> assertThat(response.getAvailability())
+                        .isEqualTo(Map.of(100L, true, 200L, false, 300L, true)))
+                .verifyComplete();
+
+        productService.verify(1, postRequestedFor(urlEqualTo(AVAILABILITY))
+                .withHeader("Accept", equalTo(AvailabilityCodec.MEDIA_TYPE))
+                .withRequestBody(binaryEqualTo(AvailabilityCodec.encodeRequest(1L, new long[]{100, 200, 300}))));
+    }
+
+    @Test
+    @DisplayName("a product-service refusing the binary encoding is asked in JSON, and keeps being asked in JSON")
+    void fallsBackToJson() {
+        productService.stubFor(post(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", equalTo(AvailabilityCodec.MEDIA_TYPE))
+                .willReturn(aResponse().withStatus(415)));
+        stubJson();
+
+        for (int call = 0; call < 2; call++) {
+            StepVerifier.create(client.checkAvailability(1L, List.of(100L, 200L)))
+                    .assertNext(response -> assertThat(response.getAvailability())
+                            .isEqualTo(Map.of(100L, true, 200L, false)))
+                    .verifyComplete();
+        }
+
+        productService.verify(1, postRequestedFor(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", equalTo(AvailabilityCodec.MEDIA_TYPE)));
+        productService.verify(2, postRequestedFor(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", containing("json")));
+    }
+
+    @Test
+    @DisplayName("with binary disabled, large checks go out as JSON batches of 50")
+    void jsonBatchesWhenBinaryDisabled() {
+        searchProperties.getStock().setBinaryAvailability(false);
+        stubJson();
+        List<Long> productIds = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            productIds.add(id);
+        }
+
+        StepVerifier.create(client.checkAvailability(1L, productIds))
+                .assertNext(response -> assertThat(response.getAvailability()).containsEntry(100L, true))
+                .verifyComplete();
+
+        productService.verify(3, postRequestedFor(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", containing("json")));
+    }
+
+    private void stubJson() {
+        productService.stubFor(post(urlEqualTo(AVAILABILITY))
+                .withHeader("Content-Type", containing("json"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"storeId":1,"availability":{"100":true,"200":false}}
+                                """)));
+    }
+}
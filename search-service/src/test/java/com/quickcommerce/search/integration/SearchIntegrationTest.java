@@ -43,6 +43,7 @@ class SearchIntegrationTest extends AbstractIntegrationTest {
                                 .brand("TestBrand")
                                 .price(BigDecimal.valueOf(10.0))
                                 .storeIds(List.of(1L))
+                                .inStockStoreIds(List.of(1L))
                                 .isActive(true)
                                 .isBestseller(false)
                                 .searchPriority(0)
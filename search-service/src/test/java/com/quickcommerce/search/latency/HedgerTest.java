@@ -0,0 +1,149 @@
+package com.quickcommerce.search.latency;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for Hedger: hedges only slow calls once enough latencies were seen, within the hedge budget and
+ * the request deadline.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class HedgerTest {
+
+    private static final String OPERATION = "meilisearch";
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    private SearchProperties searchProperties;
+    private Hedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        SearchProperties.Hedging hedging = searchProperties.getHedging();
+        hedging.setWindowSize(16);
+        hedging.setMinSamples(16);
+        hedging.setMinDelayMs(10);
+        hedging.setMaxDelayMs(10);
+        hedging.setMaxHedgeRatio(1.0);
+        hedger = new Hedger(searchProperties, searchMetrics);
+    }
+
+    @Test
+    @DisplayName("calls are not hedged before enough latencies were observed")
+    void noHedgeWithoutHistory() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(hedger.call(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(50)).thenReturn("first");
+                }))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(attempts).hasValue(1);
+        assertThat(hedger.delayNanos(OPERATION)).isNegative();
+    }
+
+    @Test
+    @DisplayName("a call slower than the observed percentile is answered by the hedge")
+    void slowCallIsHedged() {
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean firstCancelled = new AtomicBoolean(false);
+
+        StepVerifier.create(hedger.call(OPERATION, () -> attempts.incrementAndGet() == 1
+                        ? Mono.<String>never().doOnCancel(() -> firstCancelled.set(true))
+                        : Mono.just("hedge")))
+                .expectNext("hedge")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(attempts).hasValue(2);
+        assertThat(firstCancelled).isTrue();
+        verify(searchMetrics).recordHedge(OPERATION, "sent");
+        verify(searchMetrics).recordHedge(OPERATION, "won");
+        verify(searchMetrics).recordHedgeWaste(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("a first attempt that fails is not retried through the hedge")
+    void failedFirstAttemptIsNotHedged() {
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(hedger.call(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("down"));
+                }))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(attempts).hasValue(1);
+        verify(searchMetrics, never()).recordHedge(OPERATION, "sent");
+    }
+
+    @Test
+    @DisplayName("hedges beyond the hedge ratio are throttled")
+    void hedgesAreThrottled() {
+        searchProperties.getHedging().setMaxHedgeRatio(0.0);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(hedger.call(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(50)).thenReturn("first");
+                }))
+                .expectNext("first")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(attempts).hasValue(1);
+        verify(searchMetrics).recordHedge(OPERATION, "throttled");
+    }
+
+    @Test
+    @DisplayName("no hedge is sent when the request deadline expires before it could start")
+    void deadlineBoundsHedging() {
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        StepVerifier.create(hedger.call(OPERATION, () -> {
+                            attempts.incrementAndGet();
+                            return Mono.delay(Duration.ofMillis(30)).thenReturn("first");
+                        })
+                        .contextWrite(context -> RequestDeadline.start(context, Duration.ofMillis(5))))
+                .expectNext("first")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 16; i++) {
+            hedger.call(OPERATION, () -> Mono.just("warm")).block();
+        }
+        assertThat(hedger.delayNanos(OPERATION)).isEqualTo(Duration.ofMillis(10).toNanos());
+    }
+}
@@ -0,0 +1,64 @@
+package com.quickcommerce.search.latency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RequestDeadline: downstream calls wait for the shorter of their timeout and the remaining
+ * budget.
+ * No Docker / Meilisearch required.
+ */
+class RequestDeadlineTest {
+
+    private static final Duration MIN_BUDGET = Duration.ofMillis(5);
+
+    @Test
+    @DisplayName("the remaining budget shortens a longer call timeout")
+    void budgetShortensTimeout() {
+        Mono<String> slow = Mono.delay(Duration.ofMillis(500)).thenReturn("late");
+
+        StepVerifier.create(RequestDeadline.timeout(slow, Duration.ofSeconds(5), MIN_BUDGET)
+                        .contextWrite(context -> RequestDeadline.start(context, Duration.ofMillis(50))))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofMillis(400));
+    }
+
+    @Test
+    @DisplayName("a spent budget fails the call without starting it")
+    void spentBudgetFailsFast() {
+        AtomicBoolean subscribed = new AtomicBoolean(false);
+        Mono<String> call = Mono.fromCallable(() -> {
+            subscribed.set(true);
+            return "ok";
+        });
+
+        StepVerifier.create(RequestDeadline.timeout(call, Duration.ofSeconds(1), MIN_BUDGET)
+                        .contextWrite(context -> RequestDeadline.start(context, Duration.ofMillis(1))))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        assertThat(subscribed).isFalse();
+    }
+
+    @Test
+    @DisplayName("calls outside a request keep their own timeout, and an enclosing deadline is not extended")
+    void noDeadlineAndNestedDeadline() {
+        StepVerifier.create(RequestDeadline.timeout(Mono.just("ok"), Duration.ofSeconds(1), MIN_BUDGET))
+                .expectNext("ok")
+                .verifyComplete();
+
+        StepVerifier.create(Mono.deferContextual(context -> Mono.just(RequestDeadline.current(context).remaining()))
+                        .contextWrite(context -> RequestDeadline.start(context, Duration.ofSeconds(10)))
+                        .contextWrite(context -> RequestDeadline.start(context, Duration.ofMillis(100))))
+                .assertNext(remaining -> assertThat(remaining).isLessThanOrEqualTo(Duration.ofMillis(100)))
+                .verifyComplete();
+    }
+}
@@ -29,6 +29,7 @@ class ProductDocumentMapperTest {
         assertThat(doc.getUnitText()).isEqualTo("1L");
         assertThat(doc.getSku()).isEqualTo("MILK-001");
         assertThat(doc.getSlug()).isEqualTo("milk-1l");
+        assertThat(doc.getPriceBucket()).isEqualTo("0-50");
     }
 
     @Test
@@ -45,6 +46,19 @@ class ProductDocumentMapperTest {
         assertThat(doc.getPrice()).isEqualByComparingTo(BigDecimal.valueOf(1.49));
     }
 
+    @Test
+    void toProductDocument_priceBucketBoundaries() {
+        CatalogProductDto dto = new CatalogProductDto();
+        dto.setId(3L);
+
+        dto.setBasePrice(BigDecimal.valueOf(50));
+        assertThat(ProductDocumentMapper.toProductDocument(dto).getPriceBucket()).isEqualTo("50-100");
+        dto.setBasePrice(BigDecimal.valueOf(1299));
+        assertThat(ProductDocumentMapper.toProductDocument(dto).getPriceBucket()).isEqualTo("1000+");
+        dto.setBasePrice(null);
+        assertThat(ProductDocumentMapper.toProductDocument(dto).getPriceBucket()).isNull();
+    }
+
     @Test
     void toProductDocument_nullDtoReturnsNull() {
         assertThat(ProductDocumentMapper.toProductDocument(null)).isNull();
@@ -0,0 +1,105 @@
+package com.quickcommerce.search.metrics;
+
+import com.quickcommerce.search.config.SearchProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SearchMetrics and SearchTrace: bounded tag cardinality, result distribution and stage timings.
+ * No Docker / Meilisearch required.
+ */
+class SearchMetricsTest {
+
+    private MeterRegistry meterRegistry;
+    private SearchProperties searchProperties;
+    private SearchMetrics searchMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ObservationRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(observationRegistry);
+
+        searchProperties = new SearchProperties();
+        searchProperties.getMetrics().setMaxStoreTags(2);
+        searchProperties.getMetrics().setMaxErrorTypes(1);
+        searchProperties.getMetrics().setStageHeader(true);
+        searchMetrics = new SearchMetrics(meterRegistry, provider, searchProperties);
+    }
+
+    @Test
+    @DisplayName("stores beyond the tag limit are counted under store_id=other")
+    void boundsStoreTags() {
+        for (long storeId = 1; storeId <= 5; storeId++) {
+            searchMetrics.recordSearchByStore(storeId, 10);
+        }
+        searchMetrics.recordSearchByStore(1L, 10);
+
+        assertThat(meterRegistry.find("search.by_store.total").counters()).hasSize(3);
+        assertThat(meterRegistry.get("search.by_store.total").tag("store_id", "1").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("search.by_store.total").tag("store_id", "other").counter().count())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("error counters are registered once per type and bounded")
+    void cachesErrorCounters() {
+        searchMetrics.incrementSearchErrors("TimeoutException");
+        searchMetrics.incrementSearchErrors("TimeoutException");
+        searchMetrics.incrementSearchErrors("WebClientResponseException");
+
+        assertThat(meterRegistry.get("search.errors.total").tag("error_type", "TimeoutException").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("search.errors.total").tag("error_type", "other").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("result counts are recorded as a distribution, not a gauge")
+    void recordsResultDistribution() {
+        searchMetrics.recordSearchResults(0);
+        searchMetrics.recordSearchResults(20);
+
+        DistributionSummary summary = meterRegistry.get("search.results.count").summary();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(20.0);
+    }
+
+    @Test
+    @DisplayName("stages are timed per stage tag and reported in the Server-Timing header")
+    void timesStages() {
+        SearchTrace trace = searchMetrics.startTrace();
+
+        String normalized = trace.time(SearchTrace.Stage.NORMALIZE, () -> "milk");
+        StepVerifier.create(trace.time(SearchTrace.Stage.ENGINE, Mono.just(normalized)))
+                .expectNext("milk")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get(SearchTrace.STAGE_OBSERVATION).tag("stage", "engine").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find(SearchTrace.STAGE_OBSERVATION).tag("stage", "ranking").timer()).isNull();
+        assertThat(trace.serverTiming()).matches("normalize;dur=\\d+\\.\\d{2}, engine;dur=\\d+\\.\\d{2}");
+
+        searchProperties.getMetrics().setStageHeader(false);
+        assertThat(searchMetrics.startTrace().serverTiming()).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package com.quickcommerce.search.provider;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.latency.Hedger;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductSearchResult;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for FailoverSearchEngine: circuit-breaker driven failover to the standby and pinned engines.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FailoverSearchEngineTest {
+
+    @Mock
+    private ObjectProvider<WebClientSearchEngine> webClientProvider;
+
+    @Mock
+    private WebClientSearchEngine meilisearch;
+
+    @Mock
+    private MeilisearchProvider meilisearchProvider;
+
+    @Mock
+    private LuceneSearchEngine standby;
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    private final ProductSearchResult standbyResult = ProductSearchResult.builder().hits(List.of()).build();
+    private CircuitBreaker circuitBreaker;
+    private FailoverSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(webClientProvider.getIfAvailable(any())).thenReturn(meilisearch);
+        when(standby.isEnabled()).thenReturn(true);
+        when(standby.isReady()).thenReturn(true);
+        when(standby.search("milk", 1L, 1, 20)).thenReturn(Mono.just(standbyResult));
+
+        circuitBreaker = CircuitBreaker.ofDefaults("meilisearchService");
+        engine = new FailoverSearchEngine(webClientProvider, meilisearchProvider, standby, circuitBreaker,
+                new SearchProperties(), searchMetrics, new Hedger(new SearchProperties(), searchMetrics));
+    }
+
+    @Test
+    @DisplayName("a failed Meilisearch call is answered by the standby index")
+    void failsOverOnError() {
+        when(meilisearch.search("milk", 1L, 1, 20)).thenReturn(Mono.error(new TimeoutException("slow")));
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 20))
+                .expectNext(standbyResult)
+                .verifyComplete();
+
+        verify(searchMetrics).recordStandbySearch("failover");
+    }
+
+    @Test
+    @DisplayName("while the circuit is open Meilisearch is not called at all")
+    void skipsMeilisearchWhenOpen() {
+        circuitBreaker.transitionToOpenState();
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 20))
+                .expectNext(standbyResult)
+                .verifyComplete();
+
+        verify(meilisearch, never()).search("milk", 1L, 1, 20);
+    }
+
+    @Test
+    @DisplayName("the original error propagates while the standby has not been built")
+    void propagatesErrorWithoutStandby() {
+        when(standby.isReady()).thenReturn(false);
+        when(meilisearch.search("milk", 1L, 1, 20)).thenReturn(Mono.error(new TimeoutException("slow")));
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 20))
+                .expectError(TimeoutException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("requests pinned to an engine are not failed over")
+    void honoursPinnedEngine() {
+        when(meilisearch.search("milk", 1L, 1, 20)).thenReturn(Mono.error(new TimeoutException("slow")));
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 20, SearchEngineType.LUCENE))
+                .expectNext(standbyResult)
+                .verifyComplete();
+        StepVerifier.create(engine.search("milk", 1L, 1, 20, SearchEngineType.MEILISEARCH))
+                .expectError(TimeoutException.class)
+                .verify();
+
+        verify(searchMetrics).recordStandbySearch("requested");
+    }
+
+    @Test
+    @DisplayName("a failed multi-search is answered by the standby for every query")
+    void failsOverMultiSearch() {
+        List<SearchQuery> queries = List.of(new SearchQuery("milk", 1L, 1, 20, null, null, false));
+        when(meilisearch.multiSearch(queries)).thenReturn(Mono.error(new TimeoutException("slow")));
+        when(standby.multiSearch(queries)).thenReturn(Mono.just(List.of(standbyResult)));
+
+        StepVerifier.create(engine.multiSearch(queries))
+                .expectNext(List.of(standbyResult))
+                .verifyComplete();
+
+        verify(searchMetrics).recordStandbySearch("failover");
+    }
+}
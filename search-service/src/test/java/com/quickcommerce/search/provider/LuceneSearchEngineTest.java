@@ -0,0 +1,166 @@
+package com.quickcommerce.search.provider;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SearchFilters;
+import com.quickcommerce.search.entity.SearchSynonym;
+import com.quickcommerce.search.model.PriceBuckets;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.repository.SearchSynonymRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LuceneSearchEngine: BM25 field weighting, store filtering, synonyms and partial updates.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class LuceneSearchEngineTest {
+
+    @Mock
+    private SearchSynonymRepository synonymRepository;
+
+    private LuceneSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getStock().setIndexFilter(true);
+        engine = new LuceneSearchEngine(synonymRepository, searchProperties);
+
+        LuceneSearchEngine.Rebuild rebuild = new LuceneSearchEngine.Rebuild(true);
+        rebuild.addAll(List.of(
+                product(1L, "Amul Gold Milk", "Amul", List.of(1L, 2L)),
+                product(2L, "Milk Bikis Biscuits", "Britannia", List.of(1L)),
+                product(3L, "Amul Butter", "Amul", List.of(2L)),
+                product(4L, "Mother Dairy Toned Milk", "Mother Dairy", List.of())));
+        engine.replaceIndex(rebuild);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("only in-stock products of the store match; the best BM25 hit gets ranking score 1")
+    void filtersByStore() {
+        StepVerifier.create(engine.search("milk", 1L, 1, 10))
+                .assertNext(result -> {
+                    assertThat(result.getHits()).extracting(ProductDocument::getId)
+                            .containsExactlyInAnyOrder(1L, 2L);
+                    assertThat(result.getEstimatedTotalHits()).isEqualTo(2);
+                    assertThat(result.getHits().get(0).getRankingScore()).isEqualTo(1.0);
+                    assertThat(result.getHits().get(0).getPrice()).isEqualByComparingTo("50.00");
+                })
+                .verifyComplete();
+
+        StepVerifier.create(engine.search("milk", 2L, 1, 10))
+                .assertNext(result -> assertThat(result.getHits()).extracting(ProductDocument::getId)
+                        .containsExactly(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("brand matches, prefixes of the last word and one-letter typos are found")
+    void matchesLikeMeilisearch() {
+        StepVerifier.create(engine.search("amul", 2L, 1, 10))
+                .assertNext(result -> assertThat(result.getHits()).extracting(ProductDocument::getId)
+                        .containsExactlyInAnyOrder(1L, 3L))
+                .verifyComplete();
+        StepVerifier.create(engine.search("butt", 2L, 1, 10))
+                .assertNext(result -> assertThat(result.getHits()).extracting(ProductDocument::getId)
+                        .containsExactly(3L))
+                .verifyComplete();
+        StepVerifier.create(engine.search("biscuts", 1L, 1, 10))
+                .assertNext(result -> assertThat(result.getHits()).extracting(ProductDocument::getId)
+                        .containsExactly(2L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("synonyms from search_synonyms are expanded at query time")
+    void expandsSynonyms() {
+        when(synonymRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(SearchSynonym.builder()
+                .term("doodh").synonymsJson("[\"milk\"]").build()));
+        engine.loadSynonyms().block();
+
+        StepVerifier.create(engine.search("doodh", 2L, 1, 10))
+                .assertNext(result -> assertThat(result.getHits()).extracting(ProductDocument::getId)
+                        .containsExactly(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("incremental partial documents update stock and names in place")
+    void appliesPartials() {
+        engine.applyPartials(List.of(
+                Map.of("id", 4, "storeIds", List.of(1), "inStockStoreIds", List.of(1)),
+                Map.of("id", 2, "inStockStoreIds", List.of()),
+                Map.of("id", 1, "name", "Amul Taaza")));
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 10))
+                .assertNext(result -> {
+                    assertThat(result.getHits()).extracting(ProductDocument::getId).containsExactly(4L);
+                    assertThat(result.getHits().get(0).getName()).isEqualTo("Mother Dairy Toned Milk");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("facet filters narrow the standby results like the Meilisearch filter expression")
+    void appliesFacetFilters() {
+        SearchFilters amulUnder60 = SearchFilters.builder()
+                .brands(List.of("amul"))
+                .maxPrice(new BigDecimal("60"))
+                .build();
+        StepVerifier.create(engine.search(new SearchQuery("milk", 1L, 1, 10, null, amulUnder60, true)))
+                .assertNext(result -> {
+                    assertThat(result.getHits()).extracting(ProductDocument::getId).containsExactly(1L);
+                    assertThat(result.getFacetDistribution()).isNull();
+                })
+                .verifyComplete();
+
+        SearchFilters bucket = SearchFilters.builder().priceBuckets(List.of("0-50")).build();
+        StepVerifier.create(engine.search(new SearchQuery("milk", 1L, 1, 10, null, bucket, false)))
+                .assertNext(result -> assertThat(result.getHits()).isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("searches fail until a full sync has built the index")
+    void failsBeforeFirstBuild() {
+        LuceneSearchEngine empty = new LuceneSearchEngine(synonymRepository, new SearchProperties());
+
+        assertThat(empty.isReady()).isFalse();
+        StepVerifier.create(empty.search("milk", 1L, 1, 10))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private static ProductDocument product(Long id, String name, String brand, List<Long> inStockStoreIds) {
+        return ProductDocument.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .price(new BigDecimal("50.00"))
+                .priceBucket(PriceBuckets.of(new BigDecimal("50.00")))
+                .isActive(true)
+                .storeIds(List.of(1L, 2L))
+                .inStockStoreIds(inStockStoreIds)
+                .build();
+    }
+}
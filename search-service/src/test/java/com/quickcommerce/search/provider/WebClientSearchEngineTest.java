@@ -0,0 +1,214 @@
+package com.quickcommerce.search.provider;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.quickcommerce.search.config.MeilisearchConfig;
+import com.quickcommerce.search.config.MeilisearchProperties;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SearchFilters;
+import com.quickcommerce.search.model.ProductDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for WebClientSearchEngine against a stubbed Meilisearch HTTP API.
+ * No Docker / Meilisearch required.
+ */
+class WebClientSearchEngineTest {
+
+    private WireMockServer meilisearch;
+    private MeilisearchProperties properties;
+    private WebClientSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meilisearch = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+        meilisearch.start();
+
+        properties = new MeilisearchProperties();
+        properties.setHost(meilisearch.baseUrl());
+        properties.setApiKey("test-key");
+        properties.setTimeout(Duration.ofMillis(300));
+
+        WebClient webClient = new MeilisearchConfig(properties).meilisearchWebClient(WebClient.builder());
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getStock().setIndexFilter(true);
+        engine = new WebClientSearchEngine(webClient, properties, searchProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        meilisearch.stop();
+    }
+
+    @Test
+    @DisplayName("posts the in-stock filtered query and decodes hits straight into ProductDocument")
+    void decodesHits() {
+        meilisearch.stubFor(post(urlEqualTo("/indexes/products/search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"hits":[{"id":100,"name":"Amul Milk","price":56.0,"groupId":"amul-milk",
+                                          "storeIds":[1],"_rankingScore":0.93,"_formatted":{}}],
+                                 "query":"milk","processingTimeMs":3,"limit":10,"offset":10,
+                                 "estimatedTotalHits":42}
+                                """)));
+
+        StepVerifier.create(engine.search("milk", 1L, 2, 10))
+                .assertNext(result -> {
+                    assertThat(result.getEstimatedTotalHits()).isEqualTo(42);
+                    assertThat(result.getProcessingTimeMs()).isEqualTo(3);
+                    assertThat(result.getHits()).hasSize(1);
+                    ProductDocument hit = result.getHits().get(0);
+                    assertThat(hit.getId()).isEqualTo(100L);
+                    assertThat(hit.getGroupId()).isEqualTo("amul-milk");
+                    assertThat(hit.getRankingScore()).isEqualTo(0.93);
+                })
+                .verifyComplete();
+
+        meilisearch.verify(postRequestedFor(urlEqualTo("/indexes/products/search"))
+                .withHeader("Authorization", equalTo("Bearer test-key"))
+                .withRequestBody(equalToJson("""
+                        {"q":"milk","offset":10,"limit":10,"filter":["isActive = true AND inStockStoreIds = 1"],
+                         "showRankingScore":true}
+                        """, true, true)));
+    }
+
+    @Test
+    @DisplayName("compiles facet filters next to the store filter and decodes facet distributions")
+    void sendsFiltersAndDecodesFacets() {
+        meilisearch.stubFor(post(urlEqualTo("/indexes/products/search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"hits":[],"estimatedTotalHits":7,"processingTimeMs":2,
+                                 "facetDistribution":{"brand":{"Amul":5,"Mother Dairy":2},"priceBucket":{"0-50":7}},
+                                 "facetStats":{"price":{"min":22.5,"max":48.0}}}
+                                """)));
+        SearchFilters filters = SearchFilters.builder()
+                .brands(List.of("Amul", "Mother \"Dairy\""))
+                .maxPrice(new BigDecimal("50.00"))
+                .bestseller(true)
+                .build();
+
+        StepVerifier.create(engine.search(new SearchQuery("milk", 1L, 1, 10, null, filters, true)))
+                .assertNext(result -> {
+                    assertThat(result.getFacetDistribution().get("brand")).containsEntry("Amul", 5);
+                    assertThat(result.getFacetStats().get("price").getMax()).isEqualTo(48.0);
+                })
+                .verifyComplete();
+
+        meilisearch.verify(postRequestedFor(urlEqualTo("/indexes/products/search"))
+                .withRequestBody(equalToJson("""
+                        {"filter":["isActive = true AND inStockStoreIds = 1",
+                                   "brand IN [\\"Amul\\", \\"Mother \\\\\\"Dairy\\\\\\"\\"]",
+                                   "price <= 50", "isBestseller = true"],
+                         "facets":["brand","categoryName","priceBucket","isBestseller","price"]}
+                        """, true, true)));
+    }
+
+    @Test
+    @DisplayName("a multi-store query matches products in stock in any of its stores")
+    void sendsMultiStoreFilter() {
+        meilisearch.stubFor(post(urlEqualTo("/indexes/products/search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"hits":[],"estimatedTotalHits":0,"processingTimeMs":1}
+                                """)));
+        SearchQuery query = new SearchQuery("milk", 7L, 1, 10, null, null, false).withStoreIds(List.of(7L, 8L, 3L));
+
+        StepVerifier.create(engine.search(query))
+                .assertNext(result -> assertThat(result.getHits()).isEmpty())
+                .verifyComplete();
+
+        meilisearch.verify(postRequestedFor(urlEqualTo("/indexes/products/search"))
+                .withRequestBody(equalToJson("""
+                        {"filter":["isActive = true AND inStockStoreIds IN [7, 8, 3]"]}
+                        """, true, true)));
+    }
+
+    @Test
+    @DisplayName("sends all queries in one multi-search request and returns results in query order")
+    void multiSearch() {
+        meilisearch.stubFor(post(urlEqualTo("/multi-search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"results":[
+                                  {"indexUid":"products","hits":[{"id":100,"name":"Amul Milk"}],"estimatedTotalHits":12},
+                                  {"indexUid":"products","hits":[],"estimatedTotalHits":0,
+                                   "facetDistribution":{"brand":{}}}]}
+                                """)));
+
+        StepVerifier.create(engine.multiSearch(List.of(
+                        new SearchQuery("milk", 1L, 1, 20, null, null, false),
+                        new SearchQuery("dairy", 1L, 1, 8, null, null, true))))
+                .assertNext(results -> {
+                    assertThat(results).hasSize(2);
+                    assertThat(results.get(0).getHits()).extracting(ProductDocument::getId).containsExactly(100L);
+                    assertThat(results.get(0).getEstimatedTotalHits()).isEqualTo(12);
+                    assertThat(results.get(1).getHits()).isEmpty();
+                    assertThat(results.get(1).getFacetDistribution()).containsKey("brand");
+                })
+                .verifyComplete();
+
+        meilisearch.verify(1, postRequestedFor(urlEqualTo("/multi-search")));
+        meilisearch.verify(postRequestedFor(urlEqualTo("/multi-search"))
+                .withRequestBody(equalToJson("""
+                        {"queries":[
+                          {"indexUid":"products","q":"milk","offset":0,"limit":20,
+                           "filter":["isActive = true AND inStockStoreIds = 1"]},
+                          {"indexUid":"products","q":"dairy","offset":0,"limit":8,
+                           "facets":["brand","categoryName","priceBucket","isBestseller","price"]}]}
+                        """, true, true)));
+    }
+
+    @Test
+    @DisplayName("a multi-search answer that does not match the queries is an error")
+    void rejectsMismatchedMultiSearch() {
+        meilisearch.stubFor(post(urlEqualTo("/multi-search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"results\":[{\"hits\":[],\"estimatedTotalHits\":0}]}")));
+
+        StepVerifier.create(engine.multiSearch(List.of(
+                        new SearchQuery("milk", 1L, 1, 20, null, null, false),
+                        new SearchQuery("dairy", 1L, 1, 8, null, null, false))))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("fails fast with the configured per-call timeout")
+    void timesOut() {
+        meilisearch.stubFor(post(urlEqualTo("/indexes/products/search"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(2000)
+                        .withBody("{\"hits\":[],\"estimatedTotalHits\":0}")));
+
+        StepVerifier.create(engine.search("milk", 1L, 1, 10))
+                // either the reactive timeout or the Netty response timeout fires first
+                .expectErrorMatches(e -> e instanceof TimeoutException
+                        || (e.getCause() != null && e.getCause().getClass().getSimpleName().contains("Timeout")))
+                .verify(Duration.ofSeconds(2));
+    }
+}
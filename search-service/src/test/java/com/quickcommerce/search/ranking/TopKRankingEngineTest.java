@@ -0,0 +1,143 @@
+package com.quickcommerce.search.ranking;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TopKRankingEngine: same order as the composite strategy, top-K selection and the recency and
+ * store priority features.
+ * No Docker / Meilisearch required.
+ */
+class TopKRankingEngineTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HOUR = 3_600_000L;
+
+    private SearchProperties props;
+    private StorePriorityIndex storePriorityIndex;
+    private TopKRankingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        props = new SearchProperties();
+        storePriorityIndex = new StorePriorityIndex(null, props);
+        engine = new TopKRankingEngine(props, List.of(
+                new OrderCountFeature(),
+                new SearchPriorityFeature(),
+                new BestsellerFeature(),
+                new RecencyFeature(props),
+                new StorePriorityFeature(storePriorityIndex)));
+    }
+
+    @Test
+    @DisplayName("ranks random candidate lists exactly like the composite strategy")
+    void matchesCompositeStrategy() {
+        CompositeRelevanceFirstRankingStrategy composite = new CompositeRelevanceFirstRankingStrategy(props);
+        Random random = new Random(42);
+        for (int n : new int[] {2, 3, 20, 80, 1000}) {
+            for (int round = 0; round < 20; round++) {
+                List<ProductDocument> candidates = candidates(random, n);
+
+                assertThat(engine.rank(candidates)).containsExactlyElementsOf(composite.rank(new ArrayList<>(candidates)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("top-K returns the first K of the full ranking")
+    void topKIsPrefixOfFullRanking() {
+        Random random = new Random(7);
+        List<ProductDocument> candidates = candidates(random, 500);
+        List<ProductDocument> full = engine.rank(candidates);
+
+        for (int k : new int[] {1, 20, 80, 499, 500, 600}) {
+            assertThat(engine.rank(candidates, new RankingRequest(null, k, NOW)))
+                    .containsExactlyElementsOf(full.subList(0, Math.min(k, full.size())));
+        }
+        assertThat(engine.rank(candidates, new RankingRequest(null, 0, NOW))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("price breaks score ties, missing prices last, then hit order")
+    void tieBreaks() {
+        ProductDocument noPrice = product(1L, null);
+        ProductDocument expensive = product(2L, BigDecimal.valueOf(100));
+        ProductDocument cheap = product(3L, BigDecimal.valueOf(50));
+        ProductDocument cheapLater = product(4L, BigDecimal.valueOf(50));
+
+        assertThat(engine.rank(List.of(noPrice, expensive, cheap, cheapLater)))
+                .containsExactly(cheap, cheapLater, expensive, noPrice);
+    }
+
+    @Test
+    @DisplayName("recency favours recently ordered products once weighted")
+    void recencyFeature() {
+        ProductDocument stale = product(1L, null);
+        stale.setLastOrderedAt(NOW - 30 * 24 * HOUR);
+        ProductDocument fresh = product(2L, null);
+        fresh.setLastOrderedAt(NOW - HOUR);
+        ProductDocument never = product(3L, null);
+        RankingRequest request = new RankingRequest(null, 10, NOW);
+
+        assertThat(engine.rank(List.of(never, stale, fresh), request)).containsExactly(never, stale, fresh);
+
+        props.getRanking().setRecencyWeight(1.0);
+        assertThat(engine.rank(List.of(never, stale, fresh), request)).containsExactly(fresh, stale, never);
+    }
+
+    @Test
+    @DisplayName("store priority only applies in the store it is set for")
+    void storePriorityFeature() {
+        storePriorityIndex.replace(Map.of(7L, Map.of(3L, 90, 2L, 40)));
+        props.getRanking().setStorePriorityWeight(1.0);
+        List<ProductDocument> candidates = List.of(product(1L, null), product(2L, null), product(3L, null));
+
+        assertThat(engine.rank(candidates, new RankingRequest(7L, 10, NOW)))
+                .extracting(ProductDocument::getId).containsExactly(3L, 2L, 1L);
+        assertThat(engine.rank(candidates, new RankingRequest(8L, 10, NOW)))
+                .extracting(ProductDocument::getId).containsExactly(1L, 2L, 3L);
+        assertThat(engine.rank(candidates, new RankingRequest(null, 10, NOW)))
+                .extracting(ProductDocument::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    private static ProductDocument product(Long id, BigDecimal price) {
+        return ProductDocument.builder()
+                .id(id)
+                .price(price)
+                .rankingScore(0.5)
+                .searchPriority(0)
+                .orderCount(0)
+                .isBestseller(false)
+                .build();
+    }
+
+    /**
+     * Candidates with coarse values so that score and price ties are common
+     */
+    static List<ProductDocument> candidates(Random random, int n) {
+        List<ProductDocument> documents = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            documents.add(ProductDocument.builder()
+                    .id((long) i)
+                    .sku("SKU-" + i)
+                    .rankingScore(random.nextInt(5) == 0 ? null : random.nextInt(10) / 10.0)
+                    .orderCount(random.nextInt(4) == 0 ? null : random.nextInt(50))
+                    .searchPriority(random.nextInt(4) == 0 ? null : random.nextInt(5) * 25)
+                    .isBestseller(random.nextInt(5) == 0)
+                    .price(random.nextInt(6) == 0 ? null : BigDecimal.valueOf(random.nextInt(20) * 10L))
+                    .build());
+        }
+        return documents;
+    }
+}
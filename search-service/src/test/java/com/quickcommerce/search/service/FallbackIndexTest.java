@@ -0,0 +1,96 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for FallbackIndex: per-store pools, stock filtering, bestseller order and trending slots.
+ * No Docker / Meilisearch required.
+ */
+class FallbackIndexTest {
+
+    private FallbackIndex fallbackIndex;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getFallback().setResultLimit(3);
+        searchProperties.getFallback().setPoolSize(3);
+        searchProperties.getFallback().setTrendingSlots(1);
+        fallbackIndex = new FallbackIndex(searchProperties, new ObjectMapper());
+
+        FallbackIndex.Rebuild rebuild = new FallbackIndex.Rebuild(fallbackIndex.poolSize());
+        rebuild.addAll(List.of(
+                product(1L, true, 100, List.of(1L, 2L)),
+                product(2L, false, 500, List.of(1L)),
+                product(3L, false, 50, List.of(1L, 2L)),
+                product(4L, false, 10, List.of(1L)),
+                product(5L, false, 900, List.of())));
+        fallbackIndex.replaceCandidates(rebuild);
+    }
+
+    @Test
+    @DisplayName("each store gets its own in-stock products in bestseller order")
+    void ranksPerStore() {
+        assertThat(fallbackIndex.isReady()).isTrue();
+        assertThat(ids(1L)).containsExactly(1L, 2L, 3L);
+        assertThat(ids(2L)).containsExactly(1L, 3L);
+        assertThat(ids(99L)).isEmpty();
+        assertThat(fallbackIndex.fallbackFor(null)).extracting(ProductDocument::getId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("stock-outs are backfilled from the pool and order growth earns the trending slot")
+    void appliesPartials() {
+        fallbackIndex.applyPartials(List.of(
+                Map.of("id", 1, "inStockStoreIds", List.of(2)),
+                Map.of("id", 3, "orderCount", 80),
+                Map.of("id", 42, "orderCount", 10_000)));
+
+        // not visible until the background refresh
+        assertThat(ids(1L)).containsExactly(1L, 2L, 3L);
+        fallbackIndex.refresh();
+
+        assertThat(ids(1L)).containsExactly(3L, 2L);
+        assertThat(ids(2L)).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @DisplayName("a disabled index collects nothing and never becomes ready")
+    void disabled() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getFallback().setEnabled(false);
+        FallbackIndex disabled = new FallbackIndex(searchProperties, new ObjectMapper());
+
+        FallbackIndex.Rebuild rebuild = new FallbackIndex.Rebuild(disabled.poolSize());
+        rebuild.addAll(List.of(product(1L, true, 100, List.of(1L))));
+        disabled.replaceCandidates(rebuild);
+
+        assertThat(disabled.isReady()).isFalse();
+    }
+
+    private List<Long> ids(Long storeId) {
+        return fallbackIndex.fallbackFor(storeId).stream().map(ProductDocument::getId).toList();
+    }
+
+    private static ProductDocument product(Long id, boolean bestseller, int orderCount, List<Long> inStockStoreIds) {
+        return ProductDocument.builder()
+                .id(id)
+                .name("Product " + id)
+                .isActive(true)
+                .isBestseller(bestseller)
+                .orderCount(orderCount)
+                .storeIds(List.of(1L, 2L))
+                .inStockStoreIds(inStockStoreIds)
+                .build();
+    }
+}
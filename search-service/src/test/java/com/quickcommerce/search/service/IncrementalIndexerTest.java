@@ -0,0 +1,300 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meilisearch.sdk.model.TaskInfo;
+import com.quickcommerce.search.client.CatalogClient;
+import com.quickcommerce.search.client.InventoryClient;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.CatalogProductDto;
+import com.quickcommerce.search.dto.InventoryChangeDto;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
+import com.quickcommerce.search.entity.IndexCursor;
+import com.quickcommerce.search.health.SyncHealthIndicator;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
+import com.quickcommerce.search.provider.MeilisearchProvider;
+import com.quickcommerce.search.repository.IndexCursorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for IncrementalIndexer: coalescing, cursor durability and rebuild interplay.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IncrementalIndexerTest {
+
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private CatalogClient catalogClient;
+
+    @Mock
+    private InventoryClient inventoryClient;
+
+    @Mock
+    private MeilisearchProvider meilisearchProvider;
+
+    @Mock
+    private IndexCursorRepository cursorRepository;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
+    @Mock
+    private SyncHealthIndicator syncHealthIndicator;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private LuceneSearchEngine standbySearchEngine;
+
+    @Mock
+    private FallbackIndex fallbackIndex;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SearchProperties searchProperties;
+    private IncrementalIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        // Feeds are read exactly from the cursor; the overlap re-read has its own test
+        searchProperties.getIncremental().setOverlapMs(0);
+        indexer = new IncrementalIndexer(catalogClient, inventoryClient, meilisearchProvider, cursorRepository,
+                indexSyncService, syncHealthIndicator, searchResultCache, suggestIndex, standbySearchEngine,
+                fallbackIndex, searchProperties, objectMapper, new SimpleMeterRegistry());
+
+        when(cursorRepository.findById(anyString())).thenAnswer(inv -> Mono.just(IndexCursor.builder()
+                .name(inv.getArgument(0)).lastUpdatedAt(CURSOR).lastId(5L).build()));
+        when(cursorRepository.upsert(anyString(), any(), anyLong())).thenReturn(Mono.just(1));
+        when(catalogClient.getProductChanges(any(), anyLong(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(inventoryClient.getInventoryChanges(any(), anyLong(), anyInt())).thenReturn(Mono.just(List.of()));
+        when(meilisearchProvider.updatePartialDocuments(anyString())).thenReturn(Mono.just(mock(TaskInfo.class)));
+        when(meilisearchProvider.awaitTask(anyInt(), any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("catalog and stock changes for one product are coalesced into one partial document")
+    void coalescesChangesPerProduct() throws Exception {
+        LocalDateTime t1 = CURSOR.plusSeconds(1);
+        LocalDateTime t2 = CURSOR.plusSeconds(2);
+        when(catalogClient.getProductChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(product(1L, "Milk", "50.00", t1), product(1L, "Milk 1L", "55.00", t2))));
+        when(inventoryClient.getInventoryChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(stock(11L, 1L, t1), stock(12L, 2L, t2))));
+        when(inventoryClient.getStoreStockForProducts(List.of(1L, 2L)))
+                .thenReturn(Mono.just(Map.of(
+                        1L, new ProductStoreStockDto(List.of(10L), List.of(10L)),
+                        2L, new ProductStoreStockDto(List.of(20L, 21L), List.of(21L)))));
+
+        StepVerifier.create(indexer.runCycle())
+                .expectNext(2)
+                .verifyComplete();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(meilisearchProvider).updatePartialDocuments(payload.capture());
+        Map<Object, Map<String, Object>> docs = objectMapper.readValue(payload.getValue(),
+                        new TypeReference<List<Map<String, Object>>>() { })
+                .stream()
+                .collect(Collectors.toMap(d -> ((Number) d.get("id")).longValue(), Function.identity()));
+
+        assertThat(docs).hasSize(2);
+        assertThat(docs.get(1L)).containsEntry("name", "Milk 1L").containsEntry("storeIds", List.of(10))
+                .containsEntry("inStockStoreIds", List.of(10));
+        assertThat(docs.get(2L)).containsOnlyKeys("id", "storeIds", "inStockStoreIds")
+                .containsEntry("inStockStoreIds", List.of(21));
+
+        verify(cursorRepository).upsert(IncrementalIndexer.CATALOG_FEED, t2, 1L);
+        verify(cursorRepository).upsert(IncrementalIndexer.INVENTORY_FEED, t2, 12L);
+        verify(searchResultCache).invalidateAll();
+    }
+
+    @Test
+    @DisplayName("cursor is not advanced when Meilisearch fails to apply the batch")
+    void keepsCursorOnFailedTask() {
+        when(catalogClient.getProductChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(product(1L, "Milk", "50.00", CURSOR.plusSeconds(1)))));
+        when(meilisearchProvider.awaitTask(anyInt(), any()))
+                .thenReturn(Mono.error(new IllegalStateException("task failed")));
+
+        StepVerifier.create(indexer.runCycle())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(cursorRepository, never()).upsert(anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("cursor is not advanced when the store lookup silently returns nothing")
+    void keepsCursorOnFailedStoreLookup() {
+        when(inventoryClient.getInventoryChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(stock(11L, 1L, CURSOR.plusSeconds(1)))));
+        when(inventoryClient.getStoreStockForProducts(List.of(1L))).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(indexer.runCycle())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(meilisearchProvider, never()).updatePartialDocuments(anyString());
+        verify(cursorRepository, never()).upsert(anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("stock changes re-index a product only when a row flips between in-stock and out-of-stock")
+    void reindexesOnlyStockFlips() {
+        LocalDateTime t1 = CURSOR.plusSeconds(1);
+        LocalDateTime t2 = CURSOR.plusSeconds(2);
+        LocalDateTime t3 = CURSOR.plusSeconds(3);
+        when(inventoryClient.getInventoryChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(stock(11L, 1L, 5, t1))));
+        when(inventoryClient.getInventoryChanges(t1, 11L, 500))
+                .thenReturn(Mono.just(List.of(stock(11L, 1L, 3, t2))));
+        when(inventoryClient.getInventoryChanges(t2, 11L, 500))
+                .thenReturn(Mono.just(List.of(stock(11L, 1L, 0, t3))));
+        when(inventoryClient.getStoreStockForProducts(List.of(1L)))
+                .thenReturn(Mono.just(Map.of(1L, new ProductStoreStockDto(List.of(1L), List.of(1L)))),
+                        Mono.just(Map.of(1L, new ProductStoreStockDto(List.of(1L), List.of()))));
+
+        // first sighting of the row is indexed, 5 → 3 is still in stock, 3 → 0 flips
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+        StepVerifier.create(indexer.runCycle()).expectNext(0).verifyComplete();
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+
+        verify(inventoryClient, times(2)).getStoreStockForProducts(List.of(1L));
+        verify(meilisearchProvider, times(2)).updatePartialDocuments(anyString());
+        verify(searchResultCache, times(2)).invalidateStores(Set.of(1L));
+        verify(searchResultCache, never()).invalidateAll();
+        verify(cursorRepository).upsert(IncrementalIndexer.INVENTORY_FEED, t2, 11L);
+    }
+
+    @Test
+    @DisplayName("a change committed behind the cursor is picked up by the overlap re-read; re-read rows are skipped")
+    void overlapPicksUpLateCommits() throws Exception {
+        searchProperties.getIncremental().setOverlapMs(10000);
+        LocalDateTime t1 = CURSOR.plusSeconds(1);
+        when(catalogClient.getProductChanges(CURSOR.minusSeconds(10), 0L, 500))
+                .thenReturn(Mono.just(List.of(product(1L, "Milk", "50.00", t1))));
+        // product 2 committed late, stamped before the cursor that already passed it
+        when(catalogClient.getProductChanges(t1.minusSeconds(10), 0L, 500))
+                .thenReturn(Mono.just(List.of(product(2L, "Bread", "30.00", CURSOR), product(1L, "Milk", "50.00", t1))));
+
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(meilisearchProvider, times(2)).updatePartialDocuments(payload.capture());
+        List<Map<String, Object>> late = objectMapper.readValue(payload.getAllValues().get(1),
+                new TypeReference<List<Map<String, Object>>>() { });
+        assertThat(late).singleElement().satisfies(doc -> assertThat(doc).containsEntry("id", 2));
+        // the cursor never moves back into the window
+        verify(cursorRepository, times(2)).upsert(IncrementalIndexer.CATALOG_FEED, t1, 1L);
+    }
+
+    @Test
+    @DisplayName("popularity-only catalog changes are indexed without wiping every cached result page")
+    void popularityChangesKeepResultCache() {
+        LocalDateTime t1 = CURSOR.plusSeconds(1);
+        LocalDateTime t2 = CURSOR.plusSeconds(2);
+        LocalDateTime t3 = CURSOR.plusSeconds(3);
+        CatalogProductDto ordered = product(1L, "Milk", "50.00", t2);
+        ordered.setOrderCount(7);
+        ordered.setLastOrderedAt(t2);
+        when(catalogClient.getProductChanges(CURSOR, 5L, 500))
+                .thenReturn(Mono.just(List.of(product(1L, "Milk", "50.00", t1))));
+        when(catalogClient.getProductChanges(t1, 1L, 500)).thenReturn(Mono.just(List.of(ordered)));
+        when(catalogClient.getProductChanges(t2, 1L, 500))
+                .thenReturn(Mono.just(List.of(product(1L, "Milk 1L", "50.00", t3))));
+
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+        verify(searchResultCache, times(1)).invalidateAll();
+
+        StepVerifier.create(indexer.runCycle()).expectNext(1).verifyComplete();
+        verify(searchResultCache, times(2)).invalidateAll();
+        verify(meilisearchProvider, times(3)).updatePartialDocuments(anyString());
+    }
+
+    @Test
+    @DisplayName("polling pauses while a full rebuild runs")
+    void pausesDuringRebuild() {
+        when(indexSyncService.isRebuildInProgress()).thenReturn(true);
+
+        StepVerifier.create(indexer.runCycle())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(catalogClient, inventoryClient, meilisearchProvider);
+    }
+
+    @Test
+    @DisplayName("cursors are rewound to before the last rebuild so swapped-away changes are replayed")
+    void rewindsAfterRebuild() {
+        LocalDateTime rebuildStart = CURSOR.minusMinutes(5);
+        when(indexSyncService.getLastRebuildStartedAt()).thenReturn(rebuildStart);
+
+        StepVerifier.create(indexer.runCycle())
+                .expectNext(0)
+                .verifyComplete();
+
+        LocalDateTime replayFrom = rebuildStart.minusSeconds(60);
+        verify(catalogClient).getProductChanges(eq(replayFrom), eq(0L), anyInt());
+        verify(inventoryClient).getInventoryChanges(eq(replayFrom), eq(0L), anyInt());
+        verify(cursorRepository).upsert(IncrementalIndexer.CATALOG_FEED, replayFrom, 0L);
+    }
+
+    private static CatalogProductDto product(Long id, String name, String price, LocalDateTime updatedAt) {
+        CatalogProductDto dto = new CatalogProductDto();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setBasePrice(new BigDecimal(price));
+        dto.setIsActive(true);
+        dto.setUpdatedAt(updatedAt);
+        return dto;
+    }
+
+    private static InventoryChangeDto stock(Long id, Long productId, LocalDateTime updatedAt) {
+        return stock(id, productId, 5, updatedAt);
+    }
+
+    private static InventoryChangeDto stock(Long id, Long productId, int availableStock, LocalDateTime updatedAt) {
+        return new InventoryChangeDto(id, productId, 1L, availableStock, updatedAt);
+    }
+}
@@ -1,15 +1,20 @@
 package com.quickcommerce.search.service;
 
+import com.meilisearch.sdk.model.Settings;
+import com.meilisearch.sdk.model.TaskInfo;
 import com.quickcommerce.search.client.CatalogClient;
 import com.quickcommerce.search.client.InventoryClient;
 import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.dto.CatalogProductDto;
+import com.quickcommerce.search.dto.ProductStoreStockDto;
 import com.quickcommerce.search.health.SyncHealthIndicator;
 import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
 import com.quickcommerce.search.provider.MeilisearchProvider;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,7 +25,13 @@ import reactor.test.StepVerifier;
 import java.util.List;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +52,24 @@ class IndexSyncServiceTest {
     @Mock
     private SyncHealthIndicator syncHealthIndicator;
 
+    @Mock
+    private SearchConfigurationService searchConfigurationService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private LuceneSearchEngine standbySearchEngine;
+
+    @Mock
+    private FallbackIndex fallbackIndex;
+
+    @Mock
+    private ProductSnapshot productSnapshot;
+
     @InjectMocks
     private IndexSyncService indexSyncService;
 
@@ -48,11 +77,23 @@ class IndexSyncServiceTest {
     void setUp() {
         SearchProperties.Sync sync = new SearchProperties.Sync();
         sync.setBatchSize(50);
+        sync.setRetryDelayMs(1);
+        sync.setMaxRetryDelayMs(1);
         when(searchProperties.getSync()).thenReturn(sync);
-        when(meilisearchProvider.deleteAllDocuments()).thenReturn(Mono.empty());
+
+        TaskInfo task = mock(TaskInfo.class);
+        when(meilisearchProvider.getIndexName()).thenReturn("products");
+        when(meilisearchProvider.newStagingIndexName()).thenReturn("products_staging_1700000000000_00ff");
+        when(meilisearchProvider.getStagingIndexesStartedBefore(anyLong())).thenReturn(Flux.empty());
+        when(meilisearchProvider.deleteIndex("products_staging_1700000000000_00ff")).thenReturn(Mono.just(task));
+        when(meilisearchProvider.createIndex("products_staging_1700000000000_00ff")).thenReturn(Mono.just(task));
+        when(meilisearchProvider.awaitTask(anyInt(), any())).thenReturn(Mono.empty());
+        when(searchConfigurationService.buildSettings()).thenReturn(Mono.just(new Settings()));
+        when(meilisearchProvider.updateSettings(eq("products_staging_1700000000000_00ff"), any())).thenReturn(Mono.just(task));
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void syncAllProducts_shouldFetchAndUpsertInBatches() {
         // Arrange: CatalogClient returns CatalogProductDto; mapper converts to ProductDocument
         CatalogProductDto dto1 = new CatalogProductDto();
@@ -60,9 +101,16 @@ class IndexSyncServiceTest {
         CatalogProductDto dto2 = new CatalogProductDto();
         dto2.setId(2L);
 
-        when(catalogClient.getAllProducts()).thenReturn(Flux.just(dto1, dto2));
-        when(meilisearchProvider.upsertDocuments(anyList())).thenReturn(Mono.empty());
-        when(inventoryClient.getStoresForProducts(anyList())).thenReturn(Mono.just(Map.of()));
+        when(catalogClient.getProductsPage(0L, 50)).thenReturn(Mono.just(List.of(dto1, dto2)));
+        when(meilisearchProvider.serializeDocuments(anyList())).thenReturn("[]");
+        when(meilisearchProvider.upsertPayload(eq("products_staging_1700000000000_00ff"), anyString()))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
+        when(inventoryClient.getStoreStockForProducts(anyList())).thenReturn(Mono.just(Map.of(
+                1L, new ProductStoreStockDto(List.of(10L, 11L), List.of(10L)))));
+        when(meilisearchProvider.countDocuments("products_staging_1700000000000_00ff")).thenReturn(Mono.just(2L));
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.just(2L));
+        when(meilisearchProvider.swapIndexes("products", "products_staging_1700000000000_00ff"))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
 
         // Act
         Mono<Integer> result = indexSyncService.syncAllProducts();
@@ -72,14 +120,114 @@ class IndexSyncServiceTest {
                 .expectNext(2)
                 .verifyComplete();
 
-        verify(catalogClient, times(1)).getAllProducts();
-        verify(meilisearchProvider, atLeastOnce()).upsertDocuments(anyList());
+        verify(catalogClient, times(1)).getProductsPage(anyLong(), anyInt());
+        verify(meilisearchProvider, times(1)).upsertPayload(eq("products_staging_1700000000000_00ff"), anyString());
+        verify(meilisearchProvider).swapIndexes("products", "products_staging_1700000000000_00ff");
+        verify(meilisearchProvider, never()).deleteAllDocuments();
+        verify(searchResultCache).invalidateAll();
+        verify(suggestIndex).replaceProducts(any());
+        verify(standbySearchEngine).replaceIndex(any());
+        verify(fallbackIndex).replaceCandidates(any());
+
+        // store assortment and in-stock stores are both indexed
+        ArgumentCaptor<List<ProductDocument>> documents = ArgumentCaptor.forClass(List.class);
+        verify(meilisearchProvider).serializeDocuments(documents.capture());
+        ProductDocument first = documents.getValue().get(0);
+        assertThat(first.getStoreIds()).containsExactly(10L, 11L);
+        assertThat(first.getInStockStoreIds()).containsExactly(10L);
+        assertThat(documents.getValue().get(1).getInStockStoreIds()).isNull();
+    }
+
+    @Test
+    void syncAllProducts_shouldPageCatalogAndEnrichInChunks() {
+        SearchProperties.Sync sync = searchProperties.getSync();
+        sync.setBatchSize(2);
+        sync.setStoreLookupChunkSize(1);
+        sync.setMaxOutstandingTasks(1);
+
+        CatalogProductDto dto1 = new CatalogProductDto();
+        dto1.setId(1L);
+        CatalogProductDto dto2 = new CatalogProductDto();
+        dto2.setId(2L);
+        CatalogProductDto dto3 = new CatalogProductDto();
+        dto3.setId(3L);
+
+        when(catalogClient.getProductsPage(0L, 2)).thenReturn(Mono.just(List.of(dto1, dto2)));
+        when(catalogClient.getProductsPage(2L, 2)).thenReturn(Mono.just(List.of(dto3)));
+        when(inventoryClient.getStoreStockForProducts(anyList())).thenReturn(Mono.just(Map.of()));
+        when(meilisearchProvider.serializeDocuments(anyList())).thenReturn("[]");
+        when(meilisearchProvider.upsertPayload(eq("products_staging_1700000000000_00ff"), anyString()))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
+        when(meilisearchProvider.countDocuments(anyString())).thenReturn(Mono.just(3L));
+        when(meilisearchProvider.swapIndexes("products", "products_staging_1700000000000_00ff"))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
+
+        StepVerifier.create(indexSyncService.syncAllProducts())
+                .expectNext(3)
+                .verifyComplete();
+
+        // one store lookup per product (chunk size 1), two catalog pages, one payload per page
+        verify(inventoryClient, times(3)).getStoreStockForProducts(anyList());
+        verify(catalogClient, times(2)).getProductsPage(anyLong(), eq(2));
+        verify(meilisearchProvider, times(2)).upsertPayload(eq("products_staging_1700000000000_00ff"), anyString());
+    }
+
+    @Test
+    void syncAllProducts_shouldKeepLiveIndexWhenStagingIsTooSmall() {
+        CatalogProductDto dto1 = new CatalogProductDto();
+        dto1.setId(1L);
+
+        when(catalogClient.getProductsPage(0L, 50)).thenReturn(Mono.just(List.of(dto1)));
+        when(meilisearchProvider.serializeDocuments(anyList())).thenReturn("[]");
+        when(meilisearchProvider.upsertPayload(eq("products_staging_1700000000000_00ff"), anyString()))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
+        when(inventoryClient.getStoreStockForProducts(anyList())).thenReturn(Mono.just(Map.of()));
+        when(meilisearchProvider.countDocuments("products_staging_1700000000000_00ff")).thenReturn(Mono.just(1L));
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.just(100L));
+
+        StepVerifier.create(indexSyncService.syncAllProducts())
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(suggestIndex, never()).replaceProducts(any());
+        verify(standbySearchEngine, never()).replaceIndex(any());
+        verify(fallbackIndex, never()).replaceCandidates(any());
+        verify(meilisearchProvider, never()).swapIndexes(anyString(), anyString());
+        // the rejected staging is removed
+        verify(meilisearchProvider).deleteIndex("products_staging_1700000000000_00ff");
+        verify(meilisearchProvider, never()).deleteIndex("products");
+    }
+
+    @Test
+    void syncAllProducts_shouldDropOnlyStaleStagingIndexes() {
+        TaskInfo task = mock(TaskInfo.class);
+        when(meilisearchProvider.getStagingIndexesStartedBefore(anyLong()))
+                .thenReturn(Flux.just("products_staging_1600000000000_0001"));
+        when(meilisearchProvider.deleteIndex("products_staging_1600000000000_0001")).thenReturn(Mono.just(task));
+        when(catalogClient.getProductsPage(0L, 50)).thenReturn(Mono.just(List.of()));
+        when(meilisearchProvider.countDocuments(anyString())).thenReturn(Mono.just(0L));
+        when(meilisearchProvider.swapIndexes("products", "products_staging_1700000000000_00ff"))
+                .thenReturn(Mono.just(task));
+
+        long before = System.currentTimeMillis();
+        StepVerifier.create(indexSyncService.syncAllProducts())
+                .expectNext(0)
+                .verifyComplete();
+
+        // only rebuilds started more than stale-staging-hours ago are cleaned up
+        ArgumentCaptor<Long> cutoff = ArgumentCaptor.forClass(Long.class);
+        verify(meilisearchProvider).getStagingIndexesStartedBefore(cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(before - 6 * 3_600_000L, System.currentTimeMillis() - 6 * 3_600_000L);
+        verify(meilisearchProvider).deleteIndex("products_staging_1600000000000_0001");
+        verify(meilisearchProvider).deleteIndex("products_staging_1700000000000_00ff");
     }
 
     @Test
     void syncAllProducts_shouldHandleEmptyCatalog() {
-        when(catalogClient.getAllProducts()).thenReturn(Flux.empty());
-        when(inventoryClient.getStoresForProducts(anyList())).thenReturn(Mono.just(Map.of()));
+        when(catalogClient.getProductsPage(0L, 50)).thenReturn(Mono.just(List.of()));
+        when(meilisearchProvider.countDocuments(anyString())).thenReturn(Mono.just(0L));
+        when(meilisearchProvider.swapIndexes("products", "products_staging_1700000000000_00ff"))
+                .thenReturn(Mono.just(mock(TaskInfo.class)));
 
         Mono<Integer> result = indexSyncService.syncAllProducts();
 
@@ -87,18 +235,21 @@ class IndexSyncServiceTest {
                 .expectNext(0)
                 .verifyComplete();
 
-        verify(meilisearchProvider, never()).upsertDocuments(anyList());
+        verify(meilisearchProvider, never()).upsertPayload(anyString(), anyString());
+        verify(inventoryClient, never()).getStoreStockForProducts(anyList());
     }
 
     @Test
     void syncAllProducts_shouldContinueOnError() {
-        // When catalog returns error, sync propagates it (never reaches getStoresForProducts)
-        when(catalogClient.getAllProducts()).thenReturn(Flux.error(new RuntimeException("Catalog Down")));
+        // When catalog keeps failing, sync propagates it after retries (never reaches getStoreStockForProducts)
+        when(catalogClient.getProductsPage(0L, 50)).thenReturn(Mono.error(new RuntimeException("Catalog Down")));
 
         Mono<Integer> result = indexSyncService.syncAllProducts();
 
         StepVerifier.create(result)
                 .expectError(RuntimeException.class)
                 .verify();
+
+        verify(meilisearchProvider, never()).swapIndexes(anyString(), anyString());
     }
 }
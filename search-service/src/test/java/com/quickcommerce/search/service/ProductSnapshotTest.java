@@ -0,0 +1,127 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.model.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ProductSnapshot: gzipped page round trip, sync start header, commit-or-discard writes and
+ * snapshot age.
+ * No Docker / Meilisearch required.
+ */
+class ProductSnapshotTest {
+
+    private static final LocalDateTime SYNC_STARTED_AT = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SearchProperties searchProperties;
+    private ProductSnapshot productSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        searchProperties.getSnapshot().setPath(tempDir.resolve("snapshot/products.jsonl.gz").toString());
+        productSnapshot = new ProductSnapshot(searchProperties, objectMapper);
+    }
+
+    @Test
+    @DisplayName("committed pages are read back in order, with the original payload and parsed documents")
+    void roundTrip() throws Exception {
+        String first = page(1L, 2L);
+        String second = page(3L);
+        try (ProductSnapshot.Writer writer = new ProductSnapshot.Writer(productSnapshot.writePath(), SYNC_STARTED_AT)) {
+            writer.addPage(first);
+            writer.addPage(second);
+            writer.commit();
+        }
+
+        assertThat(productSnapshot.isAvailable()).isTrue();
+        assertThat(productSnapshot.syncStartedAt()).isEqualTo(SYNC_STARTED_AT);
+        StepVerifier.create(productSnapshot.read())
+                .assertNext(page -> {
+                    assertThat(page.json()).isEqualTo(first);
+                    assertThat(page.documents()).extracting(ProductDocument::getId).containsExactly(1L, 2L);
+                })
+                .assertNext(page -> assertThat(page.documents()).extracting(ProductDocument::getId).containsExactly(3L))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("a sync that does not commit leaves the previous snapshot in place")
+    void discardsUncommittedPages() throws Exception {
+        try (ProductSnapshot.Writer writer = new ProductSnapshot.Writer(productSnapshot.writePath(), SYNC_STARTED_AT)) {
+            writer.addPage(page(1L));
+            writer.commit();
+        }
+        try (ProductSnapshot.Writer writer = new ProductSnapshot.Writer(productSnapshot.writePath(), SYNC_STARTED_AT)) {
+            writer.addPage(page(2L));
+        }
+
+        StepVerifier.create(productSnapshot.read())
+                .assertNext(page -> assertThat(page.documents()).extracting(ProductDocument::getId).containsExactly(1L))
+                .verifyComplete();
+        try (var files = Files.list(productSnapshot.writePath().getParent())) {
+            assertThat(files).containsExactly(productSnapshot.writePath());
+        }
+    }
+
+    @Test
+    @DisplayName("old or disabled snapshots are not used")
+    void ignoresStaleAndDisabledSnapshots() throws Exception {
+        try (ProductSnapshot.Writer writer = new ProductSnapshot.Writer(productSnapshot.writePath(), SYNC_STARTED_AT)) {
+            writer.addPage(page(1L));
+            writer.commit();
+        }
+        Files.setLastModifiedTime(productSnapshot.writePath(),
+                FileTime.from(Instant.now().minus(Duration.ofHours(searchProperties.getSnapshot().getMaxAgeHours() + 1))));
+        assertThat(productSnapshot.isAvailable()).isFalse();
+
+        searchProperties.getSnapshot().setEnabled(false);
+        assertThat(productSnapshot.writePath()).isNull();
+        assertThat(productSnapshot.takenAt()).isNull();
+    }
+
+    @Test
+    @DisplayName("snapshots without a sync start header are not used")
+    void ignoresSnapshotsWithoutHeader() throws Exception {
+        Path path = productSnapshot.writePath();
+        Files.createDirectories(path.getParent());
+        try (var out = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(path)),
+                StandardCharsets.UTF_8)) {
+            out.write(page(1L) + "\n");
+        }
+
+        assertThat(productSnapshot.takenAt()).isNotNull();
+        assertThat(productSnapshot.syncStartedAt()).isNull();
+        assertThat(productSnapshot.isAvailable()).isFalse();
+    }
+
+    private String page(Long... ids) throws Exception {
+        List<ProductDocument> documents = Arrays.stream(ids)
+                .map(id -> ProductDocument.builder().id(id).name("Product " + id).isActive(true).build())
+                .toList();
+        return objectMapper.writeValueAsString(documents);
+    }
+}
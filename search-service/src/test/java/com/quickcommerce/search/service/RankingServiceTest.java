@@ -2,7 +2,13 @@ package com.quickcommerce.search.service;
 
 import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.model.ProductDocument;
-import com.quickcommerce.search.ranking.CompositeRelevanceFirstRankingStrategy;
+import com.quickcommerce.search.ranking.BestsellerFeature;
+import com.quickcommerce.search.ranking.OrderCountFeature;
+import com.quickcommerce.search.ranking.RecencyFeature;
+import com.quickcommerce.search.ranking.SearchPriorityFeature;
+import com.quickcommerce.search.ranking.StorePriorityFeature;
+import com.quickcommerce.search.ranking.StorePriorityIndex;
+import com.quickcommerce.search.ranking.TopKRankingEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -13,19 +19,27 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 /**
- * Exercises default {@link CompositeRelevanceFirstRankingStrategy} via {@link RankingService}.
+ * Exercises default {@link TopKRankingEngine} via {@link RankingService}.
  * Equal {@code rankingScore} isolates business-signal ordering; equal composite scores exercise price tie-break.
  */
 class RankingServiceTest {
 
     private static final double SAME_RELEVANCE = 0.5;
 
+    private SearchProperties props;
     private RankingService rankingService;
 
     @BeforeEach
     void setUp() {
-        SearchProperties props = new SearchProperties();
-        rankingService = new RankingService(new CompositeRelevanceFirstRankingStrategy(props));
+        props = new SearchProperties();
+        props.getRanking().setEnabled(true);
+        TopKRankingEngine engine = new TopKRankingEngine(props, List.of(
+                new OrderCountFeature(),
+                new SearchPriorityFeature(),
+                new BestsellerFeature(),
+                new RecencyFeature(props),
+                new StorePriorityFeature(new StorePriorityIndex(null, props))));
+        rankingService = new RankingService(engine, props);
     }
 
     @Test
@@ -88,6 +102,18 @@ class RankingServiceTest {
         assertEquals(1L, results.get(1).getId());
     }
 
+    @Test
+    void rank_shouldKeepHitOrderAndApplyLimit_whenRankingDisabled() {
+        props.getRanking().setEnabled(false);
+        ProductDocument p1 = createProduct(1L, "Normal", false, 0, 0);
+        ProductDocument p2 = createProduct(2L, "Bestseller", true, 100, 500);
+        ProductDocument p3 = createProduct(3L, "Other", false, 0, 0);
+
+        List<ProductDocument> results = rankingService.rank(List.of(p1, p2, p3), 7L, 2);
+
+        assertEquals(List.of(p1, p2), results);
+    }
+
     private ProductDocument createProduct(Long id, String name, boolean isBestseller, int searchPriority,
             int orderCount) {
         return ProductDocument.builder()
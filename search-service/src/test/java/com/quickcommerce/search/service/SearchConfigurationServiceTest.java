@@ -2,7 +2,12 @@ package com.quickcommerce.search.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.meilisearch.sdk.model.Settings;
+import com.meilisearch.sdk.model.Task;
 import com.meilisearch.sdk.model.TaskInfo;
+import com.meilisearch.sdk.model.TaskStatus;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SettingsPublishStatus;
 import com.quickcommerce.search.entity.SearchSetting;
 import com.quickcommerce.search.entity.SearchSynonym;
 import com.quickcommerce.search.provider.MeilisearchProvider;
@@ -12,6 +17,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -23,6 +29,8 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,12 +51,18 @@ class SearchConfigurationServiceTest {
     @Mock
     private MeilisearchProvider meilisearchProvider;
 
+    @Mock
+    private SearchResultCache searchResultCache;
+
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
     private TransactionalOperator transactionalOperator;
 
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties();
+
     @InjectMocks
     private SearchConfigurationService service;
 
@@ -60,6 +74,7 @@ class SearchConfigurationServiceTest {
         // Broad stubs for publishConfiguration() — specific tests override as needed.
         when(synonymRepository.findAllByIsActiveTrue()).thenReturn(Flux.empty());
         when(settingRepository.findByKey(anyString())).thenReturn(Mono.empty());
+        when(settingRepository.findAll()).thenReturn(Flux.empty());
         TaskInfo taskInfo = mock(TaskInfo.class);
         when(meilisearchProvider.updateSettingsBlocking(any())).thenReturn(taskInfo);
     }
@@ -96,7 +111,7 @@ class SearchConfigurationServiceTest {
                 .verifyComplete();
 
             verify(settingRepository).save(any(SearchSetting.class));
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
 
         @Test
@@ -158,7 +173,7 @@ class SearchConfigurationServiceTest {
                 })
                 .verifyComplete();
 
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
 
         @Test
@@ -191,13 +206,13 @@ class SearchConfigurationServiceTest {
     }
 
     // =========================================================================
-    // saveSetting — auto-publish
+    // saveSetting — scheduled publish
     // =========================================================================
     @Nested
     class SaveSetting {
 
         @Test
-        void shouldSaveNewSettingAndAutoPublish() {
+        void shouldSaveNewSettingAndSchedulePublish() {
             when(settingRepository.save(any(SearchSetting.class)))
                 .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
 
@@ -209,11 +224,11 @@ class SearchConfigurationServiceTest {
                 })
                 .verifyComplete();
 
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
 
         @Test
-        void shouldUpdateExistingSettingAndAutoPublish() {
+        void shouldUpdateExistingSettingAndSchedulePublish() {
             SearchSetting existing = SearchSetting.builder()
                 .key("ranking_rules")
                 .valueJson("[\"words\"]")
@@ -230,18 +245,18 @@ class SearchConfigurationServiceTest {
                     assertThat(saved.getValueJson()).isEqualTo("[\"words\",\"typo\",\"proximity\"]"))
                 .verifyComplete();
 
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
     }
 
     // =========================================================================
-    // saveSynonym — auto-publish
+    // saveSynonym — scheduled publish
     // =========================================================================
     @Nested
     class SaveSynonym {
 
         @Test
-        void shouldSaveAndAutoPublish() {
+        void shouldSaveAndSchedulePublish() {
             when(synonymRepository.findByTerm("doodh")).thenReturn(Mono.empty());
             when(synonymRepository.save(any(SearchSynonym.class)))
                 .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
@@ -251,7 +266,7 @@ class SearchConfigurationServiceTest {
                     assertThat(saved.getTerm()).isEqualTo("doodh"))
                 .verifyComplete();
 
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
 
         @Test
@@ -264,13 +279,13 @@ class SearchConfigurationServiceTest {
     }
 
     // =========================================================================
-    // deleteSynonym — auto-publish
+    // deleteSynonym — scheduled publish
     // =========================================================================
     @Nested
     class DeleteSynonym {
 
         @Test
-        void shouldDeleteAndAutoPublish() {
+        void shouldDeleteAndSchedulePublish() {
             SearchSynonym existing = SearchSynonym.builder()
                 .id(1L).term("doodh").synonymsJson("[\"milk\"]").isActive(true).build();
 
@@ -281,7 +296,178 @@ class SearchConfigurationServiceTest {
                 .verifyComplete();
 
             verify(synonymRepository).delete(existing);
-            verify(meilisearchProvider).updateSettingsBlocking(any());
+            assertPublishScheduled();
         }
     }
+
+    // =========================================================================
+    // buildSettings — filterable attributes search depends on
+    // =========================================================================
+    @Nested
+    class BuildSettings {
+
+        @Test
+        void shouldAddStoreAndFacetAttributesToConfiguredFilterable() {
+            when(settingRepository.findAll()).thenReturn(Flux.just(SearchSetting.builder()
+                .key("filterable_attributes")
+                .valueJson("[\"storeIds\",\"categoryId\"]")
+                .build()));
+
+            StepVerifier.create(service.buildSettings())
+                .assertNext(settings -> assertThat(settings.getFilterableAttributes())
+                    .startsWith("storeIds", "categoryId")
+                    .contains("inStockStoreIds", "brand", "categoryName", "priceBucket", "isBestseller", "price")
+                    .doesNotHaveDuplicates())
+                .verifyComplete();
+        }
+    }
+
+    // =========================================================================
+    // debounced publish — coalescing, section diff, task tracking
+    // =========================================================================
+    @Nested
+    class DebouncedPublish {
+
+        @BeforeEach
+        void setUpSettings() {
+            when(settingRepository.findAll()).thenReturn(Flux.just(SearchSetting.builder()
+                .key("ranking_rules")
+                .valueJson("[\"words\",\"typo\"]")
+                .build()));
+        }
+
+        @Test
+        void shouldCoalesceEditsIntoOnePublish() {
+            when(synonymRepository.findByTerm(anyString())).thenReturn(Mono.empty());
+            when(synonymRepository.save(any(SearchSynonym.class)))
+                .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(service.saveSynonym("doodh", List.of("milk"), "admin")).expectNextCount(1)
+                .verifyComplete();
+            StepVerifier.create(service.saveSynonym("anda", List.of("egg"), "admin")).expectNextCount(1)
+                .verifyComplete();
+
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+
+            verify(meilisearchProvider, times(1)).updateSettingsBlocking(any());
+            assertThat(service.publishStatus().getPendingEdits()).isFalse();
+        }
+
+        @Test
+        void shouldWaitForEditsToPauseBeforePublishing() {
+            searchProperties.getSettingsPublish().setDebounceMs(1000);
+
+            service.requestPublish();
+            long now = System.currentTimeMillis();
+
+            assertThat(service.isPublishDue(now)).isFalse();
+            assertThat(service.isPublishDue(now + 1000)).isTrue();
+        }
+
+        @Test
+        void shouldSendOnlyChangedSections() {
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+
+            when(synonymRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(SearchSynonym.builder()
+                .term("doodh").synonymsJson("[\"milk\"]").isActive(true).build()));
+            service.requestPublish();
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+
+            ArgumentCaptor<Settings> captor = ArgumentCaptor.forClass(Settings.class);
+            verify(meilisearchProvider, times(2)).updateSettingsBlocking(captor.capture());
+            Settings first = captor.getAllValues().get(0);
+            Settings second = captor.getAllValues().get(1);
+            assertThat(first.getRankingRules()).containsExactly("words", "typo");
+            assertThat(first.getTypoTolerance()).isNotNull();
+            assertThat(second.getSynonyms()).containsKey("doodh");
+            assertThat(second.getRankingRules()).isNull();
+            assertThat(second.getFilterableAttributes()).isNull();
+            assertThat(second.getTypoTolerance()).isNull();
+            assertThat(service.publishStatus().getLastPublishedSections()).containsExactly("synonyms");
+        }
+
+        @Test
+        void shouldSkipPublishWhenNothingChanged() {
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+
+            service.requestPublish();
+            StepVerifier.create(service.publishChanges()).verifyComplete();
+
+            verify(meilisearchProvider, times(1)).updateSettingsBlocking(any());
+            verify(searchResultCache, times(1)).invalidateAll();
+        }
+
+        @Test
+        void shouldTrackTasksAndRepublishEverythingAfterFailure() {
+            TaskInfo taskInfo = mock(TaskInfo.class);
+            when(taskInfo.getTaskUid()).thenReturn(7);
+            when(meilisearchProvider.updateSettingsBlocking(any())).thenReturn(taskInfo);
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+
+            assertThat(service.publishStatus().getPendingTasks())
+                .extracting(SettingsPublishStatus.PendingTask::getTaskUid)
+                .containsExactly(7);
+
+            Task failed = mock(Task.class);
+            when(failed.getStatus()).thenReturn(TaskStatus.FAILED);
+            when(meilisearchProvider.getTask(7)).thenReturn(Mono.just(failed));
+            StepVerifier.create(service.refreshPendingTasks()).verifyComplete();
+
+            SettingsPublishStatus status = service.publishStatus();
+            assertThat(status.getPendingTasks()).isEmpty();
+            assertThat(status.getLastFailure()).contains("Task 7");
+            assertThat(status.getPendingEdits()).isTrue();
+
+            // Nothing changed in the DB, yet every section is sent again
+            StepVerifier.create(service.publishChanges()).expectNextCount(1).verifyComplete();
+            ArgumentCaptor<Settings> captor = ArgumentCaptor.forClass(Settings.class);
+            verify(meilisearchProvider, times(2)).updateSettingsBlocking(captor.capture());
+            assertThat(captor.getAllValues().get(1).getRankingRules()).containsExactly("words", "typo");
+        }
+    }
+
+    // =========================================================================
+    // isLiveConfigurationCurrent — startup warm start
+    // =========================================================================
+    @Nested
+    class LiveConfiguration {
+
+        @Test
+        void shouldTreatReorderedSetSectionsAsCurrentAndAdoptThem() {
+            Settings live = service.buildSettings().block();
+            String[] filterable = live.getFilterableAttributes().clone();
+            Collections.reverse(Arrays.asList(filterable));
+            live.setFilterableAttributes(filterable);
+            when(meilisearchProvider.getSettings()).thenReturn(Mono.just(live));
+
+            StepVerifier.create(service.isLiveConfigurationCurrent())
+                .expectNext(true)
+                .verifyComplete();
+
+            // Adopted as the publish baseline: an unchanged configuration sends nothing
+            service.requestPublish();
+            StepVerifier.create(service.publishChanges()).verifyComplete();
+            verify(meilisearchProvider, never()).updateSettingsBlocking(any());
+        }
+
+        @Test
+        void shouldReportDifferentRankingRulesAsStale() {
+            Settings live = service.buildSettings().block();
+            live.setRankingRules(new String[] {"words"});
+            when(settingRepository.findAll()).thenReturn(Flux.just(SearchSetting.builder()
+                .key("ranking_rules")
+                .valueJson("[\"words\",\"typo\"]")
+                .build()));
+            when(meilisearchProvider.getSettings()).thenReturn(Mono.just(live));
+
+            StepVerifier.create(service.isLiveConfigurationCurrent())
+                .expectNext(false)
+                .verifyComplete();
+        }
+    }
+
+    private void assertPublishScheduled() {
+        verify(meilisearchProvider, never()).updateSettingsBlocking(any());
+        assertThat(service.publishStatus().getPendingEdits()).isTrue();
+    }
 }
@@ -0,0 +1,147 @@
+package com.quickcommerce.search.service;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit tests for SearchResultCache: hits, generation-based invalidation and singleflight.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    private SearchProperties searchProperties;
+    private SearchResultCache cache;
+    private AtomicInteger backendCalls;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties = new SearchProperties();
+        cache = new SearchResultCache(searchProperties, searchMetrics);
+        backendCalls = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("repeated identical searches are served from memory with the same ranked order")
+    void servesRepeatedSearchFromCache() {
+        search("milk", 1L, true).block();
+
+        StepVerifier.create(search("milk", 1L, true))
+                .assertNext(page -> {
+                    assertThat(page.documents()).extracting(ProductDocument::getId).containsExactly(100L, 101L);
+                    assertThat(page.totalHits()).isEqualTo(42);
+                })
+                .verifyComplete();
+
+        assertThat(backendCalls).hasValue(1);
+        verify(searchMetrics).recordCacheMiss();
+        verify(searchMetrics).recordCacheHit();
+    }
+
+    @Test
+    @DisplayName("a stock change in one store only invalidates that store's pages")
+    void invalidatesPerStore() {
+        search("milk", 1L, true).block();
+        search("milk", 2L, true).block();
+
+        cache.invalidateStores(Set.of(1L));
+        search("milk", 1L, true).block();
+        search("milk", 2L, true).block();
+
+        assertThat(backendCalls).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("index-wide changes invalidate every store")
+    void invalidatesAll() {
+        search("milk", 1L, true).block();
+        search("milk", 2L, true).block();
+
+        cache.invalidateAll();
+        search("milk", 1L, true).block();
+        search("milk", 2L, true).block();
+
+        assertThat(backendCalls).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("concurrent identical misses share one backend call")
+    void coalescesConcurrentMisses() {
+        Sinks.One<SearchResultCache.CachedPage> backend = Sinks.one();
+        Supplier<Mono<SearchResultCache.CachedPage>> loader = () -> {
+            backendCalls.incrementAndGet();
+            return backend.asMono();
+        };
+
+        List<SearchResultCache.CachedPage> received = new CopyOnWriteArrayList<>();
+        cache.get("milk", 1L, 1, 10, loader).subscribe(received::add);
+        cache.get("milk", 1L, 1, 10, loader).subscribe(received::add);
+
+        assertThat(backendCalls).hasValue(1);
+        verify(searchMetrics).recordSearchCoalesced();
+
+        backend.tryEmitValue(page(true));
+        assertThat(received).hasSize(2);
+        assertThat(received.get(0)).isSameAs(received.get(1));
+    }
+
+    @Test
+    @DisplayName("pages produced while the search engine was failing are not cached")
+    void skipsDegradedPages() {
+        search("milk", 1L, false).block();
+        search("milk", 1L, false).block();
+
+        assertThat(backendCalls).hasValue(2);
+        verify(searchMetrics, times(2)).recordCacheMiss();
+    }
+
+    @Test
+    @DisplayName("pages whose documents would exceed maxDocuments after a sweep are not cached")
+    void skipsPagesOverDocumentCap() {
+        searchProperties.getCache().setMaxDocuments(3);
+
+        search("milk", 1L, true).block();
+        search("amul", 1L, true).block();
+        search("amul", 1L, true).block();
+        search("milk", 1L, true).block();
+
+        assertThat(backendCalls).hasValue(3);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private Mono<SearchResultCache.CachedPage> search(String query, Long storeId, boolean cacheable) {
+        return cache.get(query, storeId, 1, 10, () -> {
+            backendCalls.incrementAndGet();
+            return Mono.just(page(cacheable));
+        });
+    }
+
+    private static SearchResultCache.CachedPage page(boolean cacheable) {
+        return new SearchResultCache.CachedPage(List.of(
+                ProductDocument.builder().id(100L).name("Amul Milk").build(),
+                ProductDocument.builder().id(101L).name("Amul Gold Milk").build()), 42, cacheable, false);
+    }
+}
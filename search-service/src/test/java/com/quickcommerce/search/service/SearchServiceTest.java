@@ -1,15 +1,22 @@
 package com.quickcommerce.search.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.meilisearch.sdk.model.SearchResult;
+import com.quickcommerce.search.analytics.QueryAnalytics;
 import com.quickcommerce.search.client.InventoryClient;
 import com.quickcommerce.search.config.SearchProperties;
 import com.quickcommerce.search.dto.AvailabilityResponse;
+import com.quickcommerce.search.dto.MultiSearchRequest;
+import com.quickcommerce.search.dto.ProductResult;
+import com.quickcommerce.search.dto.SearchFilters;
+import com.quickcommerce.search.exception.InvalidRequestException;
 import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.metrics.SearchTrace;
 import com.quickcommerce.search.dto.SearchRequest;
 import com.quickcommerce.search.dto.SearchResponse;
 import com.quickcommerce.search.model.ProductDocument;
-import com.quickcommerce.search.provider.MeilisearchProvider;
+import com.quickcommerce.search.model.ProductSearchResult;
+import com.quickcommerce.search.provider.ProductSearchEngine;
+import com.quickcommerce.search.provider.SearchQuery;
+import com.quickcommerce.search.shadow.ShadowEvaluator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,7 +27,9 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.util.*;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -28,7 +37,7 @@ import static org.mockito.Mockito.*;
 class SearchServiceTest {
 
         @Mock
-        private MeilisearchProvider meilisearchProvider;
+        private ProductSearchEngine searchEngine;
 
         @Mock
         private RankingService rankingService;
@@ -43,20 +52,38 @@ class SearchServiceTest {
         private SearchMetrics searchMetrics;
 
         @Mock
-        private ObjectMapper objectMapper;
+        private InventoryClient inventoryClient;
 
         @Mock
-        private InventoryClient inventoryClient;
+        private SearchResultCache searchResultCache;
+
+        @Mock
+        private QueryAnalytics queryAnalytics;
+
+        @Mock
+        private StoreLocator storeLocator;
+
+        @Mock
+        private ShadowEvaluator shadowEvaluator;
 
         @InjectMocks
         private SearchService searchService;
 
         private SearchRequest searchRequest;
         private ProductDocument productDoc;
-        private SearchResult searchResult;
+        private SearchProperties.Stock stock;
 
         @BeforeEach
         void setUp() {
+                stock = new SearchProperties.Stock();
+                stock.setIndexFilter(true);
+                stock.setVerifySampleRate(0);
+                lenient().when(searchProperties.getStock()).thenReturn(stock);
+                lenient().when(searchMetrics.startTrace()).thenReturn(SearchTrace.noop());
+                // Cache pass-through: caching itself is covered by SearchResultCacheTest
+                lenient().when(searchResultCache.get(anyString(), any(), anyInt(), anyInt(), any()))
+                                .thenAnswer(inv -> inv.<Supplier<Mono<SearchResultCache.CachedPage>>>getArgument(4).get());
+
                 searchRequest = SearchRequest.builder()
                                 .query("milk")
                                 .storeId(1L)
@@ -70,47 +97,18 @@ class SearchServiceTest {
                                 .isActive(true)
                                 .storeIds(List.of(1L))
                                 .build();
-
-                // Create a Mock SearchResult
-                // Note: SearchResult is hard to mock because it's final or has no setters in
-                // SDK.
-                // We might need deep stubbing or real object if possible.
-                // Assuming we can mock it:
-                searchResult = mock(SearchResult.class);
         }
 
         @Test
         void search_shouldReturnResults_whenMeilisearchReturnsHits() {
                 // Arrange
                 // searchProperties.getCandidateLimit() is no longer called in search()
-
-                // Mock Meilisearch response
-                when(meilisearchProvider.search(anyString(), anyLong(), anyInt(), anyInt()))
-                                .thenReturn(Mono.just(searchResult));
-
-                // Mock SearchResult behavior
-                ArrayList<HashMap<String, Object>> hits = new ArrayList<>();
-                HashMap<String, Object> hit = new HashMap<>();
-                hit.put("id", 100);
-                hits.add(hit);
-
-                when(searchResult.getHits()).thenReturn(hits);
-                when(searchResult.getEstimatedTotalHits()).thenReturn(1);
-
-                // ObjectMapper mapping
-                when(objectMapper.convertValue(anyMap(), eq(ProductDocument.class)))
-                                .thenReturn(productDoc);
-
-                // Inventory check
-                AvailabilityResponse availResponse = AvailabilityResponse.builder()
-                                .storeId(1L)
-                                .availability(Map.of(100L, true))
-                                .build();
-                when(inventoryClient.checkAvailability(anyLong(), anyList()))
-                                .thenReturn(Mono.just(availResponse));
+                // Meilisearch response (hits decoded straight into ProductDocument)
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(productDoc)));
 
                 // Ranking
-                when(rankingService.rank(anyList())).thenReturn(List.of(productDoc));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc));
 
                 // Act
                 Mono<SearchResponse> resultMono = searchService.search(searchRequest);
@@ -123,23 +121,20 @@ class SearchServiceTest {
                                                         && response.getMeta().getPage() == 1;
                                 })
                                 .verifyComplete();
+
+                // Stock is filtered inside the index: no live inventory round-trip
+                verifyNoInteractions(inventoryClient);
+                // Served page is offered to the shadow evaluation
+                verify(shadowEvaluator).offer(any(SearchQuery.class), eq(List.of(productDoc)), anyLong());
         }
 
         @Test
-        void search_shouldFilterOutOfStockProducts() {
-                // Arrange
-                when(meilisearchProvider.search(anyString(), anyLong(), anyInt(), anyInt()))
-                                .thenReturn(Mono.just(searchResult));
-
-                ArrayList<HashMap<String, Object>> hits = new ArrayList<>();
-                HashMap<String, Object> hit = new HashMap<>();
-                hit.put("id", 100);
-                hits.add(hit);
-                when(searchResult.getHits()).thenReturn(hits);
-                when(searchResult.getEstimatedTotalHits()).thenReturn(1);
-
-                when(objectMapper.convertValue(anyMap(), eq(ProductDocument.class)))
-                                .thenReturn(productDoc);
+        void search_shouldFilterOutOfStockProducts_whenIndexFilterDisabled() {
+                // Arrange: legacy path (storeIds filter + live post-filter)
+                stock.setIndexFilter(false);
+                // Meilisearch response (hits decoded straight into ProductDocument)
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(productDoc)));
 
                 // Inventory check returns FALSE for this product
                 AvailabilityResponse availResponse = AvailabilityResponse.builder()
@@ -150,7 +145,7 @@ class SearchServiceTest {
                                 .thenReturn(Mono.just(availResponse));
 
                 // Ranking (empty list now)
-                when(rankingService.rank(anyList())).thenReturn(Collections.emptyList());
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(Collections.emptyList());
 
                 // Fallback (return empty for this test to signify simple filter check)
                 when(fallbackService.getFallbackResults(anyString(), anyLong()))
@@ -180,25 +175,11 @@ class SearchServiceTest {
                                 .groupId("amul-taaza-milk")
                                 .build();
 
-                when(meilisearchProvider.search(anyString(), anyLong(), anyInt(), anyInt()))
-                                .thenReturn(Mono.just(searchResult));
+                // Meilisearch response (hits decoded straight into ProductDocument)
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(docWithGroup)));
 
-                ArrayList<HashMap<String, Object>> hits = new ArrayList<>();
-                HashMap<String, Object> hit = new HashMap<>();
-                hit.put("id", 200);
-                hits.add(hit);
-                when(searchResult.getHits()).thenReturn(hits);
-                when(searchResult.getEstimatedTotalHits()).thenReturn(1);
-                when(objectMapper.convertValue(anyMap(), eq(ProductDocument.class)))
-                                .thenReturn(docWithGroup);
-
-                AvailabilityResponse availResponse = AvailabilityResponse.builder()
-                                .storeId(1L)
-                                .availability(Map.of(200L, true))
-                                .build();
-                when(inventoryClient.checkAvailability(anyLong(), anyList()))
-                                .thenReturn(Mono.just(availResponse));
-                when(rankingService.rank(anyList())).thenReturn(List.of(docWithGroup));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(docWithGroup));
 
                 // Act + Assert
                 StepVerifier.create(searchService.search(searchRequest))
@@ -221,25 +202,11 @@ class SearchServiceTest {
                                 .groupId(null)
                                 .build();
 
-                when(meilisearchProvider.search(anyString(), anyLong(), anyInt(), anyInt()))
-                                .thenReturn(Mono.just(searchResult));
-
-                ArrayList<HashMap<String, Object>> hits = new ArrayList<>();
-                HashMap<String, Object> hit = new HashMap<>();
-                hit.put("id", 300);
-                hits.add(hit);
-                when(searchResult.getHits()).thenReturn(hits);
-                when(searchResult.getEstimatedTotalHits()).thenReturn(1);
-                when(objectMapper.convertValue(anyMap(), eq(ProductDocument.class)))
-                                .thenReturn(docWithoutGroup);
+                // Meilisearch response (hits decoded straight into ProductDocument)
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(docWithoutGroup)));
 
-                AvailabilityResponse availResponse = AvailabilityResponse.builder()
-                                .storeId(1L)
-                                .availability(Map.of(300L, true))
-                                .build();
-                when(inventoryClient.checkAvailability(anyLong(), anyList()))
-                                .thenReturn(Mono.just(availResponse));
-                when(rankingService.rank(anyList())).thenReturn(List.of(docWithoutGroup));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(docWithoutGroup));
 
                 // Act + Assert
                 StepVerifier.create(searchService.search(searchRequest))
@@ -261,29 +228,245 @@ class SearchServiceTest {
                                 .pageSize(10)
                                 .build();
 
-                when(meilisearchProvider.search(anyString(), anyLong(), anyInt(), anyInt()))
-                                .thenReturn(Mono.just(searchResult));
+                // Meilisearch response (hits decoded straight into ProductDocument)
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(productDoc)));
 
-                ArrayList<HashMap<String, Object>> hits = new ArrayList<>();
-                HashMap<String, Object> hit = new HashMap<>();
-                hit.put("id", 100);
-                hits.add(hit);
-                when(searchResult.getHits()).thenReturn(hits);
-                when(searchResult.getEstimatedTotalHits()).thenReturn(1);
-                when(objectMapper.convertValue(anyMap(), eq(ProductDocument.class))).thenReturn(productDoc);
-
-                AvailabilityResponse availResponse = AvailabilityResponse.builder()
-                                .storeId(1L)
-                                .availability(Map.of(100L, true))
-                                .build();
-                when(inventoryClient.checkAvailability(anyLong(), anyList()))
-                                .thenReturn(Mono.just(availResponse));
-                when(rankingService.rank(anyList())).thenReturn(List.of(productDoc));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc));
 
                 // Act
                 searchService.search(request).block();
 
                 // Assert: Meilisearch called with preprocessed query (trimmed, lowercased, repeated letters collapsed)
-                verify(meilisearchProvider).search(eq("milkk"), eq(1L), eq(1), eq(10));
+                verify(searchEngine).search(eq("milkk"), eq(1L), eq(1), eq(10));
+        }
+
+        @Test
+        void search_shouldKeepFullPageAndExactTotal_whenStockFilteredInIndex() {
+                // Arrange: Meilisearch already excluded out-of-stock products for this store
+                ProductDocument second = ProductDocument.builder()
+                                .id(101L)
+                                .name("Amul Gold Milk")
+                                .isActive(true)
+                                .storeIds(List.of(1L))
+                                .inStockStoreIds(List.of(1L))
+                                .build();
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(ProductSearchResult.builder()
+                                                .hits(List.of(productDoc, second))
+                                                .estimatedTotalHits(42)
+                                                .build()));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc, second));
+
+                // Act + Assert: page is not shortened and the total is not the unfiltered count
+                StepVerifier.create(searchService.search(searchRequest))
+                                .expectNextMatches(response -> response.getResults().size() == 2
+                                                && response.getMeta().getTotalHits() == 42
+                                                && response.getMeta().getTotalPages() == 5)
+                                .verifyComplete();
+
+                verifyNoInteractions(inventoryClient, fallbackService);
+        }
+
+        @Test
+        void search_shouldOnlyRecordStaleHits_whenSampledForVerification() {
+                // Arrange: every page sampled; live inventory disagrees with the index
+                stock.setVerifySampleRate(1.0);
+                when(searchEngine.search(anyString(), anyLong(), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(productDoc)));
+                when(inventoryClient.checkAvailability(1L, List.of(100L)))
+                                .thenReturn(Mono.just(AvailabilityResponse.builder()
+                                                .storeId(1L)
+                                                .availability(Map.of(100L, false))
+                                                .build()));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc));
+
+                // Act + Assert: the response is served from the index as-is
+                StepVerifier.create(searchService.search(searchRequest))
+                                .expectNextMatches(response -> response.getResults().size() == 1)
+                                .verifyComplete();
+
+                verify(searchMetrics).recordStockVerification(1, 1);
+        }
+
+        @Test
+        void search_shouldReturnFacetsAndSkipCache_whenFacetsRequested() {
+                // Arrange: brand filter + facets in one engine call
+                searchRequest.setFilters(SearchFilters.builder().brands(List.of("Amul")).build());
+                searchRequest.setIncludeFacets(true);
+                ProductSearchResult faceted = result(productDoc);
+                faceted.setFacetDistribution(Map.of(
+                                "brand", Map.of("Amul", 1),
+                                "priceBucket", Map.of("50-100", 1, "0-50", 3),
+                                "isBestseller", Map.of("true", 1, "false", 3)));
+                faceted.setFacetStats(Map.of("price", new ProductSearchResult.FacetStats(12.0, 56.0)));
+                when(searchEngine.search(any(SearchQuery.class))).thenReturn(Mono.just(faceted));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc));
+
+                // Act + Assert
+                StepVerifier.create(searchService.search(searchRequest))
+                                .assertNext(response -> {
+                                        SearchResponse.Facets facets = response.getFacets();
+                                        assertThat(facets.getBrands())
+                                                        .extracting(SearchResponse.FacetValue::getValue)
+                                                        .containsExactly("Amul");
+                                        assertThat(facets.getPriceBuckets())
+                                                        .extracting(SearchResponse.FacetValue::getValue)
+                                                        .containsExactly("0-50", "50-100");
+                                        assertThat(facets.getBestsellers())
+                                                        .isEqualTo(1);
+                                        assertThat(facets.getMaxPrice())
+                                                        .isEqualTo(56.0);
+                                })
+                                .verifyComplete();
+
+                verify(searchEngine).search(argThat((SearchQuery query) -> query.facets()
+                                && query.filters().getBrands().equals(List.of("Amul"))));
+                verifyNoInteractions(searchResultCache);
+        }
+
+        @Test
+        void search_shouldNotFallBack_whenFiltersMatchNothing() {
+                searchRequest.setFilters(SearchFilters.builder().bestseller(true).build());
+                when(searchEngine.search(any(SearchQuery.class))).thenReturn(Mono.just(result()));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of());
+
+                StepVerifier.create(searchService.search(searchRequest))
+                                .expectNextMatches(response -> response.getResults().isEmpty()
+                                                && response.getFacets() == null)
+                                .verifyComplete();
+
+                verifyNoInteractions(fallbackService);
+                verify(queryAnalytics).recordSearch(eq("milk"), eq(1L), eq(0), anyLong(), eq(true));
+        }
+
+        @Test
+        void multiSearch_shouldCheckAvailabilityOnce_acrossAllQueries() {
+                stock.setIndexFilter(false);
+                ProductDocument outOfStock = ProductDocument.builder().id(200L).name("Amul Butter").build();
+                when(searchEngine.multiSearch(anyList()))
+                                .thenReturn(Mono.just(List.of(result(productDoc), result(productDoc, outOfStock))));
+                when(inventoryClient.checkAvailability(anyLong(), anyList()))
+                                .thenReturn(Mono.just(AvailabilityResponse.builder()
+                                                .storeId(1L)
+                                                .availability(Map.of(100L, true, 200L, false))
+                                                .build()));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenAnswer(inv -> inv.getArgument(0));
+
+                StepVerifier.create(searchService.multiSearch(multiSearchRequest("milk", "dairy")))
+                                .assertNext(response -> {
+                                        assertThat(response.getResults()).hasSize(2);
+                                        assertThat(response.getResults().get(0).getQuery()).isEqualTo("milk");
+                                        assertThat(response.getResults().get(1).getQuery()).isEqualTo("dairy");
+                                        assertThat(response.getResults().get(1).getResults())
+                                                        .extracting(ProductResult::getProductId)
+                                                        .containsExactly(100L);
+                                })
+                                .verifyComplete();
+
+                verify(searchEngine).multiSearch(argThat(queries -> queries.size() == 2
+                                && queries.get(0).query().equals("milk")));
+                verify(inventoryClient).checkAvailability(1L, List.of(100L, 200L));
+                verify(rankingService, times(2)).rank(anyList());
+                verifyNoInteractions(searchResultCache);
+        }
+
+        @Test
+        void multiSearch_shouldFallBackOnlyForQueriesThatAskForIt() {
+                when(searchEngine.multiSearch(anyList())).thenReturn(Mono.just(List.of(result(), result())));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of());
+                when(fallbackService.getFallbackResults("milk", 1L)).thenReturn(Mono.just(List.of(productDoc)));
+                MultiSearchRequest request = multiSearchRequest("milk", "dairy");
+                request.getQueries().get(0).setFallback(true);
+
+                StepVerifier.create(searchService.multiSearch(request))
+                                .assertNext(response -> {
+                                        assertThat(response.getResults().get(0).getResults()).hasSize(1);
+                                        assertThat(response.getResults().get(1).getResults()).isEmpty();
+                                })
+                                .verifyComplete();
+
+                verify(fallbackService, times(1)).getFallbackResults(anyString(), anyLong());
+        }
+
+        @Test
+        void search_shouldResolveServingStore_fromCoordinates() {
+                when(searchProperties.getGeo()).thenReturn(new SearchProperties.Geo());
+                when(storeLocator.isLoaded()).thenReturn(true);
+                when(storeLocator.covering(eq(12.97), eq(77.59), anyInt()))
+                                .thenReturn(List.of(new StoreLocator.StoreMatch(7L, 1.4)));
+                when(searchEngine.search(anyString(), eq(7L), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result(productDoc)));
+                when(rankingService.rank(anyList(), any(), anyInt())).thenReturn(List.of(productDoc));
+
+                StepVerifier.create(searchService.search(locatedRequest(false)))
+                                .assertNext(response -> {
+                                        assertThat(response.getStoreId()).isEqualTo(7L);
+                                        assertThat(response.getStoreIds()).isNull();
+                                        assertThat(response.getResults()).hasSize(1);
+                                })
+                                .verifyComplete();
+        }
+
+        @Test
+        void search_shouldSearchCoveringStores_whenServingStoreIsThin() {
+                when(searchProperties.getGeo()).thenReturn(new SearchProperties.Geo());
+                when(storeLocator.isLoaded()).thenReturn(true);
+                when(storeLocator.covering(eq(12.97), eq(77.59), anyInt())).thenReturn(List.of(
+                                new StoreLocator.StoreMatch(7L, 1.4), new StoreLocator.StoreMatch(8L, 2.9)));
+                when(searchEngine.search(anyString(), eq(7L), anyInt(), anyInt()))
+                                .thenReturn(Mono.just(result()));
+                when(fallbackService.getFallbackResults("milk", 7L)).thenReturn(Mono.just(List.of()));
+                when(searchEngine.search(any(SearchQuery.class))).thenReturn(Mono.just(result(productDoc)));
+                when(rankingService.rank(anyList(), any(), anyInt()))
+                                .thenAnswer(inv -> inv.<List<ProductDocument>>getArgument(0));
+
+                StepVerifier.create(searchService.search(locatedRequest(true)))
+                                .assertNext(response -> {
+                                        assertThat(response.getStoreId()).isEqualTo(7L);
+                                        assertThat(response.getStoreIds()).containsExactly(7L, 8L);
+                                        assertThat(response.getResults()).hasSize(1);
+                                })
+                                .verifyComplete();
+
+                verify(searchEngine).search(argThat((SearchQuery query) -> query.storeIds().equals(List.of(7L, 8L))));
+        }
+
+        @Test
+        void search_shouldReject_whenNeitherStoreNorCoordinatesGiven() {
+                searchRequest.setStoreId(null);
+
+                StepVerifier.create(searchService.search(searchRequest))
+                                .expectError(InvalidRequestException.class)
+                                .verify();
+
+                verifyNoInteractions(searchEngine);
+        }
+
+        private static SearchRequest locatedRequest(boolean includeNearbyStores) {
+                return SearchRequest.builder()
+                                .query("milk")
+                                .latitude(12.97)
+                                .longitude(77.59)
+                                .includeNearbyStores(includeNearbyStores)
+                                .page(1)
+                                .pageSize(10)
+                                .build();
+        }
+
+        private static MultiSearchRequest multiSearchRequest(String... queries) {
+                return MultiSearchRequest.builder()
+                                .storeId(1L)
+                                .queries(Arrays.stream(queries)
+                                                .map(query -> MultiSearchRequest.Query.builder().query(query).build())
+                                                .collect(java.util.stream.Collectors.toList()))
+                                .build();
+        }
+
+        private static ProductSearchResult result(ProductDocument... hits) {
+                return ProductSearchResult.builder()
+                                .hits(List.of(hits))
+                                .estimatedTotalHits(hits.length)
+                                .build();
         }
 }
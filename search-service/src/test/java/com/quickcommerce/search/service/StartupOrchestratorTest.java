@@ -0,0 +1,142 @@
+package com.quickcommerce.search.service;
+
+import com.meilisearch.sdk.model.TaskInfo;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.health.SearchReadinessHealthIndicator;
+import com.quickcommerce.search.health.SyncHealthIndicator;
+import com.quickcommerce.search.provider.MeilisearchProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StartupOrchestrator: warm start serves right away, cold start serves from the snapshot or
+ * only after the initial sync.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class StartupOrchestratorTest {
+
+    @Mock
+    private MeilisearchProvider meilisearchProvider;
+
+    @Mock
+    private SearchConfigurationService configurationService;
+
+    @Mock
+    private IndexSyncService indexSyncService;
+
+    private final SyncHealthIndicator syncHealthIndicator = new SyncHealthIndicator();
+    private final SearchReadinessHealthIndicator searchReadiness = new SearchReadinessHealthIndicator();
+    private final SearchProperties searchProperties = new SearchProperties();
+    private StartupOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        searchProperties.getSync().setRetryDelayMs(1);
+        searchProperties.getSync().setMaxRetryDelayMs(1);
+        orchestrator = new StartupOrchestrator(meilisearchProvider, configurationService, indexSyncService,
+                searchProperties, syncHealthIndicator, searchReadiness);
+        when(meilisearchProvider.getIndexName()).thenReturn("products");
+    }
+
+    @Test
+    @DisplayName("a populated index with current settings serves before the background sync finishes")
+    void warmStartServesImmediately() {
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.just(1200L));
+        when(configurationService.isLiveConfigurationCurrent()).thenReturn(Mono.just(true));
+        when(indexSyncService.restoreFromSnapshot(false)).thenReturn(Mono.just(1200));
+        when(indexSyncService.syncAllProducts()).thenReturn(Mono.never());
+
+        StepVerifier.create(orchestrator.initialize()).verifyComplete();
+
+        assertThat(searchReadiness.isServing()).isTrue();
+        verify(configurationService, never()).publishConfiguration();
+        verify(indexSyncService).syncAllProducts();
+        assertThat(syncHealthIndicator.getCurrentStatus().state()).isEqualTo(SyncHealthIndicator.SyncState.IN_PROGRESS);
+    }
+
+    @Test
+    @DisplayName("stale settings on a populated index are applied before serving")
+    void warmStartPublishesStaleSettings() {
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.just(1200L));
+        when(configurationService.isLiveConfigurationCurrent()).thenReturn(Mono.just(false));
+        TaskInfo task = mock(TaskInfo.class);
+        when(task.getTaskUid()).thenReturn(9);
+        when(configurationService.publishConfiguration()).thenReturn(Mono.just(task));
+        when(meilisearchProvider.awaitTask(anyInt(), any())).thenReturn(Mono.empty());
+        when(indexSyncService.restoreFromSnapshot(false)).thenReturn(Mono.just(0));
+        when(indexSyncService.syncAllProducts()).thenReturn(Mono.never());
+
+        StepVerifier.create(orchestrator.initialize()).verifyComplete();
+
+        verify(meilisearchProvider).awaitTask(anyInt(), any());
+        assertThat(searchReadiness.isServing()).isTrue();
+    }
+
+    @Test
+    @DisplayName("a missing index is created and refilled from the snapshot before serving")
+    void coldStartRestoresSnapshot() {
+        TaskInfo task = mock(TaskInfo.class);
+        RuntimeException notFound = new RuntimeException("index_not_found");
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.error(notFound));
+        when(meilisearchProvider.isIndexNotFound(notFound)).thenReturn(true);
+        when(meilisearchProvider.createIndex("products")).thenReturn(Mono.just(task));
+        when(meilisearchProvider.awaitTask(anyInt(), any())).thenReturn(Mono.empty());
+        when(configurationService.publishConfiguration()).thenReturn(Mono.just(task));
+        when(indexSyncService.restoreFromSnapshot(true)).thenReturn(Mono.just(1200));
+        when(indexSyncService.syncAllProducts()).thenReturn(Mono.never());
+
+        StepVerifier.create(orchestrator.initialize()).verifyComplete();
+
+        assertThat(searchReadiness.isServing()).isTrue();
+        verify(indexSyncService).syncAllProducts();
+    }
+
+    @Test
+    @DisplayName("an unreachable Meilisearch is retried instead of being treated as a missing index")
+    void transientFailureIsRetried() {
+        RuntimeException unreachable = new RuntimeException("Connection refused");
+        when(meilisearchProvider.countDocuments("products"))
+                .thenReturn(Mono.error(unreachable), Mono.just(1200L));
+        when(meilisearchProvider.isIndexNotFound(unreachable)).thenReturn(false);
+        when(configurationService.isLiveConfigurationCurrent()).thenReturn(Mono.just(true));
+        when(indexSyncService.restoreFromSnapshot(false)).thenReturn(Mono.just(0));
+        when(indexSyncService.syncAllProducts()).thenReturn(Mono.never());
+
+        StepVerifier.create(orchestrator.initialize()).verifyComplete();
+
+        verify(meilisearchProvider, never()).createIndex(any());
+        assertThat(searchReadiness.isServing()).isTrue();
+    }
+
+    @Test
+    @DisplayName("an empty index without snapshot stays unready when the initial sync fails")
+    void coldStartWaitsForInitialSync() {
+        searchProperties.getSync().setStartupMaxRetries(0);
+        TaskInfo task = mock(TaskInfo.class);
+        when(meilisearchProvider.countDocuments("products")).thenReturn(Mono.just(0L));
+        when(meilisearchProvider.awaitTask(anyInt(), any())).thenReturn(Mono.empty());
+        when(configurationService.publishConfiguration()).thenReturn(Mono.just(task));
+        when(indexSyncService.restoreFromSnapshot(true)).thenReturn(Mono.just(0));
+        when(indexSyncService.syncAllProducts()).thenReturn(Mono.error(new IllegalStateException("catalog down")));
+
+        orchestrator.initializeSearchService();
+
+        assertThat(searchReadiness.isServing()).isFalse();
+        assertThat(syncHealthIndicator.getCurrentStatus().state()).isEqualTo(SyncHealthIndicator.SyncState.FAILED);
+    }
+}
@@ -0,0 +1,106 @@
+package com.quickcommerce.search.service;
+
+import com.quickcommerce.search.client.InventoryClient;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.StoreLocationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StoreLocator: serving store and covering stores by distance and radius, agreement with a
+ * full scan, and keeping the previous locations when a reload fails.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class StoreLocatorTest {
+
+    @Mock
+    private InventoryClient inventoryClient;
+
+    private StoreLocator storeLocator;
+
+    @BeforeEach
+    void setUp() {
+        storeLocator = new StoreLocator(inventoryClient, new SearchProperties());
+    }
+
+    @Test
+    @DisplayName("the nearest store whose radius covers the location serves it; others follow by distance")
+    void coveringStoresNearestFirst() {
+        storeLocator.replace(List.of(
+                store(1L, 12.9716, 77.5946, 5),    // ~0 km
+                store(2L, 12.9352, 77.6245, 10),   // ~5.2 km
+                store(3L, 12.9698, 77.7500, 3),    // ~16.9 km, radius too small
+                store(4L, 13.0358, 77.5970, 8)));  // ~7.1 km
+
+        assertThat(storeLocator.covering(12.9716, 77.5946, 10))
+                .extracting(StoreLocator.StoreMatch::storeId)
+                .containsExactly(1L, 2L, 4L);
+        assertThat(storeLocator.covering(12.9716, 77.5946, 2))
+                .extracting(StoreLocator.StoreMatch::storeId)
+                .containsExactly(1L, 2L);
+        assertThat(storeLocator.covering(28.6139, 77.2090, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("latitude band pruning finds the same stores as a full scan")
+    void matchesFullScan() {
+        Random random = new Random(11);
+        List<StoreLocationDto> stores = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            stores.add(store(id, 12.5 + random.nextDouble(), 77.0 + random.nextDouble(), 1 + random.nextInt(8)));
+        }
+        storeLocator.replace(stores);
+
+        for (int round = 0; round < 200; round++) {
+            double latitude = 12.4 + random.nextDouble() * 1.2;
+            double longitude = 76.9 + random.nextDouble() * 1.2;
+            List<Long> expected = stores.stream()
+                    .filter(s -> StoreLocator.distanceKm(latitude, longitude, s.getLatitude(), s.getLongitude())
+                            <= s.getServiceableRadiusKm())
+                    .sorted(Comparator.comparingDouble(
+                            s -> StoreLocator.distanceKm(latitude, longitude, s.getLatitude(), s.getLongitude())))
+                    .map(StoreLocationDto::getId)
+                    .toList();
+
+            assertThat(storeLocator.covering(latitude, longitude, Integer.MAX_VALUE))
+                    .extracting(StoreLocator.StoreMatch::storeId)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("a failed reload keeps the previous store locations")
+    void keepsLocationsOnFailedReload() {
+        when(inventoryClient.getStoreLocations())
+                .thenReturn(Mono.just(List.of(store(1L, 12.9716, 77.5946, 5))))
+                .thenReturn(Mono.error(new IllegalStateException("product-service down")));
+
+        assertThat(storeLocator.isLoaded()).isFalse();
+        StepVerifier.create(storeLocator.load()).verifyComplete();
+        StepVerifier.create(storeLocator.load()).verifyError(IllegalStateException.class);
+
+        assertThat(storeLocator.isLoaded()).isTrue();
+        assertThat(storeLocator.covering(12.9716, 77.5946, 1))
+                .extracting(StoreLocator.StoreMatch::storeId)
+                .containsExactly(1L);
+    }
+
+    private static StoreLocationDto store(Long id, double latitude, double longitude, int radiusKm) {
+        return new StoreLocationDto(id, "Store " + id, latitude, longitude, radiusKm);
+    }
+}
@@ -0,0 +1,140 @@
+package com.quickcommerce.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quickcommerce.search.analytics.QueryAnalytics;
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.SuggestResponse;
+import com.quickcommerce.search.entity.SearchSynonym;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.repository.SearchSynonymRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for SuggestIndex: prefix matching, popularity ranking, store scoping and incremental updates.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class SuggestIndexTest {
+
+    @Mock
+    private SearchSynonymRepository synonymRepository;
+
+    @Mock
+    private QueryAnalytics queryAnalytics;
+
+    private SuggestIndex suggestIndex;
+
+    @BeforeEach
+    void setUp() {
+        SearchProperties searchProperties = new SearchProperties();
+        searchProperties.getStock().setIndexFilter(true);
+        suggestIndex = new SuggestIndex(synonymRepository, queryAnalytics, searchProperties, new ObjectMapper());
+        lenient().when(synonymRepository.findAllByIsActiveTrue()).thenReturn(Flux.empty());
+
+        SuggestIndex.Rebuild rebuild = new SuggestIndex.Rebuild();
+        rebuild.addAll(List.of(
+                product(1L, "Amul Gold Milk", "Amul", "Dairy", 50, List.of(1L, 2L)),
+                product(2L, "Mother Dairy Milk", "Mother Dairy", "Dairy", 200, List.of(1L)),
+                product(3L, "Milky Mist Paneer", "Milky Mist", "Dairy", 10, List.of(2L)),
+                product(4L, "Maggi Noodles", "Nestle", "Instant Food", 500, List.of())));
+        suggestIndex.replaceProducts(rebuild);
+    }
+
+    @Test
+    @DisplayName("terms sharing the prefix are ranked by popularity and match at word boundaries")
+    void ranksByPopularity() {
+        rebuild();
+
+        assertThat(texts("mil", null, 10))
+                .containsExactly("Mother Dairy Milk", "Amul Gold Milk", "Milky Mist", "Milky Mist Paneer");
+        assertThat(texts("GOLD", null, 10)).containsExactly("Amul Gold Milk");
+        assertThat(texts("d", null, 1)).containsExactly("Dairy");
+    }
+
+    @Test
+    @DisplayName("product terms are only suggested in stores that have the product in stock")
+    void scopesToStore() {
+        rebuild();
+
+        assertThat(texts("mil", 1L, 10)).containsExactly("Mother Dairy Milk", "Amul Gold Milk");
+        assertThat(texts("mil", 2L, 10)).containsExactly("Amul Gold Milk", "Milky Mist", "Milky Mist Paneer");
+        // out of stock everywhere
+        assertThat(texts("ma", null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("synonyms are suggested in every store, successful queries only where they were searched")
+    void includesSynonymsAndQueries() {
+        lenient().when(synonymRepository.findAllByIsActiveTrue()).thenReturn(Flux.just(SearchSynonym.builder()
+                .term("doodh").synonymsJson("[\"milk\"]").build()));
+        when(queryAnalytics.queriesWithResults(anyInt())).thenReturn(List.of(
+                new QueryAnalytics.QueryHits("milk bread", 100, new long[]{1L}),
+                new QueryAnalytics.QueryHits("mi", 500, new long[]{1L}))); // too short to suggest
+        rebuild();
+
+        List<SuggestResponse.Suggestion> store1 = suggestIndex.suggest("mi", 1L, 10);
+        assertThat(store1).extracting(SuggestResponse.Suggestion::getText)
+                .containsExactly("Mother Dairy Milk", "milk bread", "Amul Gold Milk", "milk");
+        assertThat(store1.get(1).getType()).isEqualTo("query");
+        assertThat(store1.get(3).getType()).isEqualTo("synonym");
+        assertThat(texts("doo", 2L, 10)).containsExactly("doodh");
+        assertThat(texts("milk b", 2L, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("incremental partial documents update names and stock without a full sync")
+    void appliesPartials() {
+        Map<String, Object> renamed = new HashMap<>();
+        renamed.put("id", 1);
+        renamed.put("name", "Amul Taaza Milk");
+        renamed.put("orderCount", 50);
+        Map<String, Object> restocked = Map.of("id", 4, "storeIds", List.of(1), "inStockStoreIds", List.of(1));
+        Map<String, Object> soldOut = Map.of("id", 2, "storeIds", List.of(1), "inStockStoreIds", List.of());
+
+        suggestIndex.applyPartials(List.of(renamed, restocked, soldOut));
+        rebuild();
+
+        assertThat(texts("amul", 1L, 10)).containsExactly("Amul", "Amul Taaza Milk");
+        assertThat(texts("mother", 1L, 10)).isEmpty();
+        assertThat(texts("ma", 1L, 10)).containsExactly("Maggi Noodles");
+    }
+
+    private void rebuild() {
+        suggestIndex.rebuildSnapshot().block();
+    }
+
+    private List<String> texts(String prefix, Long storeId, int limit) {
+        return suggestIndex.suggest(prefix, storeId, limit).stream()
+                .map(SuggestResponse.Suggestion::getText)
+                .toList();
+    }
+
+    private static ProductDocument product(Long id, String name, String brand, String category, int orderCount,
+                                           List<Long> inStockStoreIds) {
+        return ProductDocument.builder()
+                .id(id)
+                .name(name)
+                .brand(brand)
+                .categoryName(category)
+                .orderCount(orderCount)
+                .isActive(true)
+                .storeIds(List.of(1L, 2L))
+                .inStockStoreIds(inStockStoreIds)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.quickcommerce.search.shadow;
+
+import com.quickcommerce.search.config.SearchProperties;
+import com.quickcommerce.search.dto.ShadowReport;
+import com.quickcommerce.search.metrics.SearchMetrics;
+import com.quickcommerce.search.model.ProductDocument;
+import com.quickcommerce.search.provider.LuceneSearchEngine;
+import com.quickcommerce.search.provider.SearchQuery;
+import com.quickcommerce.search.provider.WebClientSearchEngine;
+import com.quickcommerce.search.ranking.BestsellerFeature;
+import com.quickcommerce.search.ranking.OrderCountFeature;
+import com.quickcommerce.search.ranking.SearchPriorityFeature;
+import com.quickcommerce.search.service.RankingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ShadowEvaluator and RankComparison: overlap and rank correlation, candidate ranking weights,
+ * load-shedding and failed replays.
+ * No Docker / Meilisearch required.
+ */
+@ExtendWith(MockitoExtension.class)
+class ShadowEvaluatorTest {
+
+    private static final SearchQuery QUERY = new SearchQuery("milk", 1L, 1, 10, null, null, false);
+
+    @Mock
+    private SearchMetrics searchMetrics;
+
+    @Mock
+    private RankingService rankingService;
+
+    @Mock
+    private LuceneSearchEngine standby;
+
+    @Mock
+    private ObjectProvider<WebClientSearchEngine> webClientSearchEngine;
+
+    private SearchProperties props;
+    private ShadowEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        props = new SearchProperties();
+        props.getShadow().setEnabled(true);
+        props.getShadow().setSampleRate(1.0);
+        props.getShadow().setMaxConcurrent(1);
+        evaluator = new ShadowEvaluator(props, searchMetrics, rankingService, standby, webClientSearchEngine,
+                List.of(new OrderCountFeature(), new SearchPriorityFeature(), new BestsellerFeature()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        evaluator.shutdown();
+    }
+
+    @Test
+    @DisplayName("overlap counts shared top-N results, Kendall tau their relative order")
+    void rankComparison() {
+        assertThat(RankComparison.of(List.of(1L, 2L, 3L), List.of(1L, 2L, 3L), 10))
+                .isEqualTo(new RankComparison(1.0, 1.0, 3));
+        assertThat(RankComparison.of(List.of(1L, 2L, 3L), List.of(3L, 2L, 1L), 10))
+                .isEqualTo(new RankComparison(1.0, -1.0, 3));
+        assertThat(RankComparison.of(List.of(1L, 2L), List.of(3L, 4L), 10))
+                .isEqualTo(new RankComparison(0.0, null, 0));
+        assertThat(RankComparison.of(List.of(1L, 2L, 3L, 4L), List.of(2L, 1L, 3L, 9L), 10))
+                .isEqualTo(new RankComparison(0.75, 1.0 / 3, 3));
+        assertThat(RankComparison.of(List.of(1L, 2L, 3L), List.of(1L, 2L, 4L), 2))
+                .isEqualTo(new RankComparison(1.0, 1.0, 2));
+        assertThat(RankComparison.of(List.of(), List.of(), 10)).isEqualTo(new RankComparison(1.0, null, 0));
+    }
+
+    @Test
+    @DisplayName("candidate ranking weights re-rank the served hits off the response path")
+    void comparesCandidateRanking() {
+        props.getShadow().getRanking().setRelevanceWeight(0.0);
+        props.getShadow().getRanking().setBusinessWeight(1.0);
+        ProductDocument rarelyOrdered = product(1L, 0);
+        ProductDocument oftenOrdered = product(2L, 500);
+
+        evaluator.offer(QUERY, List.of(rarelyOrdered, oftenOrdered), 12);
+
+        ShadowReport report = awaitReport(r -> r.getCompared() == 1);
+        assertThat(report.getMeanOverlap()).isEqualTo(1.0);
+        assertThat(report.getMeanRankCorrelation()).isEqualTo(-1.0);
+        assertThat(report.getDivergent()).singleElement().satisfies(comparison -> {
+            assertThat(comparison.getLiveIds()).containsExactly(1L, 2L);
+            assertThat(comparison.getShadowIds()).containsExactly(2L, 1L);
+            assertThat(comparison.getLiveMs()).isEqualTo(12L);
+        });
+        verify(searchMetrics).recordShadowComparison(eq("ranking"), eq(1.0), eq(-1.0), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("samples beyond max-concurrent replays in flight are shed")
+    void shedsUnderLoad() {
+        props.getShadow().setTarget(ShadowEvaluator.LUCENE);
+        when(standby.search(any(SearchQuery.class))).thenReturn(Mono.never());
+
+        evaluator.offer(QUERY, List.of(product(1L, 0)), 5);
+        evaluator.offer(QUERY, List.of(product(1L, 0)), 5);
+
+        assertThat(evaluator.report(10).getShed()).isEqualTo(1);
+        verify(searchMetrics).recordShadow("lucene", "shed");
+    }
+
+    @Test
+    @DisplayName("a replay that cannot run is counted as failed and compares nothing")
+    void countsFailedReplays() {
+        props.getShadow().setTarget(ShadowEvaluator.INDEX);
+        when(webClientSearchEngine.getIfAvailable()).thenReturn(null);
+
+        evaluator.offer(QUERY, List.of(product(1L, 0)), 5);
+
+        ShadowReport report = awaitReport(r -> r.getFailed() == 1);
+        assertThat(report.getCompared()).isZero();
+        assertThat(report.getMeanOverlap()).isNull();
+        verify(searchMetrics, never()).recordShadowComparison(any(), anyDouble(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("nothing is replayed while shadow evaluation is disabled")
+    void disabled() {
+        props.getShadow().setEnabled(false);
+
+        evaluator.offer(QUERY, List.of(product(1L, 0)), 5);
+
+        assertThat(evaluator.report(10).getCompared()).isZero();
+        verify(searchMetrics, never()).recordShadow(any(), any());
+    }
+
+    private ShadowReport awaitReport(Predicate<ShadowReport> condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        ShadowReport report = evaluator.report(10);
+        while (!condition.test(report) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            report = evaluator.report(10);
+        }
+        assertThat(condition.test(report)).as("shadow report %s", report).isTrue();
+        return report;
+    }
+
+    private static ProductDocument product(Long id, int orderCount) {
+        return ProductDocument.builder()
+                .id(id)
+                .rankingScore(0.5)
+                .orderCount(orderCount)
+                .searchPriority(0)
+                .isBestseller(false)
+                .build();
+    }
+}